@@ -0,0 +1,83 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.docker.client;
+
+import com.github.cafapi.docker_versions.plugins.HttpConfiguration;
+import com.github.dockerjava.core.DockerClientConfig;
+import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
+import com.github.dockerjava.transport.DockerHttpClient;
+import com.github.dockerjava.zerodep.ZerodepDockerHttpClient;
+
+import java.time.Duration;
+
+/**
+ * Creates the http client used to talk to the Docker daemon with the transport set in the http configuration.
+ * <p>
+ * Each transport is created by its own class, so that only the classes of the selected transport are loaded.
+ */
+final class DockerHttpClientFactory
+{
+    static final String HTTPCLIENT5_TRANSPORT = "httpclient5";
+    static final String ZERODEP_TRANSPORT = "zerodep";
+
+    private DockerHttpClientFactory()
+    {
+    }
+
+    public static void validateTransport(final String transport)
+    {
+        if (!HTTPCLIENT5_TRANSPORT.equals(transport) && !ZERODEP_TRANSPORT.equals(transport)) {
+            throw new IllegalArgumentException(
+                "Unknown Docker transport '" + transport + "', expected '" + HTTPCLIENT5_TRANSPORT + "' or '" + ZERODEP_TRANSPORT + "'");
+        }
+    }
+
+    public static DockerHttpClient create(final DockerClientConfig config, final HttpConfiguration httpConfig)
+    {
+        validateTransport(httpConfig.getTransport());
+        return ZERODEP_TRANSPORT.equals(httpConfig.getTransport())
+            ? ZerodepTransport.create(config, httpConfig)
+            : Httpclient5Transport.create(config, httpConfig);
+    }
+
+    private static final class Httpclient5Transport
+    {
+        public static DockerHttpClient create(final DockerClientConfig config, final HttpConfiguration httpConfig)
+        {
+            return new ApacheDockerHttpClient.Builder()
+                .dockerHost(config.getDockerHost())
+                .sslConfig(config.getSSLConfig())
+                .connectionTimeout(Duration.ofSeconds(httpConfig.getConnectionTimout()))
+                .responseTimeout(Duration.ofSeconds(httpConfig.getResponseTimout()))
+                .maxConnections(httpConfig.getMaxConnections())
+                .build();
+        }
+    }
+
+    private static final class ZerodepTransport
+    {
+        public static DockerHttpClient create(final DockerClientConfig config, final HttpConfiguration httpConfig)
+        {
+            return new ZerodepDockerHttpClient.Builder()
+                .dockerHost(config.getDockerHost())
+                .sslConfig(config.getSSLConfig())
+                .connectionTimeout(Duration.ofSeconds(httpConfig.getConnectionTimout()))
+                .responseTimeout(Duration.ofSeconds(httpConfig.getResponseTimout()))
+                .maxConnections(httpConfig.getMaxConnections())
+                .build();
+        }
+    }
+}
@@ -0,0 +1,404 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.docker.client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.hc.client5.http.classic.methods.HttpDelete;
+import org.apache.hc.client5.http.classic.methods.HttpGet;
+import org.apache.hc.client5.http.classic.methods.HttpHead;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.classic.methods.HttpPut;
+import org.apache.hc.client5.http.classic.methods.HttpUriRequestBase;
+import org.apache.hc.client5.http.impl.DefaultRedirectStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.Header;
+import org.apache.hc.core5.http.HttpHeaders;
+import org.apache.hc.core5.http.HttpStatus;
+import org.apache.hc.core5.http.io.HttpClientResponseHandler;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.apache.hc.core5.http.io.entity.InputStreamEntity;
+import org.apache.hc.core5.net.URIBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Copies images between repositories using the registry API, without pulling them through the Docker daemon.
+ * <p>
+ * Layers are mounted from the source repository when both repositories are in the same registry, so no layer data is transferred.
+ * Otherwise the layers that are missing from the target registry are streamed from the source registry to the target registry.
+ */
+public final class DockerRegistryCopyClient implements AutoCloseable
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(DockerRegistryCopyClient.class);
+
+    private static final String MANIFEST_MEDIA_TYPES = String.join(", ", Arrays.asList(
+        "application/vnd.oci.image.index.v1+json",
+        "application/vnd.oci.image.manifest.v1+json",
+        "application/vnd.docker.distribution.manifest.list.v2+json",
+        "application/vnd.docker.distribution.manifest.v2+json"));
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final CloseableHttpClient httpClient;
+
+    public DockerRegistryCopyClient()
+    {
+        this.httpClient = HttpClients.custom().setRedirectStrategy(new DefaultRedirectStrategy()).build();
+    }
+
+    /**
+     * Copies an image, including every platform of a multi-platform image.
+     *
+     * @param source the image to copy
+     * @param target the repository and tag to copy the image to
+     * @return the digest of the copied manifest
+     * @throws ImageNotFoundException if the source image is not found
+     * @throws DockerRegistryException if the image could not be copied
+     */
+    public String copyImage(final RegistryImage source, final RegistryImage target)
+        throws DockerRegistryException, ImageNotFoundException
+    {
+        LOGGER.debug("Copying image {} to {}...", source, target);
+        final boolean sameRegistry = DockerRegistryRestClient.getRegistryName(source.getRegistry())
+            .equals(DockerRegistryRestClient.getRegistryName(target.getRegistry()));
+
+        final List<String> targetScopes = new ArrayList<>();
+        targetScopes.add("repository:" + target.getRepository() + ":pull,push");
+        if (sameRegistry) {
+            // Layers can only be mounted from repositories the token allows pulling from
+            targetScopes.add("repository:" + source.getRepository() + ":pull");
+        }
+
+        final Copy copy = new Copy(
+            new Endpoint(source, Collections.singletonList("repository:" + source.getRepository() + ":pull")),
+            new Endpoint(target, targetScopes),
+            sameRegistry);
+
+        final String digest = copy.copyManifest(source.getReference(), target.getReference());
+        LOGGER.info("Copied image {} to {} with digest {}", source, target, digest);
+        return digest;
+    }
+
+    /**
+     * Gets the digest of the manifest an image tag refers to.
+     *
+     * @param image the image
+     * @return the digest, or empty if the image is not found
+     * @throws DockerRegistryException if the digest could not be determined
+     */
+    public Optional<String> getDigest(final RegistryImage image) throws DockerRegistryException
+    {
+        final Endpoint endpoint = new Endpoint(image, Collections.singletonList("repository:" + image.getRepository() + ":pull"));
+        return getDigest(endpoint, image);
+    }
+
+    /**
+     * Deletes the manifest an image tag refers to, provided that it is still the expected manifest.
+     * <p>
+     * Manifests can only be deleted by digest, which also removes any other tag of the repository that refers to the same manifest,
+     * so a tag that has since been pointed at a different manifest, for example by another build copying an image to the same
+     * repository, is left in place.
+     *
+     * @param image the image to delete
+     * @param expectedDigest the digest of the manifest that was copied to the image
+     * @return true if the image was deleted, false if it was not found or refers to a different manifest
+     * @throws DockerRegistryException if the image could not be deleted, for example because deleting is disabled in the registry
+     */
+    public boolean deleteImage(final RegistryImage image, final String expectedDigest) throws DockerRegistryException
+    {
+        LOGGER.debug("Deleting image {}...", image);
+        final Endpoint endpoint = new Endpoint(image, Collections.singletonList("repository:" + image.getRepository() + ":pull,delete"));
+
+        final Optional<String> digest = getDigest(endpoint, image);
+        if (!digest.isPresent()) {
+            return false;
+        }
+        if (!digest.get().equals(expectedDigest)) {
+            LOGGER.info("Deleting {}... skipped as it refers to {} rather than the copied image {}",
+                        image, digest.get(), expectedDigest);
+            return false;
+        }
+
+        final HttpDelete delete = endpoint.request(new HttpDelete(endpoint.url("manifests/" + digest.get())));
+        final int status = execute(delete, response -> response.getCode());
+        if (status == HttpStatus.SC_ACCEPTED || status == HttpStatus.SC_OK) {
+            LOGGER.info("Deleted image {}", image);
+            return true;
+        }
+        if (status == HttpStatus.SC_NOT_FOUND) {
+            return false;
+        }
+        if (status == HttpStatus.SC_METHOD_NOT_ALLOWED) {
+            throw new DockerRegistryException("Deleting images is not enabled in registry " + image.getRegistry());
+        }
+        throw new DockerRegistryException("Unable to delete " + image + ", status: " + status);
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        httpClient.close();
+    }
+
+    private <T> T execute(
+        final HttpUriRequestBase request,
+        final HttpClientResponseHandler<T> responseHandler
+    ) throws DockerRegistryException
+    {
+        try {
+            return httpClient.execute(request, responseHandler);
+        } catch (final IOException ex) {
+            throw new DockerRegistryException("Error sending " + request.getMethod() + " request to " + request.getRequestUri(), ex);
+        }
+    }
+
+    private Optional<String> getDigest(final Endpoint endpoint, final RegistryImage image) throws DockerRegistryException
+    {
+        final HttpHead head = endpoint.request(new HttpHead(endpoint.url("manifests/" + image.getReference())));
+        head.addHeader(HttpHeaders.ACCEPT, MANIFEST_MEDIA_TYPES);
+        final DockerRegistryRestClient.Result headResult = execute(head, response -> {
+            final Header digestHeader = response.getHeader("Docker-Content-Digest");
+            return new DockerRegistryRestClient.Result(response.getCode(), digestHeader == null ? null : digestHeader.getValue());
+        });
+        if (headResult.status == HttpStatus.SC_NOT_FOUND) {
+            return Optional.empty();
+        }
+        if (headResult.status != HttpStatus.SC_OK || headResult.data == null) {
+            throw new DockerRegistryException("Unable to get digest of " + image + ", status: " + headResult.status);
+        }
+        return Optional.of(headResult.data);
+    }
+
+    private final class Copy
+    {
+        private final Endpoint source;
+        private final Endpoint target;
+        private final boolean sameRegistry;
+
+        Copy(final Endpoint source, final Endpoint target, final boolean sameRegistry)
+        {
+            this.source = source;
+            this.target = target;
+            this.sameRegistry = sameRegistry;
+        }
+
+        public String copyManifest(final String sourceReference, final String targetReference)
+            throws DockerRegistryException, ImageNotFoundException
+        {
+            final Manifest manifest = getManifest(sourceReference);
+            final JsonNode json = parse(manifest);
+
+            if (json.has("manifests")) {
+                // The platform specific manifests must be present before the index referring to them is pushed
+                for (final JsonNode platformManifest : json.get("manifests")) {
+                    final String digest = platformManifest.path("digest").asText();
+                    copyManifest(digest, digest);
+                }
+            } else {
+                copyBlob(json.path("config"));
+                for (final JsonNode layer : json.path("layers")) {
+                    // Foreign layers are downloaded from their own urls rather than from the registry
+                    if (!layer.has("urls")) {
+                        copyBlob(layer);
+                    }
+                }
+            }
+
+            // The media type is also set in the manifest itself, in case the registry did not report it
+            final String mediaType = manifest.mediaType == null
+                ? json.path("mediaType").textValue()
+                : manifest.mediaType;
+            if (mediaType == null) {
+                throw new DockerRegistryException("Unable to determine media type of manifest " + sourceReference + " of "
+                    + source.image);
+            }
+            putManifest(targetReference, mediaType, manifest);
+            return manifest.digest;
+        }
+
+        private Manifest getManifest(final String reference) throws DockerRegistryException, ImageNotFoundException
+        {
+            final HttpGet get = source.request(new HttpGet(source.url("manifests/" + reference)));
+            get.addHeader(HttpHeaders.ACCEPT, MANIFEST_MEDIA_TYPES);
+            final Manifest manifest = execute(get, response -> response.getCode() == HttpStatus.SC_OK
+                ? new Manifest(response.getCode(), response.getEntity().getContentType(), EntityUtils.toByteArray(response.getEntity()))
+                : new Manifest(response.getCode(), null, null));
+
+            if (manifest.status == HttpStatus.SC_NOT_FOUND) {
+                throw new ImageNotFoundException("Image not found in registry " + source.image.getRegistry() + "/"
+                    + source.image.getRepository() + " " + reference);
+            }
+            if (manifest.status != HttpStatus.SC_OK) {
+                throw new DockerRegistryException("Unable to get manifest " + reference + " of " + source.image + ", status: "
+                    + manifest.status);
+            }
+            return manifest;
+        }
+
+        private void putManifest(final String reference, final String mediaType, final Manifest manifest)
+            throws DockerRegistryException
+        {
+            final HttpPut put = target.request(new HttpPut(target.url("manifests/" + reference)));
+            put.setEntity(new ByteArrayEntity(manifest.body, ContentType.parse(mediaType)));
+            final int status = execute(put, response -> response.getCode());
+            if (status != HttpStatus.SC_CREATED) {
+                throw new DockerRegistryException("Unable to put manifest " + reference + " of " + target.image + ", status: " + status);
+            }
+        }
+
+        private void copyBlob(final JsonNode descriptor) throws DockerRegistryException
+        {
+            final String digest = descriptor.path("digest").asText();
+            final long size = descriptor.path("size").asLong(-1);
+
+            final HttpHead head = target.request(new HttpHead(target.url("blobs/" + digest)));
+            if (execute(head, response -> response.getCode()) == HttpStatus.SC_OK) {
+                LOGGER.debug("Blob {} is already present in {}", digest, target.image);
+                return;
+            }
+
+            final String uploadPath = sameRegistry
+                ? "blobs/uploads/?mount=" + digest + "&from=" + source.image.getRepository()
+                : "blobs/uploads/";
+            final HttpPost post = target.request(new HttpPost(target.url(uploadPath)));
+            post.setEntity(new ByteArrayEntity(new byte[0], null));
+            final DockerRegistryRestClient.Result upload = execute(post, response -> {
+                final Header location = response.getHeader(HttpHeaders.LOCATION);
+                return new DockerRegistryRestClient.Result(response.getCode(), location == null ? null : location.getValue());
+            });
+
+            if (upload.status == HttpStatus.SC_CREATED) {
+                LOGGER.debug("Mounted blob {} from {} into {}", digest, source.image, target.image);
+                return;
+            }
+            if (upload.status != HttpStatus.SC_ACCEPTED || upload.data == null) {
+                throw new DockerRegistryException("Unable to start upload of blob " + digest + " to " + target.image
+                    + ", status: " + upload.status);
+            }
+
+            // The blob could not be mounted, so it is streamed from the source registry straight into the upload
+            LOGGER.debug("Streaming blob {} from {} to {}...", digest, source.image, target.image);
+            final URI uploadUri = getUploadUri(upload.data, digest);
+            final HttpGet get = source.request(new HttpGet(source.url("blobs/" + digest)));
+            final int status = execute(get, response -> {
+                if (response.getCode() != HttpStatus.SC_OK) {
+                    return response.getCode();
+                }
+                final HttpPut put = target.request(new HttpPut(uploadUri));
+                put.setEntity(new InputStreamEntity(response.getEntity().getContent(), size, ContentType.APPLICATION_OCTET_STREAM));
+                return httpClient.execute(put, putResponse -> putResponse.getCode());
+            });
+            if (status != HttpStatus.SC_CREATED) {
+                throw new DockerRegistryException("Unable to copy blob " + digest + " to " + target.image + ", status: " + status);
+            }
+        }
+
+        private URI getUploadUri(final String location, final String digest) throws DockerRegistryException
+        {
+            try {
+                // The location may be relative to the registry
+                return new URIBuilder(target.base.resolve(location))
+                    .addParameter("digest", digest)
+                    .build();
+            } catch (final IllegalArgumentException | URISyntaxException ex) {
+                throw new DockerRegistryException("Invalid upload location " + location, ex);
+            }
+        }
+    }
+
+    private static JsonNode parse(final Manifest manifest) throws DockerRegistryException
+    {
+        try {
+            return MAPPER.readTree(manifest.body);
+        } catch (final IOException ex) {
+            throw new DockerRegistryException("Unable to parse manifest " + manifest.digest, ex);
+        }
+    }
+
+    private static String getDigest(final byte[] content)
+    {
+        try {
+            final StringBuilder digest = new StringBuilder("sha256:");
+            for (final byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                digest.append(String.format("%02x", b));
+            }
+            return digest.toString();
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+    }
+
+    private static final class Endpoint
+    {
+        private final RegistryImage image;
+        private final URI base;
+        private final String authorization;
+
+        Endpoint(final RegistryImage image, final List<String> scopes) throws DockerRegistryException
+        {
+            final DockerRegistrySchema schema = DockerRegistryRestClient.getSchema(image.getRegistry());
+            this.image = image;
+            this.base = URI.create(schema.getSchema() + "://" + DockerRegistryRestClient.getRegistryName(image.getRegistry()) + "/");
+            this.authorization = DockerRegistryRestClient.getAuthToken(
+                schema.getAuthUrl(), image.getRegistry(), scopes, image.getAuthConfig());
+        }
+
+        public URI url(final String path)
+        {
+            return base.resolve("v2/" + image.getRepository() + "/" + path);
+        }
+
+        public <T extends HttpUriRequestBase> T request(final T request)
+        {
+            if (authorization != null) {
+                request.addHeader(HttpHeaders.AUTHORIZATION, authorization);
+            }
+            return request;
+        }
+    }
+
+    private static final class Manifest
+    {
+        final int status;
+        final String mediaType;
+        final byte[] body;
+        final String digest;
+
+        Manifest(final int status, final String mediaType, final byte[] body)
+        {
+            this.status = status;
+            this.mediaType = mediaType;
+            this.body = body;
+            this.digest = body == null ? null : getDigest(body);
+        }
+    }
+}
@@ -326,20 +326,20 @@ public final class DockerRegistryRestClient
         return "Basic " + authString;
     }
 
-    private static URI getAuthUrl(final String url, final String service, final String repository)
+    private static URI getAuthUrl(final String url, final String service, final List<String> scopes)
         throws DockerRegistryException
     {
         try {
             final URIBuilder uriBuilder = new URIBuilder(new URI(url));
             uriBuilder.addParameter("service", service);
-            uriBuilder.addParameter("scope", "repository:" + repository + ":pull");
+            scopes.forEach(scope -> uriBuilder.addParameter("scope", scope));
             return uriBuilder.build();
         } catch (final URISyntaxException e) {
             throw new DockerRegistryException(e);
         }
     }
 
-    private static String getRegistryName(final String registry)
+    static String getRegistryName(final String registry)
     {
         if (isDockerHub(registry)) {
             return "registry-1.docker.io";
@@ -353,11 +353,32 @@ public final class DockerRegistryRestClient
         final String repository,
         final DockerRegistryAuthConfig registryAuth)
         throws DockerRegistryException
+    {
+        return getAuthToken(authUrl, registry, Collections.singletonList("repository:" + repository + ":pull"), registryAuth);
+    }
+
+    /**
+     * Gets the authorization header value for a registry, with a token for the specified scopes if the registry uses token
+     * authentication.
+     *
+     * @param authUrl the token authentication url of the registry, or null if the registry does not use token authentication
+     * @param registry the registry
+     * @param scopes the scopes to request, such as {@code repository:name:pull,push}
+     * @param registryAuth the credentials for the registry, or null to access it anonymously
+     * @return the authorization header value, or null if no authorization is needed
+     * @throws DockerRegistryException if the token could not be retrieved
+     */
+    public static String getAuthToken(
+        final DockerRegistryAuthUrl authUrl,
+        final String registry,
+        final List<String> scopes,
+        final DockerRegistryAuthConfig registryAuth)
+        throws DockerRegistryException
     {
         LOGGER.debug("Get AuthToken for registry: {}...", registry);
 
         if (authUrl != null) {
-            return "Bearer " + getAuthToken(authUrl.getUrl(), authUrl.getService(), repository, registryAuth);
+            return "Bearer " + getAuthToken(authUrl.getUrl(), authUrl.getService(), scopes, registryAuth);
         }
         return getBasicRegistryAuth(registryAuth);
     }
@@ -370,12 +391,12 @@ public final class DockerRegistryRestClient
     private static String getAuthToken(
         final String url,
         final String service,
-        final String repository,
+        final List<String> scopes,
         final DockerRegistryAuthConfig authConfig)
         throws DockerRegistryException
     {
         // https://distribution.github.io/distribution/spec/auth/token/
-        final URI authUrl = getAuthUrl(url, service, repository);
+        final URI authUrl = getAuthUrl(url, service, scopes);
         final HttpGet httpGet = new HttpGet(authUrl);
 
         if (authConfig != null) {
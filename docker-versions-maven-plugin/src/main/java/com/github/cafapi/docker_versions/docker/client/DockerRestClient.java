@@ -15,6 +15,9 @@
  */
 package com.github.cafapi.docker_versions.docker.client;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.github.cafapi.docker_versions.plugins.HttpConfiguration;
 import com.github.dockerjava.api.DockerClient;
 import com.github.dockerjava.api.command.InspectImageResponse;
@@ -22,18 +25,40 @@ import com.github.dockerjava.api.command.PullImageCmd;
 import com.github.dockerjava.api.command.PullImageResultCallback;
 import com.github.dockerjava.api.exception.NotFoundException;
 import com.github.dockerjava.api.model.AuthConfig;
+import com.github.dockerjava.api.model.Image;
+import com.github.dockerjava.api.model.PullResponseItem;
 import com.github.dockerjava.core.DefaultDockerClientConfig;
 import com.github.dockerjava.core.DockerClientConfig;
 import com.github.dockerjava.core.DockerClientImpl;
-import com.github.dockerjava.httpclient5.ApacheDockerHttpClient;
 import com.github.dockerjava.transport.DockerHttpClient;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 
 import org.apache.commons.io.FileUtils;
 import org.apache.commons.lang3.SystemUtils;
@@ -44,16 +69,129 @@ public final class DockerRestClient
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(DockerRestClient.class);
 
+    private static final long STALL_CHECK_INTERVAL_MILLIS = 500;
+    private static final long RETRY_BACKOFF_SECONDS = 2;
+    private static final int MAX_CONCURRENT_COMMANDS = 8;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // Clients are shared by every goal run in the JVM, which may run several builds when using the Maven daemon
+    private static final Map<List<Object>, DockerRestClient> CLIENTS = new ConcurrentHashMap<>();
+    private static final AtomicBoolean SHUTDOWN_HOOK_ADDED = new AtomicBoolean();
+
     private final long downloadImageTimeout;
-    private final DockerClient dockerClient;
+    private final long downloadImageStallTimeout;
+    private final int downloadImageRetries;
+    private final HttpConfiguration httpConfig;
+    private final String dockerHost;
+    private volatile Clients clients;
+    private boolean closed;
+
+    /**
+     * Returns a client for the Docker daemon, reusing the client created for the same daemon and http configuration if there is one.
+     * <p>
+     * The clients are shared so must not be closed by callers, they are closed by {@link #closeAll()} or when the JVM exits, after which
+     * they throw {@link IllegalStateException} if they are used.
+     *
+     * @param httpConfiguration the http configuration, or null to use the default configuration
+     * @param dockerHost the url of the Docker daemon, or null to use the default url
+     * @return the client
+     */
+    public static DockerRestClient getInstance(final HttpConfiguration httpConfiguration, final String dockerHost)
+    {
+        // The configuration is copied, so that changing it afterwards neither changes the client nor the key it is shared under
+        final HttpConfiguration httpConfig = copy(httpConfiguration == null ? new HttpConfiguration() : httpConfiguration);
+        DockerHttpClientFactory.validateTransport(httpConfig.getTransport());
+
+        if (SHUTDOWN_HOOK_ADDED.compareAndSet(false, true)) {
+            Runtime.getRuntime().addShutdownHook(new Thread(DockerRestClient::closeAll, "docker-versions-close-clients"));
+        }
+
+        return CLIENTS.computeIfAbsent(
+            Arrays.asList(httpConfig, dockerHost),
+            key -> new DockerRestClient(httpConfig, dockerHost));
+    }
+
+    /**
+     * Checks that a Docker transport is supported, so that an invalid configuration can be reported before any client is created.
+     *
+     * @param transport the transport, either {@code httpclient5} or {@code zerodep}
+     * @throws IllegalArgumentException if the transport is not supported
+     */
+    public static void validateTransport(final String transport)
+    {
+        DockerHttpClientFactory.validateTransport(transport);
+    }
+
+    /**
+     * Closes every client, so that the connections to the Docker daemon are not kept open after the build has ended.
+     */
+    public static void closeAll()
+    {
+        for (final List<Object> key : CLIENTS.keySet()) {
+            final DockerRestClient client = CLIENTS.remove(key);
+            if (client != null) {
+                client.close();
+            }
+        }
+    }
+
+    private static HttpConfiguration copy(final HttpConfiguration httpConfiguration)
+    {
+        final HttpConfiguration httpConfig = new HttpConfiguration();
+        httpConfig.setConnectionTimout(httpConfiguration.getConnectionTimout());
+        httpConfig.setResponseTimout(httpConfiguration.getResponseTimout());
+        httpConfig.setDownloadImageTimout(httpConfiguration.getDownloadImageTimout());
+        httpConfig.setDownloadImageStallTimout(httpConfiguration.getDownloadImageStallTimout());
+        httpConfig.setDownloadImageRetries(httpConfiguration.getDownloadImageRetries());
+        httpConfig.setMaxConnections(httpConfiguration.getMaxConnections());
+        httpConfig.setTransport(httpConfiguration.getTransport());
+        return httpConfig;
+    }
 
-    public DockerRestClient(final HttpConfiguration httpConfiguration, final String dockerHost)
+    private DockerRestClient(final HttpConfiguration httpConfig, final String dockerHost)
     {
-        final HttpConfiguration httpConfig = (httpConfiguration == null)
-            ? new HttpConfiguration()
-            : httpConfiguration;
         LOGGER.debug("HttpConfig: {}", httpConfig);
 
+        this.downloadImageTimeout = httpConfig.getDownloadImageTimout();
+        this.downloadImageStallTimeout = httpConfig.getDownloadImageStallTimout();
+        this.downloadImageRetries = Math.max(0, httpConfig.getDownloadImageRetries());
+        this.httpConfig = httpConfig;
+        this.dockerHost = dockerHost;
+    }
+
+    private DockerClient getDockerClient()
+    {
+        return getClients().dockerClient;
+    }
+
+    private DockerHttpClient getDockerHttpClient()
+    {
+        return getClients().httpClient;
+    }
+
+    // The transport is only loaded and connected when a goal first talks to the Docker daemon
+    private Clients getClients()
+    {
+        Clients current = clients;
+        if (current == null) {
+            synchronized (this) {
+                if (closed) {
+                    // A closed client is no longer shared, so a new client created for it would never be closed
+                    throw new IllegalStateException("Docker client for " + dockerHost + " has been closed");
+                }
+                current = clients;
+                if (current == null) {
+                    current = createClients();
+                    clients = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private Clients createClients()
+    {
         final DefaultDockerClientConfig.Builder configBuilder = DefaultDockerClientConfig.createDefaultConfigBuilder();
 
         if (dockerHost != null) {
@@ -64,22 +202,31 @@ public final class DockerRestClient
         configBuilder.withDockerConfig(dockerConfig);
 
         final DockerClientConfig config = configBuilder.build();
-        final DockerHttpClient httpClient = new ApacheDockerHttpClient.Builder()
-            .dockerHost(config.getDockerHost())
-            .sslConfig(config.getSSLConfig())
-            .connectionTimeout(Duration.ofSeconds(httpConfig.getConnectionTimout()))
-            .responseTimeout(Duration.ofSeconds(httpConfig.getResponseTimout()))
-            .build();
+        LOGGER.debug("Creating docker client using {} transport...", httpConfig.getTransport());
+        final DockerHttpClient httpClient = DockerHttpClientFactory.create(config, httpConfig);
+        return new Clients(DockerClientImpl.getInstance(config, httpClient), httpClient);
+    }
 
-        this.downloadImageTimeout = httpConfig.getDownloadImageTimout();
-        this.dockerClient = DockerClientImpl.getInstance(config, httpClient);
+    private synchronized void close()
+    {
+        closed = true;
+        if (clients == null) {
+            return;
+        }
+        LOGGER.debug("Closing docker client...");
+        try {
+            clients.dockerClient.close();
+        } catch (final IOException e) {
+            LOGGER.debug("Error closing docker client", e);
+        }
+        clients = null;
     }
 
     public Optional<InspectImageResponse> findImage(final String imageName)
     {
         LOGGER.debug("Checking if image '{}' is present...", imageName);
         try {
-            final InspectImageResponse image = dockerClient.inspectImageCmd(imageName)
+            final InspectImageResponse image = getDockerClient().inspectImageCmd(imageName)
                 .exec();
 
             return Optional.of(image);
@@ -88,31 +235,201 @@ public final class DockerRestClient
         }
     }
 
+    /**
+     * Gets the digest of the manifest of an image from its registry through the Docker daemon, so that the registry mirrors and proxy
+     * configured in the daemon are used.
+     *
+     * @param imageName the name of the image, including its tag
+     * @param authConfig the credentials for the registry, or null to access it anonymously
+     * @return the digest of the image manifest
+     * @throws ImageNotFoundException if the image is not found in its registry
+     * @throws DockerRegistryException if the digest could not be retrieved
+     */
+    public String getDistributionDigest(final String imageName, final AuthConfig authConfig)
+        throws DockerRegistryException, ImageNotFoundException
+    {
+        LOGGER.debug("Getting digest for image '{}' from the Docker daemon...", imageName);
+        final DockerHttpClient.Request.Builder request = DockerHttpClient.Request.builder()
+            .method(DockerHttpClient.Request.Method.GET)
+            .path("/distribution/" + imageName + "/json");
+        if (authConfig != null) {
+            request.putHeader("X-Registry-Auth", getRegistryAuth(authConfig));
+        }
+
+        try (final DockerHttpClient.Response response = getDockerHttpClient().execute(request.build())) {
+            if (response.getStatusCode() == 200) {
+                final JsonNode digest = MAPPER.readTree(response.getBody()).path("Descriptor").path("digest");
+                if (digest.isTextual()) {
+                    return digest.asText();
+                }
+                throw new DockerRegistryException("Digest was not set in the distribution response for " + imageName);
+            }
+            if (response.getStatusCode() == 404) {
+                throw new ImageNotFoundException("Image not found in registry " + imageName);
+            }
+            if (response.getStatusCode() == 401 || response.getStatusCode() == 403) {
+                throw new DockerRegistryException("Unauthorized registry access " + imageName);
+            }
+            throw new DockerRegistryException(
+                "Unable to get digest for " + imageName + " from the Docker daemon, status: " + response.getStatusCode());
+        } catch (final IOException | RuntimeException ex) {
+            throw new DockerRegistryException("Error getting digest for " + imageName + " from the Docker daemon", ex);
+        }
+    }
+
+    private static String getRegistryAuth(final AuthConfig authConfig) throws DockerRegistryException
+    {
+        try {
+            return Base64.getUrlEncoder().encodeToString(MAPPER.writeValueAsBytes(authConfig));
+        } catch (final JsonProcessingException ex) {
+            throw new DockerRegistryException("Unable to encode registry credentials", ex);
+        }
+    }
+
+    public List<Image> listImages()
+    {
+        LOGGER.debug("Listing images...");
+        return getDockerClient().listImagesCmd()
+            .exec();
+    }
+
+    /**
+     * Writes an image to a tarball, in the format of {@code docker save}.
+     *
+     * @param repository the repository of the image
+     * @param tag the tag of the image
+     * @param tarball the file to write
+     * @throws IOException if the tarball could not be written
+     */
+    public void saveImage(final String repository, final String tag, final Path tarball) throws IOException
+    {
+        LOGGER.info("Saving {}:{} to {}...", repository, tag, tarball);
+        try (final InputStream image = getDockerClient().saveImageCmd(repository).withTag(tag).exec()) {
+            Files.copy(image, tarball, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Loads the images in a tarball written by {@code docker save}.
+     *
+     * @param tarball the file to load
+     * @throws IOException if the tarball could not be read
+     */
+    public void loadImage(final Path tarball) throws IOException
+    {
+        LOGGER.info("Loading {}...", tarball);
+        try (final InputStream image = Files.newInputStream(tarball)) {
+            getDockerClient().loadImageCmd(image).exec();
+        }
+    }
+
     public boolean pullImage(
         final String repository,
         final String tag,
         final AuthConfig authConfig
     ) throws InterruptedException
+    {
+        for (int attempt = 0; attempt <= downloadImageRetries; attempt++) {
+            if (attempt > 0) {
+                final long backoff = RETRY_BACKOFF_SECONDS << (attempt - 1);
+                LOGGER.warn("Pull of {}:{} stalled, retrying in {}s (retry {} of {})...",
+                            repository, tag, backoff, attempt, downloadImageRetries);
+                TimeUnit.SECONDS.sleep(backoff);
+            }
+
+            final PullResult result = pullImageOnce(repository, tag, authConfig);
+            if (result != PullResult.STALLED) {
+                return result == PullResult.COMPLETED;
+            }
+        }
+        LOGGER.error("Pull of {}:{} stalled on every attempt", repository, tag);
+        return false;
+    }
+
+    private PullResult pullImageOnce(
+        final String repository,
+        final String tag,
+        final AuthConfig authConfig
+    ) throws InterruptedException
     {
         LOGGER.info("Pulling {}:{}...", repository, tag);
-        final PullImageCmd pullCommand = dockerClient.pullImageCmd(repository);
+        final PullImageCmd pullCommand = getDockerClient().pullImageCmd(repository);
 
         if (authConfig != null) {
             pullCommand.withAuthConfig(authConfig);
         }
 
+        final CountDownLatch finished = new CountDownLatch(1);
+        final AtomicLong lastProgress = new AtomicLong(System.nanoTime());
+        final AtomicBoolean cancelled = new AtomicBoolean();
+
         final PullImageResultCallback callback = new PullImageResultCallback() {
+            @Override
+            public void onNext(final PullResponseItem item) {
+                lastProgress.set(System.nanoTime());
+                super.onNext(item);
+            }
+
             @Override
             public void onError(final Throwable throwable) {
+                if (cancelled.get()) {
+                    LOGGER.debug("Cancelled pull of image {}:{} ", repository, tag, throwable);
+                    return;
+                }
                 LOGGER.error("Error pulling image {}:{} ", repository, tag, throwable);
                 super.onError(throwable);
+                finished.countDown();
+            }
+
+            @Override
+            public void onComplete() {
+                super.onComplete();
+                finished.countDown();
             }
         };
 
-         return pullCommand
+        pullCommand
             .withTag(tag)
-            .exec(callback)
-            .awaitCompletion(downloadImageTimeout, TimeUnit.SECONDS);
+            .exec(callback);
+
+        // Watch the progress events so that a pull which has stopped making progress can be abandoned early,
+        // layers that were already downloaded are kept by the daemon so the next attempt resumes from them
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(downloadImageTimeout);
+        final long stallTimeout = TimeUnit.SECONDS.toNanos(downloadImageStallTimeout);
+
+        try {
+            while (!finished.await(STALL_CHECK_INTERVAL_MILLIS, TimeUnit.MILLISECONDS)) {
+                final long now = System.nanoTime();
+                if (stallTimeout > 0 && now - lastProgress.get() > stallTimeout) {
+                    LOGGER.warn("No progress pulling {}:{} for {}s, cancelling pull", repository, tag, downloadImageStallTimeout);
+                    cancel(callback, cancelled);
+                    return PullResult.STALLED;
+                }
+                if (now - deadline > 0) {
+                    LOGGER.error("Pull of {}:{} did not complete within {}s", repository, tag, downloadImageTimeout);
+                    cancel(callback, cancelled);
+                    return PullResult.TIMED_OUT;
+                }
+            }
+        } catch (final InterruptedException e) {
+            // Do not leave the pull running when the build no longer wants the image
+            cancel(callback, cancelled);
+            throw e;
+        }
+
+        return callback.awaitCompletion(0, TimeUnit.SECONDS)
+            ? PullResult.COMPLETED
+            : PullResult.TIMED_OUT;
+    }
+
+    private static void cancel(final PullImageResultCallback callback, final AtomicBoolean cancelled)
+    {
+        cancelled.set(true);
+        try {
+            callback.close();
+        } catch (final IOException e) {
+            LOGGER.debug("Error cancelling image pull", e);
+        }
     }
 
     public void tagImage(
@@ -125,7 +442,7 @@ public final class DockerRestClient
 
         final String imageId = image.getId();
 
-        dockerClient.tagImageCmd(imageId, imageNameWithRepository, tag)
+        getDockerClient().tagImageCmd(imageId, imageNameWithRepository, tag)
             .exec();
 
         // Verify image was tagged
@@ -138,7 +455,7 @@ public final class DockerRestClient
     {
         LOGGER.info("Untagging {}...", image);
 
-        dockerClient.removeImageCmd(image)
+        getDockerClient().removeImageCmd(image)
             .exec();
 
         // Verify image was untagged
@@ -150,6 +467,190 @@ public final class DockerRestClient
         }
     }
 
+    /**
+     * Tags several images, running the tag commands concurrently and then verifying all of them with a single query.
+     *
+     * @param imagesByName the images to tag, keyed by the name to tag them with
+     * @param tag the tag
+     * @throws ImageTaggingException if any of the images was not tagged
+     */
+    public void tagImages(final Map<String, InspectImageResponse> imagesByName, final String tag) throws ImageTaggingException
+    {
+        if (imagesByName.isEmpty()) {
+            return;
+        }
+
+        final List<Callable<Void>> commands = new ArrayList<>();
+        imagesByName.forEach((imageNameWithRepository, image) -> commands.add(() -> {
+            LOGGER.info("Tagging {}:{}... current tags: {}", imageNameWithRepository, tag, image.getRepoTags());
+            getDockerClient().tagImageCmd(image.getId(), imageNameWithRepository, tag)
+                .exec();
+            return null;
+        }));
+        execute(commands);
+
+        // Verify images were tagged
+        final Map<String, String> imageIdsByName = getImageIdsByName();
+        for (final Map.Entry<String, InspectImageResponse> entry : imagesByName.entrySet()) {
+            final String imageId = entry.getValue().getId();
+            final String imageName = entry.getKey() + ":" + tag;
+            if (!imageId.equals(imageIdsByName.get(imageName))) {
+                throw new ImageTaggingException("Image '" + imageId + "' was not tagged as " + imageName);
+            }
+        }
+    }
+
+    /**
+     * Untags several images, running the remove commands concurrently and then verifying all of them with a single query.
+     *
+     * @param images the names of the images to untag, images which are not present are ignored
+     * @throws ImageTaggingException if any of the images was not untagged
+     */
+    public void untagImages(final Collection<String> images) throws ImageTaggingException
+    {
+        if (images.isEmpty()) {
+            return;
+        }
+
+        final List<Callable<Void>> commands = new ArrayList<>();
+        images.forEach(image -> commands.add(() -> {
+            LOGGER.info("Untagging {}...", image);
+            try {
+                getDockerClient().removeImageCmd(image)
+                    .exec();
+            } catch (final NotFoundException e) {
+                LOGGER.info("Untagging {}... unnecessary as image not found", image);
+            }
+            return null;
+        }));
+        execute(commands);
+
+        // Verify images were untagged
+        final Map<String, String> imageIdsByName = getImageIdsByName();
+        for (final String image : images) {
+            final String imageId = imageIdsByName.get(image);
+            if (imageId != null) {
+                LOGGER.error("Image with id '{}' still tagged '{}'...", imageId, image);
+                throw new ImageTaggingException("Image '" + image + "' was not un-tagged");
+            }
+        }
+    }
+
+    /**
+     * Removes several images, running the remove commands concurrently and then checking which of them are gone with a single
+     * query. Each tag of an image is removed, and the image is removed by id if it is not tagged. Images that cannot be removed, for
+     * example because a container is using them, are logged and left in place.
+     *
+     * @param images the images to remove
+     * @return the images that were removed
+     * @throws ImageTaggingException if interrupted while removing the images
+     */
+    public List<Image> removeImages(final Collection<Image> images) throws ImageTaggingException
+    {
+        if (images.isEmpty()) {
+            return new ArrayList<>();
+        }
+
+        final List<Callable<Void>> commands = new ArrayList<>();
+        images.forEach(image -> commands.add(() -> {
+            final List<String> names = getRepoTags(image);
+            if (names.isEmpty()) {
+                names.add(image.getId());
+            }
+            for (final String name : names) {
+                LOGGER.info("Removing {}...", name);
+                try {
+                    getDockerClient().removeImageCmd(name)
+                        .exec();
+                } catch (final NotFoundException e) {
+                    LOGGER.debug("Removing {}... unnecessary as image not found", name);
+                }
+            }
+            return null;
+        }));
+        execute(commands);
+
+        final Set<String> remainingImageIds = listImages().stream()
+            .map(Image::getId)
+            .collect(Collectors.toSet());
+        return images.stream()
+            .filter(image -> !remainingImageIds.contains(image.getId()))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Gets the disk space used by the image layers in the Docker daemon.
+     *
+     * @return the size of the layers in bytes
+     * @throws DockerRegistryException if the disk usage could not be retrieved
+     */
+    public long getLayersSize() throws DockerRegistryException
+    {
+        final DockerHttpClient.Request request = DockerHttpClient.Request.builder()
+            .method(DockerHttpClient.Request.Method.GET)
+            .path("/system/df")
+            .build();
+        try (final DockerHttpClient.Response response = getDockerHttpClient().execute(request)) {
+            if (response.getStatusCode() != 200) {
+                throw new DockerRegistryException("Unable to get disk usage from the Docker daemon, status: " + response.getStatusCode());
+            }
+            final JsonNode layersSize = MAPPER.readTree(response.getBody()).path("LayersSize");
+            if (!layersSize.canConvertToLong()) {
+                throw new DockerRegistryException("Layers size was not set in the disk usage response");
+            }
+            return layersSize.asLong();
+        } catch (final IOException | RuntimeException ex) {
+            throw new DockerRegistryException("Error getting disk usage from the Docker daemon", ex);
+        }
+    }
+
+    private static List<String> getRepoTags(final Image image)
+    {
+        final List<String> repoTags = new ArrayList<>();
+        if (image.getRepoTags() != null) {
+            Arrays.stream(image.getRepoTags())
+                .filter(name -> !name.equals("<none>:<none>"))
+                .forEach(repoTags::add);
+        }
+        return repoTags;
+    }
+
+    /**
+     * Lists the images with a single query.
+     *
+     * @return the ids of the images, keyed by each of their repository tags
+     */
+    public Map<String, String> getImageIdsByName()
+    {
+        final Map<String, String> imageIdsByName = new HashMap<>();
+        for (final Image image : listImages()) {
+            if (image.getRepoTags() != null) {
+                Arrays.stream(image.getRepoTags()).forEach(name -> imageIdsByName.put(name, image.getId()));
+            }
+        }
+        return imageIdsByName;
+    }
+
+    private static void execute(final List<Callable<Void>> commands) throws ImageTaggingException
+    {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(commands.size(), MAX_CONCURRENT_COMMANDS));
+        try {
+            for (final Future<Void> result : executor.invokeAll(commands)) {
+                try {
+                    result.get();
+                } catch (final ExecutionException e) {
+                    // Reported when the results are verified
+                    LOGGER.error("Docker command failed", e.getCause());
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ImageTaggingException("Interrupted while tagging images", e);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private static String getDockerConfig()
     {
         final String dockerConfigEnv = System.getenv(DefaultDockerClientConfig.DOCKER_CONFIG);
@@ -178,4 +679,23 @@ public final class DockerRestClient
         LOGGER.debug("Use dockerConfigDir : {}", dockerConfigDir);
         return dockerConfigDir;
     }
+
+    private enum PullResult
+    {
+        COMPLETED,
+        STALLED,
+        TIMED_OUT
+    }
+
+    private static final class Clients
+    {
+        final DockerClient dockerClient;
+        final DockerHttpClient httpClient;
+
+        Clients(final DockerClient dockerClient, final DockerHttpClient httpClient)
+        {
+            this.dockerClient = dockerClient;
+            this.httpClient = httpClient;
+        }
+    }
 }
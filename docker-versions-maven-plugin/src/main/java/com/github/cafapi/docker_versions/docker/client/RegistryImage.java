@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.docker.client;
+
+import com.github.cafapi.docker_versions.docker.auth.DockerRegistryAuthConfig;
+
+/**
+ * An image in a registry, together with the credentials used to access it.
+ */
+public final class RegistryImage
+{
+    private final String registry;
+    private final String repository;
+    private final String reference;
+    private final DockerRegistryAuthConfig authConfig;
+
+    /**
+     * @param registry the registry, such as {@code docker.io} or {@code localhost:5000}
+     * @param repository the repository in the registry, such as {@code library/alpine}
+     * @param reference the tag or digest of the image
+     * @param authConfig the credentials for the registry, or null to access it anonymously
+     */
+    public RegistryImage(
+        final String registry,
+        final String repository,
+        final String reference,
+        final DockerRegistryAuthConfig authConfig)
+    {
+        this.registry = registry;
+        this.repository = repository;
+        this.reference = reference;
+        this.authConfig = authConfig;
+    }
+
+    public String getRegistry()
+    {
+        return registry;
+    }
+
+    public String getRepository()
+    {
+        return repository;
+    }
+
+    public String getReference()
+    {
+        return reference;
+    }
+
+    public DockerRegistryAuthConfig getAuthConfig()
+    {
+        return authConfig;
+    }
+
+    @Override
+    public String toString()
+    {
+        return registry + "/" + repository + (reference.contains(":") ? "@" : ":") + reference;
+    }
+}
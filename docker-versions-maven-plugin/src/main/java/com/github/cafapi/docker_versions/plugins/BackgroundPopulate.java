@@ -0,0 +1,79 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+
+import org.apache.maven.execution.MavenSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Populates the project registry on a background thread, so that the build only has to wait for the images when a project
+ * actually needs them.
+ * <p>
+ * The task is kept in the session data, where the populate and depopulate goals can find it.
+ */
+public final class BackgroundPopulate
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(BackgroundPopulate.class);
+
+    private static final String SESSION_DATA_KEY = BackgroundPopulate.class.getName();
+
+    private BackgroundPopulate()
+    {
+    }
+
+    public static void start(
+        final MavenSession session,
+        final ProjectRegistry projectRegistry,
+        final List<ImageConfiguration> imageManagement)
+    {
+        final FutureTask<Void> task = new FutureTask<>(() -> {
+            LOGGER.debug("Populating project registry in the background with this configuration {}", imageManagement);
+            projectRegistry.populate(imageManagement);
+            LOGGER.debug("Populated project registry in the background.");
+            return null;
+        });
+
+        session.getRepositorySession().getData().set(SESSION_DATA_KEY, task);
+
+        final Thread thread = new Thread(task, "docker-versions-populate");
+        thread.setDaemon(true);
+        thread.setContextClassLoader(BackgroundPopulate.class.getClassLoader());
+        thread.start();
+    }
+
+    public static Optional<Future<?>> find(final MavenSession session)
+    {
+        final Object task = session.getRepositorySession().getData().get(SESSION_DATA_KEY);
+        return task instanceof Future
+            ? Optional.of((Future<?>) task)
+            : Optional.empty();
+    }
+
+    public static void cancel(final MavenSession session)
+    {
+        find(session).ifPresent(task -> {
+            if (task.cancel(true)) {
+                LOGGER.info("Cancelled populating project registry in the background.");
+            }
+        });
+    }
+}
@@ -0,0 +1,329 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * The ignore versions of a build, compiled once so that each tag can be checked without compiling any regular expressions.
+ * <p>
+ * The rules that apply to the same images are grouped together. The exact versions of a group are kept in a hash set and its
+ * regular expressions are merged into a single alternation. The groups that apply to an image are looked up once per image.
+ * <p>
+ * The {@code semver-range} and {@code glob} versions are parsed into matchers that do not use regular expressions, and each tag is
+ * parsed as a semantic version at most once.
+ * <p>
+ * The regular expressions are evaluated either with {@code java.util.regex} or with RE2J, which matches in linear time but does not
+ * support lookarounds or backreferences.
+ */
+public final class CompiledIgnoreVersions
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(CompiledIgnoreVersions.class);
+
+    private static final String EXACT_TYPE = "exact";
+    private static final String REGEX_TYPE = "regex";
+    private static final String SEMVER_RANGE_TYPE = "semver-range";
+    private static final String GLOB_TYPE = "glob";
+
+    private static final Set<String> DEFAULT_IGNORE_VERSIONS = new HashSet<>(Arrays.asList("latest", "stable"));
+
+    // Numbered backreferences refer to different groups once the expressions are merged
+    private static final Pattern BACKREFERENCE = Pattern.compile("\\\\[1-9]");
+
+    private final List<RuleGroup> ruleGroups;
+    private final Map<String, List<RuleGroup>> ruleGroupsByImage;
+
+    private CompiledIgnoreVersions(final List<RuleGroup> ruleGroups)
+    {
+        this.ruleGroups = ruleGroups;
+        this.ruleGroupsByImage = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Compiles the ignore versions using {@code java.util.regex}.
+     *
+     * @param ignoreVersions the configured ignore versions, which may be null
+     * @return the compiled ignore versions
+     * @throws PatternSyntaxException if any of the regular expressions is not valid
+     */
+    public static CompiledIgnoreVersions compile(final Set<IgnoreVersion> ignoreVersions)
+    {
+        return compile(ignoreVersions, false);
+    }
+
+    /**
+     * Compiles the ignore versions.
+     *
+     * @param ignoreVersions the configured ignore versions, which may be null
+     * @param re2j whether the regular expressions are evaluated with RE2J rather than {@code java.util.regex}
+     * @return the compiled ignore versions
+     * @throws IllegalArgumentException if any of the ignore versions is not valid, or is a regular expression not supported by RE2J
+     */
+    public static CompiledIgnoreVersions compile(final Set<IgnoreVersion> ignoreVersions, final boolean re2j)
+    {
+        final Function<String, RegexPattern> regexCompiler = re2j
+            ? CompiledIgnoreVersions::compileRe2j
+            : CompiledIgnoreVersions::compileJava;
+
+        final Map<Set<String>, List<IgnoreVersion>> ignoreVersionsByImages = new LinkedHashMap<>();
+        if (ignoreVersions != null) {
+            for (final IgnoreVersion ignoreVersion : ignoreVersions) {
+                final Set<String> images = ignoreVersion.getImages() == null
+                    ? Collections.emptySet()
+                    : ignoreVersion.getImages();
+                ignoreVersionsByImages.computeIfAbsent(images, i -> new ArrayList<>()).add(ignoreVersion);
+            }
+        }
+
+        final List<RuleGroup> ruleGroups = new ArrayList<>();
+        for (final Map.Entry<Set<String>, List<IgnoreVersion>> entry : ignoreVersionsByImages.entrySet()) {
+            ruleGroups.add(new RuleGroup(entry.getKey(), entry.getValue(), regexCompiler));
+        }
+        return new CompiledIgnoreVersions(ruleGroups);
+    }
+
+    /**
+     * Removes the tags that are ignored for an image.
+     *
+     * @param tags the tags of the image
+     * @param imageName the name of the image
+     * @return the tags that are not ignored
+     */
+    public List<String> getRelevantTags(final List<String> tags, final String imageName)
+    {
+        final List<RuleGroup> imageRuleGroups = getRuleGroups(imageName);
+        return tags.stream()
+            .filter(tag -> !isIgnored(imageRuleGroups, tag))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Checks whether a tag is ignored for an image.
+     *
+     * @param imageName the name of the image
+     * @param tag the tag
+     * @return whether the tag is ignored
+     */
+    public boolean isIgnoredVersion(final String imageName, final String tag)
+    {
+        return isIgnored(getRuleGroups(imageName), tag);
+    }
+
+    private List<RuleGroup> getRuleGroups(final String imageName)
+    {
+        return ruleGroupsByImage.computeIfAbsent(imageName, name -> {
+            final List<RuleGroup> imageRuleGroups = ruleGroups.stream()
+                .filter(ruleGroup -> ruleGroup.appliesTo(name))
+                .collect(Collectors.toList());
+            LOGGER.debug("Ignore versions for image {} : {}", name, imageRuleGroups);
+            return imageRuleGroups;
+        });
+    }
+
+    private static boolean isIgnored(final List<RuleGroup> imageRuleGroups, final String tag)
+    {
+        if (DEFAULT_IGNORE_VERSIONS.contains(tag.toLowerCase(Locale.ENGLISH))) {
+            return true;
+        }
+
+        SemanticVersion version = null;
+        boolean versionParsed = false;
+        for (final RuleGroup ruleGroup : imageRuleGroups) {
+            if (ruleGroup.hasSemverRanges() && !versionParsed) {
+                version = SemanticVersion.parse(tag);
+                versionParsed = true;
+            }
+            if (ruleGroup.matches(tag, version)) {
+                LOGGER.trace("Tag {} matches ignore versions {}", tag, ruleGroup);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class RuleGroup
+    {
+        private final List<RegexPattern> imagePatterns;
+        private final Set<String> exactVersions;
+        private final List<RegexPattern> versionPatterns;
+        private final List<SemverRange> semverRanges;
+        private final List<GlobPattern> globPatterns;
+
+        RuleGroup(
+            final Set<String> images,
+            final List<IgnoreVersion> ignoreVersions,
+            final Function<String, RegexPattern> regexCompiler)
+        {
+            this.imagePatterns = images.stream()
+                .map(regexCompiler)
+                .collect(Collectors.toList());
+            this.exactVersions = getVersions(ignoreVersions, EXACT_TYPE).collect(Collectors.toSet());
+            this.versionPatterns = compileVersionPatterns(
+                getVersions(ignoreVersions, REGEX_TYPE).collect(Collectors.toList()),
+                regexCompiler);
+            this.semverRanges = getVersions(ignoreVersions, SEMVER_RANGE_TYPE)
+                .map(SemverRange::parse)
+                .collect(Collectors.toList());
+            this.globPatterns = getVersions(ignoreVersions, GLOB_TYPE)
+                .map(GlobPattern::new)
+                .collect(Collectors.toList());
+        }
+
+        boolean appliesTo(final String imageName)
+        {
+            return imagePatterns.isEmpty() || imagePatterns.stream().anyMatch(pattern -> pattern.matches(imageName));
+        }
+
+        boolean hasSemverRanges()
+        {
+            return !semverRanges.isEmpty();
+        }
+
+        boolean matches(final String tag, final SemanticVersion version)
+        {
+            if (exactVersions.contains(tag)) {
+                return true;
+            }
+            for (final SemverRange semverRange : semverRanges) {
+                if (semverRange.matches(version)) {
+                    return true;
+                }
+            }
+            for (final GlobPattern globPattern : globPatterns) {
+                if (globPattern.matches(tag)) {
+                    return true;
+                }
+            }
+            for (final RegexPattern versionPattern : versionPatterns) {
+                if (versionPattern.matches(tag)) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private static Stream<String> getVersions(final List<IgnoreVersion> ignoreVersions, final String type)
+        {
+            return ignoreVersions.stream()
+                .filter(ignoreVersion -> type.equals(getType(ignoreVersion)))
+                .map(IgnoreVersion::getVersion);
+        }
+
+        private static String getType(final IgnoreVersion ignoreVersion)
+        {
+            final String type = ignoreVersion.getType();
+            if (type == null || EXACT_TYPE.equals(type)) {
+                return EXACT_TYPE;
+            }
+            if (REGEX_TYPE.equals(type) || SEMVER_RANGE_TYPE.equals(type) || GLOB_TYPE.equals(type)) {
+                return type;
+            }
+            throw new IllegalArgumentException(
+                "Unknown ignore version type '" + type + "' for version '" + ignoreVersion.getVersion() + "', expected '"
+                + EXACT_TYPE + "', '" + REGEX_TYPE + "', '" + SEMVER_RANGE_TYPE + "' or '" + GLOB_TYPE + "'");
+        }
+
+        private static List<RegexPattern> compileVersionPatterns(
+            final List<String> regexes,
+            final Function<String, RegexPattern> regexCompiler)
+        {
+            // Each expression is compiled on its own first, so that an invalid expression is reported as it was configured
+            final List<RegexPattern> patterns = regexes.stream()
+                .map(regexCompiler)
+                .collect(Collectors.toList());
+            if (patterns.size() < 2 || regexes.stream().anyMatch(regex -> BACKREFERENCE.matcher(regex).find())) {
+                return patterns;
+            }
+
+            // Inline flags, such as (?i), only apply within the group that contains them
+            final String alternation = regexes.stream()
+                .map(regex -> "(?:" + regex + ")")
+                .collect(Collectors.joining("|"));
+            try {
+                return Collections.singletonList(regexCompiler.apply(alternation));
+            } catch (final IllegalArgumentException ex) {
+                LOGGER.debug("Unable to merge ignore version expressions {}", regexes, ex);
+                return patterns;
+            }
+        }
+
+        @Override
+        public String toString()
+        {
+            return "RuleGroup [images=" + imagePatterns + ", exactVersions=" + exactVersions + ", versionPatterns=" + versionPatterns
+                + ", semverRanges=" + semverRanges + ", globPatterns=" + globPatterns + "]";
+        }
+    }
+
+    private static RegexPattern compileJava(final String regex)
+    {
+        final Pattern pattern = Pattern.compile(regex);
+        return new RegexPattern(regex, input -> pattern.matcher(input).matches());
+    }
+
+    private static RegexPattern compileRe2j(final String regex)
+    {
+        final com.google.re2j.Pattern pattern;
+        try {
+            pattern = com.google.re2j.Pattern.compile(regex);
+        } catch (final com.google.re2j.PatternSyntaxException ex) {
+            throw new IllegalArgumentException(
+                "Ignore versions expression '" + regex + "' is not supported by the re2j regex engine: " + ex.getMessage(), ex);
+        }
+        return new RegexPattern(regex, input -> pattern.matcher(input).matches());
+    }
+
+    private static final class RegexPattern
+    {
+        private final String regex;
+        private final Predicate<String> matcher;
+
+        RegexPattern(final String regex, final Predicate<String> matcher)
+        {
+            this.regex = regex;
+            this.matcher = matcher;
+        }
+
+        boolean matches(final String input)
+        {
+            return matcher.test(input);
+        }
+
+        @Override
+        public String toString()
+        {
+            return regex;
+        }
+    }
+}
@@ -17,9 +17,10 @@ package com.github.cafapi.docker_versions.plugins;
 
 import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
 import com.github.cafapi.docker_versions.docker.client.ImageTaggingException;
-import com.github.dockerjava.api.command.InspectImageResponse;
 import java.util.Optional;
-import org.apache.commons.lang3.StringUtils;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -46,48 +47,42 @@ public final class DepopulateProjectRegistryMojo extends DockerVersionsMojo
             return;
         }
 
+        // Do not untag the images while they may still be being tagged in the background
+        awaitBackgroundPopulate();
+
         try {
-            new ExecutionImpl().executeImpl();
+            LOGGER.debug("DepopulateProjectRegistry with this configuration {}", imageManagement);
+            final DockerRestClient dockerClient = getDockerClient();
+            // Images are not pulled when depopulating, so their digests are never resolved and they are not cached
+            final ProjectRegistry projectRegistry = new ProjectRegistry(
+                dockerClient,
+                settings,
+                getProjectDockerRegistry(),
+                strictTagging,
+                false,
+                DockerVersionsHelper.isRegistryPopulateBackend(populateBackend),
+                getSharedDaemonLocks(),
+                null);
+            projectRegistry.depopulate(imageManagement);
         } catch (final ImageTaggingException ex) {
             throw new MojoExecutionException("Unable to untag image", ex);
         }
     }
 
-    private final class ExecutionImpl
+    private void awaitBackgroundPopulate()
     {
-        final DockerRestClient dockerClient;
-
-        public ExecutionImpl()
-        {
-            dockerClient = new DockerRestClient(httpConfiguration, dockerHost);
+        final Optional<Future<?>> backgroundPopulate = BackgroundPopulate.find(session);
+        if (!backgroundPopulate.isPresent()) {
+            return;
         }
 
-        public void executeImpl() throws ImageTaggingException, ProjectRegistryNotSetException
-        {
-            LOGGER.debug("DepopulateProjectRegistry with this configuration {}", imageManagement);
-
-            for (final ImageConfiguration imageConfig : imageManagement) {
-                final ImageMoniker imageMoniker = new ImageMoniker(
-                    imageConfig.getRepository(),
-                    imageConfig.getTag(),
-                    imageConfig.getDigest());
-
-                final String targetRepository = StringUtils.isNotBlank(imageConfig.getTargetRepository())
-                    ? imageConfig.getTargetRepository()
-                    : imageMoniker.getRepositoryWithoutRegistry();
-
-                final String projectDockerRegistryImageName = getProjectDockerRegistry() + "/" + targetRepository;
-
-                final String imageName = projectDockerRegistryImageName + ":" + LATEST_TAG;
-
-                LOGGER.debug("Check if image '{}' is present...", imageName);
-                final Optional<InspectImageResponse> taggedImage = dockerClient.findImage(imageName);
-                if (taggedImage.isPresent()) {
-                    dockerClient.untagImage(imageName);
-                } else {
-                    LOGGER.info("Untagging {}... unnecessary as image not found", imageName);
-                }
-            }
+        try {
+            backgroundPopulate.get().get();
+        } catch (final ExecutionException | CancellationException ex) {
+            LOGGER.debug("Background populate of project registry did not complete", ex);
+        } catch (final InterruptedException ex) {
+            LOGGER.warn("Plugin interrupted", ex);
+            Thread.currentThread().interrupt();
         }
     }
 }
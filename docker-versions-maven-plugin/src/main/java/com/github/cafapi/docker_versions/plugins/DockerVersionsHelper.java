@@ -15,24 +15,30 @@
  */
 package com.github.cafapi.docker_versions.plugins;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.Reader;
 import java.io.Writer;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFileAttributeView;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Properties;
-import java.util.Stack;
-import java.util.regex.Pattern;
 
 import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
-import javax.xml.stream.events.XMLEvent;
 
 import org.apache.commons.io.input.XmlStreamReader;
 import org.apache.commons.io.output.XmlStreamWriter;
@@ -40,7 +46,6 @@ import org.apache.commons.lang3.StringUtils;
 import org.apache.maven.model.Plugin;
 import org.apache.maven.model.PluginManagement;
 import org.apache.maven.project.MavenProject;
-import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 import org.codehaus.plexus.util.IOUtil;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
@@ -55,19 +60,18 @@ public final class DockerVersionsHelper
 {
     protected static final String DOCKER_VERSION_PLUGIN_NAME = "com.github.cafapi.plugins.docker.versions:docker-versions-maven-plugin";
 
-    private static final Logger LOGGER = LoggerFactory.getLogger(DockerVersionsHelper.class);
+    private static final String REGISTRY_DIGEST_RESOLVER = "registry";
+    private static final String DAEMON_DIGEST_RESOLVER = "daemon";
+    private static final String DAEMON_POPULATE_BACKEND = "daemon";
+    private static final String REGISTRY_POPULATE_BACKEND = "registry";
+    private static final String JAVA_REGEX_ENGINE = "java";
+    private static final String RE2J_REGEX_ENGINE = "re2j";
+
+    private static final String ORIGINAL_PLUGIN = DockerVersionsHelper.class.getName() + ".originalPlugin";
 
-    private static final Pattern IMAGE_MATCH_PATTERN = Pattern.compile(
-        "/project"
-        + "(/profiles/profile)?"
-        + "((/build(/pluginManagement)?/plugins/plugin))?"
-        + "(/configuration/imageManagement/image)");
+    private static final byte[] UTF8_BOM = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
 
-    private static final Pattern IMAGE_CONFIG_MATCH_PATTERN = Pattern.compile(
-        "/project"
-        + "(/profiles/profile)?"
-        + "((/build(/pluginManagement)?/plugins/plugin))?"
-        + "(/configuration/imageManagement/image)((/repository)|(/targetRepository)|(/tag)|(/digest))");
+    private static final Logger LOGGER = LoggerFactory.getLogger(DockerVersionsHelper.class);
 
     private DockerVersionsHelper()
     {
@@ -86,100 +90,29 @@ public final class DockerVersionsHelper
             implicitProperties.put((String) entry.getKey(), (String) entry.getValue());
         });
 
-        // Update tags
-        final boolean updatedTags = setElement(pom, imagesConfig, implicitProperties, "tag");
-
-        // Update digests
-        pom.rewind();
-
-        final boolean updatedDigests = setElement(pom, imagesConfig, implicitProperties, "digest");
-
-        final boolean madeReplacement = updatedTags || updatedDigests;
+        final boolean madeReplacement = PomImagePatcher.setImageVersions(pom, imagesConfig, implicitProperties);
         LOGGER.debug("Completed image version updates in plugin configuration. Made {}replacements.", madeReplacement ? "" : "no ");
         return madeReplacement;
     }
 
-    private static boolean setElement(
-        final ModifiedPomXMLEventReader pom,
-        final List<Xpp3Dom> imagesConfig,
-        final Map<String, String> properties,
-        final String element)
-        throws XMLStreamException
-    {
-        final Stack<String> stack = new Stack<>();
-        String path = "";
-
-        String repository = null;
-        String targetRepository = null;
-
-        boolean madeReplacement = false;
-
-        while (pom.hasNext()) {
-            final XMLEvent event = pom.nextEvent();
-
-            if (event.isStartElement()) {
-                stack.push(path);
-                final String elementName = event.asStartElement().getName().getLocalPart();
-                path = path + "/" + elementName;
-
-                if (IMAGE_CONFIG_MATCH_PATTERN.matcher(path).matches()) {
-                    if ("repository".equals(elementName)) {
-                        repository = PomHelper.evaluate(pom.getElementText().trim(), properties);
-                        path = stack.pop();
-                    } else if ("targetRepository".equals(elementName)) {
-                        targetRepository = pom.getElementText().trim();
-                        path = stack.pop();
-                    } else if (element.equals(elementName)) {
-                        pom.mark(0);
-                    }
-                }
-            }
-            if (event.isEndElement()) {
-                if (IMAGE_CONFIG_MATCH_PATTERN.matcher(path).matches()) {
-                    if (element.equals(event.asEndElement().getName().getLocalPart())) {
-                        pom.mark(1);
-                    }
-                }
-                if (IMAGE_MATCH_PATTERN.matcher(path).matches()) {
-                    // Update the digest if necessary
-                    final Optional<Xpp3Dom> repo = findRepository(repository, targetRepository, imagesConfig);
-                    if (repo.isPresent()) {
-                        final Xpp3Dom repoToUpdate = repo.get();
-
-                        final String newValue = repoToUpdate.getChild(element).getValue();
-
-                        if (pom.hasMark(0) && pom.hasMark(1)) {
-                            LOGGER.debug("Updating {} for repo : {}", element, repository);
-                            pom.replaceBetween(0, 1, newValue);
-                            pom.clearMark(0);
-                            pom.clearMark(1);
-                        }
-                        madeReplacement = true;
-                    }
-                    targetRepository = null;
-                }
-                path = stack.pop();
-            }
-        }
-        return madeReplacement;
-    }
-
+    /**
+     * Finds the image configuration of a repository.
+     * <p>
+     * The image configurations are indexed for every call, so {@link ImageConfigIndex} should be used to look up several
+     * repositories.
+     *
+     * @param repository the repository, with or without the registry
+     * @param targetRepository the target repository of the image, or null to match an image configuration with any target
+     * repository
+     * @param imagesConfig the image configurations
+     * @return the image configuration, if one matches
+     */
     public static Optional<Xpp3Dom> findRepository(
         final String repository,
         final String targetRepository,
         final List<Xpp3Dom> imagesConfig)
     {
-        LOGGER.debug("Finding config with repository {} and targetRepository {}...", repository, targetRepository);
-        if (targetRepository == null) {
-            return imagesConfig.stream()
-                .filter(img -> img.getChild("repository").getValue().endsWith(repository))
-                .findFirst();
-        }
-        return imagesConfig.stream()
-            .filter(img -> img.getChild("targetRepository") != null
-                && img.getChild("targetRepository").getValue().equals(targetRepository)
-                && img.getChild("repository").getValue().endsWith(repository))
-            .findFirst();
+        return new ImageConfigIndex(imagesConfig).find(repository, targetRepository);
     }
 
     public static ModifiedPomXMLEventReader createPomXmlEventReader(final StringBuilder input, final String path)
@@ -203,12 +136,79 @@ public final class DockerVersionsHelper
         }
     }
 
-    public static void writeFile(final File outFile, final StringBuilder input) throws IOException
+    /**
+     * Writes an updated pom, in the encoding of its XML declaration and keeping any UTF-8 byte order mark of the original pom.
+     * <p>
+     * The pom is written to a temporary file that is then moved over the original pom, so that an interrupted build never leaves a
+     * partly written pom. The pom is not written at all if its content is unchanged.
+     *
+     * @param outFile the pom file
+     * @param input the content of the pom
+     * @return true if the pom was written, or false if its content was unchanged
+     * @throws IOException if the pom cannot be written
+     */
+    public static boolean writeFile(final File outFile, final StringBuilder input) throws IOException
     {
-        LOGGER.debug("Writing updated pom to: {}", outFile);
-        try (final Writer writer = XmlStreamWriter.builder().setFile(outFile).setCharset(StandardCharsets.UTF_8).get()) {
+        final Path pomPath = outFile.toPath();
+        final byte[] originalContent = Files.exists(pomPath) ? Files.readAllBytes(pomPath) : null;
+
+        final ByteArrayOutputStream updatedContent = new ByteArrayOutputStream(input.length() + UTF8_BOM.length);
+        if (originalContent != null && startsWithUtf8Bom(originalContent)) {
+            updatedContent.write(UTF8_BOM);
+        }
+        try (final Writer writer = XmlStreamWriter.builder()
+                 .setOutputStream(updatedContent).setCharset(StandardCharsets.UTF_8).get()) {
             IOUtil.copy(input.toString(), writer);
         }
+        return writeIfChanged(pomPath, updatedContent.toByteArray(), originalContent);
+    }
+
+    /**
+     * Replaces a file through a temporary file and an atomic move, unless its content is unchanged.
+     *
+     * @param path the file to write
+     * @param content the new content of the file
+     * @param originalContent the current content of the file, or null if it does not exist
+     * @return true if the file was written
+     * @throws IOException if the file cannot be written
+     */
+    static boolean writeIfChanged(final Path path, final byte[] content, final byte[] originalContent) throws IOException
+    {
+        if (originalContent != null && Arrays.equals(originalContent, content)) {
+            LOGGER.debug("Content is unchanged, not writing: {}", path);
+            return false;
+        }
+
+        LOGGER.debug("Writing updated content to: {}", path);
+        final Path directory = path.toAbsolutePath().getParent();
+        Path tempFile = null;
+        try {
+            Files.createDirectories(directory);
+            tempFile = Files.createTempFile(directory, path.getFileName().toString(), ".tmp");
+            Files.write(tempFile, content);
+            if (originalContent != null && Files.getFileAttributeView(path, PosixFileAttributeView.class) != null) {
+                Files.setPosixFilePermissions(tempFile, Files.getPosixFilePermissions(path));
+            }
+            try {
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (final AtomicMoveNotSupportedException e) {
+                LOGGER.debug("Atomic move is not supported, replacing: {}", path);
+                Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            if (tempFile != null) {
+                Files.deleteIfExists(tempFile);
+            }
+        }
+        return true;
+    }
+
+    private static boolean startsWithUtf8Bom(final byte[] content)
+    {
+        return content.length >= UTF8_BOM.length
+            && content[0] == UTF8_BOM[0]
+            && content[1] == UTF8_BOM[1]
+            && content[2] == UTF8_BOM[2];
     }
 
     public static Plugin getPlugin(final MavenProject project)
@@ -224,8 +224,22 @@ public final class DockerVersionsHelper
             return plugin;
         }
 
-        // Look in build/plugins
-        return getPluginWithImageConfig(project.getPlugin(DOCKER_VERSION_PLUGIN_NAME));
+        // Look in build/plugins, as the plugin was before the build extension changed its configuration
+        final Object originalPlugin = project.getContextValue(ORIGINAL_PLUGIN);
+        return getPluginWithImageConfig(originalPlugin instanceof Plugin ? (Plugin) originalPlugin : getPlugin(project));
+    }
+
+    /**
+     * Keeps a copy of the plugin of a project, before its configuration is changed for the build.
+     *
+     * @param project the project
+     */
+    public static void keepOriginalPlugin(final MavenProject project)
+    {
+        final Plugin plugin = getPlugin(project);
+        if (plugin != null && project.getContextValue(ORIGINAL_PLUGIN) == null) {
+            project.setContextValue(ORIGINAL_PLUGIN, plugin.clone());
+        }
     }
 
     public static Plugin getPluginWithImageConfig(final PluginManagement pluginManagement)
@@ -280,4 +294,168 @@ public final class DockerVersionsHelper
         final Xpp3Dom[] images = configImageManagement.getChildren("image");
         return Arrays.asList(images);
     }
+
+    /**
+     * Merges image configurations, which may have been collected from several projects, into a list in which every project
+     * specific name is only present once.
+     *
+     * @param imagesConfig the image configurations to merge
+     * @return the distinct image configurations, in the order they were first seen
+     */
+    public static List<Xpp3Dom> mergeImagesConfig(final List<Xpp3Dom> imagesConfig)
+    {
+        final Map<String, Xpp3Dom> imagesByTarget = new LinkedHashMap<>();
+
+        for (final Xpp3Dom image : imagesConfig) {
+            final String target = getTargetRepository(image);
+
+            final Xpp3Dom existing = imagesByTarget.putIfAbsent(target, image);
+            if (existing != null && !isSameImage(existing, image)) {
+                LOGGER.warn("Image configuration {} is ignored as {} is already configured as {}", image, target, existing);
+            }
+        }
+        return new ArrayList<>(imagesByTarget.values());
+    }
+
+    public static List<ImageConfiguration> getImageConfigurations(final List<Xpp3Dom> imagesConfig)
+    {
+        final List<ImageConfiguration> imageConfigurations = new ArrayList<>();
+        for (final Xpp3Dom image : imagesConfig) {
+            final ImageConfiguration imageConfiguration = new ImageConfiguration();
+            imageConfiguration.setRepository(getChildValue(image, "repository"));
+            imageConfiguration.setTag(getChildValue(image, "tag"));
+            imageConfiguration.setDigest(getChildValue(image, "digest"));
+            imageConfiguration.setLatestTag(getChildValue(image, "latestTag"));
+            imageConfiguration.setSkipPull(Boolean.parseBoolean(getChildValue(image, "skipPull")));
+            imageConfiguration.setTargetRepository(getChildValue(image, "targetRepository"));
+            imageConfigurations.add(imageConfiguration);
+        }
+        return imageConfigurations;
+    }
+
+    /**
+     * Checks whether image digests should be resolved through the Docker daemon rather than by connecting to the registry directly.
+     *
+     * @param digestResolver the configured digest resolver, either {@code registry} or {@code daemon}
+     * @return true if the digests should be resolved through the Docker daemon
+     */
+    public static boolean isDaemonDigestResolver(final String digestResolver)
+    {
+        if (digestResolver == null || REGISTRY_DIGEST_RESOLVER.equals(digestResolver)) {
+            return false;
+        }
+        if (DAEMON_DIGEST_RESOLVER.equals(digestResolver)) {
+            return true;
+        }
+        throw new IllegalArgumentException(
+            "Unknown digest resolver '" + digestResolver + "', expected '"
+            + REGISTRY_DIGEST_RESOLVER + "' or '" + DAEMON_DIGEST_RESOLVER + "'");
+    }
+
+    /**
+     * Checks whether the project registry should be populated by copying the images using the registry API rather than by pulling
+     * and tagging them through the Docker daemon.
+     *
+     * @param populateBackend the configured populate backend, either {@code daemon} or {@code registry}
+     * @return true if the images should be copied using the registry API
+     */
+    public static boolean isRegistryPopulateBackend(final String populateBackend)
+    {
+        if (populateBackend == null || DAEMON_POPULATE_BACKEND.equals(populateBackend)) {
+            return false;
+        }
+        if (REGISTRY_POPULATE_BACKEND.equals(populateBackend)) {
+            return true;
+        }
+        throw new IllegalArgumentException(
+            "Unknown populate backend '" + populateBackend + "', expected '"
+            + DAEMON_POPULATE_BACKEND + "' or '" + REGISTRY_POPULATE_BACKEND + "'");
+    }
+
+    /**
+     * Checks whether the ignore versions expressions should be evaluated with RE2J rather than {@code java.util.regex}.
+     *
+     * @param regexEngine the configured regex engine, either {@code java} or {@code re2j}
+     * @return true if the expressions should be evaluated with RE2J
+     */
+    public static boolean isRe2jRegexEngine(final String regexEngine)
+    {
+        if (regexEngine == null || JAVA_REGEX_ENGINE.equals(regexEngine)) {
+            return false;
+        }
+        if (RE2J_REGEX_ENGINE.equals(regexEngine)) {
+            return true;
+        }
+        throw new IllegalArgumentException(
+            "Unknown regex engine '" + regexEngine + "', expected '"
+            + JAVA_REGEX_ENGINE + "' or '" + RE2J_REGEX_ENGINE + "'");
+    }
+
+    public static HttpConfiguration getHttpConfiguration(final Xpp3Dom config)
+    {
+        final HttpConfiguration httpConfiguration = new HttpConfiguration();
+        final Xpp3Dom httpConfig = config.getChild("httpConfiguration");
+        if (httpConfig == null) {
+            return httpConfiguration;
+        }
+
+        final String connectionTimout = getChildValue(httpConfig, "connectionTimout");
+        if (connectionTimout != null) {
+            httpConfiguration.setConnectionTimout(Integer.parseInt(connectionTimout));
+        }
+        final String responseTimout = getChildValue(httpConfig, "responseTimout");
+        if (responseTimout != null) {
+            httpConfiguration.setResponseTimout(Integer.parseInt(responseTimout));
+        }
+        final String downloadImageTimout = getChildValue(httpConfig, "downloadImageTimout");
+        if (downloadImageTimout != null) {
+            httpConfiguration.setDownloadImageTimout(Long.parseLong(downloadImageTimout));
+        }
+        final String downloadImageStallTimout = getChildValue(httpConfig, "downloadImageStallTimout");
+        if (downloadImageStallTimout != null) {
+            httpConfiguration.setDownloadImageStallTimout(Long.parseLong(downloadImageStallTimout));
+        }
+        final String downloadImageRetries = getChildValue(httpConfig, "downloadImageRetries");
+        if (downloadImageRetries != null) {
+            httpConfiguration.setDownloadImageRetries(Integer.parseInt(downloadImageRetries));
+        }
+        final String maxConnections = getChildValue(httpConfig, "maxConnections");
+        if (maxConnections != null) {
+            httpConfiguration.setMaxConnections(Integer.parseInt(maxConnections));
+        }
+        final String transport = getChildValue(httpConfig, "transport");
+        if (transport != null) {
+            httpConfiguration.setTransport(transport);
+        }
+        return httpConfiguration;
+    }
+
+    private static String getTargetRepository(final Xpp3Dom image)
+    {
+        final String targetRepository = getChildValue(image, "targetRepository");
+        if (targetRepository != null) {
+            return targetRepository;
+        }
+
+        final String repository = getChildValue(image, "repository");
+        final String tag = getChildValue(image, "tag");
+        return repository == null || tag == null
+            ? repository
+            : new ImageMoniker(repository, tag, null).getRepositoryWithoutRegistry();
+    }
+
+    private static boolean isSameImage(final Xpp3Dom image, final Xpp3Dom other)
+    {
+        return Objects.equals(getChildValue(image, "repository"), getChildValue(other, "repository"))
+            && Objects.equals(getChildValue(image, "tag"), getChildValue(other, "tag"))
+            && Objects.equals(getChildValue(image, "digest"), getChildValue(other, "digest"));
+    }
+
+    private static String getChildValue(final Xpp3Dom config, final String name)
+    {
+        final Xpp3Dom child = config.getChild(name);
+        return child == null || StringUtils.isBlank(child.getValue())
+            ? null
+            : child.getValue().trim();
+    }
 }
@@ -15,14 +15,18 @@
  */
 package com.github.cafapi.docker_versions.plugins;
 
+import java.io.File;
 import java.util.List;
 
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.plugin.AbstractMojo;
+import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.settings.Settings;
 
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+
 abstract class DockerVersionsMojo extends AbstractMojo
 {
     protected static final String PROJECT_DOCKER_REGISTRY = "projectDockerRegistry";
@@ -42,6 +46,26 @@ abstract class DockerVersionsMojo extends AbstractMojo
     @Parameter
     protected String projectDockerRegistry;
 
+    // This parameter is used only when the plugin extension is enabled
+    // and is defined here to prevent plugin warnings about unrecognized parameter
+    @Parameter(property = "docker.versions.prewarm", defaultValue = "false")
+    protected boolean prewarm;
+
+    // This parameter is used only when the plugin extension is enabled
+    // and is defined here to prevent plugin warnings about unrecognized parameter
+    @Parameter(property = "docker.versions.jit")
+    protected Boolean jit;
+
+    // This parameter is used only when the plugin extension is enabled
+    // and is defined here to prevent plugin warnings about unrecognized parameter
+    @Parameter(property = "docker.versions.imagesNeededFromPhase", defaultValue = "pre-integration-test")
+    protected String imagesNeededFromPhase;
+
+    // This parameter is used only when the plugin extension is enabled
+    // and is defined here to prevent plugin warnings about unrecognized parameter
+    @Parameter(property = "docker.versions.asyncDepopulate", defaultValue = "false")
+    protected boolean asyncDepopulate;
+
     @Parameter(required = true)
     protected List<ImageConfiguration> imageManagement;
 
@@ -54,6 +78,24 @@ abstract class DockerVersionsMojo extends AbstractMojo
     @Parameter(property = "docker.host")
     protected String dockerHost;
 
+    @Parameter(property = "docker.versions.strictTagging", defaultValue = "false")
+    protected boolean strictTagging;
+
+    @Parameter(property = "docker.versions.digestResolver", defaultValue = "registry")
+    protected String digestResolver;
+
+    @Parameter(property = "docker.versions.populateBackend", defaultValue = "daemon")
+    protected String populateBackend;
+
+    @Parameter(property = "docker.versions.sharedDaemon", defaultValue = "false")
+    protected boolean sharedDaemon;
+
+    @Parameter(property = "docker.versions.imageCacheDirectory")
+    protected String imageCacheDirectory;
+
+    @Parameter(property = "docker.versions.lockFile")
+    protected File lockFile;
+
     protected String getProjectDockerRegistry() throws ProjectRegistryNotSetException
     {
         final String projectDockerRegistryUserProperty = session.getUserProperties().getProperty(PROJECT_DOCKER_REGISTRY);
@@ -66,4 +108,30 @@ abstract class DockerVersionsMojo extends AbstractMojo
 
         return projectDockerRegistryValue;
     }
+
+    protected void validateHttpConfiguration() throws MojoExecutionException
+    {
+        final HttpConfiguration httpConfig = httpConfiguration == null ? new HttpConfiguration() : httpConfiguration;
+        try {
+            DockerRestClient.validateTransport(httpConfig.getTransport());
+        } catch (final IllegalArgumentException ex) {
+            throw new MojoExecutionException("Invalid 'httpConfiguration.transport' parameter: " + ex.getMessage(), ex);
+        }
+    }
+
+    protected DockerRestClient getDockerClient() throws MojoExecutionException
+    {
+        validateHttpConfiguration();
+        return DockerRestClient.getInstance(httpConfiguration, dockerHost);
+    }
+
+    protected SharedDaemonLocks getSharedDaemonLocks()
+    {
+        return sharedDaemon ? SharedDaemonLocks.getDefault(session) : null;
+    }
+
+    protected ImageCache getImageCache()
+    {
+        return ImageCache.get(session, imageCacheDirectory);
+    }
 }
@@ -17,20 +17,33 @@ package com.github.cafapi.docker_versions.plugins;
 
 import java.io.File;
 import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.stream.XMLStreamException;
 
+import org.apache.maven.model.Model;
 import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginConfiguration;
+import org.apache.maven.model.PluginContainer;
+import org.apache.maven.model.Profile;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.Parameter;
 import org.apache.maven.project.MavenProject;
 import org.apache.maven.project.ProjectBuilder;
-import org.codehaus.mojo.versions.api.PomHelper;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.slf4j.Logger;
@@ -44,6 +57,8 @@ abstract class DockerVersionsUpdaterMojo extends DockerVersionsMojo
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(DockerVersionsUpdaterMojo.class);
 
+    private static final int MAX_CONCURRENT_UPDATES = 8;
+
     @Component
     protected ProjectBuilder projectBuilder;
 
@@ -53,6 +68,12 @@ abstract class DockerVersionsUpdaterMojo extends DockerVersionsMojo
     @Parameter(property = "docker.ignore.versions")
     protected String ignoreVersionsConfigPath;
 
+    @Parameter(property = "docker.versions.regexEngine", defaultValue = "java")
+    protected String regexEngine;
+
+    @Parameter(property = "docker.versions.updateAllModules", defaultValue = "false")
+    protected boolean updateAllModules;
+
     protected Plugin dockerVersionsPlugin;
     protected Xpp3Dom pluginConfig;
     protected List<Xpp3Dom> imagesConfig;
@@ -67,6 +88,15 @@ abstract class DockerVersionsUpdaterMojo extends DockerVersionsMojo
         }
 
         try {
+            if (updateAllModules) {
+                if (!project.isExecutionRoot()) {
+                    LOGGER.info("Skipping docker versions update, all modules are updated from the execution root.");
+                    return;
+                }
+                updateModules(getImagesConfigByModule());
+                return;
+            }
+
             dockerVersionsPlugin = getPlugin();
             pluginConfig = getPluginConfig(dockerVersionsPlugin);
             imagesConfig = getImagesConfig(pluginConfig);
@@ -97,14 +127,76 @@ abstract class DockerVersionsUpdaterMojo extends DockerVersionsMojo
 
         update(pomToUpdate);
 
-        if (pomToUpdate.isModified()) {
-            DockerVersionsHelper.writeFile(outFile, input);
+        if (pomToUpdate.isModified() && DockerVersionsHelper.writeFile(outFile, input)) {
             LOGGER.info("Pom has been updated.");
         } else {
             LOGGER.info("Pom is unmodified.");
         }
     }
 
+    /**
+     * Updates the poms of the modules with the given image configurations, several at a time.
+     *
+     * @param imagesToUpdateByModule the image configurations to update, keyed by the module whose pom declares them
+     * @throws IOException if a pom cannot be read or written
+     * @throws XMLStreamException if a pom cannot be parsed
+     */
+    protected void updatePoms(final Map<MavenProject, List<Xpp3Dom>> imagesToUpdateByModule) throws IOException, XMLStreamException
+    {
+        if (imagesToUpdateByModule.isEmpty()) {
+            LOGGER.info("Poms are unmodified.");
+            return;
+        }
+
+        final List<Callable<Void>> updates = new ArrayList<>();
+        imagesToUpdateByModule.forEach((module, imagesToUpdate) -> updates.add(() -> {
+            updatePom(module, imagesToUpdate);
+            return null;
+        }));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(updates.size(), MAX_CONCURRENT_UPDATES));
+        try {
+            for (final Future<Void> result : executor.invokeAll(updates)) {
+                try {
+                    result.get();
+                } catch (final ExecutionException e) {
+                    final Throwable cause = e.getCause();
+                    if (cause instanceof IOException) {
+                        throw (IOException) cause;
+                    }
+                    if (cause instanceof XMLStreamException) {
+                        throw (XMLStreamException) cause;
+                    }
+                    if (cause instanceof RuntimeException) {
+                        throw (RuntimeException) cause;
+                    }
+                    throw new IOException("Error updating pom", cause);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while updating poms");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private static void updatePom(final MavenProject module, final List<Xpp3Dom> imagesToUpdate)
+        throws IOException, XMLStreamException
+    {
+        final File pomFile = module.getFile();
+        final StringBuilder input = DockerVersionsHelper.readFile(pomFile);
+        final ModifiedPomXMLEventReader pomToUpdate = DockerVersionsHelper.createPomXmlEventReader(input, pomFile.getAbsolutePath());
+
+        DockerVersionsHelper.setImageVersion(pomToUpdate, imagesToUpdate, module.getModel().getProperties());
+
+        if (pomToUpdate.isModified() && DockerVersionsHelper.writeFile(pomFile, input)) {
+            LOGGER.info("Pom {} has been updated.", pomFile);
+        } else {
+            LOGGER.info("Pom {} is unmodified.", pomFile);
+        }
+    }
+
     protected boolean shouldSkip()
     {
         return skip;
@@ -117,10 +209,65 @@ abstract class DockerVersionsUpdaterMojo extends DockerVersionsMojo
                IncorrectDigestException,
                XMLStreamException;
 
+    /**
+     * Updates the poms of all of the modules in the reactor that declare an image configuration.
+     *
+     * @param imagesConfigByModule the image configurations of the modules, keyed by the module whose pom declares them
+     */
+    protected abstract void updateModules(final Map<MavenProject, List<Xpp3Dom>> imagesConfigByModule)
+        throws DockerRegistryAuthException,
+               DockerRegistryException,
+               ImageNotFoundException,
+               IncorrectDigestException,
+               IOException,
+               XMLStreamException;
+
+    private Map<MavenProject, List<Xpp3Dom>> getImagesConfigByModule()
+    {
+        final Map<MavenProject, List<Xpp3Dom>> imagesConfigByModule = new LinkedHashMap<>();
+        for (final MavenProject module : session.getProjects()) {
+            // Only the poms that declare an image configuration themselves are updated, rather than those that inherit one
+            if (!declaresImageManagement(module.getOriginalModel())) {
+                continue;
+            }
+            final Plugin plugin = DockerVersionsHelper.getPluginWithImageConfig(module);
+            if (plugin == null) {
+                LOGGER.debug("Image configuration of {} is not active", module.getArtifactId());
+                continue;
+            }
+            LOGGER.debug("Found image configuration in {}", module.getArtifactId());
+            imagesConfigByModule.put(module, DockerVersionsHelper.getImagesConfig(DockerVersionsHelper.getPluginConfig(plugin)));
+        }
+        return imagesConfigByModule;
+    }
+
+    private static boolean declaresImageManagement(final Model model)
+    {
+        final List<PluginConfiguration> builds = new ArrayList<>();
+        builds.add(model.getBuild());
+        for (final Profile profile : model.getProfiles()) {
+            builds.add(profile.getBuild());
+        }
+        return builds.stream()
+            .filter(Objects::nonNull)
+            .anyMatch(build -> declaresImageManagement(build) || declaresImageManagement(build.getPluginManagement()));
+    }
+
+    private static boolean declaresImageManagement(final PluginContainer plugins)
+    {
+        if (plugins == null) {
+            return false;
+        }
+        final Plugin plugin = plugins.getPluginsAsMap().get(DockerVersionsHelper.DOCKER_VERSION_PLUGIN_NAME);
+        return plugin != null
+            && plugin.getConfiguration() instanceof Xpp3Dom
+            && ((Xpp3Dom) plugin.getConfiguration()).getChild("imageManagement") != null;
+    }
+
     private Plugin getPlugin()
     {
         // Look for imageConfiguration in aggregator project's pluginManagement
-        final MavenProject rootProject = PomHelper.getLocalRoot(projectBuilder, session, getLog());
+        final MavenProject rootProject = LocalRoot.find(projectBuilder, session, project);
 
         projectToUpdate = rootProject;
         Plugin plugin = DockerVersionsHelper.getPluginWithImageConfig(rootProject);
@@ -0,0 +1,66 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+/**
+ * A glob pattern for tags, where {@code *} matches any number of characters and {@code ?} matches any single character.
+ * <p>
+ * On a mismatch only the last {@code *} is retried, so matching takes at most time proportional to the length of the tag times the
+ * length of the pattern, unlike a backtracking regular expression.
+ */
+final class GlobPattern
+{
+    private final String pattern;
+
+    GlobPattern(final String pattern)
+    {
+        this.pattern = pattern;
+    }
+
+    boolean matches(final String tag)
+    {
+        int patternIndex = 0;
+        int tagIndex = 0;
+        int starIndex = -1;
+        int starTagIndex = 0;
+        while (tagIndex < tag.length()) {
+            if (patternIndex < pattern.length()
+                && (pattern.charAt(patternIndex) == '?' || pattern.charAt(patternIndex) == tag.charAt(tagIndex))) {
+                patternIndex++;
+                tagIndex++;
+            } else if (patternIndex < pattern.length() && pattern.charAt(patternIndex) == '*') {
+                starIndex = patternIndex++;
+                starTagIndex = tagIndex;
+            } else if (starIndex >= 0) {
+                // Let the last star match one more character
+                patternIndex = starIndex + 1;
+                tagIndex = ++starTagIndex;
+            } else {
+                return false;
+            }
+        }
+        while (patternIndex < pattern.length() && pattern.charAt(patternIndex) == '*') {
+            patternIndex++;
+        }
+        return patternIndex == pattern.length();
+    }
+
+    @Override
+    public String toString()
+    {
+        return pattern;
+    }
+}
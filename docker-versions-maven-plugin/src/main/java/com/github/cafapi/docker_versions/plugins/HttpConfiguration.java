@@ -15,6 +15,8 @@
  */
 package com.github.cafapi.docker_versions.plugins;
 
+import java.util.Objects;
+
 import org.apache.maven.plugins.annotations.Parameter;
 
 public final class HttpConfiguration
@@ -22,6 +24,10 @@ public final class HttpConfiguration
     private static final int CONNECTION_TIMEOUT_SECONDS = getIntPropertyOrEnvVar("CONNECTION_TIMEOUT_SECONDS", "30");
     private static final int RESPONSE_TIMEOUT_SECONDS = getIntPropertyOrEnvVar("RESPONSE_TIMEOUT_SECONDS", "45");
     private static final long DOWNLOAD_IMAGE_TIMEOUT_SECONDS = getLongPropertyOrEnvVar("DOWNLOAD_IMAGE_TIMEOUT_SECONDS", "300");
+    private static final long DOWNLOAD_IMAGE_STALL_TIMEOUT_SECONDS = getLongPropertyOrEnvVar("DOWNLOAD_IMAGE_STALL_TIMEOUT_SECONDS", "60");
+    private static final int DOWNLOAD_IMAGE_RETRIES = getIntPropertyOrEnvVar("DOWNLOAD_IMAGE_RETRIES", "3");
+    private static final int MAX_CONNECTIONS = getIntPropertyOrEnvVar("MAX_CONNECTIONS", "100");
+    private static final String TRANSPORT = getPropertyOrEnvVar("DOCKER_TRANSPORT", "httpclient5");
 
     @Parameter
     private int connectionTimout = CONNECTION_TIMEOUT_SECONDS;
@@ -32,28 +38,131 @@ public final class HttpConfiguration
     @Parameter()
     private long downloadImageTimout = DOWNLOAD_IMAGE_TIMEOUT_SECONDS;
 
+    @Parameter()
+    private long downloadImageStallTimout = DOWNLOAD_IMAGE_STALL_TIMEOUT_SECONDS;
+
+    @Parameter()
+    private int downloadImageRetries = DOWNLOAD_IMAGE_RETRIES;
+
+    @Parameter()
+    private int maxConnections = MAX_CONNECTIONS;
+
+    @Parameter()
+    private String transport = TRANSPORT;
+
     public int getConnectionTimout()
     {
         return connectionTimout;
     }
 
+    public void setConnectionTimout(final int connectionTimout)
+    {
+        this.connectionTimout = connectionTimout;
+    }
+
     public int getResponseTimout()
     {
         return responseTimout;
     }
 
+    public void setResponseTimout(final int responseTimout)
+    {
+        this.responseTimout = responseTimout;
+    }
+
     public long getDownloadImageTimout()
     {
         return downloadImageTimout;
     }
 
+    public void setDownloadImageTimout(final long downloadImageTimout)
+    {
+        this.downloadImageTimout = downloadImageTimout;
+    }
+
+    public long getDownloadImageStallTimout()
+    {
+        return downloadImageStallTimout;
+    }
+
+    public void setDownloadImageStallTimout(final long downloadImageStallTimout)
+    {
+        this.downloadImageStallTimout = downloadImageStallTimout;
+    }
+
+    public int getDownloadImageRetries()
+    {
+        return downloadImageRetries;
+    }
+
+    public void setDownloadImageRetries(final int downloadImageRetries)
+    {
+        this.downloadImageRetries = downloadImageRetries;
+    }
+
+    public int getMaxConnections()
+    {
+        return maxConnections;
+    }
+
+    public void setMaxConnections(final int maxConnections)
+    {
+        this.maxConnections = maxConnections;
+    }
+
+    public String getTransport()
+    {
+        return transport;
+    }
+
+    public void setTransport(final String transport)
+    {
+        this.transport = transport;
+    }
+
+    @Override
+    public boolean equals(final Object obj)
+    {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof HttpConfiguration)) {
+            return false;
+        }
+        final HttpConfiguration other = (HttpConfiguration) obj;
+        return connectionTimout == other.connectionTimout
+            && responseTimout == other.responseTimout
+            && downloadImageTimout == other.downloadImageTimout
+            && downloadImageStallTimout == other.downloadImageStallTimout
+            && downloadImageRetries == other.downloadImageRetries
+            && maxConnections == other.maxConnections
+            && Objects.equals(transport, other.transport);
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Objects.hash(
+            connectionTimout,
+            responseTimout,
+            downloadImageTimout,
+            downloadImageStallTimout,
+            downloadImageRetries,
+            maxConnections,
+            transport);
+    }
+
     @Override
     public String toString()
     {
         return "HttpConfiguration [ "
             + "connectionTimout=" + connectionTimout + "s, "
             + "responseTimout=" + responseTimout + "s, "
-            + "downloadImageTimout=" + downloadImageTimout + "s ]";
+            + "downloadImageTimout=" + downloadImageTimout + "s, "
+            + "downloadImageStallTimout=" + downloadImageStallTimout + "s, "
+            + "downloadImageRetries=" + downloadImageRetries + ", "
+            + "maxConnections=" + maxConnections + ", "
+            + "transport=" + transport + " ]";
     }
 
     private static int getIntPropertyOrEnvVar(final String key, final String defaultValue)
@@ -23,13 +23,13 @@ import org.apache.maven.plugins.annotations.Parameter;
 public final class IgnoreVersion
 {
     /**
-     * A version number or a regular expression for version numbers that should be ignored.
+     * A version number, regular expression, semantic version range or glob pattern for version numbers that should be ignored.
      */
     @Parameter(required = true)
     private String version;
 
     /**
-     * The type of ignore mechanism to use. Allowed values are 'exact' and 'regex'.
+     * The type of ignore mechanism to use. Allowed values are 'exact', 'regex', 'semver-range' and 'glob'.
      */
     @Parameter(required = true, defaultValue = "exact")
     private String type;
@@ -52,7 +52,7 @@ public final class IgnoreVersion
     }
 
     /**
-     * Get the type of ignore mechanism to use. Allowed values are 'exact' and 'regex'.
+     * Get the type of ignore mechanism to use. Allowed values are 'exact', 'regex', 'semver-range' and 'glob'.
      *
      * @return String
      */
@@ -62,7 +62,7 @@ public final class IgnoreVersion
     }
 
     /**
-     * Get a version number or a regular expression for version numbers that should be ignored.
+     * Get a version number, regular expression, semantic version range or glob pattern for version numbers that should be ignored.
      *
      * @return String
      */
@@ -82,7 +82,7 @@ public final class IgnoreVersion
     }
 
     /**
-     * Set the type of ignore mechanism to use. Allowed values are 'exact' and 'regex'.
+     * Set the type of ignore mechanism to use. Allowed values are 'exact', 'regex', 'semver-range' and 'glob'.
      *
      * @param type a type object.
      */
@@ -92,7 +92,7 @@ public final class IgnoreVersion
     }
 
     /**
-     * Set a version number or a regular expression for version numbers that should be ignored.
+     * Set a version number, regular expression, semantic version range or glob pattern for version numbers that should be ignored.
      *
      * @param version a version object.
      */
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.yaml.snakeyaml.error.YAMLException;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+
+/**
+ * Caches the ignore versions read from yaml files and the compiled ignore versions, for as long as the plugin is loaded.
+ * <p>
+ * The goals of a build, and of later builds in a Maven daemon such as mvnd, share the cache. A yaml file is read again when its
+ * modification time or size changes.
+ */
+public final class IgnoreVersionsCache
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(IgnoreVersionsCache.class);
+
+    private static final int MAX_COMPILED_IGNORE_VERSIONS = 16;
+
+    private static final YAMLMapper YAML_MAPPER = new YAMLMapper();
+
+    private static final Map<Path, ConfigFile> CONFIG_FILES = new ConcurrentHashMap<>();
+
+    private static final Map<CompiledKey, CompiledIgnoreVersions> COMPILED_IGNORE_VERSIONS
+        = new LinkedHashMap<CompiledKey, CompiledIgnoreVersions>(16, 0.75f, true)
+        {
+            private static final long serialVersionUID = 1L;
+
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<CompiledKey, CompiledIgnoreVersions> eldest)
+            {
+                return size() > MAX_COMPILED_IGNORE_VERSIONS;
+            }
+        };
+
+    private IgnoreVersionsCache()
+    {
+    }
+
+    /**
+     * Gets the compiled ignore versions for the configured ignore versions and ignore versions config file.
+     *
+     * @param ignoreVersions the ignore versions configured in the pom, which may be null
+     * @param ignoreVersionsConfigPath the path of the ignore versions yaml file, which may be null
+     * @param re2j whether the regular expressions are evaluated with RE2J
+     * @return the compiled ignore versions
+     * @throws IllegalArgumentException if the yaml file cannot be read or any of the ignore versions is not valid
+     */
+    public static CompiledIgnoreVersions getCompiledIgnoreVersions(
+        final Set<IgnoreVersion> ignoreVersions,
+        final String ignoreVersionsConfigPath,
+        final boolean re2j)
+    {
+        final Set<IgnoreVersion> effectiveIgnoreVersions = ignoreVersions == null
+            ? new HashSet<>()
+            : new HashSet<>(ignoreVersions);
+        if (ignoreVersionsConfigPath != null) {
+            effectiveIgnoreVersions.addAll(readConfigFile(Paths.get(ignoreVersionsConfigPath)));
+        }
+
+        final CompiledKey key = new CompiledKey(effectiveIgnoreVersions, re2j);
+        synchronized (COMPILED_IGNORE_VERSIONS) {
+            final CompiledIgnoreVersions compiledIgnoreVersions = COMPILED_IGNORE_VERSIONS.get(key);
+            if (compiledIgnoreVersions != null) {
+                LOGGER.debug("Using cached ignore versions: {}", effectiveIgnoreVersions);
+                return compiledIgnoreVersions;
+            }
+        }
+
+        // Compiled outside the lock, as another goal compiling the same ignore versions at the same time is harmless
+        final CompiledIgnoreVersions compiledIgnoreVersions = CompiledIgnoreVersions.compile(effectiveIgnoreVersions, re2j);
+        synchronized (COMPILED_IGNORE_VERSIONS) {
+            COMPILED_IGNORE_VERSIONS.put(key, compiledIgnoreVersions);
+        }
+        return compiledIgnoreVersions;
+    }
+
+    private static Set<IgnoreVersion> readConfigFile(final Path configPath)
+    {
+        final Path path = configPath.toAbsolutePath().normalize();
+        final long lastModified;
+        final long size;
+        try {
+            lastModified = Files.getLastModifiedTime(path).toMillis();
+            size = Files.size(path);
+        } catch (final NoSuchFileException e) {
+            throw new IllegalArgumentException("Ignore versions config file not found", e);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Error reading ignore versions config file", e);
+        }
+
+        final ConfigFile cachedConfigFile = CONFIG_FILES.get(path);
+        if (cachedConfigFile != null && cachedConfigFile.lastModified == lastModified && cachedConfigFile.size == size) {
+            LOGGER.debug("Using cached ignore versions config file {}", path);
+            return cachedConfigFile.ignoreVersions;
+        }
+
+        LOGGER.debug("Reading ignore versions config file {}", path);
+        final Set<IgnoreVersion> ignoreVersions;
+        try (final InputStream ignoreVersionsConfig = Files.newInputStream(path)) {
+            ignoreVersions = Collections.unmodifiableSet(
+                YAML_MAPPER.readValue(ignoreVersionsConfig, new TypeReference<Set<IgnoreVersion>>() {}));
+        } catch (final NoSuchFileException e) {
+            throw new IllegalArgumentException("Ignore versions config file not found", e);
+        } catch (final IOException e) {
+            throw new IllegalArgumentException("Error reading ignore versions config file", e);
+        } catch (final YAMLException e) {
+            throw new IllegalArgumentException("Error parsing ignore versions config file", e);
+        }
+        CONFIG_FILES.put(path, new ConfigFile(lastModified, size, ignoreVersions));
+        return ignoreVersions;
+    }
+
+    private static final class ConfigFile
+    {
+        private final long lastModified;
+        private final long size;
+        private final Set<IgnoreVersion> ignoreVersions;
+
+        ConfigFile(final long lastModified, final long size, final Set<IgnoreVersion> ignoreVersions)
+        {
+            this.lastModified = lastModified;
+            this.size = size;
+            this.ignoreVersions = ignoreVersions;
+        }
+    }
+
+    private static final class CompiledKey
+    {
+        private final Set<IgnoreVersion> ignoreVersions;
+        private final boolean re2j;
+
+        CompiledKey(final Set<IgnoreVersion> ignoreVersions, final boolean re2j)
+        {
+            this.ignoreVersions = ignoreVersions;
+            this.re2j = re2j;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(ignoreVersions, re2j);
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof CompiledKey)) {
+                return false;
+            }
+            final CompiledKey other = (CompiledKey) obj;
+            return re2j == other.re2j && ignoreVersions.equals(other.ignoreVersions);
+        }
+    }
+}
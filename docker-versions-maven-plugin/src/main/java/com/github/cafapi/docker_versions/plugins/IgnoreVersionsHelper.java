@@ -15,13 +15,8 @@
  */
 package com.github.cafapi.docker_versions.plugins;
 
-import java.util.Arrays;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Locale;
 import java.util.Set;
-import java.util.regex.Pattern;
-import java.util.stream.Collectors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -31,8 +26,6 @@ import org.slf4j.LoggerFactory;
  */
 public final class IgnoreVersionsHelper
 {
-    private static final List<String> DEFAULT_IGNORE_VERSIONS = Arrays.asList(new String[]{"latest", "stable"});
-
     private static final Logger LOGGER = LoggerFactory.getLogger(IgnoreVersionsHelper.class);
 
     public static List<String> getRelevantTags(
@@ -41,60 +34,6 @@ public final class IgnoreVersionsHelper
         final String repository)
     {
         LOGGER.debug("Configured ignore versions: {}", configuredIgnoreVersions);
-        final Set<IgnoreVersion> imageIgnoreVersions = getImageIgnoreVersions(configuredIgnoreVersions, repository);
-        return tags.stream()
-            .filter(t -> !isIgnoredVersion(imageIgnoreVersions, t))
-            .collect(Collectors.toList());
-    }
-
-    private static boolean isIgnoredVersion(
-        final Set<IgnoreVersion> imageIgnoreVersions,
-        final String tag)
-    {
-        if (DEFAULT_IGNORE_VERSIONS.contains(tag.toLowerCase(Locale.ENGLISH))) {
-            return true;
-        }
-
-        if (imageIgnoreVersions.isEmpty()) {
-            return false;
-        }
-
-        for (final IgnoreVersion iVersion : imageIgnoreVersions) {
-            final boolean isMatch = "regex".equals(iVersion.getType())
-                ? Pattern.matches(iVersion.getVersion(), tag)
-                : iVersion.getVersion().equals(tag);
-            LOGGER.trace("Check if tag {} matches version pattern {} : {}", tag, iVersion.getVersion(), isMatch);
-            if (isMatch) {
-                return true;
-            }
-        }
-        return false;
-    }
-
-    private static Set<IgnoreVersion> getImageIgnoreVersions(
-        final Set<IgnoreVersion> configuredIgnoreVersions,
-        final String imageName)
-    {
-        final Set<IgnoreVersion> imageIgnoreVersions = new HashSet<>();
-        if (configuredIgnoreVersions == null || configuredIgnoreVersions.isEmpty()) {
-            return imageIgnoreVersions;
-        }
-
-        for (final IgnoreVersion iVersion : configuredIgnoreVersions) {
-            final Set<String> images = iVersion.getImages();
-            if (images == null || images.isEmpty()) {
-                imageIgnoreVersions.add(iVersion);
-                continue;
-            }
-            for (final String img : images) {
-                LOGGER.trace("Check if image {} matches pattern {}", imageName, img);
-                if (Pattern.matches(img, imageName)) {
-                    imageIgnoreVersions.add(iVersion);
-                }
-            }
-        }
-
-        LOGGER.debug("Ignore versions for image {} : {}", imageName, imageIgnoreVersions);
-        return imageIgnoreVersions;
+        return CompiledIgnoreVersions.compile(configuredIgnoreVersions).getRelevantTags(tags, repository);
     }
 }
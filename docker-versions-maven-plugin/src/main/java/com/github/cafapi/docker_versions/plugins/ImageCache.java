@@ -0,0 +1,190 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.dockerjava.api.command.InspectImageResponse;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+import org.apache.maven.execution.MavenSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Keeps tarballs of the images that have been pulled, keyed by the digest they were pulled with, so that they can be loaded into
+ * the Docker daemon rather than pulled again.
+ * <p>
+ * Each image is stored as a {@code docker save} tarball together with the id of the image, which is used to check that the
+ * loaded image is the cached image, as loaded images do not record the digest they were pulled with.
+ */
+public final class ImageCache
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageCache.class);
+
+    private final Path directory;
+
+    /**
+     * @param directory the directory holding the cached images
+     */
+    public ImageCache(final Path directory)
+    {
+        this.directory = directory;
+    }
+
+    /**
+     * Returns the cache in the configured directory. A relative directory is resolved against the directory the build was started
+     * in, so that the goals of every module and the build extension use the same cache.
+     *
+     * @param session the session
+     * @param directory the configured directory, or null if images are not cached
+     * @return the cache, or null if images are not cached
+     */
+    public static ImageCache get(final MavenSession session, final String directory)
+    {
+        if (directory == null || directory.trim().isEmpty()) {
+            return null;
+        }
+        return new ImageCache(Paths.get(session.getExecutionRootDirectory()).resolve(directory.trim()));
+    }
+
+    /**
+     * Loads an image from the cache.
+     *
+     * @param dockerClient the client for the Docker daemon
+     * @param digest the digest of the image
+     * @return the loaded image, or empty if it is not cached or could not be loaded
+     */
+    Optional<InspectImageResponse> load(final DockerRestClient dockerClient, final String digest)
+    {
+        final Optional<String> imageId = getImageId(digest);
+        final Path tarball = getTarball(digest);
+        if (!imageId.isPresent() || !Files.isRegularFile(tarball)) {
+            LOGGER.debug("Image with digest {} is not cached.", digest);
+            return Optional.empty();
+        }
+
+        try {
+            dockerClient.loadImage(tarball);
+        } catch (final IOException | RuntimeException ex) {
+            LOGGER.warn("Unable to load cached image {}, pull it...", tarball, ex);
+            return Optional.empty();
+        }
+
+        final Optional<InspectImageResponse> image = dockerClient.findImage(imageId.get());
+        if (!image.isPresent()) {
+            LOGGER.warn("Cached image {} did not contain image {}, pull it...", tarball, imageId.get());
+        }
+        return image;
+    }
+
+    /**
+     * Checks whether an image in the Docker daemon was loaded from the cache.
+     *
+     * @param digest the digest of the image
+     * @param image the image in the Docker daemon
+     * @return whether the image is the cached image with the digest
+     */
+    boolean isCachedImage(final String digest, final InspectImageResponse image)
+    {
+        return getImageId(digest).filter(imageId -> imageId.equals(image.getId())).isPresent();
+    }
+
+    /**
+     * Saves an image to the cache, unless it is already cached. The image is not cached if it cannot be saved.
+     *
+     * @param dockerClient the client for the Docker daemon
+     * @param repository the repository of the image
+     * @param tag the tag of the image
+     * @param digest the digest of the image
+     * @param image the image in the Docker daemon
+     */
+    void save(
+        final DockerRestClient dockerClient,
+        final String repository,
+        final String tag,
+        final String digest,
+        final InspectImageResponse image)
+    {
+        if (isCachedImage(digest, image) && Files.isRegularFile(getTarball(digest))) {
+            return;
+        }
+
+        // Written to temporary files first, so that other builds never see a partly written image
+        Path tarball = null;
+        Path imageId = null;
+        try {
+            Files.createDirectories(directory);
+            tarball = Files.createTempFile(directory, getFileName(digest), ".tar.tmp");
+            dockerClient.saveImage(repository, tag, tarball);
+            imageId = Files.createTempFile(directory, getFileName(digest), ".id.tmp");
+            Files.write(imageId, image.getId().getBytes(StandardCharsets.UTF_8));
+
+            Files.move(tarball, getTarball(digest), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(imageId, getImageIdFile(digest), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (final IOException | RuntimeException ex) {
+            LOGGER.warn("Unable to cache image {}:{} in {}", repository, tag, directory, ex);
+        } finally {
+            deleteIfExists(tarball);
+            deleteIfExists(imageId);
+        }
+    }
+
+    private Optional<String> getImageId(final String digest)
+    {
+        final Path imageIdFile = getImageIdFile(digest);
+        try {
+            return Files.isRegularFile(imageIdFile)
+                ? Optional.of(new String(Files.readAllBytes(imageIdFile), StandardCharsets.UTF_8).trim())
+                : Optional.empty();
+        } catch (final IOException ex) {
+            LOGGER.debug("Unable to read {}", imageIdFile, ex);
+            return Optional.empty();
+        }
+    }
+
+    private Path getTarball(final String digest)
+    {
+        return directory.resolve(getFileName(digest) + ".tar");
+    }
+
+    private Path getImageIdFile(final String digest)
+    {
+        return directory.resolve(getFileName(digest) + ".id");
+    }
+
+    private static String getFileName(final String digest)
+    {
+        // Colons are not allowed in file names on Windows
+        return digest.replace(':', '-');
+    }
+
+    private static void deleteIfExists(final Path file)
+    {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (final IOException ex) {
+            LOGGER.debug("Unable to delete {}", file, ex);
+        }
+    }
+}
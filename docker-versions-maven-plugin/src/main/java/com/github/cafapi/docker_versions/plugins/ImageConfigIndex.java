@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.dockerjava.core.NameParser;
+
+/**
+ * Looks up image configurations by repository and target repository.
+ * <p>
+ * The image configurations are indexed by their repository without the registry. The repository of an image configuration must
+ * end with the repository that is looked up, so a repository that includes its registry is never matched to an image in another
+ * registry. When no image configuration has the same repository, the repository is matched to the image configurations that have
+ * it as their last path components, preferring the shortest repository and then the first configured image.
+ */
+public final class ImageConfigIndex
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageConfigIndex.class);
+
+    private final Map<String, List<IndexedImage>> imagesByRepository;
+    private final Map<String, List<IndexedImage>> imagesByRepositorySuffix;
+
+    public ImageConfigIndex(final List<Xpp3Dom> imagesConfig)
+    {
+        imagesByRepository = new HashMap<>();
+        imagesByRepositorySuffix = new HashMap<>();
+
+        int order = 0;
+        for (final Xpp3Dom imageConfig : imagesConfig) {
+            final String repository = getChildValue(imageConfig, "repository");
+            if (repository == null) {
+                continue;
+            }
+            final String normalizedRepository = normalizeRepository(repository);
+            final IndexedImage image = new IndexedImage(
+                imageConfig, repository, getChildValue(imageConfig, "targetRepository"), normalizedRepository.length(), order++);
+
+            imagesByRepository.computeIfAbsent(normalizedRepository, key -> new ArrayList<>()).add(image);
+            for (int index = normalizedRepository.indexOf('/'); index >= 0; index = normalizedRepository.indexOf('/', index + 1)) {
+                imagesByRepositorySuffix.computeIfAbsent(normalizedRepository.substring(index + 1), key -> new ArrayList<>()).add(image);
+            }
+        }
+
+        final Comparator<IndexedImage> closestFirst = Comparator
+            .comparingInt((IndexedImage image) -> image.normalizedLength)
+            .thenComparingInt(image -> image.order);
+        imagesByRepositorySuffix.values().forEach(images -> images.sort(closestFirst));
+    }
+
+    /**
+     * Finds the image configuration of a repository.
+     *
+     * @param repository the repository, with or without the registry
+     * @param targetRepository the target repository of the image, or null to match an image configuration with any target
+     * repository
+     * @return the image configuration, if one matches
+     */
+    public Optional<Xpp3Dom> find(final String repository, final String targetRepository)
+    {
+        LOGGER.debug("Finding config with repository {} and targetRepository {}...", repository, targetRepository);
+        if (repository == null) {
+            return Optional.empty();
+        }
+        final String normalizedRepository = normalizeRepository(repository);
+
+        final Optional<Xpp3Dom> image = find(imagesByRepository.get(normalizedRepository), repository, targetRepository);
+        if (image.isPresent()) {
+            return image;
+        }
+        return find(imagesByRepositorySuffix.get(normalizedRepository), repository, targetRepository);
+    }
+
+    private static Optional<Xpp3Dom> find(
+        final List<IndexedImage> images,
+        final String repository,
+        final String targetRepository)
+    {
+        if (images == null) {
+            return Optional.empty();
+        }
+        for (final IndexedImage image : images) {
+            if (image.repository.endsWith(repository)
+                && (targetRepository == null || targetRepository.equals(image.targetRepository))) {
+                return Optional.of(image.imageConfig);
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Gets the repository without the registry, so that a repository is indexed the same way whether or not its registry is set.
+     */
+    private static String normalizeRepository(final String repository)
+    {
+        try {
+            return NameParser.resolveRepositoryName(repository).reposName;
+        } catch (final RuntimeException e) {
+            // Not a valid image name, such as a repository whose registry property could not be evaluated
+            return repository;
+        }
+    }
+
+    private static String getChildValue(final Xpp3Dom imageConfig, final String name)
+    {
+        final Xpp3Dom child = imageConfig.getChild(name);
+        return child == null ? null : child.getValue();
+    }
+
+    private static final class IndexedImage
+    {
+        private final Xpp3Dom imageConfig;
+        private final String repository;
+        private final String targetRepository;
+        private final int normalizedLength;
+        private final int order;
+
+        IndexedImage(
+            final Xpp3Dom imageConfig,
+            final String repository,
+            final String targetRepository,
+            final int normalizedLength,
+            final int order)
+        {
+            this.imageConfig = imageConfig;
+            this.repository = repository;
+            this.targetRepository = targetRepository;
+            this.normalizedLength = normalizedLength;
+            this.order = order;
+        }
+    }
+}
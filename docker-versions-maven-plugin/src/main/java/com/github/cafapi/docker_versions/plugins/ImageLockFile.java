@@ -0,0 +1,194 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.util.DefaultIndenter;
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+/**
+ * Reads and writes the {@code docker-versions.lock} file, which holds the resolved tag and digest of each image.
+ * <p>
+ * The lock file is written by the {@code use-latest-releases} goal, and the tags and digests in it take precedence over those in the
+ * plugin configuration when the images are retagged by the {@code populate-project-registry} goal.
+ */
+public final class ImageLockFile
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageLockFile.class);
+
+    private static final int VERSION = 1;
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // The same line endings are written on every platform, so that the lock file can be committed
+    private static final DefaultIndenter INDENTER = new DefaultIndenter("  ", "\n");
+    private static final ObjectWriter WRITER = MAPPER.writer(
+        new DefaultPrettyPrinter().withObjectIndenter(INDENTER).withArrayIndenter(INDENTER));
+
+    private ImageLockFile()
+    {
+    }
+
+    /**
+     * Writes the tags and digests of the images to a lock file, unless the lock file already holds them.
+     *
+     * @param lockFile the lock file
+     * @param images the images, with their resolved tags and digests
+     * @return true if the lock file was written
+     * @throws IOException if the lock file cannot be written
+     */
+    public static boolean write(final File lockFile, final List<ImageConfiguration> images) throws IOException
+    {
+        final List<ImageConfiguration> sortedImages = new ArrayList<>(images);
+        sortedImages.sort(Comparator
+            .comparing(ImageConfiguration::getRepository)
+            .thenComparing(ImageConfiguration::getTargetRepository, Comparator.nullsFirst(Comparator.naturalOrder())));
+
+        final ObjectNode lock = MAPPER.createObjectNode();
+        lock.put("version", VERSION);
+        final ArrayNode lockedImages = lock.putArray("images");
+        for (final ImageConfiguration image : sortedImages) {
+            final ObjectNode lockedImage = lockedImages.addObject();
+            lockedImage.put("repository", image.getRepository());
+            if (image.getTargetRepository() != null) {
+                lockedImage.put("targetRepository", image.getTargetRepository());
+            }
+            lockedImage.put("tag", image.getTag());
+            if (image.getDigest() != null) {
+                lockedImage.put("digest", image.getDigest());
+            }
+        }
+
+        final Path lockPath = lockFile.toPath();
+        final byte[] originalContent = Files.exists(lockPath) ? Files.readAllBytes(lockPath) : null;
+        final byte[] content = (WRITER.writeValueAsString(lock) + "\n").getBytes(StandardCharsets.UTF_8);
+        return DockerVersionsHelper.writeIfChanged(lockPath, content, originalContent);
+    }
+
+    /**
+     * Gets the images with the tags and digests from a lock file.
+     * <p>
+     * The images that are not in the lock file are returned unchanged, and the images in the lock file that are not configured are
+     * ignored.
+     *
+     * @param lockFile the lock file
+     * @param images the configured images
+     * @return copies of the images, with the tags and digests from the lock file
+     * @throws IOException if the lock file cannot be read
+     * @throws IllegalArgumentException if the lock file is not valid
+     */
+    public static List<ImageConfiguration> apply(final File lockFile, final List<ImageConfiguration> images) throws IOException
+    {
+        final Map<LockKey, JsonNode> lockedImages = read(lockFile);
+
+        final List<ImageConfiguration> lockedImageConfigurations = new ArrayList<>(images.size());
+        for (final ImageConfiguration image : images) {
+            final JsonNode lockedImage = lockedImages.get(new LockKey(image.getRepository(), image.getTargetRepository()));
+            if (lockedImage == null) {
+                LOGGER.debug("Image {} is not in lock file {}", image.getRepository(), lockFile);
+                lockedImageConfigurations.add(image);
+                continue;
+            }
+            final ImageConfiguration lockedImageConfiguration = new ImageConfiguration();
+            lockedImageConfiguration.setRepository(image.getRepository());
+            lockedImageConfiguration.setTag(lockedImage.path("tag").asText());
+            lockedImageConfiguration.setDigest(lockedImage.hasNonNull("digest") ? lockedImage.get("digest").asText() : null);
+            lockedImageConfiguration.setLatestTag(image.getLatestTag());
+            lockedImageConfiguration.setSkipPull(image.isSkipPull());
+            lockedImageConfiguration.setTargetRepository(image.getTargetRepository());
+            lockedImageConfigurations.add(lockedImageConfiguration);
+        }
+        return lockedImageConfigurations;
+    }
+
+    private static Map<LockKey, JsonNode> read(final File lockFile) throws IOException
+    {
+        LOGGER.debug("Reading lock file {}", lockFile);
+        final JsonNode lock;
+        try {
+            lock = MAPPER.readTree(lockFile);
+        } catch (final JsonProcessingException e) {
+            throw new IllegalArgumentException("Error parsing lock file " + lockFile, e);
+        }
+        if (lock == null || lock.path("version").asInt() != VERSION || !lock.path("images").isArray()) {
+            throw new IllegalArgumentException("Unsupported lock file " + lockFile + ", expected version " + VERSION);
+        }
+
+        final Map<LockKey, JsonNode> lockedImages = new HashMap<>();
+        for (final JsonNode lockedImage : lock.get("images")) {
+            if (!lockedImage.hasNonNull("repository") || !lockedImage.hasNonNull("tag")) {
+                throw new IllegalArgumentException("Repository or tag not set for image " + lockedImage + " in lock file " + lockFile);
+            }
+            lockedImages.put(
+                new LockKey(
+                    lockedImage.get("repository").asText(),
+                    lockedImage.hasNonNull("targetRepository") ? lockedImage.get("targetRepository").asText() : null),
+                lockedImage);
+        }
+        return lockedImages;
+    }
+
+    private static final class LockKey
+    {
+        private final String repository;
+        private final String targetRepository;
+
+        LockKey(final String repository, final String targetRepository)
+        {
+            this.repository = repository;
+            this.targetRepository = targetRepository;
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return Objects.hash(repository, targetRepository);
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (this == obj) {
+                return true;
+            }
+            if (!(obj instanceof LockKey)) {
+                return false;
+            }
+            final LockKey other = (LockKey) obj;
+            return Objects.equals(repository, other.repository) && Objects.equals(targetRepository, other.targetRepository);
+        }
+    }
+}
@@ -0,0 +1,120 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import com.github.dockerjava.api.model.Image;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.apache.commons.lang3.StringUtils;
+
+/**
+ * Selects the images in the Docker daemon that are old versions of the configured images.
+ */
+public final class ImagePruner
+{
+    private static final String NONE = "<none>";
+
+    private ImagePruner()
+    {
+    }
+
+    /**
+     * Selects the images that are only known by names in the repositories of the managed images, and that are not referenced by the
+     * tag or digest of any of the configured images. Images that are also known by a name in any other repository, such as a
+     * project registry, are kept.
+     *
+     * @param images the images in the Docker daemon
+     * @param managedImages the images whose repositories are pruned
+     * @param configuredImages the images that are still configured, in any project
+     * @return the images that can be removed
+     */
+    public static List<Image> getImagesToRemove(
+        final List<Image> images,
+        final List<ImageConfiguration> managedImages,
+        final List<ImageConfiguration> configuredImages)
+    {
+        final Set<String> managedRepositories = managedImages.stream()
+            .map(imageConfig -> getRepository(imageConfig.getRepository()))
+            .collect(Collectors.toSet());
+
+        final Set<String> referencedNames = new HashSet<>();
+        for (final ImageConfiguration imageConfig : configuredImages) {
+            final String repository = getRepository(imageConfig.getRepository());
+            if (StringUtils.isNotBlank(imageConfig.getTag())) {
+                referencedNames.add(repository + ":" + imageConfig.getTag());
+            }
+            if (StringUtils.isNotBlank(imageConfig.getDigest())) {
+                referencedNames.add(repository + "@" + imageConfig.getDigest());
+            }
+        }
+
+        final List<Image> imagesToRemove = new ArrayList<>();
+        for (final Image image : images) {
+            final List<String> names = getNames(image);
+            if (names.isEmpty()) {
+                continue;
+            }
+            final boolean managed = names.stream()
+                .allMatch(name -> managedRepositories.contains(getRepository(stripReference(name))));
+            final boolean referenced = names.stream()
+                .anyMatch(name -> referencedNames.contains(getRepository(stripReference(name)) + getReference(name)));
+            if (managed && !referenced) {
+                imagesToRemove.add(image);
+            }
+        }
+        return imagesToRemove;
+    }
+
+    private static List<String> getNames(final Image image)
+    {
+        return Stream.concat(
+                image.getRepoTags() == null ? Stream.empty() : Arrays.stream(image.getRepoTags()),
+                image.getRepoDigests() == null ? Stream.empty() : Arrays.stream(image.getRepoDigests()))
+            .filter(name -> !name.startsWith(NONE))
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * Normalises a repository name, as the Docker daemon leaves out the registry and the {@code library} prefix of Docker Hub
+     * images.
+     */
+    private static String getRepository(final String repository)
+    {
+        final ImageMoniker imageMoniker = new ImageMoniker(repository, DockerVersionsMojo.LATEST_TAG, null);
+        return imageMoniker.getRegistry() + "/" + imageMoniker.getRepositoryWithoutRegistry();
+    }
+
+    private static String stripReference(final String name)
+    {
+        return name.substring(0, name.length() - getReference(name).length());
+    }
+
+    private static String getReference(final String name)
+    {
+        final int digestStart = name.indexOf('@');
+        if (digestStart >= 0) {
+            return name.substring(digestStart);
+        }
+        // A colon before the last slash separates the registry host from its port
+        final int tagStart = name.lastIndexOf(':');
+        return tagStart > name.lastIndexOf('/') ? name.substring(tagStart) : "";
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.codehaus.mojo.versions.api.PomHelper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Finds the local aggregator root of a project, which is the furthest parent directory whose pom lists the directory below it as
+ * a module.
+ * <p>
+ * The poms that are part of the reactor are taken from the session, so only the poms above the reactor are built, and those are
+ * built once per session. The projects are kept in the session data, where the goals of every module can find them.
+ * <p>
+ * The projects of the reactor are the projects being built, so their plugin configuration may have been changed by the build
+ * extension. {@link DockerVersionsHelper#getPluginWithImageConfig(MavenProject)} finds the image configuration as it was declared.
+ */
+public final class LocalRoot
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalRoot.class);
+
+    private static final String SESSION_DATA_KEY = LocalRoot.class.getName();
+
+    private final ProjectBuilder projectBuilder;
+    private final MavenSession session;
+    private final Map<File, MavenProject> reactorProjects;
+    private final Map<File, Optional<MavenProject>> builtProjects;
+
+    private LocalRoot(final ProjectBuilder projectBuilder, final MavenSession session)
+    {
+        this.projectBuilder = projectBuilder;
+        this.session = session;
+        this.reactorProjects = new HashMap<>();
+        this.builtProjects = new ConcurrentHashMap<>();
+
+        final List<MavenProject> projects = new ArrayList<>();
+        if (session.getTopLevelProject() != null) {
+            projects.add(session.getTopLevelProject());
+        }
+        // The projects excluded from the build by --projects are still part of the reactor
+        projects.addAll(session.getAllProjects() != null ? session.getAllProjects() : session.getProjects());
+        for (final MavenProject project : projects) {
+            if (project.getFile() != null) {
+                reactorProjects.putIfAbsent(project.getFile().getAbsoluteFile(), project);
+            }
+        }
+    }
+
+    /**
+     * Finds the local aggregator root of a project, the same way as {@link PomHelper#getLocalRoot}.
+     *
+     * @param projectBuilder the project builder, used for the poms that are not part of the reactor
+     * @param session the session
+     * @param project the project
+     * @return the local aggregator root, which is the project itself if no parent directory aggregates it
+     */
+    public static MavenProject find(final ProjectBuilder projectBuilder, final MavenSession session, final MavenProject project)
+    {
+        return get(projectBuilder, session).find(project);
+    }
+
+    private static LocalRoot get(final ProjectBuilder projectBuilder, final MavenSession session)
+    {
+        final Object localRoot = session.getRepositorySession().getData().get(SESSION_DATA_KEY);
+        if (localRoot instanceof LocalRoot) {
+            return (LocalRoot) localRoot;
+        }
+        final LocalRoot newLocalRoot = new LocalRoot(projectBuilder, session);
+        // Another module built in parallel may have registered it first
+        return session.getRepositorySession().getData().set(SESSION_DATA_KEY, localRoot, newLocalRoot)
+            ? newLocalRoot
+            : get(projectBuilder, session);
+    }
+
+    private MavenProject find(final MavenProject project)
+    {
+        LOGGER.debug("Searching for local aggregator root of {}...", project.getArtifactId());
+        MavenProject root = project;
+        File parentDir = root.getBasedir().getParentFile();
+        while (parentDir != null && parentDir.isDirectory()) {
+            final File parentPom = new File(parentDir, "pom.xml").getAbsoluteFile();
+            if (!parentPom.isFile()) {
+                break;
+            }
+            final Optional<MavenProject> parent = getProject(parentPom);
+            if (!parent.isPresent() || !getAllChildModules(parent.get()).contains(root.getBasedir().getName())) {
+                LOGGER.debug("{} is not an aggregator parent", parentDir);
+                break;
+            }
+            LOGGER.debug("{} is an aggregator parent", parentDir);
+            root = parent.get();
+            parentDir = root.getBasedir().getParentFile();
+        }
+        LOGGER.debug("Local aggregation root is {}", root.getBasedir());
+        return root;
+    }
+
+    private Optional<MavenProject> getProject(final File pom)
+    {
+        final MavenProject reactorProject = reactorProjects.get(pom);
+        if (reactorProject != null) {
+            return Optional.of(reactorProject);
+        }
+        return builtProjects.computeIfAbsent(pom, this::buildProject);
+    }
+
+    private Optional<MavenProject> buildProject(final File pom)
+    {
+        LOGGER.debug("Building {}, which is not part of the reactor", pom);
+        try {
+            final ProjectBuildingResult result = projectBuilder.build(pom, PomHelper.createProjectBuilderRequest(session));
+            if (!result.getProblems().isEmpty()) {
+                LOGGER.warn("Problems encountered during the computation of the local aggregation root.");
+                for (final Object problem : result.getProblems()) {
+                    LOGGER.warn("\t{}", problem);
+                }
+            }
+            return Optional.of(result.getProject());
+        } catch (final ProjectBuildingException e) {
+            LOGGER.warn("Error building {}", pom, e);
+            return Optional.empty();
+        }
+    }
+
+    private static Set<String> getAllChildModules(final MavenProject project)
+    {
+        final Model model = project.getOriginalModel();
+        final Set<String> modules = new TreeSet<>(model.getModules());
+        model.getProfiles().forEach(profile -> modules.addAll(profile.getModules()));
+        return modules;
+    }
+}
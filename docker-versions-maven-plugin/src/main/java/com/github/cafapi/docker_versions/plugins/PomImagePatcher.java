@@ -0,0 +1,224 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+
+import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Updates the tags and digests of the images in the {@code imageManagement} configuration of a pom in a single pass.
+ * <p>
+ * The images are found by tracking the path of the current element, and the tag and digest of each image are located by their
+ * offsets within the image element. Both are replaced when the end of the image element is reached, as the repository that
+ * identifies the image may come after them.
+ */
+final class PomImagePatcher
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(PomImagePatcher.class);
+
+    // The pom reader only has three marks
+    private static final int IMAGE_END_MARK = 0;
+    private static final int IMAGE_START_MARK = 2;
+
+    private PomImagePatcher()
+    {
+    }
+
+    static boolean setImageVersions(
+        final ModifiedPomXMLEventReader pom,
+        final List<Xpp3Dom> imagesConfig,
+        final Map<String, String> properties)
+        throws XMLStreamException
+    {
+        final ImageConfigIndex imagesIndex = new ImageConfigIndex(imagesConfig);
+        final List<String> elementPath = new ArrayList<>();
+        ImageElement image = null;
+        boolean madeReplacement = false;
+
+        while (pom.hasNext()) {
+            final XMLEvent event = pom.nextEvent();
+
+            if (image != null) {
+                if (event.isEndElement() && elementPath.size() == image.depth) {
+                    madeReplacement |= image.update(pom, imagesIndex, properties);
+                    image = null;
+                } else {
+                    image.add(event, pom.getVerbatim(), elementPath.size());
+                }
+            }
+
+            if (event.isStartElement()) {
+                final String elementName = event.asStartElement().getName().getLocalPart();
+                elementPath.add(elementName);
+                if (image == null && "image".equals(elementName) && isImagePath(elementPath)) {
+                    pom.mark(IMAGE_START_MARK);
+                    image = new ImageElement(elementPath.size());
+                }
+            } else if (event.isEndElement()) {
+                elementPath.remove(elementPath.size() - 1);
+            }
+        }
+        return madeReplacement;
+    }
+
+    /**
+     * Checks whether an element path is that of an image in the plugin configuration, optionally in a profile and in the build
+     * plugins or plugin management.
+     */
+    private static boolean isImagePath(final List<String> elementPath)
+    {
+        int index = 0;
+        if (!isElement(elementPath, index++, "project")) {
+            return false;
+        }
+        if (isElement(elementPath, index, "profiles") && isElement(elementPath, index + 1, "profile")) {
+            index += 2;
+        }
+        if (isElement(elementPath, index, "build")) {
+            index++;
+            if (isElement(elementPath, index, "pluginManagement")) {
+                index++;
+            }
+            if (!isElement(elementPath, index, "plugins") || !isElement(elementPath, index + 1, "plugin")) {
+                return false;
+            }
+            index += 2;
+        }
+        return elementPath.size() == index + 3
+            && isElement(elementPath, index, "configuration")
+            && isElement(elementPath, index + 1, "imageManagement")
+            && isElement(elementPath, index + 2, "image");
+    }
+
+    private static boolean isElement(final List<String> elementPath, final int index, final String elementName)
+    {
+        return index < elementPath.size() && elementName.equals(elementPath.get(index));
+    }
+
+    private static final class ImageElement
+    {
+        private final int depth;
+
+        // Offsets within the content of the image element
+        private int offset;
+        private int tagStart = -1;
+        private int tagEnd = -1;
+        private int digestStart = -1;
+        private int digestEnd = -1;
+
+        private String childName;
+        private StringBuilder childText;
+        private String repository;
+        private String targetRepository;
+
+        ImageElement(final int depth)
+        {
+            this.depth = depth;
+        }
+
+        void add(final XMLEvent event, final String verbatim, final int eventDepth)
+        {
+            if (event.isStartElement() && eventDepth == depth) {
+                offset += verbatim.length();
+                childName = event.asStartElement().getName().getLocalPart();
+                childText = new StringBuilder();
+                if ("tag".equals(childName)) {
+                    tagStart = offset;
+                } else if ("digest".equals(childName)) {
+                    digestStart = offset;
+                }
+                return;
+            }
+            if (event.isEndElement() && eventDepth == depth + 1) {
+                if ("tag".equals(childName)) {
+                    tagEnd = offset;
+                } else if ("digest".equals(childName)) {
+                    digestEnd = offset;
+                } else if ("repository".equals(childName)) {
+                    repository = childText.toString().trim();
+                } else if ("targetRepository".equals(childName)) {
+                    targetRepository = childText.toString().trim();
+                }
+                childName = null;
+            } else if (event.isCharacters() && eventDepth == depth + 1 && childName != null) {
+                childText.append(event.asCharacters().getData());
+            }
+            offset += verbatim.length();
+        }
+
+        boolean update(
+            final ModifiedPomXMLEventReader pom,
+            final ImageConfigIndex imagesIndex,
+            final Map<String, String> properties)
+        {
+            final Optional<Xpp3Dom> repo = repository == null
+                ? Optional.empty()
+                : imagesIndex.find(PomHelper.evaluate(repository, properties), targetRepository);
+            if (!repo.isPresent()) {
+                pom.clearMark(IMAGE_START_MARK);
+                return false;
+            }
+
+            pom.mark(IMAGE_END_MARK);
+            final String content = pom.getBetween(IMAGE_START_MARK, IMAGE_END_MARK);
+            final boolean located = content.length() == offset;
+            if (!located) {
+                // Never rewrite an image whose elements could not be located exactly
+                LOGGER.warn("Unable to locate the elements of image {}, it is not updated", repository);
+            } else {
+                final StringBuilder updatedContent = new StringBuilder(content);
+                // The later element is replaced first so that the offsets of the earlier element are not changed
+                if (digestStart > tagStart) {
+                    replace(updatedContent, digestStart, digestEnd, repo.get(), "digest");
+                    replace(updatedContent, tagStart, tagEnd, repo.get(), "tag");
+                } else {
+                    replace(updatedContent, tagStart, tagEnd, repo.get(), "tag");
+                    replace(updatedContent, digestStart, digestEnd, repo.get(), "digest");
+                }
+                pom.replaceBetween(IMAGE_START_MARK, IMAGE_END_MARK, updatedContent.toString());
+            }
+            pom.clearMark(IMAGE_START_MARK);
+            pom.clearMark(IMAGE_END_MARK);
+            return located;
+        }
+
+        private void replace(
+            final StringBuilder content,
+            final int start,
+            final int end,
+            final Xpp3Dom imageConfig,
+            final String element)
+        {
+            final Xpp3Dom value = imageConfig.getChild(element);
+            if (start < 0 || end < start || value == null || value.getValue() == null) {
+                return;
+            }
+            LOGGER.debug("Updating {} for repo : {}", element, repository);
+            content.replace(start, end, value.getValue());
+        }
+    }
+}
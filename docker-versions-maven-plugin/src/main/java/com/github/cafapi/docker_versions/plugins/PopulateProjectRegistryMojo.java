@@ -15,16 +15,19 @@
  */
 package com.github.cafapi.docker_versions.plugins;
 
-import com.github.cafapi.docker_versions.docker.auth.AuthConfigHelper;
 import com.github.cafapi.docker_versions.docker.auth.DockerRegistryAuthException;
 import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
 import com.github.cafapi.docker_versions.docker.client.ImageNotFoundException;
 import com.github.cafapi.docker_versions.docker.client.ImageTaggingException;
-import com.github.dockerjava.api.command.InspectImageResponse;
-import com.github.dockerjava.api.model.AuthConfig;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.util.List;
 import java.util.Optional;
-import org.apache.commons.lang3.StringUtils;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 import org.apache.maven.plugin.MojoExecutionException;
 import org.apache.maven.plugin.MojoFailureException;
 import org.apache.maven.plugins.annotations.Mojo;
@@ -44,6 +47,9 @@ public final class PopulateProjectRegistryMojo extends DockerVersionsMojo
     @Parameter(property = "skipPopulateProjectRegistry", defaultValue = "false")
     private boolean skipPopulateProjectRegistry;
 
+    @Parameter(defaultValue = "${project.build.directory}/docker-versions/populate-project-registry.sha256", readonly = true)
+    private File fingerprintFile;
+
     @Override
     public void execute() throws MojoExecutionException, MojoFailureException
     {
@@ -53,7 +59,42 @@ public final class PopulateProjectRegistryMojo extends DockerVersionsMojo
         }
 
         try {
-            new ExecutionImpl().executeImpl();
+            final Optional<SharedProjectRegistry> sharedProjectRegistry = SharedProjectRegistry.find(session);
+            if (sharedProjectRegistry.isPresent()) {
+                LOGGER.debug("Populating project registry for {}...", project.getId());
+                sharedProjectRegistry.get().acquire(project.getId());
+                return;
+            }
+
+            final Optional<Future<?>> backgroundPopulate = BackgroundPopulate.find(session);
+            if (backgroundPopulate.isPresent()) {
+                LOGGER.info("Waiting for the project registry to be populated in the background...");
+                backgroundPopulate.get().get();
+                return;
+            }
+
+            final List<ImageConfiguration> images = getLockedImageManagement();
+            LOGGER.debug("PopulateProjectRegistryMojo with this configuration {}", images);
+            final DockerRestClient dockerClient = getDockerClient();
+            final ProjectRegistry projectRegistry = new ProjectRegistry(
+                dockerClient,
+                settings,
+                getProjectDockerRegistry(),
+                strictTagging,
+                DockerVersionsHelper.isDaemonDigestResolver(digestResolver),
+                DockerVersionsHelper.isRegistryPopulateBackend(populateBackend),
+                getSharedDaemonLocks(),
+                getImageCache());
+
+            // Nothing to do if the images are still tagged as they were at the end of the last build
+            final Optional<String> fingerprint = projectRegistry.getFingerprint(images);
+            if (fingerprint.isPresent() && fingerprint.get().equals(readFingerprint())) {
+                LOGGER.info("Project registry is up to date.");
+                return;
+            }
+
+            projectRegistry.populate(images);
+            writeFingerprint(projectRegistry.getFingerprint(images));
         } catch (final DockerRegistryAuthException ex) {
             throw new MojoExecutionException("Unable to find auth configuration", ex);
         } catch (final ImageNotFoundException ex) {
@@ -64,133 +105,55 @@ public final class PopulateProjectRegistryMojo extends DockerVersionsMojo
             throw new MojoExecutionException("Unable to retag image", ex);
         } catch (final IncorrectDigestException ex) {
             throw new MojoExecutionException("Digest of downloaded image does not match specified digest", ex);
+        } catch (final ExecutionException ex) {
+            throw new MojoExecutionException("Unable to populate project registry", ex.getCause());
+        } catch (final CancellationException ex) {
+            throw new MojoExecutionException("Background populate of project registry was cancelled", ex);
         } catch (final InterruptedException ex) {
             LOGGER.warn("Plugin interrupted", ex);
             Thread.currentThread().interrupt();
         }
     }
 
-    private final class ExecutionImpl
+    private List<ImageConfiguration> getLockedImageManagement() throws MojoExecutionException
     {
-        final DockerRestClient dockerClient;
-
-        public ExecutionImpl()
-        {
-            dockerClient = new DockerRestClient(httpConfiguration, dockerHost);
+        if (lockFile == null) {
+            return imageManagement;
         }
-
-        public void executeImpl()
-            throws DockerRegistryAuthException,
-                   ProjectRegistryNotSetException,
-                   ImageNotFoundException,
-                   ImagePullException,
-                   ImageTaggingException,
-                   IncorrectDigestException,
-                   InterruptedException
-        {
-            LOGGER.debug("PopulateProjectRegistryMojo with this configuration {}", imageManagement);
-
-            for (final ImageConfiguration imageConfig : imageManagement) {
-                final ImageMoniker imageMoniker = new ImageMoniker(
-                    imageConfig.getRepository(),
-                    imageConfig.getTag(),
-                    imageConfig.getDigest());
-
-                // Skip pull if explicitly configured
-                // Always pull image if digest is not specified
-                // Avoid pull if image already exists and its digest matches specified digest, else pull image again
-                final InspectImageResponse image = getImageToTag(imageMoniker, imageConfig.isSkipPull());
-
-                final String targetRepository = StringUtils.isNotBlank(imageConfig.getTargetRepository())
-                    ? imageConfig.getTargetRepository()
-                    : imageMoniker.getRepositoryWithoutRegistry();
-
-                final String projectDockerRegistryImageName = getProjectDockerRegistry() + "/" + targetRepository;
-
-                dockerClient.tagImage(image, projectDockerRegistryImageName, LATEST_TAG);
-            }
+        if (!lockFile.isFile()) {
+            LOGGER.info("Lock file {} not found, using the images in the plugin configuration.", lockFile);
+            return imageManagement;
         }
-
-        private InspectImageResponse getImageToTag(final ImageMoniker imageMoniker, final boolean skipPull)
-            throws DockerRegistryAuthException,
-                   ImageNotFoundException,
-                   ImagePullException,
-                   IncorrectDigestException,
-                   InterruptedException
-        {
-            final String imageName = imageMoniker.getFullImageNameWithTag();
-            if (skipPull) {
-                LOGGER.debug("Image pull is skipped...check if image '{}' is already present...", imageName);
-                final Optional<InspectImageResponse> existingImage = dockerClient.findImage(imageName);
-                if (existingImage.isPresent()) {
-                    return existingImage.get();
-                }
-                throw new ImageNotFoundException("Image pull is skipped but image is not found: " + imageName);
-            }
-
-            if (!imageMoniker.hasDigest()) {
-                LOGGER.debug("Digest not specified for image '{}', pull it...", imageMoniker.getFullImageNameWithTag());
-                return pullImage(imageMoniker);
-            }
-
-            LOGGER.debug("Check if image '{}' is already present...", imageName);
-            final Optional<InspectImageResponse> existingImage = dockerClient.findImage(imageName);
-
-            if (existingImage.isPresent()) {
-                final InspectImageResponse image = existingImage.get();
-                // Digest and image are both present, check if the digests match
-                final String digest = imageMoniker.getDigest();
-                if (doesDigestMatchImage(image, digest)) {
-                    LOGGER.debug("Digest of existing image '{}-{}' matches {}.", image.getId(), image.getRepoDigests(), digest);
-                    return image;
-                }
-            }
-
-            // Image is not present or digest of existing image does not match the specified digest, so pull it again
-            return pullImage(imageMoniker);
+        try {
+            return ImageLockFile.apply(lockFile, imageManagement);
+        } catch (final IOException | IllegalArgumentException ex) {
+            throw new MojoExecutionException("Unable to read lock file " + lockFile, ex);
         }
+    }
 
-        private InspectImageResponse pullImage(final ImageMoniker imageMoniker)
-            throws DockerRegistryAuthException, ImagePullException, IncorrectDigestException, InterruptedException
-        {
-            final AuthConfig authConfig = AuthConfigHelper.getAuthConfig(settings, imageMoniker.getRegistry());
-
-            final boolean imagePullCompleted = dockerClient.pullImage(
-                imageMoniker.getFullImageNameWithoutTag(),
-                imageMoniker.getTag(),
-                authConfig);
-
-            final String imageName = imageMoniker.getFullImageNameWithTag();
-
-            if (!imagePullCompleted) {
-                throw new ImagePullException("Image was not pulled: " + imageName);
-            }
-
-            LOGGER.debug("Pulled image '{}', verify that it is now present...", imageName);
-            final Optional<InspectImageResponse> image = dockerClient.findImage(imageName);
-            if (!image.isPresent()) {
-                throw new ImagePullException("Image not found after pulling it: " + imageName);
-            }
-
-            final InspectImageResponse pulledImage = image.get();
-
-            // Check if the digest of the image that was pulled matches the specified digest
-            final String digest = imageMoniker.getDigest();
-            if (StringUtils.isNotBlank(digest) && !doesDigestMatchImage(pulledImage, digest)) {
-                throw new IncorrectDigestException(
-                    "Digest of the pulled image '" + imageName + "' does not match specified digest '" + digest + "'");
-            }
-            return pulledImage;
+    private String readFingerprint()
+    {
+        try {
+            return fingerprintFile.isFile()
+                ? new String(Files.readAllBytes(fingerprintFile.toPath()), StandardCharsets.UTF_8).trim()
+                : null;
+        } catch (final IOException ex) {
+            LOGGER.debug("Unable to read {}", fingerprintFile, ex);
+            return null;
         }
+    }
 
-        private boolean doesDigestMatchImage(
-            final InspectImageResponse image,
-            final String digest)
-        {
-            final List<String> repoDigests = image.getRepoDigests();
-            LOGGER.debug("Verifying digest '{}' for image '{}-{}'...", digest, image.getId(), repoDigests);
-            return repoDigests != null
-                && repoDigests.stream().anyMatch(di -> di.endsWith("@" + digest));
+    private void writeFingerprint(final Optional<String> fingerprint)
+    {
+        try {
+            if (fingerprint.isPresent()) {
+                Files.createDirectories(fingerprintFile.getParentFile().toPath());
+                Files.write(fingerprintFile.toPath(), fingerprint.get().getBytes(StandardCharsets.UTF_8));
+            } else {
+                Files.deleteIfExists(fingerprintFile.toPath());
+            }
+        } catch (final IOException ex) {
+            LOGGER.warn("Unable to write {}", fingerprintFile, ex);
         }
     }
 }
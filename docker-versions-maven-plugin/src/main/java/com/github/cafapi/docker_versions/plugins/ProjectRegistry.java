@@ -0,0 +1,594 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import com.github.cafapi.docker_versions.docker.auth.AuthConfigHelper;
+import com.github.cafapi.docker_versions.docker.auth.Constants;
+import com.github.cafapi.docker_versions.docker.auth.DockerRegistryAuthConfig;
+import com.github.cafapi.docker_versions.docker.auth.DockerRegistryAuthException;
+import com.github.cafapi.docker_versions.docker.client.DockerRegistryCopyClient;
+import com.github.cafapi.docker_versions.docker.client.DockerRegistryException;
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.cafapi.docker_versions.docker.client.ImageNotFoundException;
+import com.github.cafapi.docker_versions.docker.client.ImageTaggingException;
+import com.github.cafapi.docker_versions.docker.client.RegistryImage;
+import com.github.dockerjava.api.command.InspectImageResponse;
+import com.github.dockerjava.api.model.AuthConfig;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.settings.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Retags the Docker images that are used by a project to project specific names, and removes those names again.
+ */
+public final class ProjectRegistry
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectRegistry.class);
+
+    private final DockerRestClient dockerClient;
+    private final Settings settings;
+    private final String projectDockerRegistry;
+    private final boolean strictTagging;
+    private final boolean daemonDigestResolver;
+    private final boolean registryBackend;
+    private final SharedDaemonLocks sharedDaemonLocks;
+    private final ImageCache imageCache;
+
+    /**
+     * @param dockerClient the client for the Docker daemon
+     * @param settings the Maven settings, used to look up registry credentials
+     * @param projectDockerRegistry the name of the project registry
+     * @param strictTagging whether to verify each image as soon as it is tagged or untagged, rather than verifying them all at once
+     * @param daemonDigestResolver whether to check that images which are not pinned by digest are up to date through the Docker
+     * daemon, rather than always pulling them
+     * @param registryBackend whether to copy the images to the project registry using the registry API, rather than pulling and
+     * tagging them through the Docker daemon
+     * @param sharedDaemonLocks the locks used to coordinate with other builds using the same Docker daemon, or null if the Docker
+     * daemon is not shared
+     * @param imageCache the cache of the images that have been pulled, or null if the images are not cached
+     */
+    public ProjectRegistry(
+        final DockerRestClient dockerClient,
+        final Settings settings,
+        final String projectDockerRegistry,
+        final boolean strictTagging,
+        final boolean daemonDigestResolver,
+        final boolean registryBackend,
+        final SharedDaemonLocks sharedDaemonLocks,
+        final ImageCache imageCache)
+    {
+        this.dockerClient = dockerClient;
+        this.settings = settings;
+        this.projectDockerRegistry = projectDockerRegistry;
+        this.strictTagging = strictTagging;
+        this.daemonDigestResolver = daemonDigestResolver;
+        this.registryBackend = registryBackend;
+        this.sharedDaemonLocks = sharedDaemonLocks;
+        this.imageCache = imageCache;
+    }
+
+    public void populate(final List<ImageConfiguration> imageManagement)
+        throws DockerRegistryAuthException,
+               ImageNotFoundException,
+               ImagePullException,
+               ImageTaggingException,
+               IncorrectDigestException,
+               InterruptedException
+    {
+        // Pull each image once, even if it is tagged with more than one project specific name
+        final Map<String, List<ImageConfiguration>> imagesBySource = imageManagement.stream()
+            .collect(Collectors.groupingBy(ProjectRegistry::getSourceImage, LinkedHashMap::new, Collectors.toList()));
+
+        if (registryBackend) {
+            copyImages(imagesBySource);
+            return;
+        }
+
+        final Map<String, InspectImageResponse> imagesToTag = new LinkedHashMap<>();
+        for (final List<ImageConfiguration> sourceImageConfigs : imagesBySource.values()) {
+            final ImageConfiguration imageConfig = sourceImageConfigs.get(0);
+            final ImageMoniker imageMoniker = new ImageMoniker(
+                imageConfig.getRepository(),
+                imageConfig.getTag(),
+                imageConfig.getDigest());
+
+            // Skip pull if explicitly configured
+            // Always pull image if digest is not specified
+            // Avoid pull if image already exists and its digest matches specified digest, else pull image again
+            final boolean skipPull = sourceImageConfigs.stream().allMatch(ImageConfiguration::isSkipPull);
+            final InspectImageResponse image = sharedDaemonLocks == null
+                ? getImageToTag(imageMoniker, skipPull)
+                : getSharedImageToTag(imageMoniker, skipPull);
+
+            final Set<String> targetRepositories = sourceImageConfigs.stream()
+                .map(config -> getTargetRepository(config, imageMoniker))
+                .collect(Collectors.toCollection(LinkedHashSet::new));
+
+            for (final String targetRepository : targetRepositories) {
+                final String projectDockerRegistryImageName = projectDockerRegistry + "/" + targetRepository;
+
+                if (sharedDaemonLocks != null) {
+                    tagSharedImage(image, projectDockerRegistryImageName);
+                } else if (strictTagging) {
+                    dockerClient.tagImage(image, projectDockerRegistryImageName, DockerVersionsMojo.LATEST_TAG);
+                } else {
+                    imagesToTag.put(projectDockerRegistryImageName, image);
+                }
+            }
+        }
+
+        // The images are tagged together once they have all been pulled
+        dockerClient.tagImages(imagesToTag, DockerVersionsMojo.LATEST_TAG);
+    }
+
+    public void depopulate(final List<ImageConfiguration> imageManagement) throws ImageTaggingException
+    {
+        if (registryBackend) {
+            deleteImages(imageManagement);
+            return;
+        }
+
+        if (sharedDaemonLocks != null) {
+            for (final String imageName : getProjectImageNames(imageManagement)) {
+                untagSharedImage(imageName);
+            }
+            return;
+        }
+
+        if (!strictTagging) {
+            dockerClient.untagImages(getProjectImageNames(imageManagement));
+            return;
+        }
+
+        for (final String imageName : getProjectImageNames(imageManagement)) {
+            LOGGER.debug("Check if image '{}' is present...", imageName);
+            final Optional<InspectImageResponse> taggedImage = dockerClient.findImage(imageName);
+            if (taggedImage.isPresent()) {
+                dockerClient.untagImage(imageName);
+            } else {
+                LOGGER.info("Untagging {}... unnecessary as image not found", imageName);
+            }
+        }
+    }
+
+    /**
+     * Returns a fingerprint of the images that are tagged in the project registry, which changes whenever the image configuration,
+     * the project registry or the tagged images change.
+     * <p>
+     * The images are looked up with a single query. No fingerprint is returned for images that are not pinned by digest, as they may
+     * need to be pulled again, or if an image is not tagged in the project registry. Images that are not pulled and not pinned by
+     * digest must still be tagged from the current image of their repository and tag, as they may have been rebuilt.
+     *
+     * @param imageManagement the image configuration
+     * @return the fingerprint, if it can be determined without pulling any images
+     */
+    public Optional<String> getFingerprint(final List<ImageConfiguration> imageManagement)
+    {
+        // Copying images that are already present in the project registry only checks that their layers are present
+        // Images on a shared Docker daemon are always tagged, to record that this build is using them
+        if (registryBackend || sharedDaemonLocks != null) {
+            return Optional.empty();
+        }
+
+        if (imageManagement.stream().anyMatch(config -> !config.isSkipPull() && StringUtils.isBlank(config.getDigest()))) {
+            return Optional.empty();
+        }
+
+        final Map<String, String> imageIdsByName = dockerClient.getImageIdsByName();
+
+        final MessageDigest messageDigest = getSha256Digest();
+        messageDigest.update(projectDockerRegistry.getBytes(StandardCharsets.UTF_8));
+        for (final ImageConfiguration imageConfig : imageManagement) {
+            final String imageName = projectDockerRegistry + "/" + getTargetRepository(imageConfig) + ":" + DockerVersionsMojo.LATEST_TAG;
+            final String imageId = imageIdsByName.get(imageName);
+            if (imageId == null) {
+                LOGGER.debug("Image '{}' is not tagged in the project registry.", imageName);
+                return Optional.empty();
+            }
+            if (imageConfig.isSkipPull() && StringUtils.isBlank(imageConfig.getDigest())) {
+                // An image that is built locally rather than pulled is only up to date if it is still the image that was tagged
+                final ImageMoniker imageMoniker = new ImageMoniker(imageConfig.getRepository(), imageConfig.getTag(), null);
+                if (!imageId.equals(getLocalImageId(imageIdsByName, imageMoniker))) {
+                    LOGGER.debug("Image '{}' is not tagged from the current image '{}'.", imageName,
+                                 imageMoniker.getFullImageNameWithTag());
+                    return Optional.empty();
+                }
+            }
+            messageDigest.update(("\n" + imageConfig + "\n" + imageId).getBytes(StandardCharsets.UTF_8));
+        }
+
+        final StringBuilder fingerprint = new StringBuilder();
+        for (final byte b : messageDigest.digest()) {
+            fingerprint.append(String.format("%02x", b));
+        }
+        return Optional.of(fingerprint.toString());
+    }
+
+    private static String getLocalImageId(final Map<String, String> imageIdsByName, final ImageMoniker imageMoniker)
+    {
+        final String imageId = imageIdsByName.get(imageMoniker.getFullImageNameWithTag());
+        if (imageId != null || !Constants.DEFAULT_REGISTRY.equals(imageMoniker.getRegistry())) {
+            return imageId;
+        }
+
+        // The Docker daemon lists the images from Docker Hub without the registry and the library namespace
+        final String repository = StringUtils.removeStart(imageMoniker.getRepositoryWithoutRegistry(), "library/");
+        return imageIdsByName.get(repository + ":" + imageMoniker.getTag());
+    }
+
+    private void copyImages(final Map<String, List<ImageConfiguration>> imagesBySource)
+        throws DockerRegistryAuthException, ImageNotFoundException, ImagePullException
+    {
+        final DockerRegistryAuthConfig projectRegistryAuthConfig
+            = AuthConfigHelper.getRegistryAuthConfig(settings, getProjectRegistryHost());
+
+        try (final DockerRegistryCopyClient copyClient = new DockerRegistryCopyClient()) {
+            for (final List<ImageConfiguration> sourceImageConfigs : imagesBySource.values()) {
+                final ImageConfiguration imageConfig = sourceImageConfigs.get(0);
+                final ImageMoniker imageMoniker = new ImageMoniker(
+                    imageConfig.getRepository(),
+                    imageConfig.getTag(),
+                    imageConfig.getDigest());
+
+                if (sourceImageConfigs.stream().allMatch(ImageConfiguration::isSkipPull)) {
+                    throw new ImageNotFoundException(
+                        "Image pull is skipped, so the image cannot be copied in the registry: " + imageMoniker.getFullImageNameWithTag());
+                }
+
+                final RegistryImage source = getSourceRegistryImage(imageMoniker);
+
+                final Set<String> targetRepositories = sourceImageConfigs.stream()
+                    .map(config -> getTargetRepository(config, imageMoniker))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+
+                for (final String targetRepository : targetRepositories) {
+                    copyClient.copyImage(source, getProjectRegistryImage(targetRepository, projectRegistryAuthConfig));
+                }
+            }
+        } catch (final DockerRegistryException | IOException ex) {
+            throw new ImagePullException("Unable to copy images to project registry " + projectDockerRegistry, ex);
+        }
+    }
+
+    private void deleteImages(final List<ImageConfiguration> imageManagement)
+    {
+        final Map<String, List<ImageConfiguration>> imagesBySource = imageManagement.stream()
+            .collect(Collectors.groupingBy(ProjectRegistry::getSourceImage, LinkedHashMap::new, Collectors.toList()));
+
+        try (final DockerRegistryCopyClient copyClient = new DockerRegistryCopyClient()) {
+            final DockerRegistryAuthConfig projectRegistryAuthConfig
+                = AuthConfigHelper.getRegistryAuthConfig(settings, getProjectRegistryHost());
+            final Set<String> deletedRepositories = new LinkedHashSet<>();
+            for (final List<ImageConfiguration> sourceImageConfigs : imagesBySource.values()) {
+                final ImageConfiguration imageConfig = sourceImageConfigs.get(0);
+                final ImageMoniker imageMoniker = new ImageMoniker(
+                    imageConfig.getRepository(),
+                    imageConfig.getTag(),
+                    imageConfig.getDigest());
+
+                // Only the manifest this project copied is deleted, as another build may have copied a different image to the same
+                // repository since, and deleting a manifest removes every tag that refers to it
+                final Optional<String> copiedDigest = imageMoniker.hasDigest()
+                    ? Optional.of(imageMoniker.getDigest())
+                    : copyClient.getDigest(getSourceRegistryImage(imageMoniker));
+                if (!copiedDigest.isPresent()) {
+                    LOGGER.warn("Unable to determine the digest of {}, so it is not deleted from project registry {}",
+                                imageMoniker.getFullImageNameWithTag(), projectDockerRegistry);
+                    continue;
+                }
+
+                for (final ImageConfiguration config : sourceImageConfigs) {
+                    final String targetRepository = getTargetRepository(config, imageMoniker);
+                    if (deletedRepositories.contains(targetRepository)) {
+                        continue;
+                    }
+                    final RegistryImage image = getProjectRegistryImage(targetRepository, projectRegistryAuthConfig);
+                    if (copyClient.deleteImage(image, copiedDigest.get())) {
+                        deletedRepositories.add(targetRepository);
+                    } else {
+                        LOGGER.info("Deleting {}... unnecessary as the copied image was not found", image);
+                    }
+                }
+            }
+        } catch (final DockerRegistryAuthException | DockerRegistryException | IOException ex) {
+            // The images are left in the project registry if it does not allow deleting them
+            LOGGER.warn("Unable to delete images from project registry {}", projectDockerRegistry, ex);
+        }
+    }
+
+    private RegistryImage getSourceRegistryImage(final ImageMoniker imageMoniker) throws DockerRegistryAuthException
+    {
+        // Copying the image by digest ensures that the project registry gets the specified image
+        return new RegistryImage(
+            imageMoniker.getRegistry(),
+            imageMoniker.getRepositoryWithoutRegistry(),
+            imageMoniker.hasDigest() ? imageMoniker.getDigest() : imageMoniker.getTag(),
+            AuthConfigHelper.getRegistryAuthConfig(settings, imageMoniker.getRegistry()));
+    }
+
+    private RegistryImage getProjectRegistryImage(final String targetRepository, final DockerRegistryAuthConfig authConfig)
+    {
+        // The project registry may include a path, such as localhost:5000/my-project, under which the repositories are created
+        final int pathStart = projectDockerRegistry.indexOf('/');
+        final String repository = pathStart < 0
+            ? targetRepository
+            : projectDockerRegistry.substring(pathStart + 1) + "/" + targetRepository;
+        return new RegistryImage(getProjectRegistryHost(), repository, DockerVersionsMojo.LATEST_TAG, authConfig);
+    }
+
+    private String getProjectRegistryHost()
+    {
+        final int pathStart = projectDockerRegistry.indexOf('/');
+        return pathStart < 0 ? projectDockerRegistry : projectDockerRegistry.substring(0, pathStart);
+    }
+
+    private InspectImageResponse getSharedImageToTag(final ImageMoniker imageMoniker, final boolean skipPull)
+        throws DockerRegistryAuthException,
+               ImageNotFoundException,
+               ImagePullException,
+               IncorrectDigestException,
+               InterruptedException
+    {
+        final String imageName = imageMoniker.getFullImageNameWithTag();
+        try (final SharedDaemonLocks.ImageLock lock = sharedDaemonLocks.lock(imageName)) {
+            // Another build that was pulling the image while this build waited has already brought it up to date
+            if (!skipPull && !imageMoniker.hasDigest() && lock.wasPulledWhileWaiting()) {
+                final Optional<InspectImageResponse> existingImage = dockerClient.findImage(imageName);
+                if (existingImage.isPresent()) {
+                    LOGGER.debug("Image '{}' was pulled by another build.", imageName);
+                    return existingImage.get();
+                }
+            }
+
+            final InspectImageResponse image = getImageToTag(imageMoniker, skipPull);
+            if (!skipPull) {
+                lock.markPulled();
+            }
+            return image;
+        } catch (final IOException ex) {
+            throw new ImagePullException("Unable to lock image " + imageName, ex);
+        }
+    }
+
+    private void tagSharedImage(final InspectImageResponse image, final String imageName) throws ImageTaggingException
+    {
+        final String taggedImageName = imageName + ":" + DockerVersionsMojo.LATEST_TAG;
+        try {
+            final SharedDaemonLocks.ImageLock lock = sharedDaemonLocks.lock(taggedImageName);
+            try {
+                sharedDaemonLocks.addReference(taggedImageName);
+                dockerClient.tagImage(image, imageName, DockerVersionsMojo.LATEST_TAG);
+            } finally {
+                lock.close();
+            }
+        } catch (final IOException ex) {
+            throw new ImageTaggingException("Unable to lock image " + taggedImageName, ex);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ImageTaggingException("Interrupted while waiting to tag image " + taggedImageName, ex);
+        }
+    }
+
+    private void untagSharedImage(final String imageName) throws ImageTaggingException
+    {
+        try {
+            final SharedDaemonLocks.ImageLock lock = sharedDaemonLocks.lock(imageName);
+            try {
+                if (!sharedDaemonLocks.removeReference(imageName)) {
+                    LOGGER.info("Untagging {}... skipped as the image is still used by another build", imageName);
+                } else if (dockerClient.findImage(imageName).isPresent()) {
+                    dockerClient.untagImage(imageName);
+                } else {
+                    LOGGER.info("Untagging {}... unnecessary as image not found", imageName);
+                }
+            } finally {
+                lock.close();
+            }
+        } catch (final IOException ex) {
+            throw new ImageTaggingException("Unable to lock image " + imageName, ex);
+        } catch (final InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            throw new ImageTaggingException("Interrupted while waiting to untag image " + imageName, ex);
+        }
+    }
+
+    private static MessageDigest getSha256Digest()
+    {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+    }
+
+    private Set<String> getProjectImageNames(final List<ImageConfiguration> imageManagement)
+    {
+        return getProjectRepositories(imageManagement).stream()
+            .map(targetRepository -> projectDockerRegistry + "/" + targetRepository + ":" + DockerVersionsMojo.LATEST_TAG)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    private static Set<String> getProjectRepositories(final List<ImageConfiguration> imageManagement)
+    {
+        // The same project specific name may be configured for more than one image
+        return imageManagement.stream()
+            .map(ProjectRegistry::getTargetRepository)
+            .collect(Collectors.toCollection(LinkedHashSet::new));
+    }
+
+    static String getTargetRepository(final ImageConfiguration imageConfig)
+    {
+        final ImageMoniker imageMoniker = new ImageMoniker(
+            imageConfig.getRepository(),
+            imageConfig.getTag(),
+            imageConfig.getDigest());
+        return getTargetRepository(imageConfig, imageMoniker);
+    }
+
+    private static String getTargetRepository(final ImageConfiguration imageConfig, final ImageMoniker imageMoniker)
+    {
+        return StringUtils.isNotBlank(imageConfig.getTargetRepository())
+            ? imageConfig.getTargetRepository()
+            : imageMoniker.getRepositoryWithoutRegistry();
+    }
+
+    static String getSourceImage(final ImageConfiguration imageConfig)
+    {
+        // The digest identifies the image, irrespective of the tag used to refer to it
+        return StringUtils.isNotBlank(imageConfig.getDigest())
+            ? imageConfig.getRepository() + "@" + imageConfig.getDigest()
+            : imageConfig.getRepository() + ":" + imageConfig.getTag();
+    }
+
+    private InspectImageResponse getImageToTag(final ImageMoniker imageMoniker, final boolean skipPull)
+        throws DockerRegistryAuthException,
+               ImageNotFoundException,
+               ImagePullException,
+               IncorrectDigestException,
+               InterruptedException
+    {
+        final String imageName = imageMoniker.getFullImageNameWithTag();
+        if (skipPull) {
+            LOGGER.debug("Image pull is skipped...check if image '{}' is already present...", imageName);
+            final Optional<InspectImageResponse> existingImage = dockerClient.findImage(imageName);
+            if (existingImage.isPresent()) {
+                return existingImage.get();
+            }
+            throw new ImageNotFoundException("Image pull is skipped but image is not found: " + imageName);
+        }
+
+        if (!imageMoniker.hasDigest()) {
+            if (daemonDigestResolver) {
+                final Optional<InspectImageResponse> upToDateImage = findUpToDateImage(imageMoniker);
+                if (upToDateImage.isPresent()) {
+                    return upToDateImage.get();
+                }
+            }
+            LOGGER.debug("Digest not specified for image '{}', pull it...", imageMoniker.getFullImageNameWithTag());
+            return pullImage(imageMoniker);
+        }
+
+        LOGGER.debug("Check if image '{}' is already present...", imageName);
+        final Optional<InspectImageResponse> existingImage = dockerClient.findImage(imageName);
+
+        if (existingImage.isPresent()) {
+            final InspectImageResponse image = existingImage.get();
+            // Digest and image are both present, check if the digests match
+            final String digest = imageMoniker.getDigest();
+            if (doesDigestMatchImage(image, digest)) {
+                LOGGER.debug("Digest of existing image '{}-{}' matches {}.", image.getId(), image.getRepoDigests(), digest);
+                return image;
+            }
+            // Images loaded from the cache do not record the digest they were pulled with
+            if (imageCache != null && imageCache.isCachedImage(digest, image)) {
+                LOGGER.debug("Existing image '{}' was loaded from the cache for {}.", image.getId(), digest);
+                return image;
+            }
+        }
+
+        if (imageCache != null) {
+            final Optional<InspectImageResponse> cachedImage = imageCache.load(dockerClient, imageMoniker.getDigest());
+            if (cachedImage.isPresent()) {
+                return cachedImage.get();
+            }
+        }
+
+        // Image is not present or digest of existing image does not match the specified digest, so pull it again
+        final InspectImageResponse pulledImage = pullImage(imageMoniker);
+        if (imageCache != null) {
+            imageCache.save(
+                dockerClient, imageMoniker.getFullImageNameWithoutTag(), imageMoniker.getTag(), imageMoniker.getDigest(), pulledImage);
+        }
+        return pulledImage;
+    }
+
+    private Optional<InspectImageResponse> findUpToDateImage(final ImageMoniker imageMoniker) throws DockerRegistryAuthException
+    {
+        final String imageName = imageMoniker.getFullImageNameWithTag();
+        final Optional<InspectImageResponse> existingImage = dockerClient.findImage(imageName);
+        if (!existingImage.isPresent()) {
+            return Optional.empty();
+        }
+
+        // The image does not need to be pulled again if the tag still refers to the same image in the registry
+        final AuthConfig authConfig = AuthConfigHelper.getAuthConfig(settings, imageMoniker.getRegistry());
+        try {
+            final String digest = dockerClient.getDistributionDigest(imageName, authConfig);
+            if (doesDigestMatchImage(existingImage.get(), digest)) {
+                LOGGER.debug("Image '{}' is up to date with digest {}.", imageName, digest);
+                return existingImage;
+            }
+        } catch (final DockerRegistryException | ImageNotFoundException ex) {
+            LOGGER.debug("Unable to check if image '{}' is up to date, pull it...", imageName, ex);
+        }
+        return Optional.empty();
+    }
+
+    private InspectImageResponse pullImage(final ImageMoniker imageMoniker)
+        throws DockerRegistryAuthException, ImagePullException, IncorrectDigestException, InterruptedException
+    {
+        final AuthConfig authConfig = AuthConfigHelper.getAuthConfig(settings, imageMoniker.getRegistry());
+
+        final boolean imagePullCompleted = dockerClient.pullImage(
+            imageMoniker.getFullImageNameWithoutTag(),
+            imageMoniker.getTag(),
+            authConfig);
+
+        final String imageName = imageMoniker.getFullImageNameWithTag();
+
+        if (!imagePullCompleted) {
+            throw new ImagePullException("Image was not pulled: " + imageName);
+        }
+
+        LOGGER.debug("Pulled image '{}', verify that it is now present...", imageName);
+        final Optional<InspectImageResponse> image = dockerClient.findImage(imageName);
+        if (!image.isPresent()) {
+            throw new ImagePullException("Image not found after pulling it: " + imageName);
+        }
+
+        final InspectImageResponse pulledImage = image.get();
+
+        // Check if the digest of the image that was pulled matches the specified digest
+        final String digest = imageMoniker.getDigest();
+        if (StringUtils.isNotBlank(digest) && !doesDigestMatchImage(pulledImage, digest)) {
+            throw new IncorrectDigestException(
+                "Digest of the pulled image '" + imageName + "' does not match specified digest '" + digest + "'");
+        }
+        return pulledImage;
+    }
+
+    private static boolean doesDigestMatchImage(
+        final InspectImageResponse image,
+        final String digest)
+    {
+        final List<String> repoDigests = image.getRepoDigests();
+        LOGGER.debug("Verifying digest '{}' for image '{}-{}'...", digest, image.getId(), repoDigests);
+        return repoDigests != null
+            && repoDigests.stream().anyMatch(di -> di.endsWith("@" + digest));
+    }
+}
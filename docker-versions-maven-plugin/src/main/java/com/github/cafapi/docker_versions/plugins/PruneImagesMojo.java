@@ -0,0 +1,144 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import com.github.cafapi.docker_versions.docker.client.DockerRegistryException;
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.cafapi.docker_versions.docker.client.ImageTaggingException;
+import com.github.dockerjava.api.model.Image;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import org.apache.commons.io.FileUtils;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Mojo;
+import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Removes the images in the repositories of the configured images that are not referenced by the tag or digest of any image
+ * configured in the build.
+ */
+@Mojo(name = "prune-images")
+public final class PruneImagesMojo extends DockerVersionsMojo
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(PruneImagesMojo.class);
+
+    @Parameter(property = "skipPruneImages", defaultValue = "false")
+    private boolean skipPruneImages;
+
+    @Parameter(property = "docker.versions.dryRun", defaultValue = "false")
+    private boolean dryRun;
+
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException
+    {
+        if (skip || skipPruneImages) {
+            LOGGER.info("Skipping prune images.");
+            return;
+        }
+
+        final DockerRestClient dockerClient = getDockerClient();
+        final List<Image> imagesToRemove = ImagePruner.getImagesToRemove(
+            dockerClient.listImages(), imageManagement, getConfiguredImages());
+
+        if (imagesToRemove.isEmpty()) {
+            LOGGER.info("No images to prune.");
+            return;
+        }
+
+        if (dryRun) {
+            for (final Image image : imagesToRemove) {
+                LOGGER.info("Would remove {} {} ({})", image.getId(), getNames(image), getDisplaySize(getSize(image)));
+            }
+            // Layers shared with other images are not reclaimed, so this is the most that could be reclaimed
+            LOGGER.info("Would remove {} images, reclaiming up to {}.",
+                        imagesToRemove.size(), getDisplaySize(imagesToRemove.stream().mapToLong(PruneImagesMojo::getSize).sum()));
+            return;
+        }
+
+        final Long layersSizeBefore = getLayersSize(dockerClient);
+        final List<Image> removedImages;
+        try {
+            removedImages = dockerClient.removeImages(imagesToRemove);
+        } catch (final ImageTaggingException ex) {
+            throw new MojoExecutionException("Unable to remove images", ex);
+        }
+        final Long layersSizeAfter = getLayersSize(dockerClient);
+
+        if (removedImages.size() < imagesToRemove.size()) {
+            LOGGER.warn("{} of {} images could not be removed.", imagesToRemove.size() - removedImages.size(), imagesToRemove.size());
+        }
+        if (layersSizeBefore != null && layersSizeAfter != null) {
+            LOGGER.info("Removed {} images, reclaiming {}.",
+                        removedImages.size(), getDisplaySize(Math.max(0, layersSizeBefore - layersSizeAfter)));
+        } else {
+            LOGGER.info("Removed {} images.", removedImages.size());
+        }
+    }
+
+    private List<ImageConfiguration> getConfiguredImages()
+    {
+        // Images configured in the other projects of the build are kept as well
+        final List<ImageConfiguration> configuredImages = new ArrayList<>(imageManagement);
+        for (final MavenProject reactorProject : session.getProjects()) {
+            final Plugin plugin = DockerVersionsHelper.getPlugin(reactorProject);
+            final Xpp3Dom pluginConfig = plugin == null ? null : DockerVersionsHelper.getPluginConfig(plugin);
+            if (pluginConfig != null && pluginConfig.getChild("imageManagement") != null) {
+                configuredImages.addAll(
+                    DockerVersionsHelper.getImageConfigurations(DockerVersionsHelper.getImagesConfig(pluginConfig)));
+            }
+        }
+        return configuredImages;
+    }
+
+    private static Long getLayersSize(final DockerRestClient dockerClient)
+    {
+        try {
+            return dockerClient.getLayersSize();
+        } catch (final DockerRegistryException ex) {
+            LOGGER.debug("Unable to get the disk space used by the image layers", ex);
+            return null;
+        }
+    }
+
+    private static List<String> getNames(final Image image)
+    {
+        final List<String> names = new ArrayList<>();
+        if (image.getRepoTags() != null) {
+            names.addAll(Arrays.asList(image.getRepoTags()));
+        }
+        if (names.isEmpty() && image.getRepoDigests() != null) {
+            names.addAll(Arrays.asList(image.getRepoDigests()));
+        }
+        return names;
+    }
+
+    private static long getSize(final Image image)
+    {
+        return image.getSize() == null ? 0 : image.getSize();
+    }
+
+    private static String getDisplaySize(final long size)
+    {
+        return FileUtils.byteCountToDisplaySize(size);
+    }
+}
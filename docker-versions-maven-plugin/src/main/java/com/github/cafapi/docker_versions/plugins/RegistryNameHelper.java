@@ -28,9 +28,10 @@ public final class RegistryNameHelper
 
     public static String sanitizeRegistryName(final String registryName)
     {
-        // Valid characters are case insensitive alphabets (a-z) (A-Z), digits (0-9), minus sign (-), and period (.)
-        // replace all other chars with 2 hyphens
-        if (!registryName.matches("[a-zA-Z0-9-.]+")) {
+        // Valid characters are case insensitive alphabets (a-z) (A-Z), digits (0-9), minus sign (-), and period (.),
+        // optionally followed by a port number and by a path of lowercase repository name components, such as
+        // localhost:5000/my-project, replace all other chars with 2 hyphens
+        if (!registryName.matches("[a-zA-Z0-9-.]+(:[0-9]+)?(/[a-z0-9]+([._-][a-z0-9]+)*)*")) {
             final String sanitizedRegistryName = registryName.replaceAll("[^a-zA-Z0-9-.]+", "--");
             LOGGER.warn("Invalid project docker registry name: {}, sanitized to: {}", registryName, sanitizedRegistryName);
             return sanitizedRegistryName;
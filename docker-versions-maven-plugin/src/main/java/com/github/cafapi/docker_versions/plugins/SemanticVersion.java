@@ -0,0 +1,159 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+/**
+ * A tag parsed as a semantic version, such as {@code 3.1.2}, {@code v3.1} or {@code 3.1.2-rc.1}.
+ * <p>
+ * Missing minor and patch numbers are taken to be zero, and build metadata after a {@code +} is ignored.
+ */
+final class SemanticVersion implements Comparable<SemanticVersion>
+{
+    static final int COMPONENT_COUNT = 3;
+
+    // Keeps every number within a long
+    private static final int MAX_DIGITS = 18;
+
+    private static final String[] NO_PRERELEASE = new String[0];
+
+    private final long[] numbers;
+    private final String[] prerelease;
+
+    SemanticVersion(final long[] numbers, final String[] prerelease)
+    {
+        this.numbers = numbers;
+        this.prerelease = prerelease;
+    }
+
+    /**
+     * Parses a tag as a semantic version.
+     *
+     * @param tag the tag
+     * @return the version, or null if the tag is not a semantic version
+     */
+    static SemanticVersion parse(final String tag)
+    {
+        int index = tag.startsWith("v") || tag.startsWith("V") ? 1 : 0;
+        final long[] numbers = new long[COMPONENT_COUNT];
+        for (int component = 0; component < COMPONENT_COUNT; component++) {
+            final int end = getNumberEnd(tag, index);
+            if (end == index || end - index > MAX_DIGITS) {
+                return null;
+            }
+            numbers[component] = Long.parseLong(tag.substring(index, end));
+            index = end;
+            if (index == tag.length() || tag.charAt(index) != '.' || component == COMPONENT_COUNT - 1) {
+                break;
+            }
+            index++;
+        }
+
+        if (index == tag.length()) {
+            return new SemanticVersion(numbers, NO_PRERELEASE);
+        }
+        final char separator = tag.charAt(index);
+        if (separator == '+') {
+            return index + 1 < tag.length() ? new SemanticVersion(numbers, NO_PRERELEASE) : null;
+        }
+        if (separator != '-' || index + 1 == tag.length()) {
+            return null;
+        }
+        final int buildStart = tag.indexOf('+', index + 1);
+        final String prerelease = tag.substring(index + 1, buildStart < 0 ? tag.length() : buildStart);
+        return prerelease.isEmpty() ? null : new SemanticVersion(numbers, prerelease.split("\\.", -1));
+    }
+
+    long getNumber(final int component)
+    {
+        return numbers[component];
+    }
+
+    boolean isPrerelease()
+    {
+        return prerelease.length > 0;
+    }
+
+    @Override
+    public int compareTo(final SemanticVersion other)
+    {
+        for (int component = 0; component < COMPONENT_COUNT; component++) {
+            final int result = Long.compare(numbers[component], other.numbers[component]);
+            if (result != 0) {
+                return result;
+            }
+        }
+
+        // A pre-release comes before the release itself
+        if (prerelease.length == 0 || other.prerelease.length == 0) {
+            return Integer.compare(other.prerelease.length, prerelease.length);
+        }
+        for (int i = 0; i < Math.min(prerelease.length, other.prerelease.length); i++) {
+            final int result = compareIdentifiers(prerelease[i], other.prerelease[i]);
+            if (result != 0) {
+                return result;
+            }
+        }
+        return Integer.compare(prerelease.length, other.prerelease.length);
+    }
+
+    @Override
+    public boolean equals(final Object obj)
+    {
+        return obj instanceof SemanticVersion && compareTo((SemanticVersion) obj) == 0;
+    }
+
+    @Override
+    public int hashCode()
+    {
+        return Long.hashCode(numbers[0]) * 31 * 31 + Long.hashCode(numbers[1]) * 31 + Long.hashCode(numbers[2]);
+    }
+
+    @Override
+    public String toString()
+    {
+        final String version = numbers[0] + "." + numbers[1] + "." + numbers[2];
+        return prerelease.length == 0 ? version : version + "-" + String.join(".", prerelease);
+    }
+
+    static int getNumberEnd(final String value, final int start)
+    {
+        int end = start;
+        while (end < value.length() && value.charAt(end) >= '0' && value.charAt(end) <= '9') {
+            end++;
+        }
+        return end;
+    }
+
+    private static int compareIdentifiers(final String identifier, final String otherIdentifier)
+    {
+        final boolean numeric = isNumeric(identifier);
+        final boolean otherNumeric = isNumeric(otherIdentifier);
+        if (numeric && otherNumeric) {
+            final int result = Integer.compare(identifier.length(), otherIdentifier.length());
+            return result != 0 ? result : identifier.compareTo(otherIdentifier);
+        }
+        if (numeric || otherNumeric) {
+            // Numeric identifiers come before alphanumeric identifiers
+            return numeric ? -1 : 1;
+        }
+        return identifier.compareTo(otherIdentifier);
+    }
+
+    private static boolean isNumeric(final String identifier)
+    {
+        return !identifier.isEmpty() && getNumberEnd(identifier, 0) == identifier.length();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+
+/**
+ * A range of semantic versions, such as {@code >=3.0.0 <4.0.0}, {@code 3.x} or {@code prerelease}.
+ * <p>
+ * A range is one or more sets of conditions separated by {@code ||}, and matches a version if every condition of any of the sets
+ * matches it. A condition is one of:
+ * <ul>
+ * <li>{@code prerelease}, which matches any version with a pre-release, such as {@code 3.1.0-rc.1}</li>
+ * <li>a version compared with {@code >}, {@code >=}, {@code <} or {@code <=}, using semantic version precedence</li>
+ * <li>a version, optionally preceded by {@code =}, which matches that version exactly. Any missing or {@code x} minor and patch
+ * numbers match any number, so {@code 3} and {@code 3.x} match every {@code 3} version</li>
+ * </ul>
+ */
+final class SemverRange
+{
+    private static final String PRERELEASE = "prerelease";
+
+    private final String range;
+    private final List<List<Predicate<SemanticVersion>>> conditionSets;
+
+    private SemverRange(final String range, final List<List<Predicate<SemanticVersion>>> conditionSets)
+    {
+        this.range = range;
+        this.conditionSets = conditionSets;
+    }
+
+    /**
+     * Parses a range.
+     *
+     * @param range the range
+     * @return the parsed range
+     * @throws IllegalArgumentException if the range is not valid
+     */
+    static SemverRange parse(final String range)
+    {
+        final List<List<Predicate<SemanticVersion>>> conditionSets = new ArrayList<>();
+        for (final String conditionSet : range.split("\\|\\|", -1)) {
+            final List<Predicate<SemanticVersion>> conditions = new ArrayList<>();
+            String operator = "";
+            for (final String token : conditionSet.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                final String tokenOperator = getOperator(token);
+                if (tokenOperator.length() == token.length() && operator.isEmpty()) {
+                    // The operator is separated from its version by a space
+                    operator = tokenOperator;
+                    continue;
+                }
+                conditions.add(parseCondition(range, operator + token));
+                operator = "";
+            }
+            if (!operator.isEmpty() || conditions.isEmpty()) {
+                throw new IllegalArgumentException("Invalid semver-range '" + range + "'");
+            }
+            conditionSets.add(conditions);
+        }
+        return new SemverRange(range, conditionSets);
+    }
+
+    /**
+     * Checks whether a version is in the range.
+     *
+     * @param version the version, or null if the tag is not a semantic version
+     * @return whether the version is in the range
+     */
+    boolean matches(final SemanticVersion version)
+    {
+        if (version == null) {
+            return false;
+        }
+        for (final List<Predicate<SemanticVersion>> conditions : conditionSets) {
+            if (conditions.stream().allMatch(condition -> condition.test(version))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public String toString()
+    {
+        return range;
+    }
+
+    private static Predicate<SemanticVersion> parseCondition(final String range, final String condition)
+    {
+        if (PRERELEASE.equals(condition)) {
+            return SemanticVersion::isPrerelease;
+        }
+
+        final String operator = getOperator(condition);
+        String version = condition.substring(operator.length());
+        while (version.length() > 2
+               && version.charAt(version.length() - 2) == '.'
+               && isWildcard(version.charAt(version.length() - 1))) {
+            version = version.substring(0, version.length() - 2);
+        }
+        if (version.length() == 1 && isWildcard(version.charAt(0)) && (operator.isEmpty() || "=".equals(operator))) {
+            return v -> true;
+        }
+        final SemanticVersion bound = SemanticVersion.parse(version);
+        if (bound == null) {
+            throw new IllegalArgumentException("Invalid version '" + condition + "' in semver-range '" + range + "'");
+        }
+
+        // The number of leading numbers that were given, as 3 and 3.x stand for any 3 version
+        final int componentCount = bound.isPrerelease() || version.indexOf('+') >= 0
+            ? SemanticVersion.COMPONENT_COUNT
+            : getComponentCount(version);
+        final SemanticVersion nextBound = componentCount < SemanticVersion.COMPONENT_COUNT
+            ? increment(bound, componentCount)
+            : null;
+
+        switch (operator) {
+            case ">=":
+                return v -> v.compareTo(bound) >= 0;
+            case "<":
+                return v -> v.compareTo(bound) < 0;
+            case ">":
+                // Greater than 3.1 starts from 3.2.0
+                return nextBound != null
+                    ? v -> v.compareTo(nextBound) >= 0
+                    : v -> v.compareTo(bound) > 0;
+            case "<=":
+                // Up to 3.1 includes every 3.1 version
+                return nextBound != null
+                    ? v -> v.compareTo(nextBound) < 0
+                    : v -> v.compareTo(bound) <= 0;
+            default:
+                return nextBound != null
+                    ? v -> hasNumbers(v, bound, componentCount)
+                    : v -> v.compareTo(bound) == 0;
+        }
+    }
+
+    private static String getOperator(final String condition)
+    {
+        for (final String operator : new String[]{">=", "<=", ">", "<", "="}) {
+            if (condition.startsWith(operator)) {
+                return operator;
+            }
+        }
+        return "";
+    }
+
+    private static int getComponentCount(final String version)
+    {
+        int count = 1;
+        for (int i = 0; i < version.length(); i++) {
+            if (version.charAt(i) == '.') {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static boolean isWildcard(final char component)
+    {
+        return component == 'x' || component == 'X' || component == '*';
+    }
+
+    private static boolean hasNumbers(final SemanticVersion version, final SemanticVersion bound, final int componentCount)
+    {
+        for (int component = 0; component < componentCount; component++) {
+            if (version.getNumber(component) != bound.getNumber(component)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static SemanticVersion increment(final SemanticVersion version, final int componentCount)
+    {
+        final long[] numbers = new long[SemanticVersion.COMPONENT_COUNT];
+        for (int component = 0; component < componentCount; component++) {
+            numbers[component] = version.getNumber(component);
+        }
+        numbers[componentCount - 1]++;
+        return new SemanticVersion(numbers, new String[0]);
+    }
+}
@@ -0,0 +1,339 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.commons.lang3.SystemUtils;
+import org.apache.maven.execution.MavenSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Coordinates the builds that share a Docker daemon on the same host, using files in the Docker config directory.
+ * <p>
+ * Each image name has a lock file, so that only one build pulls, tags or untags the image at a time. Each build also records a
+ * reference to the project specific names it has tagged, so that an image is only untagged once no running build still uses it.
+ * A build holds a lock on its own holder file for as long as it runs, so references left by builds that did not finish are
+ * ignored. Each session is a separate build, as the Maven daemon runs several sessions in the same JVM.
+ */
+public final class SharedDaemonLocks
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedDaemonLocks.class);
+
+    // Locks held in this JVM, as a file can only be locked once by a JVM
+    private static final Map<Path, ReentrantLock> JVM_LOCKS = new ConcurrentHashMap<>();
+
+    private static final String SESSION_DATA_KEY = SharedDaemonLocks.class.getName();
+
+    private final Path directory;
+    private final String holderId;
+    private FileChannel holderChannel;
+
+    /**
+     * @param directory the directory holding the lock and reference files, which is shared by the builds
+     */
+    public SharedDaemonLocks(final Path directory)
+    {
+        this.directory = directory;
+        this.holderId = UUID.randomUUID().toString();
+    }
+
+    /**
+     * Returns the locks of a session, kept in the {@code docker-versions} directory of the Docker config directory, which is set
+     * by the {@code DOCKER_CONFIG} environment variable and defaults to {@code ~/.docker}.
+     *
+     * @param session the session
+     * @return the locks, which are shared by the goals of the session
+     */
+    public static SharedDaemonLocks getDefault(final MavenSession session)
+    {
+        return (SharedDaemonLocks) session.getRepositorySession().getData().computeIfAbsent(SESSION_DATA_KEY, () -> {
+            final String dockerConfig = System.getenv("DOCKER_CONFIG");
+            final Path dockerConfigDir = dockerConfig == null
+                ? Paths.get(SystemUtils.USER_HOME, ".docker")
+                : Paths.get(dockerConfig);
+            return new SharedDaemonLocks(dockerConfigDir.resolve("docker-versions"));
+        });
+    }
+
+    /**
+     * Returns the locks of a session, if any goal of the session has used them.
+     *
+     * @param session the session
+     * @return the locks, or empty if they have not been created for the session
+     */
+    public static Optional<SharedDaemonLocks> find(final MavenSession session)
+    {
+        final Object sharedDaemonLocks = session.getRepositorySession().getData().get(SESSION_DATA_KEY);
+        return sharedDaemonLocks instanceof SharedDaemonLocks
+            ? Optional.of((SharedDaemonLocks) sharedDaemonLocks)
+            : Optional.empty();
+    }
+
+    /**
+     * Locks an image, waiting for any other build that has locked it.
+     *
+     * @param imageName the name of the image
+     * @return the lock, which must be closed to release it
+     * @throws IOException if the lock file cannot be locked
+     * @throws InterruptedException if interrupted while waiting for the lock
+     */
+    public ImageLock lock(final String imageName) throws IOException, InterruptedException
+    {
+        final Path lockFile = directory.resolve("locks").resolve(getFileName(imageName) + ".lock");
+        Files.createDirectories(lockFile.getParent());
+
+        final long lockRequested = System.currentTimeMillis();
+        final ReentrantLock jvmLock = JVM_LOCKS.computeIfAbsent(lockFile, f -> new ReentrantLock());
+        jvmLock.lockInterruptibly();
+        try {
+            final FileChannel channel = FileChannel.open(
+                lockFile, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            try {
+                FileLock fileLock = channel.tryLock();
+                if (fileLock == null) {
+                    LOGGER.info("Waiting for another build to release image {}...", imageName);
+                    fileLock = channel.lock();
+                }
+                return new ImageLock(jvmLock, channel, fileLock, lockRequested);
+            } catch (final IOException | RuntimeException ex) {
+                channel.close();
+                throw ex;
+            }
+        } catch (final IOException | RuntimeException ex) {
+            jvmLock.unlock();
+            throw ex;
+        }
+    }
+
+    /**
+     * Records that this build uses an image. The image must be locked.
+     *
+     * @param imageName the name of the image
+     * @throws IOException if the reference cannot be recorded
+     */
+    public void addReference(final String imageName) throws IOException
+    {
+        holdHolderFile();
+        final Path referenceDir = getReferenceDir(imageName);
+        Files.createDirectories(referenceDir);
+        final Path reference = referenceDir.resolve(holderId);
+        if (!Files.exists(reference)) {
+            Files.write(reference, imageName.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Records that this build no longer uses an image, and removes the references of builds that are no longer running. The image
+     * must be locked.
+     *
+     * @param imageName the name of the image
+     * @return whether the image is no longer used by any running build
+     * @throws IOException if the references cannot be updated
+     */
+    public boolean removeReference(final String imageName) throws IOException
+    {
+        final Path referenceDir = getReferenceDir(imageName);
+        if (!Files.isDirectory(referenceDir)) {
+            return true;
+        }
+        Files.deleteIfExists(referenceDir.resolve(holderId));
+
+        int references = 0;
+        try (final DirectoryStream<Path> holders = Files.newDirectoryStream(referenceDir)) {
+            for (final Path reference : holders) {
+                final String referenceHolderId = reference.getFileName().toString();
+                if (isHolderRunning(referenceHolderId)) {
+                    references++;
+                } else {
+                    LOGGER.debug("Removing reference to image {} from build {} that is no longer running", imageName,
+                                 referenceHolderId);
+                    Files.deleteIfExists(reference);
+                }
+            }
+        }
+        LOGGER.debug("Image {} is used by {} other builds", imageName, references);
+        return references == 0;
+    }
+
+    /**
+     * Releases the holder file of this build once it has ended, so that other builds ignore the references it did not remove.
+     */
+    public synchronized void release()
+    {
+        if (holderChannel == null) {
+            return;
+        }
+        try {
+            holderChannel.close();
+            Files.deleteIfExists(getHolderFile(holderId));
+        } catch (final IOException ex) {
+            LOGGER.debug("Unable to release holder file of build {}", holderId, ex);
+        }
+        holderChannel = null;
+    }
+
+    private Path getReferenceDir(final String imageName)
+    {
+        return directory.resolve("refs").resolve(getFileName(imageName));
+    }
+
+    private Path getHolderFile(final String id)
+    {
+        return directory.resolve("holders").resolve(id + ".lock");
+    }
+
+    private synchronized void holdHolderFile() throws IOException
+    {
+        if (holderChannel != null) {
+            return;
+        }
+        final Path holderFile = getHolderFile(holderId);
+        Files.createDirectories(holderFile.getParent());
+        // The lock is released when this build ends, or by the operating system if the JVM exits first
+        final FileChannel channel = FileChannel.open(holderFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+        try {
+            channel.lock();
+        } catch (final IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+        holderChannel = channel;
+    }
+
+    private boolean isHolderRunning(final String referenceHolderId)
+    {
+        if (referenceHolderId.equals(holderId)) {
+            return true;
+        }
+        final Path holderFile = getHolderFile(referenceHolderId);
+        if (!Files.exists(holderFile)) {
+            return false;
+        }
+        try (final FileChannel channel = FileChannel.open(holderFile, StandardOpenOption.WRITE)) {
+            final FileLock fileLock = channel.tryLock();
+            if (fileLock == null) {
+                return true;
+            }
+            fileLock.release();
+        } catch (final OverlappingFileLockException ex) {
+            return true;
+        } catch (final IOException ex) {
+            // Assume that the build is still running rather than untag an image that it may be using
+            LOGGER.debug("Unable to check whether build {} is running", referenceHolderId, ex);
+            return true;
+        }
+
+        try {
+            Files.deleteIfExists(holderFile);
+        } catch (final IOException ex) {
+            LOGGER.debug("Unable to delete {}", holderFile, ex);
+        }
+        return false;
+    }
+
+    private static String getFileName(final String imageName)
+    {
+        try {
+            final StringBuilder fileName = new StringBuilder();
+            for (final byte b : MessageDigest.getInstance("SHA-256").digest(imageName.getBytes(StandardCharsets.UTF_8))) {
+                fileName.append(String.format("%02x", b));
+            }
+            return fileName.toString();
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException("SHA-256 is not supported", ex);
+        }
+    }
+
+    /**
+     * A lock on an image, held by this build until it is closed.
+     */
+    public static final class ImageLock implements AutoCloseable
+    {
+        private final ReentrantLock jvmLock;
+        private final FileChannel channel;
+        private final FileLock fileLock;
+        private final long lockRequested;
+
+        private ImageLock(final ReentrantLock jvmLock, final FileChannel channel, final FileLock fileLock, final long lockRequested)
+        {
+            this.jvmLock = jvmLock;
+            this.channel = channel;
+            this.fileLock = fileLock;
+            this.lockRequested = lockRequested;
+        }
+
+        /**
+         * Returns whether another build pulled the image while this build was waiting for the lock.
+         *
+         * @return whether the image was pulled after the lock was requested
+         * @throws IOException if the lock file cannot be read
+         */
+        public boolean wasPulledWhileWaiting() throws IOException
+        {
+            final ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(channel.size(), 32));
+            channel.read(buffer, 0);
+            final String pulled = new String(buffer.array(), 0, buffer.position(), StandardCharsets.UTF_8).trim();
+            try {
+                return !pulled.isEmpty() && Long.parseLong(pulled) >= lockRequested;
+            } catch (final NumberFormatException ex) {
+                return false;
+            }
+        }
+
+        /**
+         * Records that the image has been pulled, so that builds waiting for the lock do not pull it again.
+         *
+         * @throws IOException if the lock file cannot be written
+         */
+        public void markPulled() throws IOException
+        {
+            channel.truncate(0);
+            channel.write(ByteBuffer.wrap(Long.toString(System.currentTimeMillis()).getBytes(StandardCharsets.UTF_8)), 0);
+        }
+
+        @Override
+        public void close()
+        {
+            try {
+                fileLock.release();
+                channel.close();
+            } catch (final IOException ex) {
+                LOGGER.debug("Unable to release image lock", ex);
+            } finally {
+                jvmLock.unlock();
+            }
+        }
+    }
+}
@@ -0,0 +1,197 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+
+import com.github.cafapi.docker_versions.docker.client.ImageTaggingException;
+import org.apache.maven.execution.MavenSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Populates the project registry for the projects of a reactor build that may be built in parallel.
+ * <p>
+ * The projects using an image are counted, so that the image is tagged just before the first of them needs it and untagged as
+ * soon as the last of them has finished.
+ */
+public final class SharedProjectRegistry
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedProjectRegistry.class);
+
+    private static final String SESSION_DATA_KEY = SharedProjectRegistry.class.getName();
+
+    private final ProjectRegistry projectRegistry;
+    private final Map<String, Set<ImageGroup>> imageGroupsByProject;
+    private final Set<ImageGroup> imageGroups;
+
+    /**
+     * @param projectRegistry the registry to populate
+     * @param imagesByProject the images used by each project, keyed by project id
+     */
+    public SharedProjectRegistry(
+        final ProjectRegistry projectRegistry,
+        final Map<String, List<ImageConfiguration>> imagesByProject)
+    {
+        this.projectRegistry = projectRegistry;
+        this.imageGroupsByProject = new HashMap<>();
+        this.imageGroups = new LinkedHashSet<>();
+
+        // Images with the same source are pulled once, and each project specific name is only tagged by one of them
+        final Map<String, ImageGroup> imageGroupsBySource = new HashMap<>();
+        final Map<String, ImageGroup> imageGroupsByTarget = new HashMap<>();
+
+        for (final Map.Entry<String, List<ImageConfiguration>> projectImages : imagesByProject.entrySet()) {
+            final Set<ImageGroup> projectImageGroups = new LinkedHashSet<>();
+            for (final ImageConfiguration imageConfig : projectImages.getValue()) {
+                final String targetRepository = ProjectRegistry.getTargetRepository(imageConfig);
+                ImageGroup imageGroup = imageGroupsByTarget.get(targetRepository);
+                if (imageGroup == null) {
+                    imageGroup = imageGroupsBySource.computeIfAbsent(ProjectRegistry.getSourceImage(imageConfig), s -> new ImageGroup());
+                    imageGroup.images.add(imageConfig);
+                    imageGroupsByTarget.put(targetRepository, imageGroup);
+                }
+                projectImageGroups.add(imageGroup);
+            }
+            projectImageGroups.forEach(imageGroup -> imageGroup.consumers++);
+            imageGroupsByProject.put(projectImages.getKey(), projectImageGroups);
+            imageGroups.addAll(projectImageGroups);
+        }
+    }
+
+    public void register(final MavenSession session)
+    {
+        session.getRepositorySession().getData().set(SESSION_DATA_KEY, this);
+    }
+
+    public static Optional<SharedProjectRegistry> find(final MavenSession session)
+    {
+        final Object sharedProjectRegistry = session.getRepositorySession().getData().get(SESSION_DATA_KEY);
+        return sharedProjectRegistry instanceof SharedProjectRegistry
+            ? Optional.of((SharedProjectRegistry) sharedProjectRegistry)
+            : Optional.empty();
+    }
+
+    /**
+     * Tags the images used by a project, unless another project has already tagged them.
+     *
+     * @param projectId the id of the project that is about to use the images
+     * @throws ExecutionException if the images could not be tagged
+     * @throws InterruptedException if interrupted while waiting for another project to tag the images
+     */
+    public void acquire(final String projectId) throws ExecutionException, InterruptedException
+    {
+        for (final ImageGroup imageGroup : getImageGroups(projectId)) {
+            imageGroup.populate();
+        }
+    }
+
+    /**
+     * Untags the images used by a project that are no longer used by any other project.
+     *
+     * @param projectId the id of the project that has finished
+     */
+    public void release(final String projectId)
+    {
+        for (final ImageGroup imageGroup : getImageGroups(projectId)) {
+            imageGroup.release();
+        }
+    }
+
+    /**
+     * Untags any images that are still tagged, for example because the build stopped early.
+     */
+    public void releaseAll()
+    {
+        imageGroups.forEach(ImageGroup::depopulate);
+    }
+
+    private Set<ImageGroup> getImageGroups(final String projectId)
+    {
+        return imageGroupsByProject.getOrDefault(projectId, Collections.emptySet());
+    }
+
+    private final class ImageGroup
+    {
+        private final List<ImageConfiguration> images = new ArrayList<>();
+        private int consumers;
+        private FutureTask<Void> populateTask;
+
+        public void populate() throws ExecutionException, InterruptedException
+        {
+            final FutureTask<Void> task;
+            final boolean created;
+            synchronized (this) {
+                created = populateTask == null;
+                if (created) {
+                    populateTask = new FutureTask<>(() -> {
+                        projectRegistry.populate(images);
+                        return null;
+                    });
+                }
+                task = populateTask;
+            }
+
+            // Projects using the same images wait for the first of them to tag the images
+            if (created) {
+                task.run();
+            }
+            task.get();
+        }
+
+        public synchronized void release()
+        {
+            consumers--;
+            if (consumers <= 0) {
+                depopulate();
+            }
+        }
+
+        public synchronized void depopulate()
+        {
+            if (populateTask == null) {
+                return;
+            }
+            final FutureTask<Void> task = populateTask;
+            // A project that needs the images after they have been untagged tags them again
+            populateTask = null;
+
+            // The images must not be untagged while they are still being tagged
+            try {
+                task.get();
+            } catch (final ExecutionException ex) {
+                LOGGER.debug("Images {} were not all tagged", images, ex.getCause());
+            } catch (final InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+
+            try {
+                projectRegistry.depopulate(images);
+            } catch (final ImageTaggingException | RuntimeException ex) {
+                LOGGER.warn("Unable to untag images {}", images, ex);
+            }
+        }
+    }
+}
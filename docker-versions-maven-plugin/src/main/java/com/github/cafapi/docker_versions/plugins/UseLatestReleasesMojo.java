@@ -15,36 +15,45 @@
  */
 package com.github.cafapi.docker_versions.plugins;
 
-import java.io.FileInputStream;
-import java.io.FileNotFoundException;
+import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.HashSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.xml.stream.XMLStreamException;
 
 import org.apache.commons.lang3.StringUtils;
+import org.apache.maven.plugin.MojoExecutionException;
+import org.apache.maven.plugin.MojoFailureException;
+import org.apache.maven.plugins.annotations.Component;
 import org.apache.maven.plugins.annotations.LifecyclePhase;
 import org.apache.maven.plugins.annotations.Mojo;
 import org.apache.maven.plugins.annotations.Parameter;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.MavenProjectHelper;
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.yaml.snakeyaml.error.YAMLException;
 
 import com.github.cafapi.docker_versions.docker.auth.DockerRegistryAuthConfig;
 import com.github.cafapi.docker_versions.docker.auth.DockerRegistryAuthException;
-import com.fasterxml.jackson.core.type.TypeReference;
-import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
 import com.github.cafapi.docker_versions.docker.auth.AuthConfigHelper;
 import com.github.cafapi.docker_versions.docker.client.DockerRegistryException;
 import com.github.cafapi.docker_versions.docker.client.DockerRegistryRestClient;
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
 import com.github.cafapi.docker_versions.docker.client.ImageNotFoundException;
 import com.github.cafapi.docker_versions.docker.client.DockerRegistrySchema;
+import com.github.dockerjava.api.model.AuthConfig;
 
 /**
  * This is a maven plugin that replaces any Docker image release versions with the latest static version of the image in the plugin
@@ -55,10 +64,20 @@ public final class UseLatestReleasesMojo extends DockerVersionsUpdaterMojo
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(UseLatestReleasesMojo.class);
 
+    private static final int MAX_CONCURRENT_LOOKUPS = 8;
+
     @Parameter(property = "skipUseLatestReleases", defaultValue = "false")
     private boolean skipUseLatestReleases;
 
-    private Set<IgnoreVersion> effectiveIgnoreVersions;
+    @Parameter(property = "docker.versions.attachLockFile", defaultValue = "false")
+    private boolean attachLockFile;
+
+    @Component
+    private MavenProjectHelper projectHelper;
+
+    private CompiledIgnoreVersions effectiveIgnoreVersions;
+
+    private final List<ImageConfiguration> lockedImages = new ArrayList<>();
 
     @Override
     protected boolean shouldSkip()
@@ -66,6 +85,35 @@ public final class UseLatestReleasesMojo extends DockerVersionsUpdaterMojo
         return skip || skipUseLatestReleases;
     }
 
+    @Override
+    public void execute() throws MojoExecutionException, MojoFailureException
+    {
+        // Invalid ignore versions are reported before any pom is read or any registry is queried
+        if (!shouldSkip()) {
+            try {
+                effectiveIgnoreVersions = IgnoreVersionsCache.getCompiledIgnoreVersions(
+                    ignoreVersions, ignoreVersionsConfigPath, DockerVersionsHelper.isRe2jRegexEngine(regexEngine));
+            } catch (final IllegalArgumentException e) {
+                throw new MojoExecutionException("Invalid ignore versions: " + e.getMessage(), e);
+            }
+            validateHttpConfiguration();
+        }
+        super.execute();
+    }
+
+    @Override
+    protected void process(final File outFile)
+        throws DockerRegistryAuthException,
+               DockerRegistryException,
+               ImageNotFoundException,
+               IncorrectDigestException,
+               IOException,
+               XMLStreamException
+    {
+        super.process(outFile);
+        writeLockFile();
+    }
+
     @Override
     protected void update(final ModifiedPomXMLEventReader pom)
         throws DockerRegistryAuthException,
@@ -75,90 +123,269 @@ public final class UseLatestReleasesMojo extends DockerVersionsUpdaterMojo
                XMLStreamException
     {
         LOGGER.debug("UseLatestReleasesMojo with this configuration {}", pluginConfig);
-        effectiveIgnoreVersions = getIgnoreVersions();
+        final boolean daemonDigestResolver = DockerVersionsHelper.isDaemonDigestResolver(digestResolver);
+        final ImageConfigIndex imagesIndex = new ImageConfigIndex(imagesConfig);
         final List<Xpp3Dom> imagesToUpdate = new ArrayList<>();
 
         for (final ImageConfiguration imageConfig : imageManagement) {
-            final ImageMoniker imageMoniker = new ImageMoniker(
-                imageConfig.getRepository(),
-                imageConfig.getTag(),
-                imageConfig.getDigest());
+            final ImageConfiguration latestImage = getLatestImage(imageConfig, daemonDigestResolver);
+            if (latestImage == null) {
+                continue;
+            }
 
-            // Ignore intentionally dynamic versions
-            final String digest = imageMoniker.getDigest();
-            final String tag = imageMoniker.getTag();
+            final Xpp3Dom imageToUpdate
+                = imagesIndex.find(imageConfig.getRepository(), imageConfig.getTargetRepository())
+                    .orElseThrow(()
+                        -> new IllegalArgumentException("Image configuration not found '" + imageConfig.getRepository()));
 
-            if (StringUtils.isBlank(digest)) {
-                continue;
+            lockedImages.add(latestImage);
+            if (updateImageConfig(imageConfig, latestImage, imageToUpdate)) {
+                imagesToUpdate.add(imageToUpdate);
             }
+        }
 
-            final String latestTag = imageConfig.getLatestTag() != null
-                ? imageConfig.getLatestTag()
-                : LATEST_TAG;
+        if (!imagesToUpdate.isEmpty()) {
+            LOGGER.debug("Images needing configuration updates : {}", imagesToUpdate);
+            DockerVersionsHelper.setImageVersion(pom, imagesToUpdate, project.getModel().getProperties());
+        }
+    }
+
+    @Override
+    protected void updateModules(final Map<MavenProject, List<Xpp3Dom>> imagesConfigByModule)
+        throws DockerRegistryAuthException,
+               DockerRegistryException,
+               ImageNotFoundException,
+               IncorrectDigestException,
+               IOException,
+               XMLStreamException
+    {
+        LOGGER.debug("UseLatestReleasesMojo for modules {}", imagesConfigByModule.keySet());
+        final boolean daemonDigestResolver = DockerVersionsHelper.isDaemonDigestResolver(digestResolver);
+
+        // An image that is configured in several modules is only looked up once
+        final Map<MavenProject, List<ImageConfiguration>> imageConfigsByModule = new LinkedHashMap<>();
+        final Map<String, ImageConfiguration> distinctImages = new LinkedHashMap<>();
+        imagesConfigByModule.forEach((module, moduleImagesConfig) -> {
+            final List<ImageConfiguration> imageConfigs = DockerVersionsHelper.getImageConfigurations(moduleImagesConfig);
+            imageConfigs.forEach(imageConfig -> distinctImages.putIfAbsent(getImageKey(imageConfig), imageConfig));
+            imageConfigsByModule.put(module, imageConfigs);
+        });
+        final Map<String, ImageConfiguration> latestImages = getLatestImages(distinctImages, daemonDigestResolver);
+
+        final Map<String, ImageConfiguration> lockedImagesByRepository = new LinkedHashMap<>();
+        final Map<MavenProject, List<Xpp3Dom>> imagesToUpdateByModule = new LinkedHashMap<>();
+        imagesConfigByModule.forEach((module, moduleImagesConfig) -> {
+            final List<ImageConfiguration> imageConfigs = imageConfigsByModule.get(module);
+            final List<Xpp3Dom> imagesToUpdate = new ArrayList<>();
+            for (int i = 0; i < imageConfigs.size(); i++) {
+                final ImageConfiguration imageConfig = imageConfigs.get(i);
+                final ImageConfiguration latestImage = latestImages.get(getImageKey(imageConfig));
+                if (latestImage == null) {
+                    continue;
+                }
+                lockedImagesByRepository.putIfAbsent(imageConfig.getRepository() + " " + imageConfig.getTargetRepository(), latestImage);
+                if (updateImageConfig(imageConfig, latestImage, moduleImagesConfig.get(i))) {
+                    imagesToUpdate.add(moduleImagesConfig.get(i));
+                }
+            }
+            if (!imagesToUpdate.isEmpty()) {
+                LOGGER.debug("Images needing configuration updates in {} : {}", module.getArtifactId(), imagesToUpdate);
+                imagesToUpdateByModule.put(module, imagesToUpdate);
+            }
+        });
+        lockedImages.addAll(lockedImagesByRepository.values());
+
+        updatePoms(imagesToUpdateByModule);
+        writeLockFile();
+    }
+
+    private Map<String, ImageConfiguration> getLatestImages(
+        final Map<String, ImageConfiguration> images,
+        final boolean daemonDigestResolver)
+        throws DockerRegistryAuthException,
+               DockerRegistryException,
+               ImageNotFoundException,
+               IncorrectDigestException
+    {
+        final Map<String, ImageConfiguration> latestImages = new HashMap<>();
+        if (images.isEmpty()) {
+            return latestImages;
+        }
+
+        final List<Callable<ImageConfiguration>> lookups = new ArrayList<>();
+        images.values().forEach(imageConfig -> lookups.add(() -> getLatestImage(imageConfig, daemonDigestResolver)));
+
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(lookups.size(), MAX_CONCURRENT_LOOKUPS));
+        try {
+            final List<Future<ImageConfiguration>> results = executor.invokeAll(lookups);
+            int i = 0;
+            for (final String imageKey : images.keySet()) {
+                final ImageConfiguration latestImage = getResult(results.get(i++));
+                if (latestImage != null) {
+                    latestImages.put(imageKey, latestImage);
+                }
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new DockerRegistryException("Interrupted while looking up the latest images", e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return latestImages;
+    }
 
-            final String latestImageName = imageMoniker.getFullImageNameWithoutTag() + ":" + latestTag;
+    private static ImageConfiguration getResult(final Future<ImageConfiguration> result)
+        throws DockerRegistryAuthException,
+               DockerRegistryException,
+               ImageNotFoundException,
+               IncorrectDigestException,
+               InterruptedException
+    {
+        try {
+            return result.get();
+        } catch (final ExecutionException e) {
+            final Throwable cause = e.getCause();
+            if (cause instanceof DockerRegistryAuthException) {
+                throw (DockerRegistryAuthException) cause;
+            }
+            if (cause instanceof DockerRegistryException) {
+                throw (DockerRegistryException) cause;
+            }
+            if (cause instanceof ImageNotFoundException) {
+                throw (ImageNotFoundException) cause;
+            }
+            if (cause instanceof IncorrectDigestException) {
+                throw (IncorrectDigestException) cause;
+            }
+            if (cause instanceof RuntimeException) {
+                throw (RuntimeException) cause;
+            }
+            throw new DockerRegistryException("Error looking up the latest image", e);
+        }
+    }
 
-            final DockerRegistryAuthConfig authConfig = AuthConfigHelper.getRegistryAuthConfig(settings, imageMoniker.getRegistry());
-            final DockerRegistrySchema registrySchema = DockerRegistryRestClient.getSchema(imageMoniker.getRegistry());
-            final String authToken = DockerRegistryRestClient.getAuthToken(
-                registrySchema.getAuthUrl(), imageMoniker.getRegistry(), imageMoniker.getRepositoryWithoutRegistry(), authConfig);
+    /**
+     * Looks up the latest static tag of an image and its digest.
+     *
+     * @param imageConfig the configured image
+     * @param daemonDigestResolver whether the digests are resolved through the Docker daemon
+     * @return the image with its latest static tag and digest, or null if the image is not pinned by digest
+     */
+    private ImageConfiguration getLatestImage(final ImageConfiguration imageConfig, final boolean daemonDigestResolver)
+        throws DockerRegistryAuthException,
+               DockerRegistryException,
+               ImageNotFoundException,
+               IncorrectDigestException
+    {
+        final ImageMoniker imageMoniker = new ImageMoniker(
+            imageConfig.getRepository(),
+            imageConfig.getTag(),
+            imageConfig.getDigest());
+
+        // Ignore intentionally dynamic versions
+        if (StringUtils.isBlank(imageMoniker.getDigest())) {
+            return null;
+        }
 
-            final String latestDigest = DockerRegistryRestClient.getDigest(
-                authToken, registrySchema.getSchema(), imageMoniker.getRegistry(), imageMoniker.getRepositoryWithoutRegistry(), latestTag);
+        final String latestTag = imageConfig.getLatestTag() != null
+            ? imageConfig.getLatestTag()
+            : LATEST_TAG;
 
-            LOGGER.debug("Got digest for {} -- {}", latestImageName, latestDigest);
+        final String latestImageName = imageMoniker.getFullImageNameWithoutTag() + ":" + latestTag;
 
-            // Lookup the latest 'static' tag of the repository
-            // The longest value would be the 'static' tag
-            final String staticTag = getLatestStaticTag(authToken, registrySchema.getSchema(), imageMoniker, latestTag, latestDigest);
+        final DockerRegistryAuthConfig authConfig = AuthConfigHelper.getRegistryAuthConfig(settings, imageMoniker.getRegistry());
+        final DockerRegistrySchema registrySchema = DockerRegistryRestClient.getSchema(imageMoniker.getRegistry());
+        final String authToken = DockerRegistryRestClient.getAuthToken(
+            registrySchema.getAuthUrl(), imageMoniker.getRegistry(), imageMoniker.getRepositoryWithoutRegistry(), authConfig);
 
-            final Xpp3Dom imageToUpdate
-                = DockerVersionsHelper.findRepository(
-                    imageMoniker.getRepositoryFromConfigSansRegistry(), imageConfig.getTargetRepository(), imagesConfig)
-                    .orElseThrow(()
-                        -> new IllegalArgumentException("Image configuration not found '" + imageMoniker.getFullImageNameWithoutTag()));
+        // The tags are always listed by the registry, but their digests can be resolved through the Docker daemon instead
+        final DigestLookup digestLookup = daemonDigestResolver
+            ? getDaemonDigestLookup(imageMoniker)
+            : t -> DockerRegistryRestClient.getDigest(
+                authToken, registrySchema.getSchema(), imageMoniker.getRegistry(), imageMoniker.getRepositoryWithoutRegistry(), t);
 
-            if (!tag.equals(staticTag)) {
-                // the latest image is different from the one that is currently configured
-                // update the plugin configuration to reference this new image
+        final String latestDigest = digestLookup.getDigest(latestTag);
 
-                updateTagAndDigest(imageMoniker, imageToUpdate, staticTag, latestDigest);
-                imagesToUpdate.add(imageToUpdate);
-            } else {
-                LOGGER.info("Plugin already references the latest image: {}:{}", imageMoniker.getFullImageNameWithoutTag(), tag);
+        LOGGER.debug("Got digest for {} -- {}", latestImageName, latestDigest);
 
-                final String imageNameWithStaticTag = imageMoniker.getFullImageNameWithoutTag() + ":" + staticTag;
+        // Lookup the latest 'static' tag of the repository
+        // The longest value would be the 'static' tag
+        final String staticTag = getLatestStaticTag(
+            authToken, registrySchema.getSchema(), digestLookup, imageMoniker, latestTag, latestDigest);
 
-                final String staticDigest = DockerRegistryRestClient.getDigest(
-                    authToken, registrySchema.getSchema(), imageMoniker.getRegistry(),
-                    imageMoniker.getRepositoryWithoutRegistry(), staticTag);
-                LOGGER.debug("Got digest for {} -- {}", imageNameWithStaticTag, staticDigest);
+        if (imageMoniker.getTag().equals(staticTag)) {
+            final String imageNameWithStaticTag = imageMoniker.getFullImageNameWithoutTag() + ":" + staticTag;
 
-                if (!staticDigest.equals(latestDigest)) {
-                    throw new IncorrectDigestException("Static image digest does not match latest image digest");
-                }
+            final String staticDigest = digestLookup.getDigest(staticTag);
+            LOGGER.debug("Got digest for {} -- {}", imageNameWithStaticTag, staticDigest);
 
-                // Check if the specified digest matches digest of latest image
-                if (!digest.equals(staticDigest)) {
-                    // Add or update the digest
-                    upsertDigest(imageMoniker, imageToUpdate, latestDigest);
-                    imagesToUpdate.add(imageToUpdate);
-                } else {
-                    // Image config does not need any updates
-                    LOGGER.debug("Image config updates not required: {}", imageMoniker.getFullImageNameWithTag());
-                }
+            if (!staticDigest.equals(latestDigest)) {
+                throw new IncorrectDigestException("Static image digest does not match latest image digest");
             }
         }
+        return getLockedImage(imageConfig, staticTag, latestDigest);
+    }
 
-        if (!imagesToUpdate.isEmpty()) {
-            LOGGER.debug("Images needing configuration updates : {}", imagesToUpdate);
-            DockerVersionsHelper.setImageVersion(pom, imagesToUpdate, project.getModel().getProperties());
+    private static boolean updateImageConfig(
+        final ImageConfiguration imageConfig,
+        final ImageConfiguration latestImage,
+        final Xpp3Dom imageToUpdate)
+    {
+        final String imageName = imageConfig.getRepository();
+        if (!imageConfig.getTag().equals(latestImage.getTag())) {
+            // the latest image is different from the one that is currently configured
+            // update the plugin configuration to reference this new image
+
+            updateTagAndDigest(imageName, imageToUpdate, latestImage.getTag(), latestImage.getDigest());
+            return true;
         }
+
+        LOGGER.info("Plugin already references the latest image: {}:{}", imageName, imageConfig.getTag());
+
+        // Check if the specified digest matches digest of latest image
+        if (!imageConfig.getDigest().equals(latestImage.getDigest())) {
+            // Add or update the digest
+            upsertDigest(imageName, imageToUpdate, latestImage.getDigest());
+            return true;
+        }
+
+        // Image config does not need any updates
+        LOGGER.debug("Image config updates not required: {}:{}", imageName, imageConfig.getTag());
+        return false;
+    }
+
+    private static String getImageKey(final ImageConfiguration imageConfig)
+    {
+        return imageConfig.getRepository() + ":" + imageConfig.getTag() + "@" + imageConfig.getDigest()
+            + " " + imageConfig.getLatestTag();
+    }
+
+    private void writeLockFile() throws IOException
+    {
+        if (lockFile == null) {
+            return;
+        }
+        if (ImageLockFile.write(lockFile, lockedImages)) {
+            LOGGER.info("Lock file {} has been updated.", lockFile);
+        } else {
+            LOGGER.info("Lock file {} is unmodified.", lockFile);
+        }
+        if (attachLockFile) {
+            projectHelper.attachArtifact(project, "json", "docker-versions-lock", lockFile);
+        }
+    }
+
+    private DigestLookup getDaemonDigestLookup(final ImageMoniker imageMoniker) throws DockerRegistryAuthException
+    {
+        final AuthConfig authConfig = AuthConfigHelper.getAuthConfig(settings, imageMoniker.getRegistry());
+        final DockerRestClient dockerClient = DockerRestClient.getInstance(httpConfiguration, dockerHost);
+        return tag -> dockerClient.getDistributionDigest(imageMoniker.getFullImageNameWithoutTag() + ":" + tag, authConfig);
     }
 
     private String getLatestStaticTag(
         final String authToken,
         final String registrySchema,
+        final DigestLookup digestLookup,
         final ImageMoniker imageMoniker,
         final String latestTag,
         final String digestOfLatestVersion
@@ -176,7 +403,7 @@ public final class UseLatestReleasesMojo extends DockerVersionsUpdaterMojo
 
         // Filter out tags that are to be ignored
         final String fullImgNameNoTag = imageMoniker.getFullImageNameWithoutTag();
-        final List<String> relevantTags = IgnoreVersionsHelper.getRelevantTags(effectiveIgnoreVersions, tags, fullImgNameNoTag);
+        final List<String> relevantTags = effectiveIgnoreVersions.getRelevantTags(tags, fullImgNameNoTag);
         LOGGER.debug("Relevant tags for latest image: {}-{}", imageMoniker.getFullImageNameWithTag(), relevantTags);
 
         if (relevantTags.isEmpty()) {
@@ -184,7 +411,7 @@ public final class UseLatestReleasesMojo extends DockerVersionsUpdaterMojo
         }
         // For the rest of the tags, fetch the digest from the manifest and compare to digest of latest version
         final List<String> tagsOfLatestVersion = getLatestVersionTagsOrderedByLength(
-            authToken, registrySchema, imageMoniker, relevantTags, digestOfLatestVersion);
+            digestLookup, imageMoniker, relevantTags, digestOfLatestVersion);
         LOGGER.debug("tagsOfLatestVersion {}", tagsOfLatestVersion);
 
         final int numberOfLatestTags = tagsOfLatestVersion.size();
@@ -206,8 +433,7 @@ public final class UseLatestReleasesMojo extends DockerVersionsUpdaterMojo
     }
 
     private static List<String> getLatestVersionTagsOrderedByLength(
-        final String authToken,
-        final String registrySchema,
+        final DigestLookup digestLookup,
         final ImageMoniker imageMoniker,
         final List<String> tags,
         final String digestOfLatestVersion
@@ -218,8 +444,7 @@ public final class UseLatestReleasesMojo extends DockerVersionsUpdaterMojo
         int i = 0;
         for (final String tag : tags) {
             try {
-                final String tagDigest = DockerRegistryRestClient.getDigest(
-                    authToken, registrySchema, imageMoniker.getRegistry(), imageMoniker.getRepositoryWithoutRegistry(), tag);
+                final String tagDigest = digestLookup.getDigest(tag);
                 LOGGER.debug("Match digest of tag {} : latest, {} : {}", tag, tagDigest, digestOfLatestVersion);
                 // Find all the ones that match the digest of the image with 'latest' tag
                 if (tagDigest.equals(digestOfLatestVersion)) {
@@ -237,60 +462,56 @@ public final class UseLatestReleasesMojo extends DockerVersionsUpdaterMojo
         return latestVersionTags;
     }
 
-    private Set<IgnoreVersion> getIgnoreVersions()
+    private static ImageConfiguration getLockedImage(
+        final ImageConfiguration imageConfig,
+        final String tag,
+        final String digest)
     {
-        final Set<IgnoreVersion> ignoreImageVersions
-            = ignoreVersions == null
-                ? new HashSet<>()
-                : new HashSet<>(ignoreVersions);
-        if (ignoreVersionsConfigPath != null) {
-            try (final FileInputStream ignoreVersionsConfig = new FileInputStream(ignoreVersionsConfigPath)) {
-                 final YAMLMapper yamlMapper = new YAMLMapper();
-                 final Set<IgnoreVersion> ignoreVersionsFromConfigFile
-                     = yamlMapper.readValue(ignoreVersionsConfig, new TypeReference<Set<IgnoreVersion>>() {});
-                 ignoreImageVersions.addAll(ignoreVersionsFromConfigFile);
-            } catch (final FileNotFoundException e) {
-                throw new IllegalArgumentException("Ignore versions config file not found", e);
-            } catch (final IOException e) {
-                throw new IllegalArgumentException("Error reading ignore versions config file", e);
-            } catch (final YAMLException e) {
-                throw new IllegalArgumentException("Error parsing ignore versions config file", e);
-            }
-        }
-        return ignoreImageVersions;
+        final ImageConfiguration lockedImage = new ImageConfiguration();
+        lockedImage.setRepository(imageConfig.getRepository());
+        lockedImage.setTag(tag);
+        lockedImage.setDigest(digest);
+        lockedImage.setTargetRepository(imageConfig.getTargetRepository());
+        return lockedImage;
     }
 
     private static void updateTagAndDigest(
-        final ImageMoniker imageMoniker,
+        final String imageName,
         final Xpp3Dom imageToUpdate,
         final String latestTag,
         final String latestDigest)
     {
-        updateTag(imageMoniker, imageToUpdate, latestTag);
-        upsertDigest(imageMoniker, imageToUpdate, latestDigest);
+        updateTag(imageName, imageToUpdate, latestTag);
+        upsertDigest(imageName, imageToUpdate, latestDigest);
     }
 
-    private static void updateTag(final ImageMoniker imageMoniker, final Xpp3Dom imageToUpdate, final String latestTag)
+    private static void updateTag(final String imageName, final Xpp3Dom imageToUpdate, final String latestTag)
     {
         LOGGER.info("Updating {} from version {} to {}",
-                    imageMoniker.getFullImageNameWithoutTag(), imageToUpdate.getChild("tag").getValue(), latestTag);
+                    imageName, imageToUpdate.getChild("tag").getValue(), latestTag);
 
         imageToUpdate.getChild("tag").setValue(latestTag);
     }
 
-    private static void upsertDigest(final ImageMoniker imageMoniker, final Xpp3Dom imageToUpdate, final String latestDigest)
+    private static void upsertDigest(final String imageName, final Xpp3Dom imageToUpdate, final String latestDigest)
     {
         if (imageToUpdate.getChild("digest") == null) {
             // Add digest
-            LOGGER.info("Setting digest for {} to {}", imageMoniker.getFullImageNameWithoutTag(), latestDigest);
+            LOGGER.info("Setting digest for {} to {}", imageName, latestDigest);
 
             final Xpp3Dom digestParam = new Xpp3Dom("digest");
             digestParam.setValue(latestDigest);
             imageToUpdate.addChild(digestParam);
         } else {
             // Update digest
-            LOGGER.info("Updating digest of {} to {}", imageMoniker.getFullImageNameWithoutTag(), latestDigest);
+            LOGGER.info("Updating digest of {} to {}", imageName, latestDigest);
             imageToUpdate.getChild("digest").setValue(latestDigest);
         }
     }
+
+    @FunctionalInterface
+    private interface DigestLookup
+    {
+        String getDigest(String tag) throws DockerRegistryException, ImageNotFoundException;
+    }
 }
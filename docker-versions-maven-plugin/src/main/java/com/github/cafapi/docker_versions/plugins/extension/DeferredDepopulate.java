@@ -0,0 +1,73 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.extension;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.maven.execution.MavenSession;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.docker.client.ImageTaggingException;
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
+import com.github.cafapi.docker_versions.plugins.ProjectRegistry;
+
+/**
+ * Depopulates the project registry once the build has ended, so that the time taken is not included in the build time.
+ */
+final class DeferredDepopulate
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(DeferredDepopulate.class);
+
+    private static final String SESSION_DATA_KEY = DeferredDepopulate.class.getName();
+
+    private final ProjectRegistry projectRegistry;
+    private final List<ImageConfiguration> imageManagement;
+
+    public DeferredDepopulate(final ProjectRegistry projectRegistry, final List<ImageConfiguration> imageManagement)
+    {
+        this.projectRegistry = projectRegistry;
+        this.imageManagement = imageManagement;
+    }
+
+    public void register(final MavenSession session)
+    {
+        session.getRepositorySession().getData().set(SESSION_DATA_KEY, this);
+    }
+
+    public static Optional<DeferredDepopulate> find(final MavenSession session)
+    {
+        final Object deferredDepopulate = session.getRepositorySession().getData().get(SESSION_DATA_KEY);
+        return deferredDepopulate instanceof DeferredDepopulate
+            ? Optional.of((DeferredDepopulate) deferredDepopulate)
+            : Optional.empty();
+    }
+
+    public void run()
+    {
+        LOGGER.info("Depopulating project registry...");
+        final long start = System.nanoTime();
+        try {
+            projectRegistry.depopulate(imageManagement);
+            LOGGER.info("Depopulated project registry of {} images in {} ms.",
+                        imageManagement.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (final ImageTaggingException | RuntimeException ex) {
+            LOGGER.warn("Unable to depopulate project registry", ex);
+        }
+    }
+}
@@ -15,11 +15,16 @@
  */
 package com.github.cafapi.docker_versions.plugins.extension;
 
+import java.io.File;
+import java.io.IOException;
 import java.util.AbstractMap;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Map.Entry;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import javax.inject.Named;
@@ -27,15 +32,26 @@ import javax.inject.Singleton;
 
 import org.apache.maven.AbstractMavenLifecycleParticipant;
 import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.MavenExecutionRequest;
 import org.apache.maven.execution.MavenSession;
 import org.apache.maven.model.Plugin;
+import org.apache.maven.model.PluginExecution;
 import org.apache.maven.project.MavenProject;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.cafapi.docker_versions.plugins.BackgroundPopulate;
 import com.github.cafapi.docker_versions.plugins.DockerVersionsHelper;
+import com.github.cafapi.docker_versions.plugins.HttpConfiguration;
+import com.github.cafapi.docker_versions.plugins.ImageCache;
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
+import com.github.cafapi.docker_versions.plugins.ImageLockFile;
+import com.github.cafapi.docker_versions.plugins.ProjectRegistry;
 import com.github.cafapi.docker_versions.plugins.RegistryNameHelper;
+import com.github.cafapi.docker_versions.plugins.SharedDaemonLocks;
+import com.github.cafapi.docker_versions.plugins.SharedProjectRegistry;
 
 /**
  * This maven build extension adds the populate-project-registry and depopulate-project-registry goals to the maven session.
@@ -46,8 +62,18 @@ public final class DockerVersionsLifecycleParticipant extends AbstractMavenLifec
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(DockerVersionsLifecycleParticipant.class);
 
-    private static final List<String> AVOID_AUTO_POPULATE_PHASES = Arrays.asList(new String[]{"clean", "validate", "site"});
-    private static final List<String> AVOID_AUTO_DEPOPULATE_PHASES = Arrays.asList(new String[]{"validate", "site"});
+    private static final List<String> DEFAULT_LIFECYCLE_PHASES = Arrays.asList(new String[]{
+        "validate", "initialize", "generate-sources", "process-sources", "generate-resources", "process-resources", "compile",
+        "process-classes", "generate-test-sources", "process-test-sources", "generate-test-resources", "process-test-resources",
+        "test-compile", "process-test-classes", "test", "prepare-package", "package", "pre-integration-test", "integration-test",
+        "post-integration-test", "verify", "install", "deploy"});
+    private static final List<String> CLEAN_LIFECYCLE_PHASES = Arrays.asList(new String[]{"pre-clean", "clean", "post-clean"});
+    private static final List<String> SITE_LIFECYCLE_PHASES = Arrays.asList(new String[]{"pre-site", "site", "post-site", "site-deploy"});
+
+    private static final String DEFAULT_IMAGES_NEEDED_FROM_PHASE = "pre-integration-test";
+
+    private static final String PREWARM_EXECUTION_ID = "docker-versions-prewarm";
+    private static final String JUST_IN_TIME_EXECUTION_ID = "docker-versions-just-in-time";
 
     private static final String PROJECT_DOCKER_REGISTRY = "projectDockerRegistry";
 
@@ -66,7 +92,7 @@ public final class DockerVersionsLifecycleParticipant extends AbstractMavenLifec
             return;
         }
 
-        setProjectDockerRegistryProperty(session);
+        final String projectDockerRegistry = setProjectDockerRegistryProperty(session);
 
         final List<String> phasesInSession = getPhases(sessionTasks);
         if (phasesInSession.size() == 0) {
@@ -75,18 +101,36 @@ public final class DockerVersionsLifecycleParticipant extends AbstractMavenLifec
             return;
         }
 
+        final List<MavenProject> projects = session.getProjects();
+        final List<Entry<Plugin, Xpp3Dom>> pluginConfigsToUpdate = getPluginConfigs(projects);
+
+        final String imagesNeededFromPhase = getImagesNeededFromPhase(session, pluginConfigsToUpdate);
+
+        final boolean addPopulateGoal = shouldAddPopulateGoal(sessionTasks, phasesInSession, imagesNeededFromPhase);
+        if (addPopulateGoal && shouldPopulateJustInTime(session, pluginConfigsToUpdate)) {
+            populateJustInTime(session, projectDockerRegistry, imagesNeededFromPhase);
+            return;
+        }
+
+        final boolean prewarm = addPopulateGoal && shouldPrewarm(session, pluginConfigsToUpdate);
+
         final List<String> updatedSessionTasks = new ArrayList<>(sessionTasks);
 
         // Update the maven tasks to include the docker-versions goals at the start and end of execution
-        if (shouldAddPopulateGoal(sessionTasks, phasesInSession)) {
+        if (addPopulateGoal && !prewarm) {
             updatedSessionTasks.add(0, "docker-versions:populate-project-registry");
         }
 
-        if (shouldAddDepopulateGoal(sessionTasks, phasesInSession)) {
-            updatedSessionTasks.add("docker-versions:depopulate-project-registry");
+        if (shouldAddDepopulateGoal(sessionTasks, phasesInSession, imagesNeededFromPhase)) {
+            if (shouldDepopulateAfterSessionEnd(session, pluginConfigsToUpdate)) {
+                // The images are untagged once the build has ended, instead of by a goal at the end of the build
+                deferDepopulate(session, pluginConfigsToUpdate, projectDockerRegistry);
+            } else {
+                updatedSessionTasks.add("docker-versions:depopulate-project-registry");
+            }
         }
 
-        if (updatedSessionTasks.size() == sessionTasks.size()) {
+        if (updatedSessionTasks.size() == sessionTasks.size() && !prewarm) {
             // No need to run the docker-version goals
             LOGGER.debug("DockerVersionsLifecycleParticipant skipping docker-version goals.");
             return;
@@ -96,9 +140,13 @@ public final class DockerVersionsLifecycleParticipant extends AbstractMavenLifec
 
         LOGGER.info("Adding docker version management goals... {}", updatedSessionTasks);
 
-        final List<MavenProject> projects = session.getProjects();
         printBuildOrder(projects);
 
+        if (prewarm) {
+            prewarmImages(session, pluginConfigsToUpdate, projectDockerRegistry, imagesNeededFromPhase);
+            return;
+        }
+
         final int projectsCount = projects.size();
 
         // Skip the docker-versions goals for all projects other than the first and last project to be built
@@ -107,24 +155,6 @@ public final class DockerVersionsLifecycleParticipant extends AbstractMavenLifec
             return;
         }
 
-        final List<Entry<Plugin, Xpp3Dom>> pluginConfigsToUpdate = new ArrayList<>();
-
-        for (int i = 0; i < projectsCount; i++) {
-            final MavenProject project = projects.get(i);
-
-            final Plugin plugin = DockerVersionsHelper.getPlugin(project);
-            if (plugin == null) {
-                continue;
-            }
-
-            Xpp3Dom pluginConfig = DockerVersionsHelper.getPluginConfig(plugin);
-            if (pluginConfig == null) {
-                pluginConfig = new Xpp3Dom("configuration");
-            }
-
-            pluginConfigsToUpdate.add(new AbstractMap.SimpleEntry<Plugin, Xpp3Dom>(plugin, pluginConfig));
-        }
-
         if (pluginConfigsToUpdate.isEmpty() || pluginConfigsToUpdate.size() == 1) {
             // Plugin is not configured in any project
             // or just one project has the plugin configured, so run both goals
@@ -132,28 +162,68 @@ public final class DockerVersionsLifecycleParticipant extends AbstractMavenLifec
             return;
         }
 
+        // The projects may be configured with different images, so the first and last projects
+        // populate and depopulate the images of every project, with each image only listed once
+        final List<Xpp3Dom> reactorImagesConfig = getReactorImagesConfig(pluginConfigsToUpdate);
+
         // For the first project, run populate goal, skip depopulate goal
         final Entry<Plugin, Xpp3Dom> first = pluginConfigsToUpdate.remove(0);
+        setImagesConfig(first.getValue(), reactorImagesConfig);
         setSkipMojoConfig(first.getKey(), first.getValue(), "skipDepopulateProjectRegistry");
 
         // For the last project, skip populate goal, run depopulate goal
         final Entry<Plugin, Xpp3Dom> last = pluginConfigsToUpdate.remove(pluginConfigsToUpdate.size() - 1);
+        setImagesConfig(last.getValue(), reactorImagesConfig);
         setSkipMojoConfig(last.getKey(), last.getValue(), "skipPopulateProjectRegistry");
 
         // For all other projects skip plugin execution entirely
         pluginConfigsToUpdate.forEach(entry -> setSkipMojoConfig(entry.getKey(), entry.getValue(), "skip"));
     }
 
+    @Override
+    public void afterSessionEnd(final MavenSession session)
+    {
+        // The build may have ended before any project needed the images
+        BackgroundPopulate.cancel(session);
+
+        // The build may have ended before every project that uses the images had finished
+        SharedProjectRegistry.find(session).ifPresent(SharedProjectRegistry::releaseAll);
+
+        DeferredDepopulate.find(session).ifPresent(DeferredDepopulate::run);
+
+        // The references this build did not remove are ignored by other builds once it has ended
+        SharedDaemonLocks.find(session).ifPresent(SharedDaemonLocks::release);
+
+        DockerRestClient.closeAll();
+    }
+
     public static boolean shouldAddPopulateGoal(final List<String> tasks, final List<String> phases)
+    {
+        return shouldAddPopulateGoal(tasks, phases, DEFAULT_IMAGES_NEEDED_FROM_PHASE);
+    }
+
+    public static boolean shouldAddPopulateGoal(
+        final List<String> tasks,
+        final List<String> phases,
+        final String imagesNeededFromPhase)
     {
         return !tasks.contains("docker-versions:populate-project-registry")
-            && phases.stream().anyMatch(p -> !AVOID_AUTO_POPULATE_PHASES.contains(p));
+            && areImagesNeeded(phases, imagesNeededFromPhase);
     }
 
     public static boolean shouldAddDepopulateGoal(final List<String> tasks, final List<String> phases)
     {
+        return shouldAddDepopulateGoal(tasks, phases, DEFAULT_IMAGES_NEEDED_FROM_PHASE);
+    }
+
+    public static boolean shouldAddDepopulateGoal(
+        final List<String> tasks,
+        final List<String> phases,
+        final String imagesNeededFromPhase)
+    {
+        // Cleaning the project also removes any images that were left tagged by an earlier build
         return !tasks.contains("docker-versions:depopulate-project-registry")
-            && phases.stream().anyMatch(p -> !AVOID_AUTO_DEPOPULATE_PHASES.contains(p));
+            && (areImagesNeeded(phases, imagesNeededFromPhase) || phases.stream().anyMatch(CLEAN_LIFECYCLE_PHASES::contains));
     }
 
     public static List<String> getPhases(final List<String> tasks)
@@ -161,6 +231,354 @@ public final class DockerVersionsLifecycleParticipant extends AbstractMavenLifec
         return tasks.stream().filter(t -> !t.contains(":")).collect(Collectors.toList());
     }
 
+    private static boolean areImagesNeeded(final List<String> phases, final String imagesNeededFromPhase)
+    {
+        final int imagesNeededFromIndex = DEFAULT_LIFECYCLE_PHASES.indexOf(imagesNeededFromPhase);
+        return phases.stream().anyMatch(phase -> {
+            final int index = DEFAULT_LIFECYCLE_PHASES.indexOf(phase);
+            if (index == -1) {
+                // A phase of a custom lifecycle may need the images
+                return !CLEAN_LIFECYCLE_PHASES.contains(phase) && !SITE_LIFECYCLE_PHASES.contains(phase);
+            }
+            return index >= imagesNeededFromIndex;
+        });
+    }
+
+    private static String getImagesNeededFromPhase(final MavenSession session, final List<Entry<Plugin, Xpp3Dom>> pluginConfigs)
+        throws MavenExecutionException
+    {
+        String imagesNeededFromPhase = session.getUserProperties().getProperty("docker.versions.imagesNeededFromPhase");
+        if (imagesNeededFromPhase == null) {
+            imagesNeededFromPhase = pluginConfigs.stream()
+                .map(entry -> entry.getValue().getChild("imagesNeededFromPhase"))
+                .filter(configParam -> configParam != null && configParam.getValue() != null)
+                .map(configParam -> configParam.getValue().trim())
+                .findFirst()
+                .orElse(DEFAULT_IMAGES_NEEDED_FROM_PHASE);
+        }
+
+        if (!DEFAULT_LIFECYCLE_PHASES.contains(imagesNeededFromPhase)) {
+            throw new MavenExecutionException(
+                "'imagesNeededFromPhase' is expected to be a phase of the default lifecycle, not '" + imagesNeededFromPhase + "'",
+                (Exception)null);
+        }
+        return imagesNeededFromPhase;
+    }
+
+    private static List<Entry<Plugin, Xpp3Dom>> getPluginConfigs(final List<MavenProject> projects)
+    {
+        final List<Entry<Plugin, Xpp3Dom>> pluginConfigs = new ArrayList<>();
+
+        for (final MavenProject project : projects) {
+            final Plugin plugin = DockerVersionsHelper.getPlugin(project);
+            if (plugin == null) {
+                continue;
+            }
+
+            Xpp3Dom pluginConfig = DockerVersionsHelper.getPluginConfig(plugin);
+            if (pluginConfig == null) {
+                pluginConfig = new Xpp3Dom("configuration");
+            }
+
+            // The goals that update the poms find the image configuration as it was declared
+            DockerVersionsHelper.keepOriginalPlugin(project);
+            pluginConfigs.add(new AbstractMap.SimpleEntry<Plugin, Xpp3Dom>(plugin, pluginConfig));
+        }
+        return pluginConfigs;
+    }
+
+    private static boolean shouldPrewarm(final MavenSession session, final List<Entry<Plugin, Xpp3Dom>> pluginConfigs)
+    {
+        if (pluginConfigs.isEmpty()
+            || Boolean.parseBoolean(session.getUserProperties().getProperty("docker.versions.skip"))) {
+            return false;
+        }
+
+        final String prewarmUserProperty = session.getUserProperties().getProperty("docker.versions.prewarm");
+        return prewarmUserProperty == null
+            ? pluginConfigs.stream().anyMatch(entry -> isConfigSet(entry.getValue(), "prewarm"))
+            : Boolean.parseBoolean(prewarmUserProperty);
+    }
+
+    private static String getConfigValue(final MavenSession session, final Xpp3Dom config, final String name)
+    {
+        final String userProperty = session.getUserProperties().getProperty("docker.versions." + name);
+        if (userProperty != null) {
+            return userProperty;
+        }
+        final Xpp3Dom configParam = config.getChild(name);
+        return configParam == null ? null : configParam.getValue();
+    }
+
+    private static boolean isConfigSet(final Xpp3Dom config, final String name)
+    {
+        final Xpp3Dom configParam = config.getChild(name);
+        return configParam != null && Boolean.parseBoolean(configParam.getValue());
+    }
+
+    private static boolean shouldPopulateJustInTime(final MavenSession session, final List<Entry<Plugin, Xpp3Dom>> pluginConfigs)
+    {
+        if (pluginConfigs.isEmpty()
+            || Boolean.parseBoolean(session.getUserProperties().getProperty("docker.versions.skip"))) {
+            return false;
+        }
+
+        final String jitUserProperty = session.getUserProperties().getProperty("docker.versions.jit");
+        if (jitUserProperty != null) {
+            return Boolean.parseBoolean(jitUserProperty);
+        }
+
+        final Optional<String> jitConfig = pluginConfigs.stream()
+            .map(entry -> entry.getValue().getChild("jit"))
+            .filter(configParam -> configParam != null && configParam.getValue() != null)
+            .map(configParam -> configParam.getValue().trim())
+            .findFirst();
+        if (jitConfig.isPresent()) {
+            return Boolean.parseBoolean(jitConfig.get());
+        }
+
+        // The first and last projects to start are not necessarily the first and last to finish in a parallel build
+        if (session.getRequest().getDegreeOfConcurrency() > 1) {
+            LOGGER.info("Populating project registry just in time as the build is parallel, "
+                + "set 'jit' or 'docker.versions.jit' to false to populate it at the start of the build.");
+            return true;
+        }
+        return false;
+    }
+
+    private static void populateJustInTime(
+        final MavenSession session,
+        final String projectDockerRegistry,
+        final String imagesNeededFromPhase
+    ) throws MavenExecutionException
+    {
+        final Map<String, List<ImageConfiguration>> imagesByProject = new LinkedHashMap<>();
+        Xpp3Dom firstConfig = null;
+
+        for (final MavenProject project : session.getProjects()) {
+            final Plugin plugin = DockerVersionsHelper.getPlugin(project);
+            if (plugin == null) {
+                continue;
+            }
+
+            final Xpp3Dom pluginConfig = DockerVersionsHelper.getPluginConfig(plugin);
+            if (pluginConfig == null || pluginConfig.getChild("imageManagement") == null) {
+                continue;
+            }
+
+            if (firstConfig == null) {
+                firstConfig = pluginConfig;
+            }
+
+            // Each project tags the images it uses before the phase that needs them, unless another project has already done so
+            final List<Xpp3Dom> imagesConfig = DockerVersionsHelper.getImagesConfig(pluginConfig);
+            imagesByProject.put(
+                project.getId(),
+                applyLockFile(getLockFile(session, project, pluginConfig), DockerVersionsHelper.getImageConfigurations(imagesConfig)));
+            addPopulateExecution(plugin, pluginConfig, JUST_IN_TIME_EXECUTION_ID, imagesNeededFromPhase);
+        }
+
+        if (firstConfig == null) {
+            LOGGER.debug("DockerVersionsLifecycleParticipant no images to populate.");
+            return;
+        }
+
+        final ProjectRegistry projectRegistry = createProjectRegistry(session, firstConfig, projectDockerRegistry);
+        final SharedProjectRegistry sharedProjectRegistry = new SharedProjectRegistry(projectRegistry, imagesByProject);
+        sharedProjectRegistry.register(session);
+
+        // The images are untagged as soon as the last project that uses them has finished
+        final MavenExecutionRequest request = session.getRequest();
+        request.setExecutionListener(new ReleaseImagesExecutionListener(request.getExecutionListener(), sharedProjectRegistry));
+
+        LOGGER.info("Populating project registry just in time for the {} projects using it...", imagesByProject.size());
+    }
+
+    private static boolean shouldDepopulateAfterSessionEnd(
+        final MavenSession session,
+        final List<Entry<Plugin, Xpp3Dom>> pluginConfigs)
+    {
+        if (pluginConfigs.isEmpty()
+            || Boolean.parseBoolean(session.getUserProperties().getProperty("docker.versions.skip"))) {
+            return false;
+        }
+
+        final String asyncDepopulateUserProperty = session.getUserProperties().getProperty("docker.versions.asyncDepopulate");
+        return asyncDepopulateUserProperty == null
+            ? pluginConfigs.stream().anyMatch(entry -> isConfigSet(entry.getValue(), "asyncDepopulate"))
+            : Boolean.parseBoolean(asyncDepopulateUserProperty);
+    }
+
+    private static void deferDepopulate(
+        final MavenSession session,
+        final List<Entry<Plugin, Xpp3Dom>> pluginConfigs,
+        final String projectDockerRegistry
+    ) throws MavenExecutionException
+    {
+        final List<Xpp3Dom> reactorImagesConfig = getReactorImagesConfig(pluginConfigs);
+        final ProjectRegistry projectRegistry = createProjectRegistry(session, pluginConfigs.get(0).getValue(), projectDockerRegistry);
+
+        final List<ImageConfiguration> images = applyLockFile(
+            getReactorLockFile(session), DockerVersionsHelper.getImageConfigurations(reactorImagesConfig));
+
+        new DeferredDepopulate(projectRegistry, images).register(session);
+        LOGGER.info("Project registry will be depopulated after the build has ended.");
+    }
+
+    private static ProjectRegistry createProjectRegistry(
+        final MavenSession session,
+        final Xpp3Dom config,
+        final String projectDockerRegistry
+    ) throws MavenExecutionException
+    {
+        try {
+            final String dockerHostUserProperty = session.getUserProperties().getProperty("docker.host");
+            final Xpp3Dom dockerHostConfigParam = config.getChild("dockerHost");
+            final String dockerHost = dockerHostUserProperty == null && dockerHostConfigParam != null
+                ? dockerHostConfigParam.getValue()
+                : dockerHostUserProperty;
+
+            final HttpConfiguration httpConfiguration = DockerVersionsHelper.getHttpConfiguration(config);
+            try {
+                DockerRestClient.validateTransport(httpConfiguration.getTransport());
+            } catch (final IllegalArgumentException ex) {
+                throw new MavenExecutionException("Invalid 'httpConfiguration.transport' parameter: " + ex.getMessage(), ex);
+            }
+
+            final DockerRestClient dockerClient = DockerRestClient.getInstance(httpConfiguration, dockerHost);
+            final String strictTaggingUserProperty = session.getUserProperties().getProperty("docker.versions.strictTagging");
+            final boolean strictTagging = strictTaggingUserProperty == null
+                ? isConfigSet(config, "strictTagging")
+                : Boolean.parseBoolean(strictTaggingUserProperty);
+
+            return new ProjectRegistry(
+                dockerClient,
+                session.getSettings(),
+                projectDockerRegistry,
+                strictTagging,
+                DockerVersionsHelper.isDaemonDigestResolver(getConfigValue(session, config, "digestResolver")),
+                DockerVersionsHelper.isRegistryPopulateBackend(getConfigValue(session, config, "populateBackend")),
+                Boolean.parseBoolean(getConfigValue(session, config, "sharedDaemon")) ? SharedDaemonLocks.getDefault(session) : null,
+                ImageCache.get(session, getConfigValue(session, config, "imageCacheDirectory")));
+        } catch (final RuntimeException ex) {
+            throw new MavenExecutionException("Unable to create docker client", ex);
+        }
+    }
+
+    private static void prewarmImages(
+        final MavenSession session,
+        final List<Entry<Plugin, Xpp3Dom>> pluginConfigs,
+        final String projectDockerRegistry,
+        final String imagesNeededFromPhase
+    ) throws MavenExecutionException
+    {
+        final List<Xpp3Dom> reactorImagesConfig = getReactorImagesConfig(pluginConfigs);
+        final ProjectRegistry projectRegistry = createProjectRegistry(session, pluginConfigs.get(0).getValue(), projectDockerRegistry);
+        final List<ImageConfiguration> images = applyLockFile(
+            getReactorLockFile(session), DockerVersionsHelper.getImageConfigurations(reactorImagesConfig));
+
+        // Every project waits for the images before the phase that needs them, and only the last project depopulates them
+        final int lastIndex = pluginConfigs.size() - 1;
+        for (int i = 0; i <= lastIndex; i++) {
+            final Entry<Plugin, Xpp3Dom> entry = pluginConfigs.get(i);
+            setImagesConfig(entry.getValue(), reactorImagesConfig);
+            addPopulateExecution(entry.getKey(), entry.getValue(), PREWARM_EXECUTION_ID, imagesNeededFromPhase);
+            if (i == lastIndex) {
+                entry.getKey().setConfiguration(entry.getValue());
+            } else {
+                setSkipMojoConfig(entry.getKey(), entry.getValue(), "skipDepopulateProjectRegistry");
+            }
+        }
+
+        LOGGER.info("Populating project registry in the background...");
+        BackgroundPopulate.start(session, projectRegistry, images);
+    }
+
+    private static File getLockFile(final MavenSession session, final MavenProject project, final Xpp3Dom config)
+    {
+        final String lockFileValue = getConfigValue(session, config, "lockFile");
+        if (lockFileValue == null || lockFileValue.trim().isEmpty()) {
+            return null;
+        }
+
+        // A relative path is resolved against the project, as it is for the lockFile parameter of the goals
+        final File lockFile = new File(lockFileValue.trim());
+        return lockFile.isAbsolute() ? lockFile : new File(project.getBasedir(), lockFileValue.trim());
+    }
+
+    private static File getReactorLockFile(final MavenSession session)
+    {
+        // The images of the reactor are populated with the lock file of the first project that uses the plugin
+        for (final MavenProject project : session.getProjects()) {
+            final Plugin plugin = DockerVersionsHelper.getPlugin(project);
+            if (plugin == null) {
+                continue;
+            }
+
+            final Xpp3Dom pluginConfig = DockerVersionsHelper.getPluginConfig(plugin);
+            return getLockFile(session, project, pluginConfig == null ? new Xpp3Dom("configuration") : pluginConfig);
+        }
+        return null;
+    }
+
+    private static List<ImageConfiguration> applyLockFile(final File lockFile, final List<ImageConfiguration> images)
+        throws MavenExecutionException
+    {
+        if (lockFile == null) {
+            return images;
+        }
+        if (!lockFile.isFile()) {
+            LOGGER.info("Lock file {} not found, using the images in the plugin configuration.", lockFile);
+            return images;
+        }
+        try {
+            return ImageLockFile.apply(lockFile, images);
+        } catch (final IOException | IllegalArgumentException ex) {
+            throw new MavenExecutionException("Unable to read lock file " + lockFile, ex);
+        }
+    }
+
+    private static void addPopulateExecution(final Plugin plugin, final Xpp3Dom config, final String id, final String phase)
+    {
+        // Executions added after the model is built do not inherit the plugin configuration
+        final PluginExecution execution = new PluginExecution();
+        execution.setId(id);
+        execution.setPhase(phase);
+        execution.addGoal("populate-project-registry");
+        execution.setConfiguration(new Xpp3Dom(config));
+
+        plugin.addExecution(execution);
+        plugin.flushExecutionMap();
+    }
+
+    private static List<Xpp3Dom> getReactorImagesConfig(final List<Entry<Plugin, Xpp3Dom>> pluginConfigs)
+    {
+        final List<Xpp3Dom> imagesConfig = new ArrayList<>();
+        for (final Entry<Plugin, Xpp3Dom> pluginConfig : pluginConfigs) {
+            final Xpp3Dom imageManagement = pluginConfig.getValue().getChild("imageManagement");
+            if (imageManagement != null) {
+                imagesConfig.addAll(Arrays.asList(imageManagement.getChildren("image")));
+            }
+        }
+
+        final List<Xpp3Dom> reactorImagesConfig = DockerVersionsHelper.mergeImagesConfig(imagesConfig);
+        LOGGER.debug("DockerVersionsLifecycleParticipant merged {} image configurations into {}",
+                     imagesConfig.size(), reactorImagesConfig.size());
+        return reactorImagesConfig;
+    }
+
+    private static void setImagesConfig(final Xpp3Dom config, final List<Xpp3Dom> imagesConfig)
+    {
+        final Xpp3Dom existingImageManagement = config.getChild("imageManagement");
+        if (existingImageManagement != null) {
+            config.removeChild(existingImageManagement);
+        }
+
+        final Xpp3Dom imageManagement = new Xpp3Dom("imageManagement");
+        imagesConfig.forEach(image -> imageManagement.addChild(new Xpp3Dom(image)));
+        config.addChild(imageManagement);
+    }
+
     private static void setSkipMojoConfig(final Plugin plugin, final Xpp3Dom config, final String name)
     {
         LOGGER.debug("DockerVersionsLifecycleParticipant setting {}...", name);
@@ -182,7 +600,7 @@ public final class DockerVersionsLifecycleParticipant extends AbstractMavenLifec
         projects.stream().forEach(p -> LOGGER.debug("{}", p.getName()));
     }
 
-    private static void setProjectDockerRegistryProperty(final MavenSession session) throws ProjectRegistryPropertySetException
+    private static String setProjectDockerRegistryProperty(final MavenSession session) throws ProjectRegistryPropertySetException
     {
         if (isProjectDockerRegistryPropertySet(session)) {
             throw new ProjectRegistryPropertySetException();
@@ -192,6 +610,7 @@ public final class DockerVersionsLifecycleParticipant extends AbstractMavenLifec
 
         session.getProjects()
             .forEach(project -> project.getProperties().setProperty(PROJECT_DOCKER_REGISTRY, sanitizedProjectDockerRegistry));
+        return sanitizedProjectDockerRegistry;
     }
 
     private static boolean isProjectDockerRegistryPropertySet(final MavenSession session)
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.extension;
+
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+
+import com.github.cafapi.docker_versions.plugins.SharedProjectRegistry;
+
+/**
+ * Releases the images used by a project as soon as the project has finished, passing every event on to the listener it replaces.
+ */
+final class ReleaseImagesExecutionListener implements ExecutionListener
+{
+    private final ExecutionListener delegate;
+    private final SharedProjectRegistry sharedProjectRegistry;
+
+    public ReleaseImagesExecutionListener(final ExecutionListener delegate, final SharedProjectRegistry sharedProjectRegistry)
+    {
+        this.delegate = delegate == null ? new AbstractExecutionListener() : delegate;
+        this.sharedProjectRegistry = sharedProjectRegistry;
+    }
+
+    @Override
+    public void projectDiscoveryStarted(final ExecutionEvent event)
+    {
+        delegate.projectDiscoveryStarted(event);
+    }
+
+    @Override
+    public void sessionStarted(final ExecutionEvent event)
+    {
+        delegate.sessionStarted(event);
+    }
+
+    @Override
+    public void sessionEnded(final ExecutionEvent event)
+    {
+        delegate.sessionEnded(event);
+    }
+
+    @Override
+    public void projectSkipped(final ExecutionEvent event)
+    {
+        sharedProjectRegistry.release(event.getProject().getId());
+        delegate.projectSkipped(event);
+    }
+
+    @Override
+    public void projectStarted(final ExecutionEvent event)
+    {
+        delegate.projectStarted(event);
+    }
+
+    @Override
+    public void projectSucceeded(final ExecutionEvent event)
+    {
+        sharedProjectRegistry.release(event.getProject().getId());
+        delegate.projectSucceeded(event);
+    }
+
+    @Override
+    public void projectFailed(final ExecutionEvent event)
+    {
+        sharedProjectRegistry.release(event.getProject().getId());
+        delegate.projectFailed(event);
+    }
+
+    @Override
+    public void mojoSkipped(final ExecutionEvent event)
+    {
+        delegate.mojoSkipped(event);
+    }
+
+    @Override
+    public void mojoStarted(final ExecutionEvent event)
+    {
+        delegate.mojoStarted(event);
+    }
+
+    @Override
+    public void mojoSucceeded(final ExecutionEvent event)
+    {
+        delegate.mojoSucceeded(event);
+    }
+
+    @Override
+    public void mojoFailed(final ExecutionEvent event)
+    {
+        delegate.mojoFailed(event);
+    }
+
+    @Override
+    public void forkStarted(final ExecutionEvent event)
+    {
+        delegate.forkStarted(event);
+    }
+
+    @Override
+    public void forkSucceeded(final ExecutionEvent event)
+    {
+        delegate.forkSucceeded(event);
+    }
+
+    @Override
+    public void forkFailed(final ExecutionEvent event)
+    {
+        delegate.forkFailed(event);
+    }
+
+    @Override
+    public void forkedProjectStarted(final ExecutionEvent event)
+    {
+        delegate.forkedProjectStarted(event);
+    }
+
+    @Override
+    public void forkedProjectSucceeded(final ExecutionEvent event)
+    {
+        delegate.forkedProjectSucceeded(event);
+    }
+
+    @Override
+    public void forkedProjectFailed(final ExecutionEvent event)
+    {
+        delegate.forkedProjectFailed(event);
+    }
+}
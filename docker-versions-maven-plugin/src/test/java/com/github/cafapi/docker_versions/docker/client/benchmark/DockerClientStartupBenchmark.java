@@ -0,0 +1,102 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.docker.client.benchmark;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.cafapi.docker_versions.plugins.HttpConfiguration;
+import com.github.dockerjava.api.command.InspectImageResponse;
+
+/**
+ * Measures the time taken by a goal to start talking to the Docker daemon, in a new JVM for each measurement so that class
+ * loading and initialisation are included.
+ * <p>
+ * The requests are sent to a port that nothing listens on, so that no Docker daemon is needed and only the client side is
+ * measured. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.github.cafapi.docker_versions.docker.client.benchmark.DockerClientStartupBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(20)
+public class DockerClientStartupBenchmark
+{
+    private static final String UNUSED_DOCKER_HOST = "tcp://127.0.0.1:1";
+
+    @Param({"httpclient5", "zerodep"})
+    public String transport;
+
+    @Benchmark
+    public DockerRestClient getClient()
+    {
+        return DockerRestClient.getInstance(getHttpConfiguration(), UNUSED_DOCKER_HOST);
+    }
+
+    @Benchmark
+    public Object findImage()
+    {
+        final DockerRestClient client = DockerRestClient.getInstance(getHttpConfiguration(), UNUSED_DOCKER_HOST);
+        try {
+            final Optional<InspectImageResponse> image = client.findImage("docker-versions-benchmark:latest");
+            return image;
+        } catch (final RuntimeException ex) {
+            // Expected as nothing is listening on the port
+            return ex;
+        }
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        DockerRestClient.closeAll();
+    }
+
+    private HttpConfiguration getHttpConfiguration()
+    {
+        final HttpConfiguration httpConfiguration = new HttpConfiguration();
+        httpConfiguration.setTransport(transport);
+        httpConfiguration.setConnectionTimout(1);
+        return httpConfiguration;
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(DockerClientStartupBenchmark.class.getSimpleName()).build()).run();
+    }
+}
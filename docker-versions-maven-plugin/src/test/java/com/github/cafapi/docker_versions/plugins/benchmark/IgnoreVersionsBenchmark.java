@@ -0,0 +1,150 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.benchmark;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.cafapi.docker_versions.plugins.CompiledIgnoreVersions;
+import com.github.cafapi.docker_versions.plugins.IgnoreVersion;
+
+/**
+ * Measures filtering the tags of the images of a build through a large set of ignore versions, comparing the compiled ignore
+ * versions with matching each tag against each configured expression.
+ * <p>
+ * Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.github.cafapi.docker_versions.plugins.benchmark.IgnoreVersionsBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IgnoreVersionsBenchmark
+{
+    private static final int IMAGE_COUNT = 20;
+    private static final int TAGS_PER_IMAGE = 1000;
+
+    private Set<IgnoreVersion> ignoreVersions;
+    private List<String> images;
+    private List<String> tags;
+
+    @Setup
+    public void setup()
+    {
+        ignoreVersions = new HashSet<>();
+        final String[] suffixes = {"alpha", "beta", "rc", "bullseye", "bookworm", "alpine", "slim", "windowsservercore"};
+        for (final String suffix : suffixes) {
+            ignoreVersions.add(new IgnoreVersion("regex", "(?i).*-" + suffix + ".*", null));
+        }
+        for (int i = 0; i < 16; i++) {
+            ignoreVersions.add(new IgnoreVersion("exact", "0." + i + ".0", null));
+        }
+        for (int i = 0; i < 16; i++) {
+            ignoreVersions.add(new IgnoreVersion(
+                "regex", "(?i).*-variant" + i + ".*", Collections.singleton("(?i).*/image" + (i % IMAGE_COUNT))));
+        }
+
+        images = new ArrayList<>();
+        for (int i = 0; i < IMAGE_COUNT; i++) {
+            images.add("docker.io/acme/image" + i);
+        }
+
+        tags = new ArrayList<>();
+        for (int i = 0; i < TAGS_PER_IMAGE; i++) {
+            final String version = (i / 100) + "." + (i / 10 % 10) + "." + (i % 10);
+            tags.add(i % 4 == 0 ? version + "-" + suffixes[i % suffixes.length] : version);
+        }
+    }
+
+    @Benchmark
+    public int compiled()
+    {
+        final CompiledIgnoreVersions compiledIgnoreVersions = CompiledIgnoreVersions.compile(ignoreVersions);
+        int relevantTags = 0;
+        for (final String image : images) {
+            relevantTags += compiledIgnoreVersions.getRelevantTags(tags, image).size();
+        }
+        return relevantTags;
+    }
+
+    @Benchmark
+    public int patternMatches()
+    {
+        int relevantTags = 0;
+        for (final String image : images) {
+            final List<IgnoreVersion> imageIgnoreVersions = ignoreVersions.stream()
+                .filter(iVersion -> iVersion.getImages() == null
+                    || iVersion.getImages().stream().anyMatch(img -> Pattern.matches(img, image)))
+                .collect(Collectors.toList());
+            relevantTags += tags.stream()
+                .filter(tag -> !isIgnoredVersion(imageIgnoreVersions, tag))
+                .count();
+        }
+        return relevantTags;
+    }
+
+    /**
+     * Matches a tag the way the ignore versions were matched before they were compiled.
+     */
+    private static boolean isIgnoredVersion(final List<IgnoreVersion> imageIgnoreVersions, final String tag)
+    {
+        if (Arrays.asList("latest", "stable").contains(tag.toLowerCase(Locale.ENGLISH))) {
+            return true;
+        }
+        for (final IgnoreVersion iVersion : imageIgnoreVersions) {
+            final boolean isMatch = "regex".equals(iVersion.getType())
+                ? Pattern.matches(iVersion.getVersion(), tag)
+                : iVersion.getVersion().equals(tag);
+            if (isMatch) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(IgnoreVersionsBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,240 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.benchmark;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.Stack;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.events.XMLEvent;
+
+import org.codehaus.mojo.versions.api.PomHelper;
+import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import com.github.cafapi.docker_versions.plugins.DockerVersionsHelper;
+
+/**
+ * Measures updating the tags and digests of a large pom, with images in the build plugins and in many profiles, comparing the
+ * single pass update with the previous update, which read the pom once for the tags and once more for the digests.
+ * <p>
+ * The setup checks that both produce the same pom. Run with:
+ * <pre>
+ * mvn test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ * java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *     com.github.cafapi.docker_versions.plugins.benchmark.PomImagePatcherBenchmark
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PomImagePatcherBenchmark
+{
+    private static final Pattern IMAGE_MATCH_PATTERN = Pattern.compile(
+        "/project"
+        + "(/profiles/profile)?"
+        + "((/build(/pluginManagement)?/plugins/plugin))?"
+        + "(/configuration/imageManagement/image)");
+
+    private static final Pattern IMAGE_CONFIG_MATCH_PATTERN = Pattern.compile(
+        "/project"
+        + "(/profiles/profile)?"
+        + "((/build(/pluginManagement)?/plugins/plugin))?"
+        + "(/configuration/imageManagement/image)((/repository)|(/targetRepository)|(/tag)|(/digest))");
+
+    @Param({"20"})
+    public int profileCount;
+
+    @Param({"25"})
+    public int imagesPerPlugin;
+
+    private String pom;
+    private List<Xpp3Dom> imagesConfig;
+    private Properties properties;
+
+    @Setup
+    public void setup() throws XMLStreamException
+    {
+        final StringBuilder pomBuilder = new StringBuilder("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project>\n");
+        pomBuilder.append("    <properties>\n        <registry>docker.example.com</registry>\n    </properties>\n");
+        pomBuilder.append("    <build>\n        <plugins>\n");
+        appendPlugin(pomBuilder, "build", "            ");
+        pomBuilder.append("        </plugins>\n    </build>\n    <profiles>\n");
+        for (int profile = 0; profile < profileCount; profile++) {
+            pomBuilder.append("        <profile>\n            <id>profile").append(profile).append("</id>\n");
+            pomBuilder.append("            <build>\n                <plugins>\n");
+            appendPlugin(pomBuilder, "profile" + profile, "                    ");
+            pomBuilder.append("                </plugins>\n            </build>\n        </profile>\n");
+        }
+        pomBuilder.append("    </profiles>\n</project>\n");
+        pom = pomBuilder.toString();
+
+        // Every other image is updated
+        imagesConfig = new ArrayList<>();
+        for (int image = 0; image < imagesPerPlugin; image += 2) {
+            final Xpp3Dom imageConfig = new Xpp3Dom("image");
+            addChild(imageConfig, "repository", "docker.example.com/acme/image" + image);
+            addChild(imageConfig, "tag", "2.0." + image);
+            addChild(imageConfig, "digest", "sha256:" + String.format("%064d", image + 1));
+            imagesConfig.add(imageConfig);
+        }
+        properties = new Properties();
+        properties.setProperty("registry", "docker.example.com");
+
+        final String updatedPom = singlePass();
+        if (!updatedPom.equals(twoPass()) || updatedPom.equals(pom)) {
+            throw new IllegalStateException("The single pass update does not produce the same pom");
+        }
+    }
+
+    @Benchmark
+    public String singlePass() throws XMLStreamException
+    {
+        final ModifiedPomXMLEventReader reader = DockerVersionsHelper.createPomXmlEventReader(new StringBuilder(pom), "pom.xml");
+        DockerVersionsHelper.setImageVersion(reader, imagesConfig, properties);
+        return reader.asStringBuilder().toString();
+    }
+
+    @Benchmark
+    public String twoPass() throws XMLStreamException
+    {
+        final ModifiedPomXMLEventReader reader = DockerVersionsHelper.createPomXmlEventReader(new StringBuilder(pom), "pom.xml");
+        final Map<String, String> implicitProperties = new HashMap<>();
+        properties.forEach((key, value) -> implicitProperties.put((String) key, (String) value));
+        setElement(reader, imagesConfig, implicitProperties, "tag");
+        reader.rewind();
+        setElement(reader, imagesConfig, implicitProperties, "digest");
+        return reader.asStringBuilder().toString();
+    }
+
+    private void appendPlugin(final StringBuilder pomBuilder, final String id, final String indent)
+    {
+        pomBuilder.append(indent).append("<plugin>\n");
+        pomBuilder.append(indent).append("    <artifactId>docker-versions-maven-plugin</artifactId>\n");
+        pomBuilder.append(indent).append("    <configuration>\n");
+        pomBuilder.append(indent).append("        <imageManagement>\n");
+        for (int image = 0; image < imagesPerPlugin; image++) {
+            final String imageIndent = indent + "            ";
+            pomBuilder.append(imageIndent).append("<image>\n");
+            // The repository comes last in some images
+            final String repository = imageIndent + "    <repository>${registry}/acme/image" + image + "</repository>\n";
+            if (image % 3 != 0) {
+                pomBuilder.append(repository);
+            }
+            pomBuilder.append(imageIndent).append("    <tag>1.0.").append(image).append("</tag>\n");
+            pomBuilder.append(imageIndent).append("    <digest>sha256:").append(String.format("%064d", image)).append("</digest>\n");
+            pomBuilder.append(imageIndent).append("    <!-- ").append(id).append(" -->\n");
+            if (image % 3 == 0) {
+                pomBuilder.append(repository);
+            }
+            pomBuilder.append(imageIndent).append("</image>\n");
+        }
+        pomBuilder.append(indent).append("        </imageManagement>\n");
+        pomBuilder.append(indent).append("    </configuration>\n");
+        pomBuilder.append(indent).append("</plugin>\n");
+    }
+
+    private static void addChild(final Xpp3Dom parent, final String name, final String value)
+    {
+        final Xpp3Dom child = new Xpp3Dom(name);
+        child.setValue(value);
+        parent.addChild(child);
+    }
+
+    /**
+     * Updates one element of the images the way the pom was updated before the update was done in a single pass.
+     */
+    private static void setElement(
+        final ModifiedPomXMLEventReader pom,
+        final List<Xpp3Dom> imagesConfig,
+        final Map<String, String> properties,
+        final String element)
+        throws XMLStreamException
+    {
+        final Stack<String> stack = new Stack<>();
+        String path = "";
+        String repository = null;
+        String targetRepository = null;
+
+        while (pom.hasNext()) {
+            final XMLEvent event = pom.nextEvent();
+
+            if (event.isStartElement()) {
+                stack.push(path);
+                final String elementName = event.asStartElement().getName().getLocalPart();
+                path = path + "/" + elementName;
+
+                if (IMAGE_CONFIG_MATCH_PATTERN.matcher(path).matches()) {
+                    if ("repository".equals(elementName)) {
+                        repository = PomHelper.evaluate(pom.getElementText().trim(), properties);
+                        path = stack.pop();
+                    } else if ("targetRepository".equals(elementName)) {
+                        targetRepository = pom.getElementText().trim();
+                        path = stack.pop();
+                    } else if (element.equals(elementName)) {
+                        pom.mark(0);
+                    }
+                }
+            }
+            if (event.isEndElement()) {
+                if (IMAGE_CONFIG_MATCH_PATTERN.matcher(path).matches()) {
+                    if (element.equals(event.asEndElement().getName().getLocalPart())) {
+                        pom.mark(1);
+                    }
+                }
+                if (IMAGE_MATCH_PATTERN.matcher(path).matches()) {
+                    final Optional<Xpp3Dom> repo = DockerVersionsHelper.findRepository(repository, targetRepository, imagesConfig);
+                    if (repo.isPresent() && pom.hasMark(0) && pom.hasMark(1)) {
+                        pom.replaceBetween(0, 1, repo.get().getChild(element).getValue());
+                        pom.clearMark(0);
+                        pom.clearMark(1);
+                    }
+                    targetRepository = null;
+                }
+                path = stack.pop();
+            }
+        }
+    }
+
+    public static void main(final String[] args) throws RunnerException
+    {
+        new Runner(new OptionsBuilder().include(PomImagePatcherBenchmark.class.getSimpleName()).build()).run();
+    }
+}
@@ -0,0 +1,189 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.extension.test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+
+import com.github.cafapi.docker_versions.plugins.extension.DockerVersionsLifecycleParticipant;
+import com.github.cafapi.docker_versions.plugins.test.StandInDockerDaemon;
+import com.github.cafapi.docker_versions.plugins.test.TestHelper;
+import com.github.cafapi.docker_versions.plugins.test.TestMavenSession;
+
+final class AsyncDepopulateTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(AsyncDepopulateTest.class);
+
+    private static final String PROJECT_REGISTRY = "acme.local";
+    private static final String JRE_IMAGE = PROJECT_REGISTRY + "/cafapi/opensuse-jre17:latest";
+    private static final String POSTGRES_IMAGE = PROJECT_REGISTRY + "/library/postgres:latest";
+    private static final String POPULATE_GOAL = "docker-versions:populate-project-registry";
+    private static final String DEPOPULATE_GOAL = "docker-versions:depopulate-project-registry";
+
+    private StandInDockerDaemon daemon;
+    private MavenProject service;
+    private MavenProject tests;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        daemon = new StandInDockerDaemon();
+        daemon.addImage("sha256:1111", "docker.io/cafapi/opensuse-jre17:1.4.3");
+        daemon.addImage("sha256:2222", "docker.io/library/postgres:16");
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        daemon.close();
+    }
+
+    @Test
+    public void testDepopulateGoalNotAdded() throws Exception
+    {
+        final MavenSession syncSession = createSession();
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(syncSession);
+        Assertions.assertEquals(Arrays.asList(POPULATE_GOAL, "verify", DEPOPULATE_GOAL), syncSession.getRequest().getGoals(),
+                                "Depopulate goal added at the end of the build");
+
+        final MavenSession configSession = createSession();
+        getPluginConfig(tests).addChild(TestHelper.createConfigParam("asyncDepopulate", "true"));
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(configSession);
+        Assertions.assertEquals(Arrays.asList(POPULATE_GOAL, "verify"), configSession.getRequest().getGoals(),
+                                "Depopulate goal not added when turned on by the plugin configuration");
+
+        final MavenSession propertySession = createSession();
+        propertySession.getUserProperties().setProperty("docker.versions.asyncDepopulate", "true");
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(propertySession);
+        Assertions.assertEquals(Arrays.asList(POPULATE_GOAL, "verify"), propertySession.getRequest().getGoals(),
+                                "Depopulate goal not added when turned on by the user property");
+    }
+
+    @Test
+    public void testDepopulateAfterSessionEnd() throws Exception
+    {
+        final MavenSession session = createSession();
+        session.getUserProperties().setProperty("docker.versions.asyncDepopulate", "true");
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(session);
+
+        // The populate goal tags the images during the build
+        daemon.addImage("sha256:1111", JRE_IMAGE);
+        daemon.addImage("sha256:2222", POSTGRES_IMAGE);
+        Assertions.assertEquals(0, daemon.countRequests("DELETE"), "Images not untagged during the build");
+
+        new DockerVersionsLifecycleParticipant().afterSessionEnd(session);
+        Assertions.assertNull(daemon.getImageId(JRE_IMAGE), "Jre untagged after the build has ended");
+        Assertions.assertNull(daemon.getImageId(POSTGRES_IMAGE), "Database untagged after the build has ended");
+        Assertions.assertEquals("sha256:1111", daemon.getImageId("docker.io/cafapi/opensuse-jre17:1.4.3"), "Source image kept");
+    }
+
+    @Test
+    public void testFailedUntagDoesNotFailBuild() throws Exception
+    {
+        final MavenSession session = createSession();
+        session.getUserProperties().setProperty("docker.versions.asyncDepopulate", "true");
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(session);
+
+        daemon.addImage("sha256:1111", JRE_IMAGE);
+        daemon.setRemoveFails(true);
+
+        final ch.qos.logback.classic.Logger depopulateLogger = (ch.qos.logback.classic.Logger) LoggerFactory.getLogger(
+            "com.github.cafapi.docker_versions.plugins.extension.DeferredDepopulate");
+        final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+        appender.start();
+        depopulateLogger.addAppender(appender);
+        try {
+            Assertions.assertDoesNotThrow(() -> new DockerVersionsLifecycleParticipant().afterSessionEnd(session),
+                                          "Build not failed by the untag");
+        } finally {
+            depopulateLogger.detachAppender(appender);
+        }
+
+        Assertions.assertEquals(1, daemon.countRequests("DELETE /images/" + JRE_IMAGE), "Untag attempted");
+        Assertions.assertEquals("sha256:1111", daemon.getImageId(JRE_IMAGE), "Jre still tagged");
+        Assertions.assertTrue(
+            appender.list.stream().anyMatch(event -> event.getLevel() == Level.WARN
+                && event.getFormattedMessage().equals("Unable to depopulate project registry")),
+            "Failed untag logged as a warning");
+    }
+
+    private MavenSession createSession()
+    {
+        // The participant sets the project registry property on the projects, so each session has its own projects
+        service = createProject("service",
+                                TestHelper.createImageConfig("docker.io/cafapi/opensuse-jre17", "1.4.3", null, true),
+                                TestHelper.createImageConfig("docker.io/library/postgres", "16", null, true));
+        tests = createProject("tests", TestHelper.createImageConfig("docker.io/library/postgres", "16", null, true));
+
+        final MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setGoals(new ArrayList<>(Arrays.asList("verify")));
+        return TestMavenSession.create(request, Arrays.asList(service, tests));
+    }
+
+    private MavenProject createProject(final String artifactId, final Xpp3Dom... images)
+    {
+        final Model model = new Model();
+        model.setGroupId("com.acme");
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0.0");
+        model.setPackaging("jar");
+
+        final Xpp3Dom config = new Xpp3Dom("configuration");
+        config.addChild(TestHelper.createConfigParam("dockerHost", daemon.getDockerHost()));
+        config.addChild(TestHelper.createConfigParam("projectDockerRegistry", PROJECT_REGISTRY));
+        final Xpp3Dom imageManagement = new Xpp3Dom("imageManagement");
+        Arrays.stream(images).forEach(imageManagement::addChild);
+        config.addChild(imageManagement);
+
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId("com.github.cafapi.plugins.docker.versions");
+        plugin.setArtifactId("docker-versions-maven-plugin");
+        plugin.setConfiguration(config);
+
+        final Build build = new Build();
+        build.addPlugin(plugin);
+        model.setBuild(build);
+        return new MavenProject(model);
+    }
+
+    private static Xpp3Dom getPluginConfig(final MavenProject project)
+    {
+        return (Xpp3Dom) project.getBuildPlugins().get(0).getConfiguration();
+    }
+}
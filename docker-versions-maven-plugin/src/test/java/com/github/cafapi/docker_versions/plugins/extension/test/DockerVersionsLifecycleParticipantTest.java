@@ -86,6 +86,51 @@ final class DockerVersionsLifecycleParticipantTest
         verifyEnableAutoPopulate(Arrays.asList(new String[]{"validate", "install", "deploy"}));
     }
 
+    @Test
+    public void testImagesNeededFromPhase() throws Exception
+    {
+        // Builds that stop before the images are needed do not populate the project registry
+        verifyDisableAutoPopulate(Arrays.asList(new String[]{"compile"}));
+        verifyDisableAutoPopulate(Arrays.asList(new String[]{"clean", "test"}));
+        verifyDisableAutoPopulate(Arrays.asList(new String[]{"package"}));
+        verifyDisableAutoPopulate(Arrays.asList(new String[]{"pre-site", "post-clean"}));
+
+        // Phases of custom lifecycles might need the images
+        verifyEnableAutoPopulate(Arrays.asList(new String[]{"custom-phase"}));
+        verifyEnableAutoPopulate(Arrays.asList(new String[]{"pre-integration-test"}));
+
+        final List<String> packageTasks = Arrays.asList(new String[]{"clean", "package"});
+        final List<String> packagePhases = DockerVersionsLifecycleParticipant.getPhases(packageTasks);
+        Assertions.assertTrue(DockerVersionsLifecycleParticipant.shouldAddPopulateGoal(packageTasks, packagePhases, "package"));
+        Assertions.assertFalse(DockerVersionsLifecycleParticipant.shouldAddPopulateGoal(packageTasks, packagePhases, "verify"));
+    }
+
+    @Test
+    public void testAutoDepopulate() throws Exception
+    {
+        verifyEnableAutoDepopulate(Arrays.asList(new String[]{"install"}));
+        verifyEnableAutoDepopulate(Arrays.asList(new String[]{"clean"}));
+        verifyEnableAutoDepopulate(Arrays.asList(new String[]{"clean", "compile"}));
+
+        verifyDisableAutoDepopulate(Arrays.asList(new String[]{"compile"}));
+        verifyDisableAutoDepopulate(Arrays.asList(new String[]{"validate", "site"}));
+        verifyDisableAutoDepopulate(Arrays.asList(new String[]{"clean", "docker-versions:depopulate-project-registry"}));
+    }
+
+    private static void verifyEnableAutoDepopulate(final List<String> tasks)
+    {
+        LOGGER.info("Include depopulate goal for tasks in session: {}...", tasks);
+        final List<String> phasesInSession = DockerVersionsLifecycleParticipant.getPhases(tasks);
+        Assertions.assertTrue(DockerVersionsLifecycleParticipant.shouldAddDepopulateGoal(tasks, phasesInSession));
+    }
+
+    private static void verifyDisableAutoDepopulate(final List<String> tasks)
+    {
+        LOGGER.info("Ignore depopulate goal for tasks in session: {}...", tasks);
+        final List<String> phasesInSession = DockerVersionsLifecycleParticipant.getPhases(tasks);
+        Assertions.assertFalse(DockerVersionsLifecycleParticipant.shouldAddDepopulateGoal(tasks, phasesInSession));
+    }
+
     private static void verifyDisableAutoPopulate(final List<String> tasks)
     {
         LOGGER.info("Ignore populate goal for tasks in session: {}...", tasks);
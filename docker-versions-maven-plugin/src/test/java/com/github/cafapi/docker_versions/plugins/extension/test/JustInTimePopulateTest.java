@@ -0,0 +1,369 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.extension.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.maven.MavenExecutionException;
+import org.apache.maven.execution.AbstractExecutionListener;
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.ExecutionEvent;
+import org.apache.maven.execution.ExecutionListener;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.plugin.MojoExecution;
+import org.apache.maven.project.MavenProject;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.plugins.BackgroundPopulate;
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
+import com.github.cafapi.docker_versions.plugins.ImageLockFile;
+import com.github.cafapi.docker_versions.plugins.SharedProjectRegistry;
+import com.github.cafapi.docker_versions.plugins.extension.DockerVersionsLifecycleParticipant;
+import com.github.cafapi.docker_versions.plugins.test.StandInDockerDaemon;
+import com.github.cafapi.docker_versions.plugins.test.TestHelper;
+import com.github.cafapi.docker_versions.plugins.test.TestMavenSession;
+
+final class JustInTimePopulateTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(JustInTimePopulateTest.class);
+
+    private static final String PROJECT_REGISTRY = "acme.local";
+    private static final String JRE_IMAGE = PROJECT_REGISTRY + "/cafapi/opensuse-jre17:latest";
+    private static final String POSTGRES_IMAGE = PROJECT_REGISTRY + "/library/postgres:latest";
+
+    private StandInDockerDaemon daemon;
+    private MavenProject service;
+    private MavenProject tests;
+    private MavenProject docs;
+    private List<String> delegatedEvents;
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        daemon = new StandInDockerDaemon();
+        daemon.addImage("sha256:1111", "docker.io/cafapi/opensuse-jre17:1.4.3");
+        daemon.addImage("sha256:2222", "docker.io/library/postgres:16");
+        delegatedEvents = new ArrayList<>();
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        daemon.close();
+    }
+
+    @Test
+    public void testImagesReleasedWhenProjectsFinish() throws Exception
+    {
+        final MavenSession session = createSession(2);
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(session);
+
+        final SharedProjectRegistry sharedProjectRegistry = SharedProjectRegistry.find(session)
+            .orElseThrow(() -> new AssertionError("Just in time populate expected in a parallel build"));
+        final ExecutionListener listener = session.getRequest().getExecutionListener();
+
+        sharedProjectRegistry.acquire(service.getId());
+        sharedProjectRegistry.acquire(tests.getId());
+        Assertions.assertEquals("sha256:1111", daemon.getImageId(JRE_IMAGE), "Jre tagged");
+        Assertions.assertEquals("sha256:2222", daemon.getImageId(POSTGRES_IMAGE), "Database tagged");
+
+        listener.projectSkipped(new TestExecutionEvent(session, docs));
+        listener.projectSucceeded(new TestExecutionEvent(session, service));
+        Assertions.assertNull(daemon.getImageId(JRE_IMAGE), "Jre untagged once the service has finished");
+        Assertions.assertEquals("sha256:2222", daemon.getImageId(POSTGRES_IMAGE), "Database still used by the tests");
+
+        listener.projectFailed(new TestExecutionEvent(session, tests));
+        Assertions.assertNull(daemon.getImageId(POSTGRES_IMAGE), "Database untagged once the tests have failed");
+
+        Assertions.assertEquals(
+            Arrays.asList("projectSkipped docs", "projectSucceeded service", "projectFailed tests"),
+            delegatedEvents,
+            "Events passed on to the original listener");
+
+        daemon.clearRequests();
+        new DockerVersionsLifecycleParticipant().afterSessionEnd(session);
+        Assertions.assertEquals(0, daemon.countRequests("DELETE"), "Images are only untagged once");
+    }
+
+    @Test
+    public void testSkippedProjectReleasesImages() throws Exception
+    {
+        final MavenSession session = createSession(2);
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(session);
+
+        final SharedProjectRegistry sharedProjectRegistry = SharedProjectRegistry.find(session).get();
+        final ExecutionListener listener = session.getRequest().getExecutionListener();
+
+        // The tests are skipped after the service has failed, so never acquire the database
+        sharedProjectRegistry.acquire(service.getId());
+        listener.projectFailed(new TestExecutionEvent(session, service));
+        Assertions.assertEquals("sha256:2222", daemon.getImageId(POSTGRES_IMAGE), "Database still expected by the tests");
+
+        listener.projectSkipped(new TestExecutionEvent(session, tests));
+        Assertions.assertNull(daemon.getImageId(POSTGRES_IMAGE), "Database untagged once the tests are skipped");
+    }
+
+    @Test
+    public void testReleaseAllAfterEarlyStop() throws Exception
+    {
+        final MavenSession session = createSession(2);
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(session);
+
+        SharedProjectRegistry.find(session).get().acquire(service.getId());
+
+        // The build stopped without any project finished event
+        new DockerVersionsLifecycleParticipant().afterSessionEnd(session);
+        Assertions.assertNull(daemon.getImageId(JRE_IMAGE), "Jre untagged at the end of the build");
+        Assertions.assertNull(daemon.getImageId(POSTGRES_IMAGE), "Database untagged at the end of the build");
+    }
+
+    @Test
+    public void testJustInTimeOptOut() throws Exception
+    {
+        final MavenSession serialSession = createSession(1);
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(serialSession);
+        Assertions.assertFalse(SharedProjectRegistry.find(serialSession).isPresent(), "Serial build populates at the start");
+
+        final MavenSession propertySession = createSession(2);
+        propertySession.getUserProperties().setProperty("docker.versions.jit", "false");
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(propertySession);
+        Assertions.assertFalse(SharedProjectRegistry.find(propertySession).isPresent(), "Turned off by the user property");
+        Assertions.assertEquals("docker-versions:populate-project-registry", propertySession.getRequest().getGoals().get(0),
+                                "Populate goal added at the start of the build");
+
+        final MavenSession configSession = createSession(2);
+        getPluginConfig(service).addChild(TestHelper.createConfigParam("jit", "false"));
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(configSession);
+        Assertions.assertFalse(SharedProjectRegistry.find(configSession).isPresent(), "Turned off by the plugin configuration");
+    }
+
+    @Test
+    public void testJustInTimeOptIn() throws Exception
+    {
+        final MavenSession session = createSession(1);
+        getPluginConfig(service).addChild(TestHelper.createConfigParam("jit", "true"));
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(session);
+        Assertions.assertTrue(SharedProjectRegistry.find(session).isPresent(), "Turned on in a serial build");
+    }
+
+    @Test
+    public void testUnknownTransport()
+    {
+        final MavenSession session = createSession(2);
+        final Xpp3Dom httpConfiguration = new Xpp3Dom("httpConfiguration");
+        httpConfiguration.addChild(TestHelper.createConfigParam("transport", "okhttp"));
+        getPluginConfig(service).addChild(httpConfiguration);
+
+        final MavenExecutionException ex = Assertions.assertThrows(
+            MavenExecutionException.class,
+            () -> new DockerVersionsLifecycleParticipant().afterProjectsRead(session));
+        Assertions.assertTrue(ex.getMessage().contains("'httpConfiguration.transport'"), "Parameter named in " + ex.getMessage());
+    }
+
+    @Test
+    public void testLockFileUsedJustInTime() throws Exception
+    {
+        final File lockFile = writeLockFile();
+        final MavenSession session = createSession(2);
+        session.getUserProperties().setProperty("docker.versions.lockFile", lockFile.getPath());
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(session);
+
+        SharedProjectRegistry.find(session).get().acquire(service.getId());
+        Assertions.assertEquals("sha256:3333", daemon.getImageId(JRE_IMAGE), "Jre tagged with the image in the lock file");
+        Assertions.assertEquals("sha256:2222", daemon.getImageId(POSTGRES_IMAGE), "Database not in the lock file tagged as configured");
+
+        new DockerVersionsLifecycleParticipant().afterSessionEnd(session);
+    }
+
+    @Test
+    public void testLockFileUsedByPrewarm() throws Exception
+    {
+        final File lockFile = writeLockFile();
+        final MavenSession session = createSession(1);
+        session.getUserProperties().setProperty("docker.versions.prewarm", "true");
+        getPluginConfig(service).addChild(TestHelper.createConfigParam("lockFile", lockFile.getPath()));
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(session);
+
+        BackgroundPopulate.find(session)
+            .orElseThrow(() -> new AssertionError("Background populate expected when prewarm is set"))
+            .get();
+        Assertions.assertEquals("sha256:3333", daemon.getImageId(JRE_IMAGE), "Jre tagged with the image in the lock file");
+
+        new DockerVersionsLifecycleParticipant().afterSessionEnd(session);
+    }
+
+    @Test
+    public void testInvalidLockFile() throws Exception
+    {
+        final File lockFile = tempDir.resolve("docker-versions.lock").toFile();
+        Files.write(lockFile.toPath(), "{\"version\": 2}".getBytes(StandardCharsets.UTF_8));
+        final MavenSession session = createSession(2);
+        session.getUserProperties().setProperty("docker.versions.lockFile", lockFile.getPath());
+
+        final MavenExecutionException ex = Assertions.assertThrows(
+            MavenExecutionException.class,
+            () -> new DockerVersionsLifecycleParticipant().afterProjectsRead(session));
+        Assertions.assertTrue(ex.getMessage().contains(lockFile.getPath()), "Lock file named in " + ex.getMessage());
+    }
+
+    private File writeLockFile() throws IOException
+    {
+        daemon.addImage("sha256:3333", "docker.io/cafapi/opensuse-jre17:1.4.5");
+
+        final ImageConfiguration jre = new ImageConfiguration();
+        jre.setRepository("docker.io/cafapi/opensuse-jre17");
+        jre.setTag("1.4.5");
+
+        final File lockFile = tempDir.resolve("docker-versions.lock").toFile();
+        ImageLockFile.write(lockFile, Arrays.asList(jre));
+        return lockFile;
+    }
+
+    private MavenSession createSession(final int degreeOfConcurrency)
+    {
+        // The participant sets the project registry property on the projects, so each session has its own projects
+        service = createProject("service",
+                                TestHelper.createImageConfig("docker.io/cafapi/opensuse-jre17", "1.4.3", null, true),
+                                TestHelper.createImageConfig("docker.io/library/postgres", "16", null, true));
+        tests = createProject("tests", TestHelper.createImageConfig("docker.io/library/postgres", "16", null, true));
+        docs = createProject("docs");
+
+        final MavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setGoals(new ArrayList<>(Arrays.asList("verify")));
+        request.setDegreeOfConcurrency(degreeOfConcurrency);
+        request.setExecutionListener(new AbstractExecutionListener()
+        {
+            @Override
+            public void projectSkipped(final ExecutionEvent event)
+            {
+                delegatedEvents.add("projectSkipped " + event.getProject().getArtifactId());
+            }
+
+            @Override
+            public void projectSucceeded(final ExecutionEvent event)
+            {
+                delegatedEvents.add("projectSucceeded " + event.getProject().getArtifactId());
+            }
+
+            @Override
+            public void projectFailed(final ExecutionEvent event)
+            {
+                delegatedEvents.add("projectFailed " + event.getProject().getArtifactId());
+            }
+        });
+
+        return TestMavenSession.create(request, Arrays.asList(service, tests, docs));
+    }
+
+    private MavenProject createProject(final String artifactId, final Xpp3Dom... images)
+    {
+        final Model model = new Model();
+        model.setGroupId("com.acme");
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0.0");
+        model.setPackaging("jar");
+
+        final Xpp3Dom config = new Xpp3Dom("configuration");
+        config.addChild(TestHelper.createConfigParam("dockerHost", daemon.getDockerHost()));
+        config.addChild(TestHelper.createConfigParam("projectDockerRegistry", PROJECT_REGISTRY));
+        if (images.length > 0) {
+            final Xpp3Dom imageManagement = new Xpp3Dom("imageManagement");
+            Arrays.stream(images).forEach(imageManagement::addChild);
+            config.addChild(imageManagement);
+        }
+
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId("com.github.cafapi.plugins.docker.versions");
+        plugin.setArtifactId("docker-versions-maven-plugin");
+        plugin.setConfiguration(config);
+
+        final Build build = new Build();
+        build.addPlugin(plugin);
+        model.setBuild(build);
+        return new MavenProject(model);
+    }
+
+    private static Xpp3Dom getPluginConfig(final MavenProject project)
+    {
+        return (Xpp3Dom) project.getBuildPlugins().get(0).getConfiguration();
+    }
+
+    private static final class TestExecutionEvent implements ExecutionEvent
+    {
+        private final MavenSession session;
+        private final MavenProject project;
+
+        public TestExecutionEvent(final MavenSession session, final MavenProject project)
+        {
+            this.session = session;
+            this.project = project;
+        }
+
+        @Override
+        public Type getType()
+        {
+            return Type.ProjectSucceeded;
+        }
+
+        @Override
+        public MavenSession getSession()
+        {
+            return session;
+        }
+
+        @Override
+        public MavenProject getProject()
+        {
+            return project;
+        }
+
+        @Override
+        public MojoExecution getMojoExecution()
+        {
+            return null;
+        }
+
+        @Override
+        public Exception getException()
+        {
+            return null;
+        }
+    }
+}
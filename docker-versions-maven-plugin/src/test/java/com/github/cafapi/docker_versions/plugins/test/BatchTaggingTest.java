@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.cafapi.docker_versions.docker.client.ImageTaggingException;
+import com.github.dockerjava.api.command.InspectImageResponse;
+
+final class BatchTaggingTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(BatchTaggingTest.class);
+
+    private static final String JRE_NAME = "acme.local/cafapi/opensuse-jre17";
+    private static final String POSTGRES_NAME = "acme.local/library/postgres";
+
+    private StandInDockerDaemon daemon;
+    private DockerRestClient dockerClient;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        daemon = new StandInDockerDaemon();
+        daemon.addImage("sha256:1111", "docker.io/cafapi/opensuse-jre17:1.4.3");
+        daemon.addImage("sha256:2222", "docker.io/library/postgres:16");
+        dockerClient = daemon.getClient();
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        DockerRestClient.closeAll();
+        daemon.close();
+    }
+
+    @Test
+    public void testTagImages() throws ImageTaggingException
+    {
+        dockerClient.tagImages(getImagesToTag(), "latest");
+        Assertions.assertEquals("sha256:1111", daemon.getImageId(JRE_NAME + ":latest"), "Jre tagged");
+        Assertions.assertEquals("sha256:2222", daemon.getImageId(POSTGRES_NAME + ":latest"), "Database tagged");
+
+        dockerClient.untagImages(Arrays.asList(JRE_NAME + ":latest", POSTGRES_NAME + ":latest"));
+        Assertions.assertNull(daemon.getImageId(JRE_NAME + ":latest"), "Jre untagged");
+        Assertions.assertNull(daemon.getImageId(POSTGRES_NAME + ":latest"), "Database untagged");
+    }
+
+    @Test
+    public void testMissingTagReported()
+    {
+        final Map<String, InspectImageResponse> imagesToTag = getImagesToTag();
+        daemon.setTagIgnored(true);
+
+        final ImageTaggingException ex = Assertions.assertThrows(
+            ImageTaggingException.class, () -> dockerClient.tagImages(imagesToTag, "latest"), "Missing tag reported");
+        Assertions.assertTrue(ex.getMessage().contains(JRE_NAME + ":latest"), "Missing tag named in " + ex.getMessage());
+        Assertions.assertEquals(2, daemon.countRequests("POST /images/sha256:"), "Every image tagged before verifying");
+    }
+
+    @Test
+    public void testLeftoverTagReported() throws ImageTaggingException
+    {
+        dockerClient.tagImages(getImagesToTag(), "latest");
+        daemon.setRemoveIgnored(true);
+
+        final ImageTaggingException ex = Assertions.assertThrows(
+            ImageTaggingException.class,
+            () -> dockerClient.untagImages(Arrays.asList(JRE_NAME + ":latest", POSTGRES_NAME + ":latest")),
+            "Leftover tag reported");
+        Assertions.assertTrue(ex.getMessage().contains(JRE_NAME + ":latest"), "Leftover tag named in " + ex.getMessage());
+        Assertions.assertEquals(2, daemon.countRequests("DELETE"), "Every image untagged before verifying");
+    }
+
+    private Map<String, InspectImageResponse> getImagesToTag()
+    {
+        final Map<String, InspectImageResponse> imagesToTag = new LinkedHashMap<>();
+        imagesToTag.put(JRE_NAME, dockerClient.findImage("docker.io/cafapi/opensuse-jre17:1.4.3").get());
+        imagesToTag.put(POSTGRES_NAME, dockerClient.findImage("docker.io/library/postgres:16").get());
+        return imagesToTag;
+    }
+}
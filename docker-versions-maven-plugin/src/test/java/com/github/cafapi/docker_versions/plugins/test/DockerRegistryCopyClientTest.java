@@ -0,0 +1,175 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.docker.client.DockerRegistryCopyClient;
+import com.github.cafapi.docker_versions.docker.client.DockerRegistryException;
+import com.github.cafapi.docker_versions.docker.client.ImageNotFoundException;
+import com.github.cafapi.docker_versions.docker.client.RegistryImage;
+
+final class DockerRegistryCopyClientTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(DockerRegistryCopyClientTest.class);
+
+    private static final String MANIFEST_MEDIA_TYPE = "application/vnd.docker.distribution.manifest.v2+json";
+
+    private StandInRegistry sourceRegistry;
+    private StandInRegistry targetRegistry;
+    private String manifestDigest;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        sourceRegistry = new StandInRegistry();
+        targetRegistry = new StandInRegistry();
+
+        final byte[] config = "{\"architecture\":\"amd64\"}".getBytes(StandardCharsets.UTF_8);
+        final byte[] layer = "layer data".getBytes(StandardCharsets.UTF_8);
+        final String configDigest = sourceRegistry.addBlob("library/alpine", config);
+        final String layerDigest = sourceRegistry.addBlob("library/alpine", layer);
+        final byte[] manifest = ("{\"schemaVersion\":2,\"mediaType\":\"" + MANIFEST_MEDIA_TYPE + "\","
+            + "\"config\":{\"digest\":\"" + configDigest + "\",\"size\":" + config.length + "},"
+            + "\"layers\":[{\"digest\":\"" + layerDigest + "\",\"size\":" + layer.length + "}]}")
+            .getBytes(StandardCharsets.UTF_8);
+        manifestDigest = sourceRegistry.addManifest("library/alpine", "3.19", manifest);
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        sourceRegistry.close();
+        targetRegistry.close();
+    }
+
+    @Test
+    public void testCopyImageInSameRegistry() throws DockerRegistryException, ImageNotFoundException, IOException
+    {
+        final RegistryImage source = new RegistryImage(sourceRegistry.getAddress(), "library/alpine", "3.19", null);
+        final RegistryImage target = new RegistryImage(sourceRegistry.getAddress(), "project/alpine", "latest", null);
+
+        try (final DockerRegistryCopyClient copyClient = new DockerRegistryCopyClient()) {
+            Assertions.assertEquals(manifestDigest, copyClient.copyImage(source, target), "Copied manifest digest");
+        }
+
+        Assertions.assertTrue(sourceRegistry.hasManifest("project/alpine", "latest"), "Image tagged in target repository");
+        Assertions.assertEquals(2, sourceRegistry.getMounts(), "Blobs were mounted");
+        Assertions.assertEquals(0, sourceRegistry.getBlobDownloads(), "No blobs were downloaded");
+    }
+
+    @Test
+    public void testCopyImageBetweenRegistries() throws DockerRegistryException, ImageNotFoundException, IOException
+    {
+        final RegistryImage source = new RegistryImage(sourceRegistry.getAddress(), "library/alpine", manifestDigest, null);
+        final RegistryImage target = new RegistryImage(targetRegistry.getAddress(), "project/alpine", "latest", null);
+
+        try (final DockerRegistryCopyClient copyClient = new DockerRegistryCopyClient()) {
+            Assertions.assertEquals(manifestDigest, copyClient.copyImage(source, target), "Copied manifest digest");
+
+            // Blobs already present in the target registry are not copied again
+            copyClient.copyImage(source, new RegistryImage(targetRegistry.getAddress(), "project/alpine", "other", null));
+        }
+
+        Assertions.assertTrue(targetRegistry.hasManifest("project/alpine", "latest"), "Image tagged in target registry");
+        Assertions.assertEquals(2, targetRegistry.countBlobs(), "Blobs were copied");
+        Assertions.assertEquals(2, sourceRegistry.getBlobDownloads(), "Blobs were downloaded once");
+    }
+
+    @Test
+    public void testCopyImageNotFound() throws IOException
+    {
+        final RegistryImage source = new RegistryImage(sourceRegistry.getAddress(), "library/alpine", "0.0", null);
+        final RegistryImage target = new RegistryImage(targetRegistry.getAddress(), "project/alpine", "latest", null);
+
+        try (final DockerRegistryCopyClient copyClient = new DockerRegistryCopyClient()) {
+            Assertions.assertThrows(ImageNotFoundException.class, () -> copyClient.copyImage(source, target), "Image not found");
+        }
+    }
+
+    @Test
+    public void testCopyImageWithoutContentType() throws DockerRegistryException, ImageNotFoundException, IOException
+    {
+        final RegistryImage source = new RegistryImage(sourceRegistry.getAddress(), "library/alpine", "3.19", null);
+        final RegistryImage target = new RegistryImage(targetRegistry.getAddress(), "project/alpine", "latest", null);
+        sourceRegistry.setReportMediaType(false);
+
+        // The media type is taken from the manifest itself
+        try (final DockerRegistryCopyClient copyClient = new DockerRegistryCopyClient()) {
+            Assertions.assertEquals(manifestDigest, copyClient.copyImage(source, target), "Copied manifest digest");
+        }
+        Assertions.assertTrue(targetRegistry.hasManifest("project/alpine", "latest"), "Image tagged in target registry");
+    }
+
+    @Test
+    public void testCopyImageWithoutMediaType() throws IOException
+    {
+        final byte[] config = "{\"architecture\":\"arm64\"}".getBytes(StandardCharsets.UTF_8);
+        final String configDigest = sourceRegistry.addBlob("library/alpine", config);
+        final byte[] manifest = ("{\"schemaVersion\":2,"
+            + "\"config\":{\"digest\":\"" + configDigest + "\",\"size\":" + config.length + "},\"layers\":[]}")
+            .getBytes(StandardCharsets.UTF_8);
+        sourceRegistry.addManifest("library/alpine", "untyped", manifest);
+        sourceRegistry.setReportMediaType(false);
+
+        final RegistryImage source = new RegistryImage(sourceRegistry.getAddress(), "library/alpine", "untyped", null);
+        final RegistryImage target = new RegistryImage(targetRegistry.getAddress(), "project/alpine", "latest", null);
+
+        try (final DockerRegistryCopyClient copyClient = new DockerRegistryCopyClient()) {
+            final DockerRegistryException ex = Assertions.assertThrows(
+                DockerRegistryException.class, () -> copyClient.copyImage(source, target), "Media type unknown");
+            Assertions.assertTrue(ex.getMessage().contains("media type"), "Reason in " + ex.getMessage());
+        }
+        Assertions.assertFalse(targetRegistry.hasManifest("project/alpine", "latest"), "Image not tagged in target registry");
+    }
+
+    @Test
+    public void testDeleteImage() throws DockerRegistryException, IOException
+    {
+        final RegistryImage image = new RegistryImage(sourceRegistry.getAddress(), "library/alpine", "3.19", null);
+
+        try (final DockerRegistryCopyClient copyClient = new DockerRegistryCopyClient()) {
+            Assertions.assertEquals(manifestDigest, copyClient.getDigest(image).orElse(null), "Digest of image");
+            Assertions.assertTrue(copyClient.deleteImage(image, manifestDigest), "Image deleted");
+            Assertions.assertFalse(sourceRegistry.hasManifest("library/alpine", "3.19"), "Image no longer present");
+            Assertions.assertFalse(copyClient.deleteImage(image, manifestDigest), "Image already deleted");
+            Assertions.assertFalse(copyClient.getDigest(image).isPresent(), "No digest of deleted image");
+        }
+    }
+
+    @Test
+    public void testDeleteRetaggedImage() throws DockerRegistryException, IOException
+    {
+        final String retaggedDigest = sourceRegistry.addImage("library/alpine", "3.19", "other layer data");
+        final RegistryImage image = new RegistryImage(sourceRegistry.getAddress(), "library/alpine", "3.19", null);
+
+        try (final DockerRegistryCopyClient copyClient = new DockerRegistryCopyClient()) {
+            Assertions.assertFalse(copyClient.deleteImage(image, manifestDigest), "Image referring to another manifest not deleted");
+        }
+        Assertions.assertEquals(retaggedDigest, sourceRegistry.getDigest("library/alpine", "3.19"), "Tag left in place");
+    }
+}
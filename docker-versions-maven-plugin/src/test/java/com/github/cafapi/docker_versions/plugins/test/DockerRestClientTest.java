@@ -0,0 +1,178 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.docker.client.DockerRegistryException;
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.cafapi.docker_versions.docker.client.ImageNotFoundException;
+import com.github.cafapi.docker_versions.plugins.HttpConfiguration;
+import com.github.dockerjava.api.model.AuthConfig;
+import com.sun.net.httpserver.HttpServer;
+
+final class DockerRestClientTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(DockerRestClientTest.class);
+
+    private static final String DIGEST = "sha256:6457d53fb065d6f250e1504b9bc42d5b6c65941d57532c072d929dd0628977d0";
+
+    private final AtomicReference<String> registryAuth = new AtomicReference<>();
+    private final AtomicInteger pullAttempts = new AtomicInteger();
+    private final CountDownLatch stopStalling = new CountDownLatch(1);
+    private ExecutorService daemonExecutor;
+    private HttpServer daemon;
+    private DockerRestClient dockerClient;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        // Stands in for the distribution and pull endpoints of the Docker daemon
+        daemon = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        daemon.createContext("/images/create", exchange -> {
+            final boolean stall = pullAttempts.incrementAndGet() == 1;
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(200, 0);
+            try (final OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write("{\"status\":\"Pulling from library/alpine\",\"id\":\"3.19\"}\r\n".getBytes(StandardCharsets.UTF_8));
+                responseBody.flush();
+                if (stall) {
+                    // The first pull stops making progress without the connection being closed
+                    stopStalling.await(30, TimeUnit.SECONDS);
+                    return;
+                }
+                responseBody.write(
+                    "{\"status\":\"Status: Downloaded newer image for alpine:3.19\"}\r\n".getBytes(StandardCharsets.UTF_8));
+            } catch (final IOException | InterruptedException e) {
+                LOGGER.debug("Stalled pull ended", e);
+            }
+        });
+        daemon.createContext("/", exchange -> {
+            registryAuth.set(exchange.getRequestHeaders().getFirst("X-Registry-Auth"));
+            final String path = exchange.getRequestURI().getPath();
+            final boolean found = path.endsWith("/distribution/docker.io/library/alpine:3.19/json");
+            final byte[] body = (found
+                ? "{\"Descriptor\":{\"mediaType\":\"application/vnd.oci.image.index.v1+json\",\"digest\":\"" + DIGEST + "\"}}"
+                : "{\"message\":\"manifest unknown\"}").getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(found ? 200 : 404, body.length);
+            try (final OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        });
+        daemonExecutor = Executors.newCachedThreadPool();
+        daemon.setExecutor(daemonExecutor);
+        daemon.start();
+
+        final HttpConfiguration httpConfiguration = new HttpConfiguration();
+        httpConfiguration.setConnectionTimout(5);
+        dockerClient = DockerRestClient.getInstance(
+            httpConfiguration, "tcp://" + daemon.getAddress().getHostString() + ":" + daemon.getAddress().getPort());
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        DockerRestClient.closeAll();
+        stopStalling.countDown();
+        daemon.stop(0);
+        daemonExecutor.shutdownNow();
+    }
+
+    @Test
+    public void testGetDistributionDigest() throws DockerRegistryException, ImageNotFoundException
+    {
+        final String digest = dockerClient.getDistributionDigest("docker.io/library/alpine:3.19", null);
+        Assertions.assertEquals(DIGEST, digest, "Got digest");
+        Assertions.assertNull(registryAuth.get(), "No credentials sent");
+
+        final AuthConfig authConfig = new AuthConfig().withUsername("user").withPassword("pass");
+        dockerClient.getDistributionDigest("docker.io/library/alpine:3.19", authConfig);
+        final String credentials = new String(Base64.getUrlDecoder().decode(registryAuth.get()), StandardCharsets.UTF_8);
+        Assertions.assertTrue(credentials.contains("\"username\":\"user\""), "Credentials sent: " + credentials);
+    }
+
+    @Test
+    public void testGetDistributionDigestImageNotFound()
+    {
+        Assertions.assertThrows(
+            ImageNotFoundException.class,
+            () -> dockerClient.getDistributionDigest("docker.io/library/alpine:0.0", null),
+            "Image not found");
+    }
+
+    @Test
+    public void testStalledPullIsRetried() throws InterruptedException
+    {
+        final HttpConfiguration httpConfiguration = new HttpConfiguration();
+        httpConfiguration.setConnectionTimout(5);
+        httpConfiguration.setDownloadImageTimout(30);
+        httpConfiguration.setDownloadImageStallTimout(1);
+        httpConfiguration.setDownloadImageRetries(1);
+        final DockerRestClient pullClient = DockerRestClient.getInstance(
+            httpConfiguration, "tcp://" + daemon.getAddress().getHostString() + ":" + daemon.getAddress().getPort());
+
+        Assertions.assertTrue(pullClient.pullImage("docker.io/library/alpine", "3.19", null), "Pull succeeded after retry");
+        Assertions.assertEquals(2, pullAttempts.get(), "Stalled pull was retried");
+    }
+
+    @Test
+    public void testClientsSharedByConfiguration()
+    {
+        final String dockerHost = "tcp://" + daemon.getAddress().getHostString() + ":" + daemon.getAddress().getPort();
+        final HttpConfiguration httpConfiguration = new HttpConfiguration();
+        httpConfiguration.setConnectionTimout(5);
+        Assertions.assertSame(dockerClient, DockerRestClient.getInstance(httpConfiguration, dockerHost), "Client shared");
+
+        // Changing a configuration that was used to get a client does not change the client it is shared under
+        httpConfiguration.setMaxConnections(7);
+        Assertions.assertNotSame(dockerClient, DockerRestClient.getInstance(httpConfiguration, dockerHost),
+                                 "Separate client for the changed configuration");
+        httpConfiguration.setMaxConnections(new HttpConfiguration().getMaxConnections());
+        Assertions.assertSame(dockerClient, DockerRestClient.getInstance(httpConfiguration, dockerHost),
+                              "Client still shared for the original configuration");
+    }
+
+    @Test
+    public void testClosedClientCannotBeUsed() throws DockerRegistryException, ImageNotFoundException
+    {
+        dockerClient.getDistributionDigest("docker.io/library/alpine:3.19", null);
+        DockerRestClient.closeAll();
+
+        Assertions.assertThrows(IllegalStateException.class, dockerClient::getImageIdsByName, "Closed client not reconnected");
+    }
+}
@@ -15,35 +15,49 @@
  */
 package com.github.cafapi.docker_versions.plugins.test;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringReader;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Properties;
+import java.util.stream.Stream;
 
+import javax.xml.stream.XMLInputFactory;
 import javax.xml.stream.XMLStreamException;
 
 import org.codehaus.mojo.versions.rewriting.ModifiedPomXMLEventReader;
 import org.codehaus.plexus.util.xml.Xpp3Dom;
 import org.codehaus.plexus.util.xml.Xpp3DomBuilder;
 import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.codehaus.stax2.XMLInputFactory2;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.cafapi.docker_versions.plugins.DockerVersionsHelper;
+import com.github.cafapi.docker_versions.plugins.HttpConfiguration;
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
 
 final class DockerVersionsHelperTest
 {
     private static final Logger LOGGER = LoggerFactory.getLogger(DockerVersionsHelperTest.class);
     private static final String IMAGES_PATH = "build/pluginManagement/plugins/plugin/configuration/imageManagement";
 
+    @TempDir
+    Path tempDir;
+
     @BeforeEach
     void init(final TestInfo testInfo) throws IOException
     {
@@ -284,6 +298,210 @@ final class DockerVersionsHelperTest
         verifyPomUpdate(pomToUpdate, getTestImagesToUpdateNoTargetRepo());
     }
 
+    @Test
+    public void testMergeImagesConfig()
+    {
+        // Image configurations collected from several projects
+        final List<Xpp3Dom> imagesConfig = new ArrayList<>();
+        imagesConfig.addAll(getTestImagesToUpdate());
+        imagesConfig.addAll(getTestImagesToUpdateOneWithTargetRepo());
+        imagesConfig.add(createImage(
+            "docker.io/cafapi/opensuse-jre8",
+            "3.9.3",
+            "sha256:76b8dc916151a5ede5d8a999fcd0929ca3cd3a9dbf67085f65ef98b5255559f4"));
+
+        final List<Xpp3Dom> mergedImagesConfig = DockerVersionsHelper.mergeImagesConfig(imagesConfig);
+        LOGGER.info("Merged image config : {}", mergedImagesConfig);
+
+        final List<Xpp3Dom> expectedImagesConfig = getTestImagesToUpdate();
+        Assertions.assertEquals(expectedImagesConfig.size(), mergedImagesConfig.size(), "Each project specific name is listed once");
+        for (int i = 0; i < expectedImagesConfig.size(); i++) {
+            Assertions.assertEquals(expectedImagesConfig.get(i), mergedImagesConfig.get(i), "Image config was merged in order");
+        }
+    }
+
+    @Test
+    public void testGetImageConfigurations()
+    {
+        final List<ImageConfiguration> imageConfigurations
+            = DockerVersionsHelper.getImageConfigurations(getTestImagesToUpdateOneWithTargetRepo());
+        LOGGER.info("Image configurations : {}", imageConfigurations);
+
+        Assertions.assertEquals(3, imageConfigurations.size(), "Every image config was converted");
+        final ImageConfiguration imageConfiguration = imageConfigurations.get(0);
+        Assertions.assertEquals(
+            "dockerhub-public.artifactory.acme.net/jobservice/job-service-postgres",
+            imageConfiguration.getRepository(),
+            "Repository was set");
+        Assertions.assertEquals(
+            "jobservice/job-service-postgres-liquibase",
+            imageConfiguration.getTargetRepository(),
+            "Target repository was set");
+        Assertions.assertEquals("3.5", imageConfiguration.getTag(), "Tag was set");
+        Assertions.assertNull(imageConfigurations.get(1).getTargetRepository(), "Target repository was not set");
+    }
+
+    @Test
+    public void testGetHttpConfiguration()
+    {
+        final Xpp3Dom config = new Xpp3Dom("configuration");
+        final Xpp3Dom httpConfig = new Xpp3Dom("httpConfiguration");
+        final Xpp3Dom downloadImageRetries = new Xpp3Dom("downloadImageRetries");
+        downloadImageRetries.setValue("5");
+        httpConfig.addChild(downloadImageRetries);
+        final Xpp3Dom transport = new Xpp3Dom("transport");
+        transport.setValue("zerodep");
+        httpConfig.addChild(transport);
+        config.addChild(httpConfig);
+
+        final HttpConfiguration defaultHttpConfiguration = new HttpConfiguration();
+        final HttpConfiguration httpConfiguration = DockerVersionsHelper.getHttpConfiguration(config);
+        LOGGER.info("Http configuration : {}", httpConfiguration);
+
+        Assertions.assertEquals(5, httpConfiguration.getDownloadImageRetries(), "Configured value was set");
+        Assertions.assertEquals("zerodep", httpConfiguration.getTransport(), "Configured transport was set");
+        Assertions.assertEquals(
+            defaultHttpConfiguration.getDownloadImageTimout(),
+            httpConfiguration.getDownloadImageTimout(),
+            "Default value was kept");
+
+        // Docker clients are shared between goals with the same http configuration
+        Assertions.assertEquals(httpConfiguration, DockerVersionsHelper.getHttpConfiguration(config), "Same configuration is equal");
+        Assertions.assertEquals(
+            httpConfiguration.hashCode(),
+            DockerVersionsHelper.getHttpConfiguration(config).hashCode(),
+            "Same configuration has same hash code");
+        Assertions.assertNotEquals(defaultHttpConfiguration, httpConfiguration, "Different configuration is not equal");
+    }
+
+    @Test
+    public void testIsDaemonDigestResolver()
+    {
+        Assertions.assertFalse(DockerVersionsHelper.isDaemonDigestResolver(null), "Registry is the default resolver");
+        Assertions.assertFalse(DockerVersionsHelper.isDaemonDigestResolver("registry"), "Registry resolver");
+        Assertions.assertTrue(DockerVersionsHelper.isDaemonDigestResolver("daemon"), "Daemon resolver");
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> DockerVersionsHelper.isDaemonDigestResolver("mirror"),
+            "Unknown resolver");
+    }
+
+    @Test
+    public void testIsRegistryPopulateBackend()
+    {
+        Assertions.assertFalse(DockerVersionsHelper.isRegistryPopulateBackend(null), "Daemon is the default backend");
+        Assertions.assertFalse(DockerVersionsHelper.isRegistryPopulateBackend("daemon"), "Daemon backend");
+        Assertions.assertTrue(DockerVersionsHelper.isRegistryPopulateBackend("registry"), "Registry backend");
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> DockerVersionsHelper.isRegistryPopulateBackend("skopeo"),
+            "Unknown backend");
+    }
+
+    @Test
+    public void testIsRe2jRegexEngine()
+    {
+        Assertions.assertFalse(DockerVersionsHelper.isRe2jRegexEngine(null), "Java is the default regex engine");
+        Assertions.assertFalse(DockerVersionsHelper.isRe2jRegexEngine("java"), "Java regex engine");
+        Assertions.assertTrue(DockerVersionsHelper.isRe2jRegexEngine("re2j"), "RE2J regex engine");
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> DockerVersionsHelper.isRe2jRegexEngine("pcre"),
+            "Unknown regex engine");
+    }
+
+    @Test
+    public void testWriteFileSkipsUnchangedContent() throws IOException
+    {
+        final File pomFile = tempDir.resolve("pom.xml").toFile();
+        final String pom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<project>\n    <tag>1.0</tag>\n</project>\n";
+        Files.write(pomFile.toPath(), pom.getBytes(StandardCharsets.UTF_8));
+        final FileTime lastModified = FileTime.fromMillis(0);
+        Files.setLastModifiedTime(pomFile.toPath(), lastModified);
+
+        final StringBuilder input = DockerVersionsHelper.readFile(pomFile);
+        Assertions.assertFalse(DockerVersionsHelper.writeFile(pomFile, input), "Unchanged pom is not written");
+        Assertions.assertEquals(lastModified, Files.getLastModifiedTime(pomFile.toPath()), "Unchanged pom is not touched");
+
+        input.replace(input.indexOf("1.0</tag>"), input.indexOf("</tag>"), "2.0");
+        Assertions.assertTrue(DockerVersionsHelper.writeFile(pomFile, input), "Changed pom is written");
+        Assertions.assertEquals(
+            pom.replace("1.0</tag>", "2.0</tag>"),
+            new String(Files.readAllBytes(pomFile.toPath()), StandardCharsets.UTF_8),
+            "Changed pom content");
+        try (final Stream<Path> files = Files.list(tempDir)) {
+            Assertions.assertEquals(1, files.count(), "No temporary file is left");
+        }
+    }
+
+    @Test
+    public void testWriteFilePreservesEncodingAndLineEndings() throws IOException
+    {
+        final File pomFile = tempDir.resolve("pom.xml").toFile();
+        final String pom = "<?xml version=\"1.0\" encoding=\"ISO-8859-1\"?>\r\n<project>\r\n    <name>caf\u00e9</name>\r\n</project>\r\n";
+        Files.write(pomFile.toPath(), pom.getBytes(StandardCharsets.ISO_8859_1));
+
+        final StringBuilder input = DockerVersionsHelper.readFile(pomFile);
+        input.append("<!-- updated -->\r\n");
+        Assertions.assertTrue(DockerVersionsHelper.writeFile(pomFile, input), "Changed pom is written");
+        Assertions.assertArrayEquals(
+            (pom + "<!-- updated -->\r\n").getBytes(StandardCharsets.ISO_8859_1),
+            Files.readAllBytes(pomFile.toPath()),
+            "Encoding and line endings are preserved");
+
+        final byte[] bom = {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF};
+        final byte[] utf8Pom = "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\r\n<project/>\r\n".getBytes(StandardCharsets.UTF_8);
+        final ByteArrayOutputStream bomPom = new ByteArrayOutputStream();
+        bomPom.write(bom);
+        bomPom.write(utf8Pom);
+        Files.write(pomFile.toPath(), bomPom.toByteArray());
+
+        final StringBuilder bomInput = DockerVersionsHelper.readFile(pomFile);
+        Assertions.assertFalse(DockerVersionsHelper.writeFile(pomFile, bomInput), "Byte order mark is preserved");
+    }
+
+    @Test
+    public void testSetImageVersionNotLocated() throws XMLStreamException
+    {
+        final String pom = "<project>\n"
+            + "    <build>\n"
+            + "        <plugins>\n"
+            + "            <plugin>\n"
+            + "                <configuration>\n"
+            + "                    <imageManagement>\n"
+            + "                        <image>\n"
+            + "                            <repository>docker.io/cafapi/opensuse-jre17</repository>\n"
+            + "                            <tag>1.4.3</tag>\n"
+            + "                        </image>\n"
+            + "                    </imageManagement>\n"
+            + "                </configuration>\n"
+            + "            </plugin>\n"
+            + "        </plugins>\n"
+            + "    </build>\n"
+            + "</project>\n";
+        final StringBuilder input = new StringBuilder(pom);
+        final XMLInputFactory inputFactory = XMLInputFactory2.newInstance();
+        inputFactory.setProperty(XMLInputFactory2.P_PRESERVE_LOCATION, Boolean.TRUE);
+        final ModifiedPomXMLEventReader pomToUpdate = new ModifiedPomXMLEventReader(input, inputFactory, "pom.xml")
+        {
+            @Override
+            public String getVerbatim()
+            {
+                // Misreport the text of the tag element, so that the offsets within the image no longer match the pom
+                final String verbatim = super.getVerbatim();
+                return "<tag>".equals(verbatim) ? "<tag >" : verbatim;
+            }
+        };
+
+        final List<Xpp3Dom> imagesConfig = new ArrayList<>();
+        imagesConfig.add(createImage("docker.io/cafapi/opensuse-jre17", "1.5.0", null));
+
+        Assertions.assertFalse(
+            DockerVersionsHelper.setImageVersion(pomToUpdate, imagesConfig, new Properties()),
+            "Image that could not be located is not reported as updated");
+        Assertions.assertEquals(pom, pomToUpdate.asStringBuilder().toString(), "Pom is not changed");
+    }
+
     private static ModifiedPomXMLEventReader getPomToUpdate(final String fileName)
         throws URISyntaxException, IOException, XMLStreamException
     {
@@ -0,0 +1,90 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.plugins.CompiledIgnoreVersions;
+import com.github.cafapi.docker_versions.plugins.IgnoreVersion;
+import com.github.cafapi.docker_versions.plugins.IgnoreVersionsCache;
+
+final class IgnoreVersionsCacheTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(IgnoreVersionsCacheTest.class);
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void init(final TestInfo testInfo)
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+    }
+
+    @Test
+    public void testConfigFileIsReadAgainWhenChanged() throws IOException
+    {
+        final Path configFile = tempDir.resolve("ignoreDockerVersions.yaml");
+        Files.write(configFile, "- type: glob\n  version: '*-alpine'\n".getBytes(StandardCharsets.UTF_8));
+
+        final CompiledIgnoreVersions compiledIgnoreVersions
+            = IgnoreVersionsCache.getCompiledIgnoreVersions(null, configFile.toString(), false);
+        Assertions.assertSame(
+            compiledIgnoreVersions,
+            IgnoreVersionsCache.getCompiledIgnoreVersions(null, configFile.toString(), false),
+            "Unchanged config file is not compiled again");
+        Assertions.assertTrue(compiledIgnoreVersions.isIgnoredVersion("docker.io/library/maven", "3-alpine"), "Alpine ignored");
+
+        Files.write(configFile, "- type: glob\n  version: '*-bullseye'\n".getBytes(StandardCharsets.UTF_8));
+        final CompiledIgnoreVersions changedIgnoreVersions
+            = IgnoreVersionsCache.getCompiledIgnoreVersions(null, configFile.toString(), false);
+        Assertions.assertFalse(changedIgnoreVersions.isIgnoredVersion("docker.io/library/maven", "3-alpine"), "Alpine relevant");
+        Assertions.assertTrue(changedIgnoreVersions.isIgnoredVersion("docker.io/library/maven", "3-bullseye"), "Bullseye ignored");
+    }
+
+    @Test
+    public void testPomIgnoreVersionsAreCombined() throws IOException
+    {
+        final Path configFile = tempDir.resolve("ignoreDockerVersions.yaml");
+        Files.write(configFile, "- type: exact\n  version: '1.0'\n".getBytes(StandardCharsets.UTF_8));
+
+        final CompiledIgnoreVersions compiledIgnoreVersions = IgnoreVersionsCache.getCompiledIgnoreVersions(
+            Collections.singleton(new IgnoreVersion("exact", "2.0", null)), configFile.toString(), false);
+        Assertions.assertTrue(compiledIgnoreVersions.isIgnoredVersion("docker.io/library/maven", "1.0"), "Version from yaml");
+        Assertions.assertTrue(compiledIgnoreVersions.isIgnoredVersion("docker.io/library/maven", "2.0"), "Version from pom");
+    }
+
+    @Test
+    public void testMissingConfigFile()
+    {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> IgnoreVersionsCache.getCompiledIgnoreVersions(null, tempDir.resolve("missing.yaml").toString(), false),
+            "Missing config file");
+    }
+}
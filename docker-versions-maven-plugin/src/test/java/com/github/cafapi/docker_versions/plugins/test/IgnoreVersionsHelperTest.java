@@ -15,6 +15,7 @@
  */
 package com.github.cafapi.docker_versions.plugins.test;
 
+import java.io.IOException;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashSet;
@@ -28,6 +29,9 @@ import org.junit.jupiter.api.TestInfo;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.dataformat.yaml.YAMLMapper;
+import com.github.cafapi.docker_versions.plugins.CompiledIgnoreVersions;
 import com.github.cafapi.docker_versions.plugins.IgnoreVersion;
 import com.github.cafapi.docker_versions.plugins.IgnoreVersionsHelper;
 
@@ -1119,4 +1123,153 @@ final class IgnoreVersionsHelperTest
         Assertions.assertTrue(relevantTags.size() == tags.size() - 1 && !relevantTags.contains("latest"),
                               "cafapi/opensuse-jre11 tags were filtered");
     }
+
+    @Test
+    public void testCompiledIgnoreVersionsMixedTypes()
+    {
+        final Set<IgnoreVersion> mixedIgnoreVersions = new HashSet<>();
+        mixedIgnoreVersions.add(new IgnoreVersion("exact", "3.1.0", null));
+        mixedIgnoreVersions.add(new IgnoreVersion(null, "3.2.0", null));
+        mixedIgnoreVersions.add(new IgnoreVersion("regex", "(?i).*alpha.*", null));
+        // The case insensitive flag of the other expression must not apply to this one
+        mixedIgnoreVersions.add(new IgnoreVersion("regex", ".*-RC.*", null));
+        // Backreferences are kept working when the expressions are merged
+        mixedIgnoreVersions.add(new IgnoreVersion("regex", "(\\d+)\\.\\1", null));
+
+        final CompiledIgnoreVersions compiledIgnoreVersions = CompiledIgnoreVersions.compile(mixedIgnoreVersions);
+        final List<String> tags = Arrays.asList(new String[]{
+            "3.0.0", "3.1.0", "3.2.0", "3.3.0-ALPHA", "3.3.0-rc1", "3.3.0-RC1", "4.4", "4.5", "Latest"});
+
+        final List<String> relevantTags = compiledIgnoreVersions.getRelevantTags(tags, "docker.io/cafapi/opensuse-jre17");
+        Assertions.assertEquals(Arrays.asList("3.0.0", "3.3.0-rc1", "4.5"), relevantTags, "Relevant tags");
+        Assertions.assertEquals(
+            IgnoreVersionsHelper.getRelevantTags(mixedIgnoreVersions, tags, "docker.io/cafapi/opensuse-jre17"),
+            relevantTags,
+            "Relevant tags from the helper");
+    }
+
+    @Test
+    public void testCompiledIgnoreVersionsImages()
+    {
+        final CompiledIgnoreVersions compiledIgnoreVersions = CompiledIgnoreVersions.compile(ignoreVersions);
+
+        Assertions.assertTrue(
+            compiledIgnoreVersions.isIgnoredVersion("docker.io/library/maven", "3.9.6-eclipse-temurin-17-alpine"),
+            "Alpine tag of maven is ignored");
+        Assertions.assertFalse(
+            compiledIgnoreVersions.isIgnoredVersion("docker.io/library/postgres", "16-alpine"),
+            "Alpine tag of postgres is not ignored");
+        Assertions.assertTrue(
+            compiledIgnoreVersions.isIgnoredVersion("docker.io/library/postgres", "16-bullseye"),
+            "Bullseye tag of postgres is ignored");
+        Assertions.assertFalse(
+            compiledIgnoreVersions.isIgnoredVersion("docker.io/mesosphere/mesos-master", "1.7.1"),
+            "Only relevant mesos-master tag is not ignored");
+        Assertions.assertTrue(
+            compiledIgnoreVersions.isIgnoredVersion("docker.io/mesosphere/mesos-master", "1.7.0"),
+            "Other mesos-master tags are ignored");
+    }
+
+    @Test
+    public void testCompiledIgnoreVersionsRe2j()
+    {
+        final Set<IgnoreVersion> re2jIgnoreVersions = new HashSet<>();
+        re2jIgnoreVersions.add(new IgnoreVersion("exact", "3.1.0", null));
+        re2jIgnoreVersions.add(new IgnoreVersion("regex", "(?i).*alpha.*", null));
+        re2jIgnoreVersions.add(new IgnoreVersion("regex", ".*-RC.*", null));
+        re2jIgnoreVersions.add(new IgnoreVersion("regex", "(?i).*-alpine.*",
+                                                 new HashSet<>(Arrays.asList(new String[]{"(?i).*maven.*"}))));
+
+        final CompiledIgnoreVersions compiledIgnoreVersions = CompiledIgnoreVersions.compile(re2jIgnoreVersions, true);
+        final List<String> tags = Arrays.asList(new String[]{
+            "3.0.0", "3.1.0", "3.3.0-ALPHA", "3.3.0-rc1", "3.3.0-RC1", "3.9-alpine", "latest"});
+
+        Assertions.assertEquals(
+            Arrays.asList("3.0.0", "3.3.0-rc1"),
+            compiledIgnoreVersions.getRelevantTags(tags, "docker.io/library/maven"),
+            "Relevant maven tags");
+        Assertions.assertEquals(
+            Arrays.asList("3.0.0", "3.3.0-rc1", "3.9-alpine"),
+            compiledIgnoreVersions.getRelevantTags(tags, "docker.io/library/postgres"),
+            "Relevant postgres tags");
+    }
+
+    @Test
+    public void testCompiledIgnoreVersionsRe2jRejectsLookarounds()
+    {
+        final IllegalArgumentException ex = Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> CompiledIgnoreVersions.compile(ignoreVersions, true),
+            "Negative lookahead is not supported by RE2J");
+        Assertions.assertTrue(ex.getMessage().contains("re2j"), "Error names the regex engine: " + ex.getMessage());
+    }
+
+    @Test
+    public void testCompiledIgnoreVersionsSemverRange()
+    {
+        final Set<IgnoreVersion> semverIgnoreVersions = new HashSet<>();
+        semverIgnoreVersions.add(new IgnoreVersion("semver-range", ">=3.0.0 <4.0.0 || prerelease", null));
+        semverIgnoreVersions.add(new IgnoreVersion("semver-range", "1.x", null));
+        semverIgnoreVersions.add(new IgnoreVersion("semver-range", "> 5.1", null));
+
+        final CompiledIgnoreVersions compiledIgnoreVersions = CompiledIgnoreVersions.compile(semverIgnoreVersions);
+        final List<String> tags = Arrays.asList(new String[]{
+            "0.9", "1", "1.2.3", "2.0.0", "v2.1", "3", "3.9.9", "4.0.0", "4.1.0-rc.1", "5.1.7", "5.2.0", "jammy", "2.5+build.7"});
+
+        Assertions.assertEquals(
+            Arrays.asList("0.9", "2.0.0", "v2.1", "4.0.0", "5.1.7", "jammy", "2.5+build.7"),
+            compiledIgnoreVersions.getRelevantTags(tags, "docker.io/library/postgres"),
+            "Relevant tags");
+    }
+
+    @Test
+    public void testCompiledIgnoreVersionsGlob()
+    {
+        final Set<IgnoreVersion> globIgnoreVersions = new HashSet<>();
+        globIgnoreVersions.add(new IgnoreVersion("glob", "*-alpine*", null));
+        globIgnoreVersions.add(new IgnoreVersion("glob", "3.?", null));
+
+        final CompiledIgnoreVersions compiledIgnoreVersions = CompiledIgnoreVersions.compile(globIgnoreVersions);
+        final List<String> tags = Arrays.asList(new String[]{
+            "3.9", "3.10", "3.9-alpine", "3.9-alpine3.19", "3.9-slim", "alpine"});
+
+        Assertions.assertEquals(
+            Arrays.asList("3.10", "3.9-slim", "alpine"),
+            compiledIgnoreVersions.getRelevantTags(tags, "docker.io/library/maven"),
+            "Relevant tags");
+    }
+
+    @Test
+    public void testCompiledIgnoreVersionsFromYaml() throws IOException
+    {
+        final String yaml = "- type: semver-range\n"
+            + "  version: <2\n"
+            + "  images:\n"
+            + "  - (?i).*postgres.*\n"
+            + "- type: glob\n"
+            + "  version: '*-bullseye'\n";
+        final Set<IgnoreVersion> yamlIgnoreVersions = new YAMLMapper().readValue(yaml, new TypeReference<Set<IgnoreVersion>>() {});
+
+        final CompiledIgnoreVersions compiledIgnoreVersions = CompiledIgnoreVersions.compile(yamlIgnoreVersions);
+        Assertions.assertTrue(compiledIgnoreVersions.isIgnoredVersion("docker.io/library/postgres", "1.9"), "Old postgres");
+        Assertions.assertFalse(compiledIgnoreVersions.isIgnoredVersion("docker.io/library/haproxy", "1.9"), "Old haproxy");
+        Assertions.assertTrue(compiledIgnoreVersions.isIgnoredVersion("docker.io/library/haproxy", "2.9-bullseye"), "Bullseye");
+    }
+
+    @Test
+    public void testCompiledIgnoreVersionsInvalid()
+    {
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> CompiledIgnoreVersions.compile(Collections.singleton(new IgnoreVersion("semver-range", ">=3.x.1", null))),
+            "Invalid semver-range");
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> CompiledIgnoreVersions.compile(Collections.singleton(new IgnoreVersion("semver-range", ">=", null))),
+            "Operator without a version");
+        Assertions.assertThrows(
+            IllegalArgumentException.class,
+            () -> CompiledIgnoreVersions.compile(Collections.singleton(new IgnoreVersion("regexp", ".*", null))),
+            "Unknown type");
+    }
 }
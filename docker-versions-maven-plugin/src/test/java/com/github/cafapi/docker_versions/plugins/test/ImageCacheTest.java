@@ -0,0 +1,185 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.settings.Settings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.cafapi.docker_versions.plugins.ImageCache;
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
+import com.github.cafapi.docker_versions.plugins.ProjectRegistry;
+
+final class ImageCacheTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageCacheTest.class);
+
+    private static final String PROJECT_REGISTRY = "acme.local";
+    private static final String REPOSITORY = "docker.io/cafapi/opensuse-jre17";
+    private static final String DIGEST = "sha256:aaaa";
+    private static final String IMAGE_ID = "sha256:4444";
+    private static final String JRE_IMAGE = PROJECT_REGISTRY + "/cafapi/opensuse-jre17:latest";
+
+    private StandInDockerDaemon daemon;
+    private List<ImageConfiguration> images;
+
+    @TempDir
+    private Path cacheDirectory;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        daemon = new StandInDockerDaemon();
+        daemon.addRegistryImage(REPOSITORY, "1.4.4", DIGEST, IMAGE_ID);
+
+        final ImageConfiguration image = new ImageConfiguration();
+        image.setRepository(REPOSITORY);
+        image.setTag("1.4.4");
+        image.setDigest(DIGEST);
+        images = Arrays.asList(image);
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        DockerRestClient.closeAll();
+        daemon.close();
+    }
+
+    @Test
+    public void testPulledImageIsLoaded() throws Exception
+    {
+        populate();
+        Assertions.assertEquals(1, daemon.countRequests("POST /images/create"), "Image pulled");
+        Assertions.assertEquals(Arrays.asList("sha256-aaaa.id", "sha256-aaaa.tar"), listCacheDirectory(), "Image cached");
+
+        // The next build starts with an empty Docker daemon
+        daemon.removeImage(IMAGE_ID);
+        daemon.clearRequests();
+        populate();
+        Assertions.assertEquals(1, daemon.countRequests("POST /images/load"), "Image loaded");
+        Assertions.assertEquals(0, daemon.countRequests("POST /images/create"), "Image not pulled again");
+        Assertions.assertEquals(IMAGE_ID, daemon.getImageId(JRE_IMAGE), "Loaded image tagged");
+    }
+
+    @Test
+    public void testCachedImageWithWrongId() throws Exception
+    {
+        populate();
+        Files.write(cacheDirectory.resolve("sha256-aaaa.id"), "sha256:ffff".getBytes(StandardCharsets.UTF_8));
+
+        daemon.removeImage(IMAGE_ID);
+        daemon.clearRequests();
+        populate();
+        Assertions.assertEquals(1, daemon.countRequests("POST /images/load"), "Cached image loaded");
+        Assertions.assertEquals(1, daemon.countRequests("POST /images/create"), "Image pulled as the cached image was not the image");
+        Assertions.assertEquals(IMAGE_ID, daemon.getImageId(JRE_IMAGE), "Pulled image tagged");
+        Assertions.assertEquals(IMAGE_ID, readCachedImageId(), "Pulled image cached in place of the wrong image");
+    }
+
+    @Test
+    public void testCachedImageWithoutTarball() throws Exception
+    {
+        populate();
+        Files.delete(cacheDirectory.resolve("sha256-aaaa.tar"));
+
+        daemon.removeImage(IMAGE_ID);
+        daemon.clearRequests();
+        populate();
+        Assertions.assertEquals(0, daemon.countRequests("POST /images/load"), "No tarball to load");
+        Assertions.assertEquals(1, daemon.countRequests("POST /images/create"), "Image pulled");
+        Assertions.assertEquals(Arrays.asList("sha256-aaaa.id", "sha256-aaaa.tar"), listCacheDirectory(), "Image cached again");
+    }
+
+    @Test
+    public void testFailedSaveLeavesNoTemporaryFiles() throws Exception
+    {
+        // Left by a build that was killed while it was saving the image
+        Files.write(cacheDirectory.resolve("sha256-aaaa1234.tar.tmp"), new byte[0]);
+        Files.write(cacheDirectory.resolve("sha256-aaaa5678.id.tmp"), IMAGE_ID.getBytes(StandardCharsets.UTF_8));
+
+        daemon.setSaveFails(true);
+        populate();
+        Assertions.assertEquals(1, daemon.countRequests("POST /images/create"), "Partly written image is not loaded");
+        Assertions.assertEquals(IMAGE_ID, daemon.getImageId(JRE_IMAGE), "Pulled image tagged");
+        Assertions.assertEquals(Arrays.asList("sha256-aaaa1234.tar.tmp", "sha256-aaaa5678.id.tmp"), listCacheDirectory(),
+                                "Image not cached and no temporary files left by the failed save");
+
+        daemon.setSaveFails(false);
+        daemon.removeImage(IMAGE_ID);
+        daemon.clearRequests();
+        populate();
+        Assertions.assertEquals(0, daemon.countRequests("POST /images/load"), "Image was not cached");
+        Assertions.assertEquals(1, daemon.countRequests("POST /images/create"), "Image pulled");
+        Assertions.assertEquals(IMAGE_ID, readCachedImageId(), "Image cached once it could be saved");
+    }
+
+    @Test
+    public void testRelativeDirectory() throws Exception
+    {
+        final DefaultMavenExecutionRequest request = new DefaultMavenExecutionRequest();
+        request.setBaseDirectory(cacheDirectory.toFile());
+        final MavenSession session = TestMavenSession.create(request, Arrays.asList());
+
+        Assertions.assertNull(ImageCache.get(session, null), "No cache when not configured");
+        Assertions.assertNull(ImageCache.get(session, " "), "No cache when blank");
+
+        new ProjectRegistry(
+            daemon.getClient(), new Settings(), PROJECT_REGISTRY, false, false, false, null, ImageCache.get(session, "images"))
+            .populate(images);
+        Assertions.assertTrue(Files.isRegularFile(cacheDirectory.resolve("images").resolve("sha256-aaaa.tar")),
+                              "Image cached in the directory relative to the execution root");
+    }
+
+    private void populate() throws Exception
+    {
+        new ProjectRegistry(
+            daemon.getClient(), new Settings(), PROJECT_REGISTRY, false, false, false, null, new ImageCache(cacheDirectory))
+            .populate(images);
+    }
+
+    private List<String> listCacheDirectory() throws IOException
+    {
+        try (final Stream<Path> files = Files.list(cacheDirectory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private String readCachedImageId() throws IOException
+    {
+        return new String(Files.readAllBytes(cacheDirectory.resolve("sha256-aaaa.id")), StandardCharsets.UTF_8).trim();
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.util.Arrays;
+
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.plugins.ImageConfigIndex;
+
+final class ImageConfigIndexTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageConfigIndexTest.class);
+
+    @BeforeEach
+    void init(final TestInfo testInfo)
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+    }
+
+    @Test
+    public void testFindByRepositoryAndTargetRepository()
+    {
+        final Xpp3Dom postgres = createImageConfig("docker.io/library/postgres", null);
+        final Xpp3Dom postgresTest = createImageConfig("docker.io/library/postgres", "test/postgres");
+        final Xpp3Dom otherRegistry = createImageConfig("registry.example.com/library/postgres", null);
+        final ImageConfigIndex index = new ImageConfigIndex(Arrays.asList(postgres, postgresTest, otherRegistry));
+
+        Assertions.assertSame(postgres, index.find("docker.io/library/postgres", null).get(), "First matching image");
+        Assertions.assertSame(postgresTest, index.find("docker.io/library/postgres", "test/postgres").get(), "Target repository");
+        Assertions.assertSame(otherRegistry, index.find("registry.example.com/library/postgres", null).get(), "Other registry");
+        Assertions.assertSame(postgres, index.find("library/postgres", null).get(), "Repository without registry");
+        Assertions.assertFalse(index.find("docker.io/library/postgres", "test/other").isPresent(), "Unknown target repository");
+        Assertions.assertFalse(index.find("quay.io/library/postgres", null).isPresent(), "Unknown registry");
+        Assertions.assertFalse(index.find("docker.io/library/mysql", null).isPresent(), "Unknown repository");
+    }
+
+    @Test
+    public void testSuffixAmbiguityIsResolvedDeterministically()
+    {
+        final Xpp3Dom nestedJava = createImageConfig("docker.io/acme/base/java", null);
+        final Xpp3Dom myJava = createImageConfig("docker.io/myacme/java", null);
+        final Xpp3Dom acmeJava = createImageConfig("docker.io/acme/java", null);
+        final Xpp3Dom otherJava = createImageConfig("docker.io/other/java", null);
+        final ImageConfigIndex index = new ImageConfigIndex(Arrays.asList(nestedJava, myJava, acmeJava, otherJava));
+
+        // A repository that only ends with the name of another repository is not matched to it
+        Assertions.assertSame(acmeJava, index.find("acme/java", null).get(), "Same repository");
+        // The shortest repository with the same last path components is matched, and then the first configured image
+        Assertions.assertSame(acmeJava, index.find("java", null).get(), "Shortest and first repository");
+        Assertions.assertSame(nestedJava, index.find("base/java", null).get(), "Last path components");
+        Assertions.assertFalse(index.find("cme/java", null).isPresent(), "Partial path component");
+    }
+
+    private static Xpp3Dom createImageConfig(final String repository, final String targetRepository)
+    {
+        final Xpp3Dom image = new Xpp3Dom("image");
+        final Xpp3Dom repositoryConfig = new Xpp3Dom("repository");
+        repositoryConfig.setValue(repository);
+        image.addChild(repositoryConfig);
+        if (targetRepository != null) {
+            final Xpp3Dom targetRepositoryConfig = new Xpp3Dom("targetRepository");
+            targetRepositoryConfig.setValue(targetRepository);
+            image.addChild(targetRepositoryConfig);
+        }
+        return image;
+    }
+}
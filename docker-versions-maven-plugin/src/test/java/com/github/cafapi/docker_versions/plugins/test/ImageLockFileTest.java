@@ -0,0 +1,95 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
+import com.github.cafapi.docker_versions.plugins.ImageLockFile;
+
+final class ImageLockFileTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImageLockFileTest.class);
+
+    @TempDir
+    Path tempDir;
+
+    @BeforeEach
+    void init(final TestInfo testInfo)
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+    }
+
+    @Test
+    public void testLockedVersionsAreApplied() throws IOException
+    {
+        final File lockFile = tempDir.resolve("docker-versions.lock").toFile();
+        final List<ImageConfiguration> lockedImages = Arrays.asList(
+            TestHelper.createImage("docker.io/library/postgres", "test/postgres", "16.2", "sha256:1111", false),
+            TestHelper.createImage("docker.io/library/postgres", null, "16.1", "sha256:2222", false));
+
+        Assertions.assertTrue(ImageLockFile.write(lockFile, lockedImages), "Lock file is written");
+        Assertions.assertFalse(ImageLockFile.write(lockFile, lockedImages), "Unchanged lock file is not written");
+
+        final ImageConfiguration postgres = TestHelper.createImage("docker.io/library/postgres", null, "15", null, true);
+        final ImageConfiguration postgresTest
+            = TestHelper.createImage("docker.io/library/postgres", "test/postgres", "15", null, false);
+        final ImageConfiguration mysql = TestHelper.createImage("docker.io/library/mysql", null, "8", "sha256:3333", false);
+
+        final List<ImageConfiguration> images = ImageLockFile.apply(lockFile, Arrays.asList(postgres, postgresTest, mysql));
+        Assertions.assertEquals(3, images.size(), "Configured images");
+        Assertions.assertEquals("16.1", images.get(0).getTag(), "Locked tag");
+        Assertions.assertEquals("sha256:2222", images.get(0).getDigest(), "Locked digest");
+        Assertions.assertTrue(images.get(0).isSkipPull(), "Configured skip pull");
+        Assertions.assertEquals("16.2", images.get(1).getTag(), "Locked tag of target repository");
+        Assertions.assertEquals("test/postgres", images.get(1).getTargetRepository(), "Configured target repository");
+        Assertions.assertSame(mysql, images.get(2), "Image that is not locked");
+        Assertions.assertEquals("15", postgres.getTag(), "Configured image is not changed");
+    }
+
+    @Test
+    public void testInvalidLockFileIsRejected() throws IOException
+    {
+        final File lockFile = tempDir.resolve("docker-versions.lock").toFile();
+        final List<ImageConfiguration> images
+            = Arrays.asList(TestHelper.createImage("docker.io/library/postgres", null, "15", null, false));
+
+        Files.write(lockFile.toPath(), "{\"version\": 2, \"images\": []}".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ImageLockFile.apply(lockFile, images), "Unknown version");
+
+        Files.write(lockFile.toPath(), "{\"version\": 1, \"images\": [".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ImageLockFile.apply(lockFile, images), "Invalid JSON");
+
+        Files.write(
+            lockFile.toPath(),
+            "{\"version\": 1, \"images\": [{\"repository\": \"postgres\"}]}".getBytes(StandardCharsets.UTF_8));
+        Assertions.assertThrows(IllegalArgumentException.class, () -> ImageLockFile.apply(lockFile, images), "Missing tag");
+    }
+}
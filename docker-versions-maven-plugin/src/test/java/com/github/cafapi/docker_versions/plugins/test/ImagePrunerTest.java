@@ -0,0 +1,108 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
+import com.github.cafapi.docker_versions.plugins.ImagePruner;
+import com.github.dockerjava.api.model.Image;
+
+final class ImagePrunerTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ImagePrunerTest.class);
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final String DIGEST = "sha256:6457d53fb065d6f250e1504b9bc42d5b6c65941d57532c072d929dd0628977d0";
+    private static final String OLD_DIGEST = "sha256:0000d53fb065d6f250e1504b9bc42d5b6c65941d57532c072d929dd0628977d0";
+
+    @BeforeEach
+    void init(final TestInfo testInfo)
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+    }
+
+    @Test
+    public void testGetImagesToRemove() throws IOException
+    {
+        final List<Image> images = Arrays.asList(
+            // Configured tag, named without the registry and the library prefix by the Docker daemon
+            getImage("current-tag", "[\"alpine:3.19\"]", "[]"),
+            // Configured digest
+            getImage("current-digest", "[\"cafapi/opensuse-jre17:1\"]", "[\"cafapi/opensuse-jre17@" + DIGEST + "\"]"),
+            // Old versions of the configured images
+            getImage("old-tag", "[\"alpine:3.18\"]", "[]"),
+            getImage("old-digest", "[\"<none>:<none>\"]", "[\"cafapi/opensuse-jre17@" + OLD_DIGEST + "\"]"),
+            // Old version that is also tagged in the project registry
+            getImage("project-registry", "[\"alpine:3.17\", \"acme.project-registries.local/alpine:latest\"]", "[]"),
+            // Old version in a registry with a port
+            getImage("registry-port", "[\"localhost:5000/acme/app:1\"]", "[]"),
+            // Image that is not configured
+            getImage("other", "[\"postgres:16\"]", "[]"));
+
+        final List<ImageConfiguration> imageManagement = Arrays.asList(
+            getImageConfiguration("docker.io/library/alpine", "3.19", null),
+            getImageConfiguration("cafapi/opensuse-jre17", "1", DIGEST),
+            getImageConfiguration("localhost:5000/acme/app", "2", null));
+
+        final List<String> imagesToRemove = ImagePruner.getImagesToRemove(images, imageManagement, imageManagement).stream()
+            .map(Image::getId)
+            .collect(Collectors.toList());
+        Assertions.assertEquals(Arrays.asList("old-tag", "old-digest", "registry-port"), imagesToRemove, "Images to remove");
+    }
+
+    @Test
+    public void testImagesConfiguredInOtherProjectsAreKept() throws IOException
+    {
+        final List<Image> images = Arrays.asList(getImage("other-project", "[\"alpine:3.18\"]", "[]"));
+        final List<ImageConfiguration> imageManagement = Arrays.asList(getImageConfiguration("alpine", "3.19", null));
+        final List<ImageConfiguration> configuredImages = Arrays.asList(
+            getImageConfiguration("alpine", "3.19", null),
+            getImageConfiguration("docker.io/alpine", "3.18", null));
+
+        Assertions.assertTrue(
+            ImagePruner.getImagesToRemove(images, imageManagement, configuredImages).isEmpty(),
+            "Image configured in another project is kept");
+    }
+
+    private static Image getImage(final String id, final String repoTags, final String repoDigests) throws IOException
+    {
+        return MAPPER.readValue(
+            "{\"Id\":\"" + id + "\",\"RepoTags\":" + repoTags + ",\"RepoDigests\":" + repoDigests + ",\"Size\":1024}",
+            Image.class);
+    }
+
+    private static ImageConfiguration getImageConfiguration(final String repository, final String tag, final String digest)
+    {
+        final ImageConfiguration imageConfiguration = new ImageConfiguration();
+        imageConfiguration.setRepository(repository);
+        imageConfiguration.setTag(tag);
+        imageConfiguration.setDigest(digest);
+        return imageConfiguration;
+    }
+}
@@ -0,0 +1,255 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.project.ProjectBuilder;
+import org.apache.maven.project.ProjectBuildingException;
+import org.apache.maven.project.ProjectBuildingResult;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.plugins.DockerVersionsHelper;
+import com.github.cafapi.docker_versions.plugins.LocalRoot;
+import com.github.cafapi.docker_versions.plugins.extension.DockerVersionsLifecycleParticipant;
+
+final class LocalRootTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(LocalRootTest.class);
+
+    private final Map<File, MavenProject> projectsAboveReactor = new ConcurrentHashMap<>();
+    private final AtomicInteger builds = new AtomicInteger();
+
+    @TempDir
+    private Path topDir;
+
+    private MavenProject root;
+    private MavenProject service;
+    private MavenProject tests;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        root = createProject(topDir.resolve("root"), "root", "service", "tests");
+        service = createProject(topDir.resolve("root").resolve("service"), "service");
+        tests = createProject(topDir.resolve("root").resolve("tests"), "tests");
+        root.setExecutionRoot(true);
+    }
+
+    @Test
+    public void testReactorProjectIsRoot()
+    {
+        final MavenSession session = createSession();
+
+        Assertions.assertSame(root, LocalRoot.find(createProjectBuilder(), session, service), "Root of the service");
+        Assertions.assertSame(root, LocalRoot.find(createProjectBuilder(), session, tests), "Root of the tests");
+        Assertions.assertSame(root, LocalRoot.find(createProjectBuilder(), session, root), "Root of itself");
+        Assertions.assertEquals(0, builds.get(), "Projects of the reactor are not built again");
+    }
+
+    @Test
+    public void testProjectAboveReactorBuiltOncePerSession() throws Exception
+    {
+        // The directory above the reactor aggregates it, so it is the local root
+        final MavenProject top = createProject(topDir, "top", "root");
+        projectsAboveReactor.put(top.getFile().getAbsoluteFile(), top);
+
+        final MavenSession session = createSession();
+        final List<Callable<MavenProject>> finds = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final MavenProject project = i % 2 == 0 ? service : tests;
+            finds.add(() -> LocalRoot.find(createProjectBuilder(), session, project));
+        }
+
+        // The modules built in parallel share the projects of the session
+        final ExecutorService executor = Executors.newFixedThreadPool(finds.size());
+        try {
+            for (final Future<MavenProject> result : executor.invokeAll(finds)) {
+                Assertions.assertSame(top, result.get(), "Root above the reactor");
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Assertions.assertEquals(1, builds.get(), "Project above the reactor built once");
+
+        Assertions.assertSame(top, LocalRoot.find(createProjectBuilder(), createSession(), service), "Root in the next session");
+        Assertions.assertEquals(2, builds.get(), "Project above the reactor built again in the next session");
+    }
+
+    @Test
+    public void testProjectAboveReactorNotAggregating() throws IOException
+    {
+        final MavenProject top = createProject(topDir, "top", "other");
+        projectsAboveReactor.put(top.getFile().getAbsoluteFile(), top);
+
+        Assertions.assertSame(root, LocalRoot.find(createProjectBuilder(), createSession(), service), "Root within the reactor");
+        Assertions.assertEquals(1, builds.get(), "Project above the reactor built");
+    }
+
+    @Test
+    public void testProjectAboveReactorNotBuilt() throws IOException
+    {
+        // The project builder fails for a pom it does not know
+        Files.write(topDir.resolve("pom.xml"), "<project/>".getBytes(StandardCharsets.UTF_8));
+
+        Assertions.assertSame(root, LocalRoot.find(createProjectBuilder(), createSession(), service), "Root within the reactor");
+        Assertions.assertEquals(1, builds.get(), "Project above the reactor attempted");
+    }
+
+    @Test
+    public void testImageConfigOfRootAsDeclared() throws Exception
+    {
+        addPlugin(root, "docker.io/cafapi/opensuse-jre17");
+        addPlugin(service, "docker.io/library/postgres");
+        addPlugin(tests, "docker.io/library/postgres");
+
+        // The build extension merges the images of the reactor into the configuration of the first and last projects
+        final MavenSession session = createSession();
+        session.getRequest().setGoals(new ArrayList<>(Arrays.asList("verify", "docker-versions:use-latest-releases")));
+        new DockerVersionsLifecycleParticipant().afterProjectsRead(session);
+        Assertions.assertEquals(2, getImages(DockerVersionsHelper.getPlugin(root)).getChildCount(), "Reactor images in the build");
+
+        final MavenProject localRoot = LocalRoot.find(createProjectBuilder(), session, service);
+        final Plugin plugin = DockerVersionsHelper.getPluginWithImageConfig(localRoot);
+        Assertions.assertEquals(1, getImages(plugin).getChildCount(), "Only the images declared by the root");
+        Assertions.assertEquals("docker.io/cafapi/opensuse-jre17", getImages(plugin).getChild(0).getChild("repository").getValue(),
+                                "Image declared by the root");
+        Assertions.assertNull(((Xpp3Dom) plugin.getConfiguration()).getChild("skipDepopulateProjectRegistry"),
+                              "Configuration of the build not included");
+    }
+
+    private MavenSession createSession()
+    {
+        final MavenSession session = TestMavenSession.create(
+            new DefaultMavenExecutionRequest(), new ArrayList<>(Arrays.asList(root, service, tests)));
+        session.setAllProjects(session.getProjects());
+        return session;
+    }
+
+    private ProjectBuilder createProjectBuilder()
+    {
+        // Only the poms above the reactor are built, from the projects added by the test
+        return (ProjectBuilder) Proxy.newProxyInstance(
+            ProjectBuilder.class.getClassLoader(),
+            new Class<?>[]{ProjectBuilder.class},
+            (proxy, method, args) -> {
+                if (!method.getName().equals("build") || !(args[0] instanceof File)) {
+                    throw new UnsupportedOperationException(method.toString());
+                }
+                builds.incrementAndGet();
+                final File pom = (File) args[0];
+                final MavenProject project = projectsAboveReactor.get(pom);
+                if (project == null) {
+                    throw new ProjectBuildingException("com.acme:unknown", "Unable to build", pom);
+                }
+                return createBuildingResult(project);
+            });
+    }
+
+    private static ProjectBuildingResult createBuildingResult(final MavenProject project)
+    {
+        return (ProjectBuildingResult) Proxy.newProxyInstance(
+            ProjectBuildingResult.class.getClassLoader(),
+            new Class<?>[]{ProjectBuildingResult.class},
+            (proxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getProject":
+                        return project;
+                    case "getProblems":
+                        return Collections.emptyList();
+                    default:
+                        throw new UnsupportedOperationException(method.toString());
+                }
+            });
+    }
+
+    private static MavenProject createProject(final Path directory, final String artifactId, final String... modules)
+        throws IOException
+    {
+        final Path pomFile = directory.resolve("pom.xml");
+        Files.createDirectories(directory);
+        Files.write(pomFile, "<project/>".getBytes(StandardCharsets.UTF_8));
+
+        final Model model = new Model();
+        model.setGroupId("com.acme");
+        model.setArtifactId(artifactId);
+        model.setVersion("1.0.0");
+        model.setPackaging(modules.length > 0 ? "pom" : "jar");
+        model.setModules(new ArrayList<>(Arrays.asList(modules)));
+
+        final MavenProject project = new MavenProject(model);
+        project.setOriginalModel(model.clone());
+        project.setFile(pomFile.toFile());
+        return project;
+    }
+
+    private static void addPlugin(final MavenProject project, final String repository)
+    {
+        final Xpp3Dom repositoryParam = new Xpp3Dom("repository");
+        repositoryParam.setValue(repository);
+        final Xpp3Dom image = new Xpp3Dom("image");
+        image.addChild(repositoryParam);
+        final Xpp3Dom imageManagement = new Xpp3Dom("imageManagement");
+        imageManagement.addChild(image);
+        final Xpp3Dom config = new Xpp3Dom("configuration");
+        config.addChild(imageManagement);
+
+        final Plugin plugin = new Plugin();
+        plugin.setGroupId("com.github.cafapi.plugins.docker.versions");
+        plugin.setArtifactId("docker-versions-maven-plugin");
+        plugin.setConfiguration(config);
+
+        final Build build = new Build();
+        build.addPlugin(plugin);
+        project.getModel().setBuild(build);
+    }
+
+    private static Xpp3Dom getImages(final Plugin plugin)
+    {
+        return ((Xpp3Dom) plugin.getConfiguration()).getChild("imageManagement");
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.maven.settings.Settings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
+import com.github.cafapi.docker_versions.plugins.ProjectRegistry;
+
+final class ProjectRegistryBackendTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectRegistryBackendTest.class);
+
+    private StandInRegistry registry;
+    private String jre1Digest;
+    private String jre2Digest;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        registry = new StandInRegistry();
+        jre1Digest = registry.addImage("cafapi/jre", "1.0", "jre 1.0 layer");
+        jre2Digest = registry.addImage("cafapi/jre", "2.0", "jre 2.0 layer");
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        registry.close();
+    }
+
+    @Test
+    public void testProjectsWithOwnNamespace() throws Exception
+    {
+        final List<ImageConfiguration> images = createImages("1.0");
+        final ProjectRegistry projectA = createProjectRegistry(registry.getAddress() + "/project-a");
+        final ProjectRegistry projectB = createProjectRegistry(registry.getAddress() + "/project-b");
+
+        projectA.populate(images);
+        projectB.populate(images);
+        Assertions.assertTrue(registry.hasManifest("project-a/project/jre", "latest"), "Image copied for project A");
+        Assertions.assertTrue(registry.hasManifest("project-b/project/jre", "latest"), "Image copied for project B");
+
+        projectA.depopulate(images);
+        Assertions.assertFalse(registry.hasManifest("project-a/project/jre", "latest"), "Image deleted for project A");
+        Assertions.assertTrue(registry.hasManifest("project-b/project/jre", "latest"), "Image still present for project B");
+        Assertions.assertTrue(registry.hasManifest("cafapi/jre", "1.0"), "Source image still present");
+    }
+
+    @Test
+    public void testProjectsSharingRepository() throws Exception
+    {
+        final List<ImageConfiguration> imagesA = createImages("1.0");
+        final List<ImageConfiguration> imagesB = createImages("2.0");
+        final ProjectRegistry projectA = createProjectRegistry(registry.getAddress());
+        final ProjectRegistry projectB = createProjectRegistry(registry.getAddress());
+
+        projectA.populate(imagesA);
+        Assertions.assertEquals(jre1Digest, registry.getDigest("project/jre", "latest"), "Image copied for project A");
+        projectB.populate(imagesB);
+        Assertions.assertEquals(jre2Digest, registry.getDigest("project/jre", "latest"), "Image copied for project B");
+
+        // Project A did not copy the image that is now tagged, so deleting it would remove the image of project B
+        projectA.depopulate(imagesA);
+        Assertions.assertEquals(jre2Digest, registry.getDigest("project/jre", "latest"), "Image of project B not deleted");
+
+        projectB.depopulate(imagesB);
+        Assertions.assertFalse(registry.hasManifest("project/jre", "latest"), "Image deleted for project B");
+    }
+
+    private List<ImageConfiguration> createImages(final String tag)
+    {
+        return Collections.singletonList(TestHelper.createImage(registry.getAddress() + "/cafapi/jre", "project/jre", tag, null, false));
+    }
+
+    private static ProjectRegistry createProjectRegistry(final String projectDockerRegistry)
+    {
+        return new ProjectRegistry(null, new Settings(), projectDockerRegistry, false, false, true, null, null);
+    }
+}
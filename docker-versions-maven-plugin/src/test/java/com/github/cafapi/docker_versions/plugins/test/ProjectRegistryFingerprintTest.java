@@ -0,0 +1,232 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Model;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.settings.Settings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.cafapi.docker_versions.plugins.HttpConfiguration;
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
+import com.github.cafapi.docker_versions.plugins.PopulateProjectRegistryMojo;
+import com.github.cafapi.docker_versions.plugins.ProjectRegistry;
+import com.github.cafapi.docker_versions.plugins.SharedDaemonLocks;
+
+final class ProjectRegistryFingerprintTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProjectRegistryFingerprintTest.class);
+
+    private static final String PROJECT_REGISTRY = "acme.local";
+    private static final String JRE_IMAGE = PROJECT_REGISTRY + "/cafapi/opensuse-jre17:latest";
+
+    private StandInDockerDaemon daemon;
+
+    @TempDir
+    private Path tempDir;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        daemon = new StandInDockerDaemon();
+        daemon.addImage("sha256:1111", "docker.io/cafapi/opensuse-jre17:1.4.3");
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        DockerRestClient.closeAll();
+        daemon.close();
+    }
+
+    @Test
+    public void testFingerprintOfTaggedImages() throws Exception
+    {
+        final List<ImageConfiguration> images
+            = Arrays.asList(TestHelper.createImage("docker.io/cafapi/opensuse-jre17", "1.4.3", null, true));
+        final ProjectRegistry projectRegistry = createProjectRegistry(false, null);
+
+        Assertions.assertFalse(projectRegistry.getFingerprint(images).isPresent(), "No fingerprint before the images are tagged");
+
+        projectRegistry.populate(images);
+        final Optional<String> fingerprint = projectRegistry.getFingerprint(images);
+        Assertions.assertTrue(fingerprint.isPresent(), "Fingerprint once the images are tagged");
+        Assertions.assertEquals(fingerprint, projectRegistry.getFingerprint(images), "Fingerprint is stable");
+
+        // The image is tagged again with a different image, for example by another build
+        daemon.addImage("sha256:9999", JRE_IMAGE);
+        Assertions.assertFalse(projectRegistry.getFingerprint(images).isPresent(), "No fingerprint of the other image");
+
+        daemon.removeImage("sha256:9999");
+        Assertions.assertFalse(projectRegistry.getFingerprint(images).isPresent(), "No fingerprint once a tag is missing");
+    }
+
+    @Test
+    public void testFingerprintOfRebuiltImage() throws Exception
+    {
+        final List<ImageConfiguration> images
+            = Arrays.asList(TestHelper.createImage("docker.io/cafapi/opensuse-jre17", "1.4.3", null, true));
+        final ProjectRegistry projectRegistry = createProjectRegistry(false, null);
+
+        projectRegistry.populate(images);
+        final Optional<String> fingerprint = projectRegistry.getFingerprint(images);
+        Assertions.assertTrue(fingerprint.isPresent(), "Fingerprint once the images are tagged");
+
+        // The image that is not pulled is rebuilt locally, so the project registry still has the previous image
+        daemon.addImage("sha256:5555", "docker.io/cafapi/opensuse-jre17:1.4.3");
+        Assertions.assertFalse(projectRegistry.getFingerprint(images).isPresent(), "No fingerprint once the source image changed");
+
+        projectRegistry.populate(images);
+        final Optional<String> rebuiltFingerprint = projectRegistry.getFingerprint(images);
+        Assertions.assertTrue(rebuiltFingerprint.isPresent(), "Fingerprint once the rebuilt image is tagged");
+        Assertions.assertNotEquals(fingerprint, rebuiltFingerprint, "Fingerprint includes the image id");
+    }
+
+    @Test
+    public void testFingerprintOfPinnedImages() throws Exception
+    {
+        final String digest = "sha256:aaaa";
+        daemon.addRegistryImage("docker.io/cafapi/opensuse-jre17", "1.4.4", digest, "sha256:4444");
+        final List<ImageConfiguration> pinned
+            = Arrays.asList(TestHelper.createImage("docker.io/cafapi/opensuse-jre17", "1.4.4", digest, false));
+        final List<ImageConfiguration> unpinned
+            = Arrays.asList(TestHelper.createImage("docker.io/cafapi/opensuse-jre17", "1.4.4", null, false));
+        final ProjectRegistry projectRegistry = createProjectRegistry(false, null);
+
+        projectRegistry.populate(pinned);
+        Assertions.assertTrue(projectRegistry.getFingerprint(pinned).isPresent(), "Fingerprint of an image pinned to a digest");
+        Assertions.assertFalse(projectRegistry.getFingerprint(unpinned).isPresent(),
+                               "No fingerprint of an image without a digest, as a newer image may have been pushed");
+    }
+
+    @Test
+    public void testNoFingerprintWithoutLocalTags() throws Exception
+    {
+        final List<ImageConfiguration> images
+            = Arrays.asList(TestHelper.createImage("docker.io/cafapi/opensuse-jre17", "1.4.3", null, true));
+
+        final ProjectRegistry daemonRegistry = createProjectRegistry(false, null);
+        daemonRegistry.populate(images);
+        Assertions.assertTrue(daemonRegistry.getFingerprint(images).isPresent(), "Fingerprint with the daemon backend");
+
+        Assertions.assertFalse(createProjectRegistry(true, null).getFingerprint(images).isPresent(),
+                               "No fingerprint with the registry backend");
+        Assertions.assertFalse(createProjectRegistry(false, new SharedDaemonLocks(tempDir)).getFingerprint(images).isPresent(),
+                               "No fingerprint with a shared daemon");
+    }
+
+    @Test
+    public void testPopulateSkippedWhenUpToDate() throws Exception
+    {
+        final File fingerprintFile = tempDir.resolve("populate-project-registry.sha256").toFile();
+        final List<ImageConfiguration> images
+            = Arrays.asList(TestHelper.createImage("docker.io/cafapi/opensuse-jre17", "1.4.3", null, true));
+
+        createPopulateMojo(images, fingerprintFile).execute();
+        Assertions.assertEquals("sha256:1111", daemon.getImageId(JRE_IMAGE), "Jre tagged");
+        Assertions.assertTrue(fingerprintFile.isFile(), "Fingerprint written");
+
+        daemon.clearRequests();
+        createPopulateMojo(images, fingerprintFile).execute();
+        Assertions.assertEquals(0, daemon.countRequests("POST"), "Images not tagged again when they are still tagged");
+
+        // The images were untagged since the last build
+        createProjectRegistry(false, null).depopulate(images);
+        createPopulateMojo(images, fingerprintFile).execute();
+        Assertions.assertEquals("sha256:1111", daemon.getImageId(JRE_IMAGE), "Jre tagged again");
+        Assertions.assertEquals(1, daemon.countRequests("POST"), "Images tagged again once they were untagged");
+
+        // A changed configuration tags the images again
+        daemon.clearRequests();
+        daemon.addImage("sha256:2222", "docker.io/library/postgres:16");
+        final List<ImageConfiguration> changedImages = new ArrayList<>(images);
+        changedImages.add(TestHelper.createImage("docker.io/library/postgres", "16", null, true));
+        createPopulateMojo(changedImages, fingerprintFile).execute();
+        Assertions.assertEquals(2, daemon.countRequests("POST"), "Images tagged again once the configuration has changed");
+    }
+
+    @Test
+    public void testFingerprintRemovedWhenUnknown() throws Exception
+    {
+        final File fingerprintFile = tempDir.resolve("populate-project-registry.sha256").toFile();
+        final String digest = "sha256:aaaa";
+        daemon.addRegistryImage("docker.io/cafapi/opensuse-jre17", "1.4.4", digest, "sha256:4444");
+
+        createPopulateMojo(Arrays.asList(TestHelper.createImage("docker.io/cafapi/opensuse-jre17", "1.4.4", digest, false)),
+                           fingerprintFile).execute();
+        Assertions.assertTrue(fingerprintFile.isFile(), "Fingerprint written");
+
+        daemon.clearRequests();
+        createPopulateMojo(Arrays.asList(TestHelper.createImage("docker.io/cafapi/opensuse-jre17", "1.4.4", null, false)),
+                           fingerprintFile).execute();
+        Assertions.assertEquals(1, daemon.countRequests("POST /images/create"), "Image without a digest always pulled");
+        Assertions.assertFalse(fingerprintFile.exists(), "Fingerprint removed");
+    }
+
+    private ProjectRegistry createProjectRegistry(final boolean registryBackend, final SharedDaemonLocks sharedDaemonLocks)
+    {
+        return new ProjectRegistry(
+            daemon.getClient(), new Settings(), PROJECT_REGISTRY, false, false, registryBackend, sharedDaemonLocks, null);
+    }
+
+    private PopulateProjectRegistryMojo createPopulateMojo(final List<ImageConfiguration> images, final File fingerprintFile)
+        throws ReflectiveOperationException
+    {
+        final Model model = new Model();
+        model.setGroupId("com.acme");
+        model.setArtifactId("service");
+        model.setVersion("1.0.0");
+        final MavenProject project = new MavenProject(model);
+        project.getProperties().setProperty("projectDockerRegistry", PROJECT_REGISTRY);
+
+        final MavenSession session = TestMavenSession.create(new DefaultMavenExecutionRequest(), Arrays.asList(project));
+
+        final HttpConfiguration httpConfiguration = new HttpConfiguration();
+        httpConfiguration.setConnectionTimout(5);
+
+        final PopulateProjectRegistryMojo mojo = new PopulateProjectRegistryMojo();
+        TestHelper.setField(mojo, "session", session);
+        TestHelper.setField(mojo, "project", project);
+        TestHelper.setField(mojo, "settings", new Settings());
+        TestHelper.setField(mojo, "imageManagement", images);
+        TestHelper.setField(mojo, "httpConfiguration", httpConfiguration);
+        TestHelper.setField(mojo, "dockerHost", daemon.getDockerHost());
+        TestHelper.setField(mojo, "digestResolver", "registry");
+        TestHelper.setField(mojo, "populateBackend", "daemon");
+        TestHelper.setField(mojo, "fingerprintFile", fingerprintFile);
+        return mojo;
+    }
+}
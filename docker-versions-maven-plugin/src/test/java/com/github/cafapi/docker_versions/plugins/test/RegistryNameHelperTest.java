@@ -43,10 +43,10 @@ final class RegistryNameHelperTest
         final List<String> registryNames = Arrays.asList(new String[]{
             "acme", "acme-0.0.1-SNAPSHOT.project-registries.local",
             "opensuse-opensearch2-image-2.1.0-os-cve-test-SNAPSHOT.project-registries.local", "localHost",
-            "LOCALDOMAIN", "docker.io", "index.docker.io", "127.0.0.1", "192.168.0.1",
+            "LOCALDOMAIN", "docker.io", "index.docker.io", "127.0.0.1", "192.168.0.1", "localhost:5000",
             "thisisthesongthatneverendsitgoesonandonandonthisisthesongthatnev",
             "-12345",
-            ".acme"});
+            ".acme", "localhost:5000/acme-0.0.1-snapshot", "localhost:5000/project-registries/acme_0.0.1"});
         for (final String registryName : registryNames) {
             final String sanitizedRegistryName = RegistryNameHelper.sanitizeRegistryName(registryName);
             Assertions.assertTrue(registryName.equals(sanitizedRegistryName), registryName + " - valid registry name");
@@ -62,7 +62,7 @@ final class RegistryNameHelperTest
             "https://github.com/docker/docker",
             "[fc00::1]",
             "[fe80::1%eth0]",
-            "acme com"});
+            "acme com", "localhost:5000/Acme", "localhost:5000//acme", "localhost:5000/acme/"});
         for (final String registryName : registryNames) {
             final String sanitizedRegistryName = RegistryNameHelper.sanitizeRegistryName(registryName);
             Assertions.assertFalse(registryName.equals(sanitizedRegistryName) && sanitizedRegistryName.contains("--"),
@@ -0,0 +1,154 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.plugins.SharedDaemonLocks;
+
+final class SharedDaemonLocksTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedDaemonLocksTest.class);
+
+    private static final String IMAGE_NAME = "acme-1.0.0-SNAPSHOT.project-registries.local/cafapi/opensuse-jre17:latest";
+
+    @TempDir
+    Path directory;
+
+    @BeforeEach
+    void init(final TestInfo testInfo)
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testReferences() throws IOException, InterruptedException
+    {
+        final SharedDaemonLocks locks = new SharedDaemonLocks(directory);
+        try (final SharedDaemonLocks.ImageLock lock = locks.lock(IMAGE_NAME)) {
+            Assertions.assertTrue(locks.removeReference(IMAGE_NAME), "Image is not used");
+            locks.addReference(IMAGE_NAME);
+        }
+
+        // References from builds that are no longer running are ignored
+        final Path referenceDir = getReferenceDir();
+        Files.write(referenceDir.resolve("finished-build"), IMAGE_NAME.getBytes(StandardCharsets.UTF_8));
+        try (final SharedDaemonLocks.ImageLock lock = locks.lock(IMAGE_NAME)) {
+            Assertions.assertTrue(locks.removeReference(IMAGE_NAME), "Image is no longer used");
+        }
+        Assertions.assertFalse(Files.exists(referenceDir.resolve("finished-build")), "Reference from finished build removed");
+
+        // References from running builds are kept
+        final Path holderFile = directory.resolve("holders").resolve("running-build.lock");
+        Files.createDirectories(holderFile.getParent());
+        try (final FileChannel holder = FileChannel.open(holderFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+             final FileLock holderLock = holder.lock()) {
+            Files.write(referenceDir.resolve("running-build"), IMAGE_NAME.getBytes(StandardCharsets.UTF_8));
+            try (final SharedDaemonLocks.ImageLock lock = locks.lock(IMAGE_NAME)) {
+                locks.addReference(IMAGE_NAME);
+                Assertions.assertFalse(locks.removeReference(IMAGE_NAME), "Image is still used by running build");
+            }
+        }
+        Assertions.assertTrue(Files.exists(referenceDir.resolve("running-build")), "Reference from running build kept");
+    }
+
+    @Test
+    @SuppressWarnings("try")
+    public void testReferencesOfBuildsInSameJvm() throws IOException, InterruptedException
+    {
+        // The Maven daemon runs several builds in the same JVM, each with its own locks
+        final SharedDaemonLocks firstBuild = new SharedDaemonLocks(directory);
+        final SharedDaemonLocks secondBuild = new SharedDaemonLocks(directory);
+
+        try (final SharedDaemonLocks.ImageLock lock = firstBuild.lock(IMAGE_NAME)) {
+            firstBuild.addReference(IMAGE_NAME);
+        }
+        try (final SharedDaemonLocks.ImageLock lock = secondBuild.lock(IMAGE_NAME)) {
+            secondBuild.addReference(IMAGE_NAME);
+            Assertions.assertFalse(secondBuild.removeReference(IMAGE_NAME), "Image is still used by the first build");
+        }
+
+        // The first build ended without removing its reference
+        firstBuild.release();
+        try (final SharedDaemonLocks.ImageLock lock = secondBuild.lock(IMAGE_NAME)) {
+            secondBuild.addReference(IMAGE_NAME);
+            Assertions.assertTrue(secondBuild.removeReference(IMAGE_NAME), "Image is no longer used once the first build has ended");
+        }
+        try (final Stream<Path> references = Files.list(getReferenceDir())) {
+            Assertions.assertEquals(0, references.count(), "References of ended builds removed");
+        }
+
+        secondBuild.release();
+        try (final Stream<Path> holders = Files.list(directory.resolve("holders"))) {
+            Assertions.assertEquals(0, holders.count(), "Holder files removed once the builds have ended");
+        }
+    }
+
+    @Test
+    public void testPullSharedWithWaitingBuild() throws Exception
+    {
+        final SharedDaemonLocks locks = new SharedDaemonLocks(directory);
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final AtomicReference<Thread> waitingThread = new AtomicReference<>();
+            final Future<Boolean> waitingBuild;
+            try (final SharedDaemonLocks.ImageLock lock = locks.lock(IMAGE_NAME)) {
+                Assertions.assertFalse(lock.wasPulledWhileWaiting(), "Image not pulled before lock");
+                waitingBuild = executor.submit(() -> {
+                    waitingThread.set(Thread.currentThread());
+                    try (final SharedDaemonLocks.ImageLock waitingLock = locks.lock(IMAGE_NAME)) {
+                        return waitingLock.wasPulledWhileWaiting();
+                    }
+                });
+                // The image is pulled once the other build is waiting for the lock
+                while (waitingThread.get() == null || waitingThread.get().getState() != Thread.State.WAITING) {
+                    Thread.sleep(10);
+                }
+                lock.markPulled();
+            }
+            Assertions.assertTrue(waitingBuild.get(), "Image pulled while waiting");
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Path getReferenceDir() throws IOException
+    {
+        try (final Stream<Path> referenceDirs = Files.list(directory.resolve("refs"))) {
+            return referenceDirs.findFirst().orElseThrow(() -> new IOException("No references recorded"));
+        }
+    }
+}
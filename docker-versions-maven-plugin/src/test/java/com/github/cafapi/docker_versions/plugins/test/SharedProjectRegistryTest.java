@@ -0,0 +1,147 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+
+import org.apache.maven.settings.Settings;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
+import com.github.cafapi.docker_versions.plugins.ProjectRegistry;
+import com.github.cafapi.docker_versions.plugins.SharedProjectRegistry;
+
+final class SharedProjectRegistryTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(SharedProjectRegistryTest.class);
+
+    private static final String PROJECT_REGISTRY = "acme-1.0.0.project-registries.local";
+    private static final String JRE_IMAGE = PROJECT_REGISTRY + "/cafapi/opensuse-jre17:latest";
+    private static final String POSTGRES_IMAGE = PROJECT_REGISTRY + "/library/postgres:latest";
+
+    private StandInDockerDaemon daemon;
+    private SharedProjectRegistry sharedProjectRegistry;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        daemon = new StandInDockerDaemon();
+        daemon.addImage("sha256:1111", "docker.io/cafapi/opensuse-jre17:1.4.3");
+        daemon.addImage("sha256:2222", "docker.io/library/postgres:16");
+
+        final ImageConfiguration jre = TestHelper.createImage("docker.io/cafapi/opensuse-jre17", "1.4.3", null, true);
+        final ImageConfiguration postgres = TestHelper.createImage("docker.io/library/postgres", "16", null, true);
+
+        // The service and the tests use the database, only the service uses the jre
+        final Map<String, List<ImageConfiguration>> imagesByProject = new LinkedHashMap<>();
+        imagesByProject.put("service", Arrays.asList(jre, postgres));
+        imagesByProject.put("tests", Arrays.asList(TestHelper.createImage("docker.io/library/postgres", "16", null, true)));
+        imagesByProject.put("docs", Arrays.asList());
+
+        final DockerRestClient dockerClient = daemon.getClient();
+        final ProjectRegistry projectRegistry = new ProjectRegistry(
+            dockerClient, new Settings(), PROJECT_REGISTRY, false, false, false, null, null);
+        sharedProjectRegistry = new SharedProjectRegistry(projectRegistry, imagesByProject);
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        DockerRestClient.closeAll();
+        daemon.close();
+    }
+
+    @Test
+    public void testImagesAreReleasedByLastProject() throws ExecutionException, InterruptedException
+    {
+        sharedProjectRegistry.acquire("service");
+        Assertions.assertEquals("sha256:1111", daemon.getImageId(JRE_IMAGE), "Jre tagged");
+        Assertions.assertEquals("sha256:2222", daemon.getImageId(POSTGRES_IMAGE), "Database tagged");
+
+        daemon.clearRequests();
+        sharedProjectRegistry.acquire("tests");
+        sharedProjectRegistry.acquire("docs");
+        Assertions.assertEquals(0, daemon.countRequests("POST"), "Images are only tagged by the first project that uses them");
+
+        sharedProjectRegistry.release("service");
+        Assertions.assertNull(daemon.getImageId(JRE_IMAGE), "Jre untagged when the only project using it has finished");
+        Assertions.assertEquals("sha256:2222", daemon.getImageId(POSTGRES_IMAGE), "Database still used by the tests");
+
+        sharedProjectRegistry.release("docs");
+        Assertions.assertEquals("sha256:2222", daemon.getImageId(POSTGRES_IMAGE), "Database not used by the docs");
+
+        sharedProjectRegistry.release("tests");
+        Assertions.assertNull(daemon.getImageId(POSTGRES_IMAGE), "Database untagged when the last project using it has finished");
+
+        daemon.clearRequests();
+        sharedProjectRegistry.releaseAll();
+        Assertions.assertEquals(0, daemon.countRequests("DELETE"), "Images already untagged");
+        Assertions.assertEquals("sha256:2222", daemon.getImageId("docker.io/library/postgres:16"), "Source image kept");
+    }
+
+    @Test
+    public void testReleaseAllAfterEarlyStop() throws ExecutionException, InterruptedException
+    {
+        sharedProjectRegistry.acquire("service");
+        sharedProjectRegistry.acquire("tests");
+
+        // The build stopped before the tests had finished
+        sharedProjectRegistry.release("service");
+        sharedProjectRegistry.releaseAll();
+        Assertions.assertNull(daemon.getImageId(JRE_IMAGE), "Jre untagged");
+        Assertions.assertNull(daemon.getImageId(POSTGRES_IMAGE), "Database untagged at the end of the build");
+
+        daemon.clearRequests();
+        sharedProjectRegistry.release("tests");
+        sharedProjectRegistry.releaseAll();
+        Assertions.assertEquals(0, daemon.countRequests("DELETE"), "Images are only untagged once");
+    }
+
+    @Test
+    public void testReleaseAllBeforeImagesAreNeeded()
+    {
+        sharedProjectRegistry.releaseAll();
+        Assertions.assertEquals(0, daemon.getRequests().size(), "Images that were never tagged are not untagged");
+    }
+
+    @Test
+    public void testAcquireAfterDepopulate() throws ExecutionException, InterruptedException
+    {
+        sharedProjectRegistry.acquire("service");
+        sharedProjectRegistry.release("service");
+        Assertions.assertNull(daemon.getImageId(JRE_IMAGE), "Jre untagged");
+
+        // A project that needs the images after they were untagged tags them again, and untags them once it has finished
+        sharedProjectRegistry.acquire("service");
+        Assertions.assertEquals("sha256:1111", daemon.getImageId(JRE_IMAGE), "Jre tagged again");
+        sharedProjectRegistry.release("service");
+        Assertions.assertNull(daemon.getImageId(JRE_IMAGE), "Jre untagged again");
+    }
+}
@@ -0,0 +1,443 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.github.cafapi.docker_versions.docker.client.DockerRestClient;
+import com.github.cafapi.docker_versions.plugins.HttpConfiguration;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stands in for the image endpoints of a Docker daemon, keeping the images in memory.
+ * <p>
+ * Images are pulled from a stand-in registry, and saved as tarballs that hold the id and tags of the image.
+ */
+public final class StandInDockerDaemon implements AutoCloseable
+{
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private static final Pattern API_VERSION_PREFIX = Pattern.compile("^/v[0-9.]+");
+    private static final Pattern IMAGE_PATH = Pattern.compile("^/images/(.+?)(/json|/tag|/get)?$");
+
+    private final Map<String, RegistryImage> registryImages = new HashMap<>();
+    private final Map<String, Image> images = new LinkedHashMap<>();
+    private final List<String> requests = new ArrayList<>();
+    private final ExecutorService executor;
+    private final HttpServer server;
+    private boolean saveFails;
+    private boolean removeFails;
+    private boolean tagIgnored;
+    private boolean removeIgnored;
+
+    public StandInDockerDaemon() throws IOException
+    {
+        executor = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", this::handle);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public String getDockerHost()
+    {
+        return "tcp://" + server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    public DockerRestClient getClient()
+    {
+        final HttpConfiguration httpConfiguration = new HttpConfiguration();
+        httpConfiguration.setConnectionTimout(5);
+        return DockerRestClient.getInstance(httpConfiguration, getDockerHost());
+    }
+
+    /**
+     * Adds an image to the stand-in registry, from which it can be pulled.
+     *
+     * @param repository the repository of the image
+     * @param tag the tag of the image
+     * @param digest the digest of the image manifest
+     * @param imageId the id of the image once pulled
+     */
+    public synchronized void addRegistryImage(final String repository, final String tag, final String digest, final String imageId)
+    {
+        registryImages.put(repository + ":" + tag, new RegistryImage(repository, digest, imageId));
+    }
+
+    /**
+     * Adds an image to the daemon, as if it had been pulled or built before.
+     *
+     * @param imageId the id of the image
+     * @param repoTags the tags of the image
+     */
+    public synchronized void addImage(final String imageId, final String... repoTags)
+    {
+        final Image image = images.computeIfAbsent(imageId, Image::new);
+        for (final String repoTag : repoTags) {
+            tag(image, repoTag);
+        }
+    }
+
+    public synchronized void removeImage(final String imageId)
+    {
+        images.remove(imageId);
+    }
+
+    /**
+     * Gets the id of the image with a tag.
+     *
+     * @param repoTag the tag
+     * @return the id of the image, or null if no image has the tag
+     */
+    public synchronized String getImageId(final String repoTag)
+    {
+        final Image image = findImage(repoTag);
+        return image == null ? null : image.id;
+    }
+
+    public synchronized void setSaveFails(final boolean saveFails)
+    {
+        this.saveFails = saveFails;
+    }
+
+    public synchronized void setRemoveFails(final boolean removeFails)
+    {
+        this.removeFails = removeFails;
+    }
+
+    /**
+     * Sets whether tag requests are reported as succeeded without tagging the image, as if the tag were removed again at once.
+     *
+     * @param tagIgnored whether tag requests are ignored
+     */
+    public synchronized void setTagIgnored(final boolean tagIgnored)
+    {
+        this.tagIgnored = tagIgnored;
+    }
+
+    /**
+     * Sets whether remove requests are reported as succeeded without untagging the image, as if the image were tagged again at once.
+     *
+     * @param removeIgnored whether remove requests are ignored
+     */
+    public synchronized void setRemoveIgnored(final boolean removeIgnored)
+    {
+        this.removeIgnored = removeIgnored;
+    }
+
+    /**
+     * Gets the requests that changed the images, such as {@code POST /images/create docker.io/library/alpine:3.19}.
+     *
+     * @return the requests, in the order they were received
+     */
+    public synchronized List<String> getRequests()
+    {
+        return new ArrayList<>(requests);
+    }
+
+    public synchronized int countRequests(final String prefix)
+    {
+        return (int) requests.stream().filter(request -> request.startsWith(prefix)).count();
+    }
+
+    public synchronized void clearRequests()
+    {
+        requests.clear();
+    }
+
+    /**
+     * Gets the content of a tarball written by {@code docker save} for an image.
+     *
+     * @param imageId the id of the image
+     * @param repoTags the tags of the image
+     * @return the tarball
+     */
+    public static byte[] createTarball(final String imageId, final String... repoTags)
+    {
+        final ObjectNode tarball = MAPPER.createObjectNode();
+        tarball.put("Id", imageId);
+        final ArrayNode tags = tarball.putArray("RepoTags");
+        for (final String repoTag : repoTags) {
+            tags.add(repoTag);
+        }
+        return tarball.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void close()
+    {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException
+    {
+        try {
+            final String method = exchange.getRequestMethod();
+            final String path = API_VERSION_PREFIX.matcher(exchange.getRequestURI().getPath()).replaceFirst("");
+            final Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            final byte[] requestBody = IOUtils.toByteArray(exchange.getRequestBody());
+
+            if ("GET".equals(method) && "/images/json".equals(path)) {
+                respond(exchange, 200, listImages());
+                return;
+            }
+            if ("POST".equals(method) && "/images/create".equals(path)) {
+                pull(exchange, query.get("fromImage") + ":" + query.get("tag"));
+                return;
+            }
+            if ("POST".equals(method) && "/images/load".equals(path)) {
+                respond(exchange, 200, load(requestBody));
+                return;
+            }
+
+            final Matcher imagePath = IMAGE_PATH.matcher(path);
+            if (!imagePath.matches()) {
+                respond(exchange, 404, error("page not found"));
+                return;
+            }
+            final String name = imagePath.group(1);
+            final String action = imagePath.group(2) == null ? "" : imagePath.group(2);
+            if ("GET".equals(method) && "/json".equals(action)) {
+                final JsonNode image = inspect(name);
+                respond(exchange, image == null ? 404 : 200, image == null ? error("No such image: " + name) : image);
+            } else if ("POST".equals(method) && "/tag".equals(action)) {
+                final boolean tagged = tag(name, query.get("repo") + ":" + query.get("tag"));
+                respond(exchange, tagged ? 201 : 404, tagged ? null : error("No such image: " + name));
+            } else if ("GET".equals(method) && "/get".equals(action)) {
+                final byte[] tarball = save(name);
+                if (tarball == null) {
+                    respond(exchange, 500, error("Unable to save image: " + name));
+                } else {
+                    exchange.sendResponseHeaders(200, tarball.length);
+                    try (final OutputStream responseBody = exchange.getResponseBody()) {
+                        responseBody.write(tarball);
+                    }
+                }
+            } else if ("DELETE".equals(method) && action.isEmpty()) {
+                final int status = remove(name);
+                respond(exchange, status, status == 200
+                    ? MAPPER.createArrayNode()
+                    : error(status == 404 ? "No such image: " + name : "Unable to remove image: " + name));
+            } else {
+                respond(exchange, 404, error("page not found"));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private synchronized ArrayNode listImages()
+    {
+        final ArrayNode list = MAPPER.createArrayNode();
+        images.values().forEach(image -> list.add(image.toJson()));
+        return list;
+    }
+
+    private synchronized JsonNode inspect(final String name)
+    {
+        final Image image = findImage(name);
+        return image == null ? null : image.toJson();
+    }
+
+    private void pull(final HttpExchange exchange, final String name) throws IOException
+    {
+        final RegistryImage registryImage;
+        synchronized (this) {
+            requests.add("POST /images/create " + name);
+            registryImage = registryImages.get(name);
+            if (registryImage != null) {
+                final Image image = images.computeIfAbsent(registryImage.imageId, Image::new);
+                tag(image, name);
+                image.repoDigests.add(registryImage.repository + "@" + registryImage.digest);
+            }
+        }
+        if (registryImage == null) {
+            respond(exchange, 404, error("manifest unknown"));
+            return;
+        }
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, 0);
+        try (final OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(("{\"status\":\"Digest: " + registryImage.digest + "\"}\r\n").getBytes(StandardCharsets.UTF_8));
+            responseBody.write(("{\"status\":\"Status: Downloaded newer image for " + name + "\"}\r\n").getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private synchronized boolean tag(final String name, final String repoTag)
+    {
+        requests.add("POST /images/" + name + "/tag " + repoTag);
+        final Image image = findImage(name);
+        if (image == null) {
+            return false;
+        }
+        if (!tagIgnored) {
+            tag(image, repoTag);
+        }
+        return true;
+    }
+
+    private void tag(final Image image, final String repoTag)
+    {
+        // A tag refers to a single image
+        images.values().forEach(other -> other.repoTags.remove(repoTag));
+        image.repoTags.add(repoTag);
+    }
+
+    private synchronized int remove(final String name)
+    {
+        requests.add("DELETE /images/" + name);
+        final Image image = findImage(name);
+        if (image == null) {
+            return 404;
+        }
+        if (removeFails) {
+            return 500;
+        }
+        if (removeIgnored) {
+            return 200;
+        }
+        if (!image.repoTags.remove(name) || image.repoTags.isEmpty()) {
+            images.remove(image.id);
+        }
+        return 200;
+    }
+
+    private synchronized byte[] save(final String name)
+    {
+        requests.add("GET /images/" + name + "/get");
+        final Image image = findImage(name);
+        if (image == null || saveFails) {
+            return null;
+        }
+        return createTarball(image.id, image.repoTags.toArray(new String[0]));
+    }
+
+    private synchronized ObjectNode load(final byte[] tarball) throws IOException
+    {
+        requests.add("POST /images/load");
+        final JsonNode content = MAPPER.readTree(tarball);
+        final Image image = images.computeIfAbsent(content.path("Id").asText(), Image::new);
+        content.path("RepoTags").forEach(repoTag -> tag(image, repoTag.asText()));
+        return MAPPER.createObjectNode().put("stream", "Loaded image ID: " + image.id + "\n");
+    }
+
+    private Image findImage(final String name)
+    {
+        final Image image = images.get(name);
+        if (image != null) {
+            return image;
+        }
+        return images.values().stream().filter(other -> other.repoTags.contains(name)).findFirst().orElse(null);
+    }
+
+    private static ObjectNode error(final String message)
+    {
+        return MAPPER.createObjectNode().put("message", message);
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final JsonNode body) throws IOException
+    {
+        if (body == null) {
+            exchange.sendResponseHeaders(status, -1);
+            return;
+        }
+        final byte[] content = MAPPER.writeValueAsBytes(body);
+        exchange.getResponseHeaders().add("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, content.length);
+        try (final OutputStream responseBody = exchange.getResponseBody()) {
+            responseBody.write(content);
+        }
+    }
+
+    private static Map<String, String> parseQuery(final String rawQuery) throws UnsupportedEncodingException
+    {
+        final Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (final String parameter : rawQuery.split("&")) {
+            final int separator = parameter.indexOf('=');
+            if (separator > 0) {
+                query.put(
+                    URLDecoder.decode(parameter.substring(0, separator), "UTF-8"),
+                    URLDecoder.decode(parameter.substring(separator + 1), "UTF-8"));
+            }
+        }
+        return query;
+    }
+
+    private static final class RegistryImage
+    {
+        private final String repository;
+        private final String digest;
+        private final String imageId;
+
+        RegistryImage(final String repository, final String digest, final String imageId)
+        {
+            this.repository = repository;
+            this.digest = digest;
+            this.imageId = imageId;
+        }
+    }
+
+    private static final class Image
+    {
+        private final String id;
+        private final Set<String> repoTags = new LinkedHashSet<>();
+        private final Set<String> repoDigests = new LinkedHashSet<>();
+
+        Image(final String id)
+        {
+            this.id = id;
+        }
+
+        ObjectNode toJson()
+        {
+            final ObjectNode image = MAPPER.createObjectNode();
+            image.put("Id", id);
+            final ArrayNode tags = image.putArray("RepoTags");
+            repoTags.forEach(tags::add);
+            final ArrayNode digests = image.putArray("RepoDigests");
+            repoDigests.forEach(digests::add);
+            return image;
+        }
+    }
+}
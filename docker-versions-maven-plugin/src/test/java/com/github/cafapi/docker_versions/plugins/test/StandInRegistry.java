@@ -0,0 +1,324 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * Stands in for the parts of the registry API that are used to look up, copy and delete images, keeping the images in memory.
+ * <p>
+ * As in a registry, a tag refers to a manifest of the same repository, and deleting a manifest removes every tag of the repository
+ * that refers to it.
+ */
+public final class StandInRegistry implements AutoCloseable
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandInRegistry.class);
+
+    private static final String MANIFEST_MEDIA_TYPE = "application/vnd.docker.distribution.manifest.v2+json";
+    private static final Pattern PATH_PATTERN = Pattern.compile("/v2/(.+?)/(manifests|blobs/uploads|blobs|tags)/(.*)");
+    private static final Pattern MOUNT_QUERY = Pattern.compile("mount=([^&]+)&from=(.+)");
+
+    private final Map<String, byte[]> blobs = new ConcurrentHashMap<>();
+    private final Set<String> repositoryBlobs = ConcurrentHashMap.newKeySet();
+    private final Map<String, byte[]> manifests = new ConcurrentHashMap<>();
+    private final Map<String, Map<String, String>> tagsByRepository = new ConcurrentHashMap<>();
+    private final Map<String, AtomicInteger> tagListRequests = new ConcurrentHashMap<>();
+    private final AtomicInteger mounts = new AtomicInteger();
+    private final AtomicInteger blobDownloads = new AtomicInteger();
+    private final HttpServer server;
+    private volatile boolean reportMediaType = true;
+
+    public StandInRegistry() throws IOException
+    {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/", exchange -> {
+            try {
+                handle(exchange);
+            } catch (final RuntimeException ex) {
+                LOGGER.error("Stand-in registry error", ex);
+                respond(exchange, 500, null);
+            }
+        });
+        server.start();
+    }
+
+    public String getAddress()
+    {
+        return server.getAddress().getHostString() + ":" + server.getAddress().getPort();
+    }
+
+    /**
+     * Adds a blob to a repository.
+     *
+     * @param repository the repository
+     * @param content the content of the blob
+     * @return the digest of the blob
+     */
+    public String addBlob(final String repository, final byte[] content)
+    {
+        final String digest = getDigest(content);
+        blobs.put(digest, content);
+        repositoryBlobs.add(repository + "@" + digest);
+        return digest;
+    }
+
+    /**
+     * Adds a manifest to a repository, tagged with a tag unless the reference is a digest.
+     *
+     * @param repository the repository
+     * @param reference the tag or digest of the manifest
+     * @param content the content of the manifest
+     * @return the digest of the manifest
+     */
+    public String addManifest(final String repository, final String reference, final byte[] content)
+    {
+        final String digest = getDigest(content);
+        manifests.put(repository + "@" + digest, content);
+        if (!reference.startsWith("sha256:")) {
+            addTag(repository, reference, digest);
+        }
+        return digest;
+    }
+
+    /**
+     * Adds an image with a config and a single layer to a repository.
+     *
+     * @param repository the repository
+     * @param tag the tag of the image
+     * @param layer the content of the layer, which makes the image unique
+     * @return the digest of the manifest
+     */
+    public String addImage(final String repository, final String tag, final String layer)
+    {
+        final byte[] config = "{\"architecture\":\"amd64\"}".getBytes(StandardCharsets.UTF_8);
+        final byte[] layerContent = layer.getBytes(StandardCharsets.UTF_8);
+        final String configDigest = addBlob(repository, config);
+        final String layerDigest = addBlob(repository, layerContent);
+        return addManifest(repository, tag, ("{\"schemaVersion\":2,\"mediaType\":\"" + MANIFEST_MEDIA_TYPE + "\","
+            + "\"config\":{\"digest\":\"" + configDigest + "\",\"size\":" + config.length + "},"
+            + "\"layers\":[{\"digest\":\"" + layerDigest + "\",\"size\":" + layerContent.length + "}]}")
+            .getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Tags a digest in a repository, without adding a manifest, for tests that only look up digests.
+     *
+     * @param repository the repository
+     * @param tag the tag
+     * @param digest the digest the tag refers to
+     */
+    public void addTag(final String repository, final String tag, final String digest)
+    {
+        tagsByRepository.computeIfAbsent(repository, r -> new ConcurrentHashMap<>()).put(tag, digest);
+    }
+
+    /**
+     * Gets the digest a tag refers to.
+     *
+     * @param repository the repository
+     * @param tag the tag
+     * @return the digest, or null if the repository has no such tag
+     */
+    public String getDigest(final String repository, final String tag)
+    {
+        final Map<String, String> tags = tagsByRepository.get(repository);
+        return tags == null ? null : tags.get(tag);
+    }
+
+    public boolean hasManifest(final String repository, final String tag)
+    {
+        final String digest = getDigest(repository, tag);
+        return digest != null && manifests.containsKey(repository + "@" + digest);
+    }
+
+    public int countBlobs()
+    {
+        return blobs.size();
+    }
+
+    public int getMounts()
+    {
+        return mounts.get();
+    }
+
+    public int getBlobDownloads()
+    {
+        return blobDownloads.get();
+    }
+
+    public int getTagListRequests(final String repository)
+    {
+        final AtomicInteger requests = tagListRequests.get(repository);
+        return requests == null ? 0 : requests.get();
+    }
+
+    /**
+     * Sets whether the media type of a manifest is reported in the content type of the response, which some registries omit.
+     *
+     * @param reportMediaType whether to report the media type
+     */
+    public void setReportMediaType(final boolean reportMediaType)
+    {
+        this.reportMediaType = reportMediaType;
+    }
+
+    @Override
+    public void close()
+    {
+        server.stop(0);
+    }
+
+    private void handle(final HttpExchange exchange) throws IOException
+    {
+        final String method = exchange.getRequestMethod();
+        final String path = exchange.getRequestURI().getPath();
+        if (path.equals("/v2/")) {
+            respond(exchange, 200, null);
+            return;
+        }
+
+        final Matcher matcher = PATH_PATTERN.matcher(path);
+        if (!matcher.matches()) {
+            respond(exchange, 404, null);
+            return;
+        }
+        final String repository = matcher.group(1);
+        final String reference = matcher.group(3);
+
+        switch (matcher.group(2) + " " + method) {
+            case "tags GET": {
+                final Map<String, String> tags = tagsByRepository.get(repository);
+                if (tags == null || !reference.equals("list")) {
+                    respond(exchange, 404, null);
+                    return;
+                }
+                tagListRequests.computeIfAbsent(repository, r -> new AtomicInteger()).incrementAndGet();
+                final String tagList = String.join("\",\"", new ArrayList<>(tags.keySet()));
+                respond(exchange, 200, ("{\"name\":\"" + repository + "\",\"tags\":[\"" + tagList + "\"]}")
+                    .getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            case "manifests GET":
+            case "manifests HEAD": {
+                final String digest = reference.startsWith("sha256:") ? reference : getDigest(repository, reference);
+                final byte[] manifest = digest == null ? null : manifests.get(repository + "@" + digest);
+                if (digest == null || (manifest == null && method.equals("GET"))) {
+                    respond(exchange, 404, null);
+                    return;
+                }
+                if (reportMediaType && manifest != null) {
+                    exchange.getResponseHeaders().add("Content-Type", MANIFEST_MEDIA_TYPE);
+                }
+                exchange.getResponseHeaders().add("Docker-Content-Digest", digest);
+                respond(exchange, 200, manifest);
+                return;
+            }
+            case "manifests PUT":
+                addManifest(repository, reference, IOUtils.toByteArray(exchange.getRequestBody()));
+                respond(exchange, 201, null);
+                return;
+            case "manifests DELETE":
+                if (manifests.remove(repository + "@" + reference) == null) {
+                    respond(exchange, 404, null);
+                    return;
+                }
+                tagsByRepository.getOrDefault(repository, new ConcurrentHashMap<>()).values().removeIf(reference::equals);
+                respond(exchange, 202, null);
+                return;
+            case "blobs HEAD":
+                respond(exchange, repositoryBlobs.contains(repository + "@" + reference) ? 200 : 404, null);
+                return;
+            case "blobs GET":
+                blobDownloads.incrementAndGet();
+                respond(exchange, repositoryBlobs.contains(repository + "@" + reference) ? 200 : 404, blobs.get(reference));
+                return;
+            case "blobs/uploads POST": {
+                final String query = exchange.getRequestURI().getQuery();
+                final Matcher mount = query == null ? null : MOUNT_QUERY.matcher(query);
+                if (mount != null && mount.matches() && repositoryBlobs.contains(mount.group(2) + "@" + mount.group(1))) {
+                    mounts.incrementAndGet();
+                    repositoryBlobs.add(repository + "@" + mount.group(1));
+                    respond(exchange, 201, null);
+                    return;
+                }
+                exchange.getResponseHeaders().add("Location", "/v2/" + repository + "/blobs/uploads/upload-id?state=1");
+                respond(exchange, 202, null);
+                return;
+            }
+            case "blobs/uploads PUT": {
+                final String digest = exchange.getRequestURI().getQuery().replaceAll(".*digest=([^&]+).*", "$1");
+                final byte[] content = IOUtils.toByteArray(exchange.getRequestBody());
+                if (!digest.equals(getDigest(content))) {
+                    respond(exchange, 400, null);
+                    return;
+                }
+                addBlob(repository, content);
+                respond(exchange, 201, null);
+                return;
+            }
+            default:
+                respond(exchange, 405, null);
+        }
+    }
+
+    private static void respond(final HttpExchange exchange, final int status, final byte[] body) throws IOException
+    {
+        // Drain the request so that the connection can be reused
+        exchange.getRequestBody().close();
+        if (body == null || exchange.getRequestMethod().equals("HEAD")) {
+            exchange.sendResponseHeaders(status, -1);
+        } else {
+            exchange.sendResponseHeaders(status, body.length);
+            try (final OutputStream responseBody = exchange.getResponseBody()) {
+                responseBody.write(body);
+            }
+        }
+        exchange.close();
+    }
+
+    private static String getDigest(final byte[] content)
+    {
+        try {
+            final StringBuilder digest = new StringBuilder("sha256:");
+            for (final byte b : MessageDigest.getInstance("SHA-256").digest(content)) {
+                digest.append(String.format("%02x", b));
+            }
+            return digest.toString();
+        } catch (final NoSuchAlgorithmException ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+}
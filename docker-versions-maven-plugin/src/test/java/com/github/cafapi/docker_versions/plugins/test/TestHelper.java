@@ -0,0 +1,113 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.lang.reflect.Field;
+
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.plugins.ImageConfiguration;
+
+public final class TestHelper
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(TestHelper.class);
+
+    private TestHelper()
+    {
+    }
+
+    public static ImageConfiguration createImage(
+        final String repository,
+        final String tag,
+        final String digest,
+        final boolean skipPull
+    )
+    {
+        return createImage(repository, null, tag, digest, skipPull);
+    }
+
+    public static ImageConfiguration createImage(
+        final String repository,
+        final String targetRepository,
+        final String tag,
+        final String digest,
+        final boolean skipPull
+    )
+    {
+        final ImageConfiguration image = new ImageConfiguration();
+        image.setRepository(repository);
+        image.setTargetRepository(targetRepository);
+        image.setTag(tag);
+        image.setDigest(digest);
+        image.setSkipPull(skipPull);
+        return image;
+    }
+
+    /**
+     * Creates the plugin configuration of an image, as it is declared in a pom.
+     *
+     * @param repository the repository of the image
+     * @param tag the tag of the image
+     * @param digest the digest of the image, or null if it is not pinned
+     * @param skipPull whether the image is not pulled
+     * @return the {@code image} element
+     */
+    public static Xpp3Dom createImageConfig(final String repository, final String tag, final String digest, final boolean skipPull)
+    {
+        final Xpp3Dom image = new Xpp3Dom("image");
+        image.addChild(createConfigParam("repository", repository));
+        image.addChild(createConfigParam("tag", tag));
+        if (digest != null) {
+            image.addChild(createConfigParam("digest", digest));
+        }
+        if (skipPull) {
+            image.addChild(createConfigParam("skipPull", "true"));
+        }
+        return image;
+    }
+
+    public static Xpp3Dom createConfigParam(final String name, final String value)
+    {
+        final Xpp3Dom configParam = new Xpp3Dom(name);
+        configParam.setValue(value);
+        return configParam;
+    }
+
+    /**
+     * Sets a field of a mojo, as the parameters of a mojo are injected by Maven.
+     *
+     * @param mojo the mojo
+     * @param name the name of the field, which may be declared by a superclass
+     * @param value the value
+     * @throws ReflectiveOperationException if the field is not declared or cannot be set
+     */
+    public static void setField(final Object mojo, final String name, final Object value) throws ReflectiveOperationException
+    {
+        for (Class<?> type = mojo.getClass(); type != null; type = type.getSuperclass()) {
+            try {
+                final Field field = type.getDeclaredField(name);
+                field.setAccessible(true);
+                field.set(mojo, value);
+                return;
+            } catch (final NoSuchFieldException ex) {
+                LOGGER.trace("{} not declared by {}", name, type);
+            }
+        }
+        throw new NoSuchFieldException(name);
+    }
+}
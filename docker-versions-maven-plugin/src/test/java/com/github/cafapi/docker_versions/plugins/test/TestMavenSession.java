@@ -0,0 +1,48 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.util.List;
+
+import org.apache.maven.execution.DefaultMavenExecutionResult;
+import org.apache.maven.execution.MavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.project.MavenProject;
+import org.eclipse.aether.DefaultRepositorySystemSession;
+
+public final class TestMavenSession
+{
+    private TestMavenSession()
+    {
+    }
+
+    /**
+     * Creates a session for the projects of a build, with its own session data.
+     *
+     * @param request the request that started the build
+     * @param projects the projects of the build, the first of which is the top level project
+     * @return the session
+     */
+    @SuppressWarnings("deprecation")
+    public static MavenSession create(final MavenExecutionRequest request, final List<MavenProject> projects)
+    {
+        // Sessions are meant to be created by Maven, so every constructor is deprecated
+        final MavenSession session = new MavenSession(
+            null, new DefaultRepositorySystemSession(), request, new DefaultMavenExecutionResult());
+        session.setProjects(projects);
+        return session;
+    }
+}
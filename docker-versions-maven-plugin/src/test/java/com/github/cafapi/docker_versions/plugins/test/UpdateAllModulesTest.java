@@ -0,0 +1,245 @@
+/*
+ * Copyright 2024-2026 Open Text.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.cafapi.docker_versions.plugins.test;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.maven.execution.DefaultMavenExecutionRequest;
+import org.apache.maven.execution.MavenSession;
+import org.apache.maven.model.Build;
+import org.apache.maven.model.Model;
+import org.apache.maven.model.Plugin;
+import org.apache.maven.model.io.xpp3.MavenXpp3Reader;
+import org.apache.maven.project.MavenProject;
+import org.apache.maven.settings.Settings;
+import org.codehaus.plexus.util.xml.Xpp3Dom;
+import org.codehaus.plexus.util.xml.Xpp3DomWriter;
+import org.codehaus.plexus.util.xml.pull.XmlPullParserException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInfo;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.cafapi.docker_versions.plugins.HttpConfiguration;
+import com.github.cafapi.docker_versions.plugins.UseLatestReleasesMojo;
+
+final class UpdateAllModulesTest
+{
+    private static final Logger LOGGER = LoggerFactory.getLogger(UpdateAllModulesTest.class);
+
+    private static final String OLD_DIGEST = "sha256:0000";
+    private static final String NEW_DIGEST = "sha256:1111";
+
+    private StandInRegistry registry;
+    private List<MavenProject> modules;
+
+    @TempDir
+    private Path rootDir;
+
+    @BeforeEach
+    void init(final TestInfo testInfo) throws IOException, XmlPullParserException
+    {
+        LOGGER.info("Running test: {}...", testInfo.getDisplayName());
+
+        registry = new StandInRegistry();
+        registry.addTag("cafapi/jre", "1.0", OLD_DIGEST);
+        registry.addTag("cafapi/jre", "1.1", NEW_DIGEST);
+        registry.addTag("cafapi/jre", "latest", NEW_DIGEST);
+        registry.addTag("library/db", "16.0", OLD_DIGEST);
+        registry.addTag("library/db", "16.1", NEW_DIGEST);
+        registry.addTag("library/db", "latest", NEW_DIGEST);
+        final String jre = toXml(TestHelper.createImageConfig(registry.getAddress() + "/cafapi/jre", "1.0", OLD_DIGEST, false));
+        final String database
+            = toXml(TestHelper.createImageConfig(registry.getAddress() + "/library/db", "16.0", OLD_DIGEST, false));
+
+        modules = new ArrayList<>();
+        modules.add(createModule("root", "<modules><module>service</module></modules>", null));
+        modules.add(createModule("service", "<build><plugins>" + createPlugin(jre, database) + "</plugins></build>", null));
+        modules.add(createModule(
+            "base", "<build><pluginManagement><plugins>" + createPlugin(jre) + "</plugins></pluginManagement></build>", null));
+
+        // The profile of the tests is active, so its plugin is part of the effective model
+        final String testsPlugin = createPlugin(jre);
+        modules.add(createModule(
+            "tests", "<profiles><profile><id>it</id><build><plugins>" + testsPlugin + "</plugins></build></profile></profiles>",
+            testsPlugin));
+        modules.add(createModule(
+            "optional", "<profiles><profile><id>other</id><build><plugins>" + createPlugin(jre)
+            + "</plugins></build></profile></profiles>", null));
+
+        // The image configuration is inherited from a parent that is not part of the reactor
+        modules.add(createModule("inherits", "", createPlugin(jre)));
+        modules.add(createModule("docs", "", null));
+        modules.get(0).setExecutionRoot(true);
+    }
+
+    @AfterEach
+    void cleanUp()
+    {
+        registry.close();
+    }
+
+    @Test
+    public void testModulesDeclaringImagesAreUpdated() throws Exception
+    {
+        final List<String> originalPoms = readPoms();
+
+        createMojo(modules.get(0)).execute();
+
+        final List<String> updatedPoms = readPoms();
+        Assertions.assertEquals(originalPoms.get(0), updatedPoms.get(0), "Root without images unchanged");
+        assertUpdated(updatedPoms.get(1), "Images in the build plugins");
+        Assertions.assertTrue(updatedPoms.get(1).contains("<tag>16.1</tag>"), "Database updated in " + updatedPoms.get(1));
+        assertUpdated(updatedPoms.get(2), "Images in the plugin management");
+        assertUpdated(updatedPoms.get(3), "Images in an active profile");
+        Assertions.assertEquals(originalPoms.get(4), updatedPoms.get(4), "Images in an inactive profile unchanged");
+        Assertions.assertEquals(originalPoms.get(5), updatedPoms.get(5), "Inherited images unchanged");
+        Assertions.assertEquals(originalPoms.get(6), updatedPoms.get(6), "Module without images unchanged");
+    }
+
+    @Test
+    public void testImagesLookedUpOnce() throws Exception
+    {
+        final Path lockFile = rootDir.resolve("docker-versions.lock");
+        final UseLatestReleasesMojo mojo = createMojo(modules.get(0));
+        TestHelper.setField(mojo, "lockFile", lockFile.toFile());
+        mojo.execute();
+
+        Assertions.assertEquals(1, registry.getTagListRequests("cafapi/jre"), "Jre of three modules looked up once");
+        Assertions.assertEquals(1, registry.getTagListRequests("library/db"), "Database looked up once");
+
+        final String lock = new String(Files.readAllBytes(lockFile), StandardCharsets.UTF_8);
+        Assertions.assertEquals(2, countOccurrences(lock, "\"repository\""), "Each image locked once in " + lock);
+        Assertions.assertTrue(lock.contains("\"tag\" : \"1.1\""), "Jre locked to latest release in " + lock);
+    }
+
+    @Test
+    public void testOnlyUpdatedFromExecutionRoot() throws Exception
+    {
+        final List<String> originalPoms = readPoms();
+
+        createMojo(modules.get(1)).execute();
+
+        Assertions.assertEquals(originalPoms, readPoms(), "Poms unchanged");
+        Assertions.assertEquals(0, registry.getTagListRequests("cafapi/jre"), "Images not looked up");
+    }
+
+    private void assertUpdated(final String pom, final String description)
+    {
+        Assertions.assertTrue(pom.contains("<tag>1.1</tag>"), description + " updated to the latest tag in " + pom);
+        Assertions.assertTrue(pom.contains("<digest>" + NEW_DIGEST + "</digest>"), description + " updated to its digest in " + pom);
+    }
+
+    private UseLatestReleasesMojo createMojo(final MavenProject project) throws ReflectiveOperationException
+    {
+        final MavenSession session = TestMavenSession.create(new DefaultMavenExecutionRequest(), modules);
+
+        final UseLatestReleasesMojo mojo = new UseLatestReleasesMojo();
+        TestHelper.setField(mojo, "session", session);
+        TestHelper.setField(mojo, "project", project);
+        TestHelper.setField(mojo, "settings", new Settings());
+        TestHelper.setField(mojo, "httpConfiguration", new HttpConfiguration());
+        TestHelper.setField(mojo, "digestResolver", "registry");
+        TestHelper.setField(mojo, "regexEngine", "java");
+        TestHelper.setField(mojo, "updateAllModules", true);
+        return mojo;
+    }
+
+    private MavenProject createModule(final String artifactId, final String content, final String effectivePlugin)
+        throws IOException, XmlPullParserException
+    {
+        final Path pomFile = rootDir.resolve(artifactId).resolve("pom.xml");
+        Files.createDirectories(pomFile.getParent());
+        Files.write(pomFile, ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n"
+            + "<project>\n"
+            + "    <modelVersion>4.0.0</modelVersion>\n"
+            + "    <groupId>com.acme</groupId>\n"
+            + "    <artifactId>" + artifactId + "</artifactId>\n"
+            + "    <version>1.0.0</version>\n"
+            + "    " + content + "\n"
+            + "</project>\n").getBytes(StandardCharsets.UTF_8));
+
+        // The effective model is built by Maven, so here it is the pom itself with any inherited or profile plugin added
+        final Model effectiveModel = readModel(pomFile);
+        if (effectivePlugin != null) {
+            final Model pluginModel = new MavenXpp3Reader().read(new StringReader(
+                "<project><build><plugins>" + effectivePlugin + "</plugins></build></project>"));
+            final Build build = effectiveModel.getBuild() == null ? new Build() : effectiveModel.getBuild();
+            for (final Plugin plugin : pluginModel.getBuild().getPlugins()) {
+                build.addPlugin(plugin);
+            }
+            effectiveModel.setBuild(build);
+        }
+
+        final MavenProject module = new MavenProject(effectiveModel);
+        module.setOriginalModel(readModel(pomFile));
+        module.setFile(pomFile.toFile());
+        return module;
+    }
+
+    private static Model readModel(final Path pomFile) throws IOException, XmlPullParserException
+    {
+        try (final Reader reader = Files.newBufferedReader(pomFile, StandardCharsets.UTF_8)) {
+            return new MavenXpp3Reader().read(reader);
+        }
+    }
+
+    private List<String> readPoms() throws IOException
+    {
+        final List<String> poms = new ArrayList<>();
+        for (final MavenProject module : modules) {
+            poms.add(new String(Files.readAllBytes(module.getFile().toPath()), StandardCharsets.UTF_8));
+        }
+        return poms;
+    }
+
+    private static String createPlugin(final String... images)
+    {
+        return "<plugin>"
+            + "<groupId>com.github.cafapi.plugins.docker.versions</groupId>"
+            + "<artifactId>docker-versions-maven-plugin</artifactId>"
+            + "<configuration><imageManagement>" + String.join("", images) + "</imageManagement></configuration>"
+            + "</plugin>";
+    }
+
+    private static String toXml(final Xpp3Dom config)
+    {
+        final StringWriter xml = new StringWriter();
+        Xpp3DomWriter.write(xml, config);
+        return xml.toString();
+    }
+
+    private static int countOccurrences(final String text, final String value)
+    {
+        int count = 0;
+        for (int i = text.indexOf(value); i != -1; i = text.indexOf(value, i + 1)) {
+            count++;
+        }
+        return count;
+    }
+}